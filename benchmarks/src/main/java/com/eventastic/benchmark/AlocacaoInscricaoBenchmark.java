@@ -0,0 +1,88 @@
+package com.eventastic.benchmark;
+
+import com.eventastic.api.EventasticAPI;
+import com.eventastic.enums.TipoFase;
+import com.eventastic.enums.TipoInscricao;
+import com.eventastic.model.Event;
+import com.eventastic.model.FaseInscricao;
+import com.eventastic.model.Inscricao;
+import com.eventastic.model.OpcaoAdicional;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Mede o lixo gerado por inscrever em eventos com 1 a 3 fases e 1 a 100 opções adicionais.
+ * Executar com o profiler de GC ("-prof gc"): a métrica gc.alloc.rate.norm (bytes por inscrição)
+ * deve ser igual para todas as combinações de parâmetros, porque os getters do modelo
+ * devolvem as listas imutáveis sem as copiar.
+ * A fase ativa é a primeira, para que a procura do preço percorra todas as fases.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, batchSize = 10_000)
+@Measurement(iterations = 5, batchSize = 10_000)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class AlocacaoInscricaoBenchmark {
+
+    @Param({"1", "3"})
+    public int numFases;
+
+    @Param({"1", "10", "100"})
+    public int numOpcoes;
+
+    private EventasticAPI api;
+    private Event evento;
+    private List<OpcaoAdicional> escolhidas;
+    private long sequencia;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        LocalDate hoje = LocalDate.now();
+        TipoFase[] tipos = {TipoFase.EARLY, TipoFase.LATE, TipoFase.DURING};
+        List<FaseInscricao> fases = new ArrayList<>();
+        for (int i = 0; i < numFases; i++) {
+            LocalDate inicio = (i == 0) ? hoje.minusDays(10) : hoje.plusDays(i * 20L - 9);
+            fases.add(DadosBenchmark.fase(tipos[i], inicio, hoje.plusDays(i * 20L + 10), 15f, 30f));
+        }
+
+        // Uma opção obrigatória (a última) e as restantes opcionais
+        List<OpcaoAdicional> opcoes = new ArrayList<>();
+        for (int i = 0; i < numOpcoes - 1; i++) {
+            opcoes.add(new OpcaoAdicional("Opção " + i, "Opção de benchmark", 1f + i, false));
+        }
+        opcoes.add(DadosBenchmark.ALMOCO);
+
+        api = new EventasticAPI();
+        evento = api.criarEvento("Evento Alocação", "Evento de benchmark", "Évora",
+                hoje.plusDays(80), hoje.plusDays(81), LocalTime.of(9, 0), LocalTime.of(18, 0),
+                Integer.MAX_VALUE, fases, opcoes);
+        escolhidas = List.of(DadosBenchmark.ALMOCO);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Inscricao inscrever() {
+        long n = sequencia++;
+        return api.inscrever(evento, "Novo " + n, "novo" + n + "@exemplo.com", null,
+                TipoInscricao.NAO_ESTUDANTE, null, escolhidas);
+    }
+}
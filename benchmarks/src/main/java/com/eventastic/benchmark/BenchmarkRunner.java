@@ -0,0 +1,23 @@
+package com.eventastic.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Ponto de entrada do jar de benchmarks.
+ * Aceita os mesmos argumentos do JMH; por omissão exporta os resultados em JSON
+ * para jmh-result.json (para comparar entre versões).
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        List<String> argumentos = new ArrayList<>(List.of(args));
+        if (!argumentos.contains("-rf")) {
+            argumentos.addAll(List.of("-rf", "json"));
+        }
+        if (!argumentos.contains("-rff")) {
+            argumentos.addAll(List.of("-rff", "jmh-result.json"));
+        }
+        org.openjdk.jmh.Main.main(argumentos.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,71 @@
+package com.eventastic.benchmark;
+
+import com.eventastic.api.EventasticAPI;
+import com.eventastic.enums.TipoFase;
+import com.eventastic.enums.TipoInscricao;
+import com.eventastic.model.ConfiguracaoPreco;
+import com.eventastic.model.Event;
+import com.eventastic.model.FaseInscricao;
+import com.eventastic.model.OpcaoAdicional;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// Métodos auxiliares para preparar dados dos benchmarks (datas relativas a hoje)
+final class DadosBenchmark {
+
+    static final OpcaoAdicional ALMOCO = new OpcaoAdicional("Almoço", "Almoço incluído", 10f, true);
+    static final OpcaoAdicional BADGE = new OpcaoAdicional("Badge NFC", "Badge com chip", 5f, false);
+
+    private static final PrintStream SAIDA_ORIGINAL = System.out;
+
+    private DadosBenchmark() {
+    }
+
+    // Cria um evento futuro com inscrições abertas hoje
+    static Event criarEvento(EventasticAPI api, String nome, int maxParticipantes) {
+        LocalDate hoje = LocalDate.now();
+        return api.criarEvento(
+                nome,
+                "Evento de benchmark",
+                "Évora",
+                hoje.plusDays(60), hoje.plusDays(61),
+                LocalTime.of(9, 0), LocalTime.of(18, 0),
+                maxParticipantes,
+                List.of(
+                        fase(TipoFase.EARLY, hoje.minusDays(10), hoje.plusDays(10), 15f, 30f),
+                        fase(TipoFase.LATE, hoje.plusDays(11), hoje.plusDays(50), 25f, 50f)
+                ),
+                List.of(ALMOCO, BADGE)
+        );
+    }
+
+    // Inscreve n participantes num evento (e-mails únicos com o prefixo dado)
+    static void inscrever(EventasticAPI api, Event evento, String prefixo, int n) {
+        for (int i = 0; i < n; i++) {
+            api.inscrever(evento, "Participante " + i, prefixo + i + "@exemplo.com", 100000000 + i,
+                    TipoInscricao.NAO_ESTUDANTE, null, List.of(ALMOCO));
+        }
+    }
+
+    static FaseInscricao fase(TipoFase tipo, LocalDate inicio, LocalDate fim, float precoEstudante, float precoNaoEstudante) {
+        Map<TipoInscricao, ConfiguracaoPreco> precos = new EnumMap<>(TipoInscricao.class);
+        precos.put(TipoInscricao.ESTUDANTE, new ConfiguracaoPreco(TipoInscricao.ESTUDANTE, precoEstudante));
+        precos.put(TipoInscricao.NAO_ESTUDANTE, new ConfiguracaoPreco(TipoInscricao.NAO_ESTUDANTE, precoNaoEstudante));
+        return new FaseInscricao(tipo, inicio, fim, precos);
+    }
+
+    // Descarta as mensagens que os serviços escrevem na consola (para não medir I/O do terminal)
+    static void silenciarConsola() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    static void restaurarConsola() {
+        System.setOut(SAIDA_ORIGINAL);
+    }
+}
@@ -0,0 +1,80 @@
+package com.eventastic.benchmark;
+
+import com.eventastic.api.EventasticAPI;
+import com.eventastic.model.Event;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Mede a listagem de eventos (consultarEventosDisponiveis e obterListaEventos) com N eventos em memória
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class EventoBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int numEventos;
+
+    // Inscrições por evento (metade dos eventos fica com lotação completa)
+    private static final int INSCRICOES_POR_EVENTO = 4;
+
+    private EventasticAPI api;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        DadosBenchmark.silenciarConsola();
+        api = new EventasticAPI();
+        for (int i = 0; i < numEventos; i++) {
+            int lotacao = (i % 2 == 0) ? INSCRICOES_POR_EVENTO : INSCRICOES_POR_EVENTO * 2;
+            Event evento = DadosBenchmark.criarEvento(api, "Evento " + i, lotacao);
+            DadosBenchmark.inscrever(api, evento, "e" + i + "_", INSCRICOES_POR_EVENTO);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void terminar() {
+        DadosBenchmark.restaurarConsola();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public List<Event> consultarEventosDisponiveis() {
+        return api.consultarEventosDisponiveis();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public List<Event> consultarEventosDisponiveisConcorrente() {
+        return api.consultarEventosDisponiveis();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public List<Event> obterListaEventos() {
+        return api.obterListaEventos();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public List<Event> obterListaEventosConcorrente() {
+        return api.obterListaEventos();
+    }
+}
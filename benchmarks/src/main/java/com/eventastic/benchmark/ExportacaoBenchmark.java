@@ -0,0 +1,75 @@
+package com.eventastic.benchmark;
+
+import com.eventastic.api.EventasticAPI;
+import com.eventastic.model.Event;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// Mede InscricaoService.exportarParticipantesParaCSV para um evento com N participantes
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ExportacaoBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    public int numParticipantes;
+
+    private EventasticAPI api;
+    private Event evento;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        api = new EventasticAPI();
+        evento = DadosBenchmark.criarEvento(api, "Evento Exportação", Integer.MAX_VALUE);
+        DadosBenchmark.inscrever(api, evento, "p", numParticipantes);
+    }
+
+    // Cada thread escreve para o seu próprio ficheiro temporário
+    @State(Scope.Thread)
+    public static class Ficheiro {
+        Path caminho;
+
+        @Setup(Level.Trial)
+        public void criar() throws IOException {
+            caminho = Files.createTempFile("eventastic-bench", ".csv");
+        }
+
+        @TearDown(Level.Trial)
+        public void apagar() throws IOException {
+            Files.deleteIfExists(caminho);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void exportar(Ficheiro ficheiro) throws IOException {
+        api.exportarParticipantesParaCSV(evento.getIdEvento(), ficheiro.caminho.toString());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void exportarConcorrente(Ficheiro ficheiro) throws IOException {
+        api.exportarParticipantesParaCSV(evento.getIdEvento(), ficheiro.caminho.toString());
+    }
+}
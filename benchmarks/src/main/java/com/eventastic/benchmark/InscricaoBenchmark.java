@@ -0,0 +1,71 @@
+package com.eventastic.benchmark;
+
+import com.eventastic.api.EventasticAPI;
+import com.eventastic.enums.TipoInscricao;
+import com.eventastic.model.Event;
+import com.eventastic.model.Inscricao;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Mede InscricaoService.inscrever num evento que já tem N inscrições.
+ * Cada iteração faz um lote fixo de inscrições (SingleShotTime + batchSize), para que o
+ * evento não cresça sem limite durante a medição.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, batchSize = 10_000)
+@Measurement(iterations = 5, batchSize = 10_000)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class InscricaoBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    public int inscricoesExistentes;
+
+    private EventasticAPI api;
+    private Event evento;
+    private final AtomicLong sequencia = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        api = new EventasticAPI();
+        evento = DadosBenchmark.criarEvento(api, "Evento Inscrições", Integer.MAX_VALUE);
+        DadosBenchmark.inscrever(api, evento, "existente", inscricoesExistentes);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Inscricao inscrever() {
+        return inscreverNovo();
+    }
+
+    // Modo contendido: várias threads a inscrever no mesmo evento
+    @Benchmark
+    @Threads(8)
+    public Inscricao inscreverConcorrente() {
+        return inscreverNovo();
+    }
+
+    private Inscricao inscreverNovo() {
+        long n = sequencia.getAndIncrement();
+        return api.inscrever(evento, "Novo " + n, "novo" + n + "@exemplo.com", null,
+                TipoInscricao.NAO_ESTUDANTE, null, List.of(DadosBenchmark.ALMOCO));
+    }
+}
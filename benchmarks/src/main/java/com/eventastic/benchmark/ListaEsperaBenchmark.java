@@ -0,0 +1,74 @@
+package com.eventastic.benchmark;
+
+import com.eventastic.api.EventasticAPI;
+import com.eventastic.enums.TipoInscricao;
+import com.eventastic.model.Event;
+import com.eventastic.model.Inscricao;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Mede cancelarInscricao num evento de um lugar com N pessoas na lista de espera: cada cancelamento
+ * promove o primeiro da lista, e quem cancelou volta a entrar no fim (a lista mantém o tamanho).
+ * O custo não deve depender do tamanho da lista. Cada iteração faz um lote fixo (SingleShotTime +
+ * batchSize), porque as inscrições canceladas ficam guardadas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, batchSize = 10_000)
+@Measurement(iterations = 5, batchSize = 10_000)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ListaEsperaBenchmark {
+
+    @Param({"1000", "100000"})
+    public int pessoasEmEspera;
+
+    private EventasticAPI api;
+    private Event evento;
+    private Inscricao inscrito;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        api = new EventasticAPI();
+        api.configurarDestinoPromocoes(inscricao -> { });
+        evento = DadosBenchmark.criarEvento(api, "Evento Lista de Espera", 1);
+        inscrito = api.inscrever(evento, "Inscrito", "espera0@exemplo.com", null,
+                TipoInscricao.NAO_ESTUDANTE, null, List.of(DadosBenchmark.ALMOCO));
+        for (int i = 1; i <= pessoasEmEspera; i++) {
+            api.entrarListaEspera(evento, "Espera " + i, "espera" + i + "@exemplo.com", null,
+                    TipoInscricao.NAO_ESTUDANTE, null, List.of(DadosBenchmark.ALMOCO));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void terminar() throws Exception {
+        api.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Inscricao cancelarEPromover() {
+        Inscricao cancelada = inscrito;
+        inscrito = api.cancelarInscricao(cancelada.getId(), cancelada.getEmail());
+        api.entrarListaEspera(evento, cancelada.getNome(), cancelada.getEmail(), null,
+                TipoInscricao.NAO_ESTUDANTE, null, List.of(DadosBenchmark.ALMOCO));
+        return inscrito;
+    }
+}
@@ -0,0 +1,105 @@
+package com.eventastic.benchmark;
+
+import com.eventastic.api.EventasticAPI;
+import com.eventastic.enums.ModoArmazenamento;
+import com.eventastic.enums.ModoLote;
+import com.eventastic.enums.TipoInscricao;
+import com.eventastic.model.Event;
+import com.eventastic.model.PedidoInscricao;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Mede a memória ocupada por inscrição em cada modo de armazenamento (ModoArmazenamento).
+ * Cada iteração cria uma API vazia, inscreve 'inscricoes' participantes num evento e mede o heap
+ * ocupado depois de um GC completo: o contador bytesPorInscricao (nos resultados, ao lado do tempo)
+ * é a diferença para o heap antes das inscrições, dividida pelo número de inscrições.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 1) // O JMH soma os contadores EVENTS de todas as iterações medidas
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MemoriaInscricoesBenchmark {
+
+    private static final int TAMANHO_LOTE = 5_000;
+
+    @Param({"OBJETOS", "COLUNAR"})
+    public ModoArmazenamento modo;
+
+    @Param({"1000000"})
+    public int inscricoes;
+
+    private EventasticAPI api;
+    private Event evento;
+    private long heapInicial;
+
+    // Contador reportado pelo JMH junto com o tempo da iteração
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Memoria {
+        public long bytesPorInscricao;
+    }
+
+    @Setup(Level.Iteration)
+    public void preparar() {
+        DadosBenchmark.silenciarConsola();
+        api = null;
+        heapInicial = heapOcupado();
+        api = new EventasticAPI(modo);
+        evento = DadosBenchmark.criarEvento(api, "Evento Memória", Integer.MAX_VALUE);
+    }
+
+    @TearDown(Level.Iteration)
+    public void terminar() throws Exception {
+        api.close();
+        api = null;
+        DadosBenchmark.restaurarConsola();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void inscreverTodos(Memoria memoria) {
+        List<PedidoInscricao> lote = new ArrayList<>(TAMANHO_LOTE);
+        for (int inicio = 0; inicio < inscricoes; inicio += TAMANHO_LOTE) {
+            lote.clear();
+            for (int i = inicio; i < Math.min(inicio + TAMANHO_LOTE, inscricoes); i++) {
+                lote.add(new PedidoInscricao("Participante " + i, "participante" + i + "@exemplo.com",
+                        100000000 + i, TipoInscricao.NAO_ESTUDANTE, null, List.of(DadosBenchmark.ALMOCO)));
+            }
+            api.inscreverEmLote(evento, lote, ModoLote.ATOMICO);
+        }
+        lote.clear();
+        memoria.bytesPorInscricao = (heapOcupado() - heapInicial) / inscricoes;
+    }
+
+    // Heap ocupado depois de GC (várias vezes, para estabilizar)
+    private static long heapOcupado() {
+        MemoryMXBean memoria = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memoria.getHeapMemoryUsage().getUsed();
+    }
+}
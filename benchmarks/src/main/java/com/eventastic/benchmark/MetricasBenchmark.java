@@ -0,0 +1,171 @@
+package com.eventastic.benchmark;
+
+import com.eventastic.api.EventasticAPI;
+import com.eventastic.enums.TipoFase;
+import com.eventastic.enums.TipoInscricao;
+import com.eventastic.metricas.Medidas;
+import com.eventastic.metricas.Metricas;
+import com.eventastic.metricas.Operacao;
+import com.eventastic.model.Event;
+import com.eventastic.service.EventService;
+import com.eventastic.service.InscricaoService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Mede o custo que as métricas acrescentam a cada operação dos serviços: a mesma chamada trivial
+ * sem medição (referência), medida com Medidas.medir e uma lambda que captura argumentos, como nos
+ * serviços, e com iniciar()/terminar() explícitos; com uma e com oito threads (que registam no mesmo
+ * histograma). 'relogio' mede só as duas leituras de System.nanoTime(), o limite inferior de
+ * qualquer medição; 'servico' e 'viaApi' chamam uma operação real medida (contarListaEspera)
+ * diretamente e através da API. Com -prof gc, todas devem alocar 0 B por chamada.
+ *
+ * Antes de medir, várias lambdas diferentes passam por Medidas.medir (e várias operações pela
+ * API e pelo serviço), como numa aplicação real: a chamada da lambda dentro de
+ * Operacao.medirComExcecao deixa de ter um só tipo e o resultado não depende desse acaso.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricasBenchmark {
+
+    private static final int CHAMADAS_PREPARACAO = 50_000;
+
+    private enum OperacaoBenchmark { CHAMADA, OUTRA, MAIS_OUTRA }
+
+    private final Metricas metricas = new Metricas();
+    private final Operacao operacao = metricas.operacao("benchmark", "explicita");
+    private final Medidas<OperacaoBenchmark> medidas =
+            new Medidas<>(metricas, "benchmark", OperacaoBenchmark.class, Enum::name);
+    private int valor = 42;
+
+    private EventasticAPI api;
+    private int idEventoApi;
+    private InscricaoService inscricaoService;
+    private int idEventoServico;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        api = new EventasticAPI();
+        Event eventoApi = DadosBenchmark.criarEvento(api, "Evento Métricas", 100);
+        api.inscrever(eventoApi, "Participante", "participante@exemplo.com", null,
+                TipoInscricao.NAO_ESTUDANTE, null, List.of(DadosBenchmark.ALMOCO));
+        idEventoApi = eventoApi.getIdEvento();
+
+        EventService eventService = new EventService();
+        inscricaoService = new InscricaoService();
+        LocalDate hoje = LocalDate.now();
+        Event eventoServico = eventService.criarEvento("Evento Métricas", "Evento de benchmark", "Évora",
+                hoje.plusDays(60), hoje.plusDays(61), LocalTime.of(9, 0), LocalTime.of(18, 0), 100,
+                List.of(DadosBenchmark.fase(TipoFase.EARLY, hoje.minusDays(10), hoje.plusDays(10), 15f, 30f)),
+                List.of());
+        inscricaoService.inscrever(eventoServico, "Participante", "participante@exemplo.com", null,
+                TipoInscricao.NAO_ESTUDANTE, null, List.of());
+        idEventoServico = eventoServico.getIdEvento();
+
+        // Tipos de lambda variados em medirComExcecao (ver comentário da classe)
+        long soma = 0;
+        for (int i = 0; i < CHAMADAS_PREPARACAO; i++) {
+            int n = i;
+            soma += medidas.medir(OperacaoBenchmark.OUTRA, () -> n + valor);
+            soma += medidas.medir(OperacaoBenchmark.MAIS_OUTRA, () -> String.valueOf(n)).length();
+            soma += api.obterAgregadosEvento(idEventoApi).getNumInscricoes();
+            soma += api.consultarVagasDisponiveis(idEventoApi);
+            soma += api.obterListaParticipantes(idEventoApi).size();
+            soma += inscricaoService.obterAgregados(idEventoServico).getNumInscricoes();
+            soma += inscricaoService.obterListaParticipantes(idEventoServico).size();
+            soma += eventService.detalhesEvento(idEventoServico).getMaxParticipantes();
+        }
+        if (soma == 0) {
+            throw new IllegalStateException("Preparação sem resultados");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void terminar() throws Exception {
+        api.close();
+        inscricaoService.encerrarReservas();
+        inscricaoService.encerrarAvisosPromocao();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int referencia() {
+        return chamada(valor);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long relogio() {
+        long inicio = System.nanoTime();
+        return System.nanoTime() - inicio;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int medida() {
+        return medirChamada();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int medidaExplicita() {
+        long inicio = operacao.iniciar();
+        try {
+            return chamada(valor);
+        } catch (Throwable e) {
+            operacao.falhou(e);
+            throw e;
+        } finally {
+            operacao.terminar(inicio);
+        }
+    }
+
+    @Benchmark
+    @Threads(8)
+    public int medidaConcorrente() {
+        return medirChamada();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int servico() {
+        return inscricaoService.contarListaEspera(idEventoServico);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int viaApi() {
+        return api.contarListaEspera(idEventoApi);
+    }
+
+    // Mesmo padrão dos serviços (lambda que captura argumentos)
+    private int medirChamada() {
+        int argumento = valor;
+        return medidas.medir(OperacaoBenchmark.CHAMADA, () -> chamada(argumento));
+    }
+
+    private int chamada(int argumento) {
+        return argumento;
+    }
+}
@@ -0,0 +1,74 @@
+package com.eventastic.benchmark;
+
+import com.eventastic.api.EventasticAPI;
+import com.eventastic.model.Event;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Mede PagamentoService.registarPagamento com N inscrições em memória
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PagamentoBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    public int numInscricoes;
+
+    // Número de eventos pelos quais as inscrições são distribuídas
+    private static final int NUM_EVENTOS = 10;
+
+    private EventasticAPI api;
+    private final LocalDateTime dataTransferencia = LocalDateTime.now();
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        DadosBenchmark.silenciarConsola();
+        api = new EventasticAPI();
+        for (int e = 0; e < NUM_EVENTOS; e++) {
+            Event evento = DadosBenchmark.criarEvento(api, "Evento " + e, Integer.MAX_VALUE);
+            DadosBenchmark.inscrever(api, evento, "e" + e + "_", numInscricoes / NUM_EVENTOS);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void terminar() {
+        DadosBenchmark.restaurarConsola();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void registarPagamento() {
+        registarAleatorio();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void registarPagamentoConcorrente() {
+        registarAleatorio();
+    }
+
+    private void registarAleatorio() {
+        int idInscricao = 1 + ThreadLocalRandom.current().nextInt(numInscricoes);
+        api.registarPagamento(idInscricao, 40f, dataTransferencia, "Transferência recebida");
+    }
+}
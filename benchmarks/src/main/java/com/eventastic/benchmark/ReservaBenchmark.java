@@ -0,0 +1,70 @@
+package com.eventastic.benchmark;
+
+import com.eventastic.api.EventasticAPI;
+import com.eventastic.model.Event;
+import com.eventastic.model.ReservaLugar;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Mede o débito das reservas de lugares: reservar um lugar e libertá-lo logo a seguir (o lugar
+ * volta ao evento e a entrada é retirada da roda de temporização), com uma e com oito threads
+ * no mesmo evento.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ReservaBenchmark {
+
+    private static final Duration DURACAO = Duration.ofMinutes(10);
+
+    private EventasticAPI api;
+    private Event evento;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        api = new EventasticAPI();
+        evento = DadosBenchmark.criarEvento(api, "Evento Reservas", Integer.MAX_VALUE);
+    }
+
+    @TearDown(Level.Trial)
+    public void terminar() throws Exception {
+        api.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean reservarELibertar() {
+        return reservarNovo();
+    }
+
+    // Modo contendido: várias threads a reservar no mesmo evento
+    @Benchmark
+    @Threads(8)
+    public boolean reservarELibertarConcorrente() {
+        return reservarNovo();
+    }
+
+    private boolean reservarNovo() {
+        ReservaLugar reserva = api.reservarLugar(evento, DURACAO);
+        return api.libertarReserva(reserva.getIdReserva());
+    }
+}
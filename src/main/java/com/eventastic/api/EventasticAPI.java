@@ -1,19 +1,45 @@
 package com.eventastic.api;
 
+import com.eventastic.model.AgregadosEvento;
+import com.eventastic.model.DetalhesEvento;
+import com.eventastic.model.DetalhesInscricao;
+import com.eventastic.model.DetalhesPagamento;
+import com.eventastic.model.EstatisticasExpiracao;
+import com.eventastic.model.EstatisticasOperacao;
 import com.eventastic.model.Event;
 import com.eventastic.model.FaseInscricao;
 import com.eventastic.model.Inscricao;
 import com.eventastic.model.OpcaoAdicional;
+import com.eventastic.model.Pagina;
+import com.eventastic.model.PedidoInscricao;
+import com.eventastic.model.ReservaLugar;
+import com.eventastic.model.RelatorioReconciliacao;
+import com.eventastic.model.ResultadoLote;
+import com.eventastic.notificacao.DestinoCancelamentos;
+import com.eventastic.notificacao.DestinoPromocoes;
+import com.eventastic.notificacao.TarefaCancelamento;
+import com.eventastic.metricas.Metricas;
+import com.eventastic.metricas.Operacao;
+import com.eventastic.persistencia.Persistencia;
+import com.eventastic.enums.EstadoInscricao;
+import com.eventastic.enums.FormatoDetalhes;
+import com.eventastic.enums.ModoArmazenamento;
+import com.eventastic.enums.ModoLote;
 import com.eventastic.enums.TipoInscricao;
 import com.eventastic.service.EventService;
+import com.eventastic.service.ExpiracaoEventos;
 import com.eventastic.service.InscricaoService;
 import com.eventastic.service.PagamentoService;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * EventasticAPI - API de acesso público à biblioteca Eventastic
@@ -21,19 +47,79 @@ import java.util.List;
  * Classe que agrega todos os métodos públicos dos serviços para facilitar
  * a utilização da biblioteca por aplicações externas.
  */
-public class EventasticAPI {
+public class EventasticAPI implements AutoCloseable {
+
+    // Intervalo entre snapshots automáticos quando a persistência está ativa
+    private static final Duration INTERVALO_COMPACTACAO = Duration.ofMinutes(10);
+
+    // Intervalo entre varreduras de eventos expirados (feitas em segundo plano)
+    private static final Duration INTERVALO_EXPIRACAO = Duration.ofMinutes(1);
 
     private final EventService eventService;
     private final InscricaoService inscricaoService;
     private final PagamentoService pagamentoService;
+    private final Persistencia persistencia; // null quando os dados ficam apenas em memória
+    private final ExpiracaoEventos expiracao;
+    private final Metricas metricas = new Metricas();
+    private final Operacao esperaDisco; // Espera pela escrita em disco de cada operação (null sem persistência)
 
     /**
-     * Construtor que inicializa todos os serviços internos
+     * Construtor que inicializa todos os serviços internos (dados apenas em memória)
      */
     public EventasticAPI() {
-        this.eventService = new EventService();
-        this.inscricaoService = new InscricaoService();
-        this.pagamentoService = new PagamentoService(inscricaoService);
+        this(ModoArmazenamento.OBJETOS);
+    }
+
+    /**
+     * Construtor com o modo de armazenamento das inscrições (dados apenas em memória).
+     * ModoArmazenamento.COLUNAR reduz a memória ocupada por inscrição; as inscrições devolvidas
+     * passam a ser cópias, e os pagamentos só são alterados através de registarPagamento/reconciliarExtrato
+     */
+    public EventasticAPI(ModoArmazenamento modoArmazenamento) {
+        this.eventService = new EventService(metricas);
+        this.inscricaoService = new InscricaoService(modoArmazenamento, metricas);
+        this.pagamentoService = new PagamentoService(inscricaoService, metricas);
+        this.persistencia = null;
+        this.esperaDisco = null;
+        this.expiracao = new ExpiracaoEventos(eventService, inscricaoService, INTERVALO_EXPIRACAO);
+    }
+
+    /**
+     * Construtor com persistência em disco: recupera o estado guardado em diretorioDados
+     * (snapshot + journal) e regista todas as operações seguintes. Cada operação de escrita só
+     * retorna depois de estar em disco (UncheckedIOException se o journal falhar)
+     */
+    public EventasticAPI(Path diretorioDados) throws IOException {
+        this(diretorioDados, ModoArmazenamento.OBJETOS);
+    }
+
+    /**
+     * Construtor com persistência em disco e o modo de armazenamento das inscrições em memória
+     */
+    public EventasticAPI(Path diretorioDados, ModoArmazenamento modoArmazenamento) throws IOException {
+        this.eventService = new EventService(metricas);
+        this.inscricaoService = new InscricaoService(modoArmazenamento, metricas);
+        this.pagamentoService = new PagamentoService(inscricaoService, metricas);
+        this.persistencia = Persistencia.abrir(diretorioDados, eventService, inscricaoService,
+                INTERVALO_COMPACTACAO);
+        this.esperaDisco = metricas.operacao("persistencia", "aguardarOperacoes");
+        this.expiracao = new ExpiracaoEventos(eventService, inscricaoService, INTERVALO_EXPIRACAO);
+    }
+
+    /**
+     * Para a expiração em segundo plano e a exportação de métricas, espera pelo envio das notificações pendentes e fecha
+     * a persistência (se ativa), garantindo que todas as operações ficam em disco
+     */
+    @Override
+    public void close() throws IOException {
+        metricas.close();
+        expiracao.close();
+        inscricaoService.encerrarReservas();
+        inscricaoService.encerrarAvisosPromocao();
+        eventService.encerrarNotificacoes();
+        if (persistencia != null) {
+            persistencia.close();
+        }
     }
 
     // ============= MÉTODOS DE EVENTOS =============
@@ -46,34 +132,58 @@ public class EventasticAPI {
                              LocalTime horaInicioEvento, LocalTime horaFimEvento,
                              int maxParticipantes, List<FaseInscricao> fases,
                              List<OpcaoAdicional> opcoes) {
-        return eventService.criarEvento(nome, descricao, local, dataInicioEvento, 
-                dataFimEvento, horaInicioEvento, horaFimEvento, maxParticipantes, fases, opcoes);
+        Event resultado = eventService.criarEvento(nome, descricao, local,
+                dataInicioEvento, dataFimEvento, horaInicioEvento, horaFimEvento, maxParticipantes, fases, opcoes);
+        confirmarEmDisco();
+        return resultado;
     }
 
     /**
-     * Edita um evento existente
+     * Edita um evento existente. Se a lotação aumentar, os novos lugares passam à lista de espera
      */
     public void editarEvento(int idEvento, String nome, String descricao, String local,
                              LocalDate dataInicioEvento, LocalDate dataFimEvento,
                              LocalTime horaInicioEvento, LocalTime horaFimEvento,
                              int maxParticipantes, List<FaseInscricao> fases,
                              List<OpcaoAdicional> opcoes) {
-        eventService.editarEvento(idEvento, nome, descricao, local, dataInicioEvento,
-                dataFimEvento, horaInicioEvento, horaFimEvento, maxParticipantes, fases, opcoes);
+        eventService.editarEvento(idEvento, nome, descricao, local, dataInicioEvento, dataFimEvento,
+                horaInicioEvento, horaFimEvento, maxParticipantes, fases, opcoes);
+        inscricaoService.promoverListaEspera(idEvento);
+        confirmarEmDisco();
+    }
+
+    /**
+     * Inativa um evento. Os reembolsos e as notificações dos inscritos são enviados em
+     * segundo plano; a tarefa retornada permite acompanhar ou esperar pelo envio
+     */
+    public TarefaCancelamento inativarEvento(int idEvento) {
+        TarefaCancelamento resultado = eventService.inativarEvento(idEvento, inscricaoService);
+        confirmarEmDisco();
+        return resultado;
     }
 
     /**
-     * Inativa um evento
+     * Define o destino dos reembolsos e notificações de eventos cancelados
+     * (por omissão, a consola; ver DestinoMemoria e DestinoFicheiro)
      */
-    public void inativarEvento(int idEvento) {
-        eventService.inativarEvento(idEvento, inscricaoService);
+    public void configurarDestinoCancelamentos(DestinoCancelamentos destino) {
+        eventService.setDestinoCancelamentos(destino);
     }
 
     /**
      * Obtém a lista de todos os eventos ativos
      */
     public List<Event> obterListaEventos() {
-        return eventService.obterListaEventos(inscricaoService);
+        return eventService.obterListaEventos();
+    }
+
+    /**
+     * Obtém uma página de eventos ativos (ordenados por ID), opcionalmente só os que
+     * decorrem entre 'desde' e 'ate'. Para a página seguinte, passar o cursor devolvido
+     * ('aposId' a null na primeira).
+     */
+    public Pagina<Event> obterListaEventos(Integer aposId, int tamanho, LocalDate desde, LocalDate ate) {
+        return eventService.obterListaEventos(aposId, tamanho, desde, ate);
     }
 
     /**
@@ -85,17 +195,43 @@ public class EventasticAPI {
     }
 
     /**
-     * Exibe detalhes completos de um evento
+     * Obtém o número de vagas ainda disponíveis num evento
+     * (0 se o evento estiver inativo ou com as inscrições fechadas)
+     */
+    public int consultarVagasDisponiveis(int idEvento) {
+        return eventService.consultarVagasDisponiveis(idEvento, inscricaoService);
+    }
+
+    /**
+     * Obtém o estado da expiração de eventos em segundo plano
+     * (eventos removidos, eventos expirados ainda por remover e última varredura)
      */
-    public void detalhesEvento(int idEvento) {
-        eventService.detalhesEvento(idEvento);
+    public EstatisticasExpiracao obterEstatisticasExpiracao() {
+        return expiracao.obterEstatisticas();
+    }
+
+    /**
+     * Obtém os detalhes completos de um evento (cópia imutável; para apresentar,
+     * ver detalhesEventoFormatados ou FormatadorDetalhes)
+     */
+    public DetalhesEvento detalhesEvento(int idEvento) {
+        return eventService.detalhesEvento(idEvento);
+    }
+
+    /**
+     * Obtém os detalhes de um evento em texto ou JSON. O resultado é guardado e
+     * reutilizado enquanto o evento não for editado
+     */
+    public String detalhesEventoFormatados(int idEvento, FormatoDetalhes formato) {
+        Objects.requireNonNull(formato, "formato");
+        return eventService.detalhesEventoFormatados(idEvento, formato);
     }
 
     /**
      * Procura um evento ativo por ID
      */
     public Event procurarEvento(int idEvento) {
-        return eventService.findEventoById(idEvento, inscricaoService);
+        return eventService.findEventoById(idEvento);
     }
 
     // ============= MÉTODOS DE INSCRIÇÕES =============
@@ -106,8 +242,96 @@ public class EventasticAPI {
     public Inscricao inscrever(Event evento, String nome, String email, Integer nif,
                                TipoInscricao tipoInscricao, Integer numAluno,
                                List<OpcaoAdicional> opcoesEscolhidas) {
-        return inscricaoService.inscrever(evento, nome, email, nif, tipoInscricao, 
-                numAluno, opcoesEscolhidas);
+        Inscricao resultado = inscricaoService.inscrever(evento, nome, email, nif,
+                tipoInscricao, numAluno, opcoesEscolhidas);
+        confirmarEmDisco();
+        return resultado;
+    }
+
+    /**
+     * Inscreve um lote de participantes num evento (ex: grupo de uma empresa).
+     * ATOMICO: inscreve todos ou nenhum; POR_PEDIDO: inscreve os válidos e
+     * reporta os restantes (posição no lote -> motivo) no resultado
+     */
+    public ResultadoLote inscreverEmLote(Event evento, Iterable<PedidoInscricao> pedidos, ModoLote modo) {
+        ResultadoLote resultado = inscricaoService.inscreverEmLote(evento, pedidos, modo);
+        confirmarEmDisco();
+        return resultado;
+    }
+
+    /**
+     * Reserva um lugar num evento durante 'duracao' (no máximo 1 hora), por exemplo enquanto o
+     * participante escolhe as opções. O lugar conta para a lotação até a reserva ser confirmada,
+     * libertada ou expirar
+     */
+    public ReservaLugar reservarLugar(Event evento, Duration duracao) {
+        return inscricaoService.reservarLugar(evento, duracao);
+    }
+
+    /**
+     * Confirma uma reserva numa inscrição (mesmas validações de inscrever, sem voltar a
+     * verificar a lotação). Se os dados forem inválidos a reserva continua ativa até expirar
+     */
+    public Inscricao confirmarReserva(long idReserva, String nome, String email, Integer nif,
+                                      TipoInscricao tipoInscricao, Integer numAluno,
+                                      List<OpcaoAdicional> opcoesEscolhidas) {
+        Inscricao resultado = inscricaoService.confirmarReserva(idReserva,
+                nome, email, nif, tipoInscricao, numAluno, opcoesEscolhidas);
+        confirmarEmDisco();
+        return resultado;
+    }
+
+    /**
+     * Liberta o lugar de uma reserva antes de expirar; retorna false se a reserva
+     * já não estava ativa
+     */
+    public boolean libertarReserva(long idReserva) {
+        boolean resultado = inscricaoService.libertarReserva(idReserva);
+        confirmarEmDisco();
+        return resultado;
+    }
+
+    /**
+     * Cancela uma inscrição (requer o e-mail). O lugar passa ao primeiro da lista de espera, que é
+     * inscrito com o preço da fase atual e avisado em segundo plano; retorna essa inscrição, ou null
+     * se ninguém estava à espera
+     */
+    public Inscricao cancelarInscricao(int idInscricao, String email) {
+        Inscricao resultado = inscricaoService.cancelarInscricao(idInscricao, email);
+        confirmarEmDisco();
+        return resultado;
+    }
+
+    /**
+     * Entra na lista de espera de um evento esgotado (por ordem de chegada); retorna a posição na lista.
+     * Se o evento ainda tiver lugares, lança IllegalStateException (a inscrição deve ser feita com inscrever)
+     */
+    public int entrarListaEspera(Event evento, String nome, String email, Integer nif,
+                                 TipoInscricao tipoInscricao, Integer numAluno,
+                                 List<OpcaoAdicional> opcoesEscolhidas) {
+        return inscricaoService.entrarListaEspera(evento,
+                nome, email, nif, tipoInscricao, numAluno, opcoesEscolhidas);
+    }
+
+    /**
+     * Sai da lista de espera de um evento; retorna false se o e-mail não estava à espera
+     */
+    public boolean sairListaEspera(int idEvento, String email) {
+        return inscricaoService.sairListaEspera(idEvento, email);
+    }
+
+    /**
+     * Número de pessoas na lista de espera de um evento
+     */
+    public int contarListaEspera(int idEvento) {
+        return inscricaoService.contarListaEspera(idEvento);
+    }
+
+    /**
+     * Define o destino dos avisos de promoção da lista de espera (por omissão, a consola)
+     */
+    public void configurarDestinoPromocoes(DestinoPromocoes destino) {
+        inscricaoService.setDestinoPromocoes(destino);
     }
 
     /**
@@ -118,10 +342,19 @@ public class EventasticAPI {
     }
 
     /**
-     * Consulta e exibe detalhes de uma inscrição
+     * Lista inscrições por páginas (ordenadas por ID), com filtros opcionais por estado,
+     * tipo de inscrição e data de criação (null = sem filtro)
      */
-    public void consultarInscricao(int idInscricao, String email) {
-        inscricaoService.consultarInscricao(idInscricao, email, eventService);
+    public Pagina<Inscricao> listarInscricoes(Integer aposId, int tamanho, EstadoInscricao estado,
+                                              TipoInscricao tipoInscricao, LocalDate desde, LocalDate ate) {
+        return inscricaoService.listarInscricoes(aposId, tamanho, estado, tipoInscricao, desde, ate);
+    }
+
+    /**
+     * Consulta os detalhes de uma inscrição (verificando o email)
+     */
+    public DetalhesInscricao consultarInscricao(int idInscricao, String email) {
+        return inscricaoService.consultarInscricao(idInscricao, email, eventService);
     }
 
     /**
@@ -131,6 +364,16 @@ public class EventasticAPI {
         return inscricaoService.obterListaParticipantes(idEvento);
     }
 
+    /**
+     * Obtém uma página dos participantes de um evento (ordenados por ID), com os
+     * mesmos filtros opcionais de listarInscricoes
+     */
+    public Pagina<Inscricao> obterListaParticipantes(int idEvento, Integer aposId, int tamanho, EstadoInscricao estado,
+                                                     TipoInscricao tipoInscricao, LocalDate desde, LocalDate ate) {
+        return inscricaoService.obterListaParticipantes(
+                idEvento, aposId, tamanho, estado, tipoInscricao, desde, ate);
+    }
+
     /**
      * Procura participantes de um evento por critérios
      */
@@ -139,11 +382,26 @@ public class EventasticAPI {
         return inscricaoService.procurarParticipante(evento, nome, email, idInscricao);
     }
 
+    /**
+     * Pesquisa participantes de um evento pelo início do nome ou do e-mail
+     * (sem distinguir maiúsculas nem acentos), com no máximo 'limite' resultados
+     */
+    public List<Inscricao> pesquisarParticipantes(Event evento, String texto, int limite) {
+        return inscricaoService.pesquisarParticipantes(evento, texto, limite);
+    }
+
     /**
      * Exporta participantes para ficheiro CSV
      */
     public void exportarParticipantesParaCSV(int idEvento, String caminhoFicheiro) throws IOException {
-        inscricaoService.exportarParticipantesParaCSV(idEvento, caminhoFicheiro);
+        exportarParticipantesParaCSV(idEvento, caminhoFicheiro, false);
+    }
+
+    /**
+     * Exporta participantes para ficheiro CSV, opcionalmente comprimido em gzip
+     */
+    public void exportarParticipantesParaCSV(int idEvento, String caminhoFicheiro, boolean comprimir) throws IOException {
+        inscricaoService.exportarParticipantesParaCSV(idEvento, caminhoFicheiro, comprimir);
     }
 
     // ============= MÉTODOS DE PAGAMENTOS =============
@@ -151,14 +409,77 @@ public class EventasticAPI {
     /** 
      * Consulta detalhes de pagamento de uma inscrição 
      */
-    public void consultarPagamento(int idInscricao) {
-        pagamentoService.consultarPagamento(idInscricao);
+    public DetalhesPagamento consultarPagamento(int idInscricao) {
+        return pagamentoService.consultarPagamento(idInscricao);
     }
 
     /** 
      * Regista/atualiza os dados de um pagamento 
      */
     public void registarPagamento(int idInscricao, float valorTransferido, LocalDateTime dataTransferencia, String notasInternas) {
-        pagamentoService.registarPagamento(idInscricao, valorTransferido, dataTransferencia, notasInternas);
+        pagamentoService.registarPagamento(idInscricao,
+                valorTransferido, dataTransferencia, notasInternas);
+        confirmarEmDisco();
+    }
+
+    /**
+     * Reconcilia um extrato bancário (data;valor;descrição) com os pagamentos das inscrições
+     */
+    public RelatorioReconciliacao reconciliarExtrato(String caminhoFicheiro) throws IOException {
+        RelatorioReconciliacao resultado = pagamentoService.reconciliarExtrato(caminhoFicheiro);
+        confirmarEmDisco();
+        return resultado;
+    }
+
+    /**
+     * Totais de um evento: valor esperado e transferido, inscrições por estado, tipo e fase (O(1))
+     */
+    public AgregadosEvento obterAgregadosEvento(int idEvento) {
+        return inscricaoService.obterAgregados(idEvento);
+    }
+
+    // ============= MÉTRICAS =============
+
+    /**
+     * Métricas de cada operação dos serviços (e da espera pelo disco, com persistência) desde a
+     * criação ou a última reposição: chamadas, percentis de latência até p99.9, débito e exceções por tipo
+     */
+    public List<EstatisticasOperacao> obterMetricas() {
+        return metricas.obterEstatisticas();
+    }
+
+    /**
+     * Retorna as métricas atuais e recomeça a contagem a partir de agora
+     */
+    public List<EstatisticasOperacao> reporMetricas() {
+        return metricas.obterEstatisticasERepor();
+    }
+
+    /**
+     * Métricas atuais no formato de texto do Prometheus
+     */
+    public String obterMetricasPrometheus() {
+        return metricas.formatoPrometheus();
+    }
+
+    /**
+     * Escreve as métricas (formato Prometheus) em 'ficheiro' a cada 'intervalo', até close()
+     */
+    public void exportarMetricasPeriodicamente(Path ficheiro, Duration intervalo) {
+        metricas.exportarPeriodicamente(ficheiro, intervalo);
+    }
+
+    // Espera que as operações registadas por esta chamada fiquem em disco (sem persistência não faz nada)
+    private void confirmarEmDisco() {
+        if (persistencia != null) {
+            try {
+                esperaDisco.medirComExcecao(() -> {
+                    persistencia.aguardarOperacoes();
+                    return null;
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException("Falha ao gravar a operação em disco", e);
+            }
+        }
     }
 }
@@ -0,0 +1,253 @@
+package com.eventastic.apresentacao;
+
+import com.eventastic.enums.FormatoDetalhes;
+import com.eventastic.enums.TipoInscricao;
+import com.eventastic.model.DetalhesEvento;
+import com.eventastic.model.DetalhesInscricao;
+import com.eventastic.model.DetalhesPagamento;
+import com.eventastic.model.FaseInscricao;
+import com.eventastic.model.OpcaoAdicional;
+
+import java.util.Objects;
+
+/*
+ * Apresenta os detalhes de eventos, inscrições e pagamentos em texto (o formato que a consola
+ * sempre mostrou) ou em JSON. Tudo é escrito num StringBuilder e entregue de uma vez: imprimir
+ * o resultado é uma única escrita no System.out, em vez de uma por linha.
+ *
+ * Os métodos que recebem um StringBuilder acrescentam a ele, para juntar vários detalhes no
+ * mesmo buffer antes de os escrever.
+ */
+public final class FormatadorDetalhes {
+
+    private FormatadorDetalhes() {
+    }
+
+    // Detalhes de um evento no formato pedido
+    public static String formatar(DetalhesEvento detalhes, FormatoDetalhes formato) {
+        return formatar(detalhes, formato, new StringBuilder(1024)).toString();
+    }
+
+    // Detalhes de uma inscrição no formato pedido
+    public static String formatar(DetalhesInscricao detalhes, FormatoDetalhes formato) {
+        return formatar(detalhes, formato, new StringBuilder(768)).toString();
+    }
+
+    // Detalhes de um pagamento no formato pedido
+    public static String formatar(DetalhesPagamento detalhes, FormatoDetalhes formato) {
+        return formatar(detalhes, formato, new StringBuilder(512)).toString();
+    }
+
+    // Acrescenta os detalhes de um evento a 'destino' (retorna 'destino')
+    public static StringBuilder formatar(DetalhesEvento detalhes, FormatoDetalhes formato, StringBuilder destino) {
+        Objects.requireNonNull(detalhes, "detalhes");
+        if (Objects.requireNonNull(formato, "formato") == FormatoDetalhes.JSON) {
+            eventoJson(detalhes, destino);
+        } else {
+            eventoTexto(detalhes, destino);
+        }
+        return destino;
+    }
+
+    // Acrescenta os detalhes de uma inscrição a 'destino' (retorna 'destino')
+    public static StringBuilder formatar(DetalhesInscricao detalhes, FormatoDetalhes formato, StringBuilder destino) {
+        Objects.requireNonNull(detalhes, "detalhes");
+        if (Objects.requireNonNull(formato, "formato") == FormatoDetalhes.JSON) {
+            inscricaoJson(detalhes, destino);
+        } else {
+            inscricaoTexto(detalhes, destino);
+        }
+        return destino;
+    }
+
+    // Acrescenta os detalhes de um pagamento a 'destino' (retorna 'destino')
+    public static StringBuilder formatar(DetalhesPagamento detalhes, FormatoDetalhes formato, StringBuilder destino) {
+        Objects.requireNonNull(detalhes, "detalhes");
+        if (Objects.requireNonNull(formato, "formato") == FormatoDetalhes.JSON) {
+            pagamentoJson(detalhes, destino);
+        } else {
+            pagamentoTexto(detalhes, destino);
+        }
+        return destino;
+    }
+
+    private static void eventoTexto(DetalhesEvento d, StringBuilder s) {
+        s.append("========== DETALHES DO EVENTO ==========\n");
+        s.append("ID: ").append(d.getIdEvento()).append('\n');
+        s.append("Nome: ").append(d.getNome()).append('\n');
+        s.append("Descrição: ").append(d.getDescricao()).append('\n');
+        s.append("Local: ").append(d.getLocal()).append('\n');
+        s.append("Data do Evento: ").append(d.getDataInicioEvento()).append(" a ").append(d.getDataFimEvento()).append('\n');
+        s.append("Horário: ").append(d.getHoraInicioEvento()).append(" - ").append(d.getHoraFimEvento()).append('\n');
+        s.append("Máximo de Participantes: ").append(d.getMaxParticipantes()).append('\n');
+        s.append("Período de Inscrições: ").append(d.getDataInicioInscricoes()).append(" a ")
+                .append(d.getDataFimInscricoes()).append('\n');
+        s.append("Estado: ").append(d.isAtivo() ? "Ativo" : "Inativo").append('\n');
+
+        s.append("\n--- Fases de Inscrição ---\n");
+        for (FaseInscricao fase : d.getFases()) {
+            s.append("  ").append(fase.getTipoFase()).append(": ").append(fase.getDataInicio()).append(" a ")
+                    .append(fase.getDataFim()).append('\n');
+            s.append("    Preço Estudante: ").append(fase.obterPreco(TipoInscricao.ESTUDANTE)).append("€\n");
+            s.append("    Preço Não Estudante: ").append(fase.obterPreco(TipoInscricao.NAO_ESTUDANTE)).append("€\n");
+        }
+
+        s.append("\n--- Opções Adicionais ---\n");
+        if (d.getOpcoes().isEmpty()) {
+            s.append("  Nenhuma opção adicional disponível\n");
+        } else {
+            for (OpcaoAdicional opcao : d.getOpcoes()) {
+                s.append("  ").append(opcao.getNome()).append(" - ").append(opcao.getPreco()).append('€')
+                        .append(opcao.isObrigatoria() ? " (Obrigatória)" : " (Opcional)").append('\n');
+                s.append("    ").append(opcao.getDescricao()).append('\n');
+            }
+        }
+        s.append("========================================\n");
+    }
+
+    private static void eventoJson(DetalhesEvento d, StringBuilder s) {
+        s.append("{\"idEvento\":").append(d.getIdEvento());
+        s.append(",\"nome\":"); texto(s, d.getNome());
+        s.append(",\"descricao\":"); texto(s, d.getDescricao());
+        s.append(",\"local\":"); texto(s, d.getLocal());
+        s.append(",\"dataInicioEvento\":"); texto(s, d.getDataInicioEvento());
+        s.append(",\"dataFimEvento\":"); texto(s, d.getDataFimEvento());
+        s.append(",\"horaInicioEvento\":"); texto(s, d.getHoraInicioEvento());
+        s.append(",\"horaFimEvento\":"); texto(s, d.getHoraFimEvento());
+        s.append(",\"maxParticipantes\":").append(d.getMaxParticipantes());
+        s.append(",\"dataInicioInscricoes\":"); texto(s, d.getDataInicioInscricoes());
+        s.append(",\"dataFimInscricoes\":"); texto(s, d.getDataFimInscricoes());
+        s.append(",\"ativo\":").append(d.isAtivo());
+        s.append(",\"fases\":[");
+        for (int i = 0; i < d.getFases().size(); i++) {
+            FaseInscricao fase = d.getFases().get(i);
+            s.append(i == 0 ? "{" : ",{");
+            s.append("\"tipoFase\":"); texto(s, fase.getTipoFase());
+            s.append(",\"dataInicio\":"); texto(s, fase.getDataInicio());
+            s.append(",\"dataFim\":"); texto(s, fase.getDataFim());
+            s.append(",\"precoEstudante\":").append(fase.obterPreco(TipoInscricao.ESTUDANTE));
+            s.append(",\"precoNaoEstudante\":").append(fase.obterPreco(TipoInscricao.NAO_ESTUDANTE));
+            s.append('}');
+        }
+        s.append("],\"opcoes\":");
+        opcoesJson(d.getOpcoes(), s, true);
+        s.append("}");
+    }
+
+    private static void inscricaoTexto(DetalhesInscricao d, StringBuilder s) {
+        String nomeEvento = (d.getNomeEvento() != null) ? d.getNomeEvento() : "(Evento não encontrado)";
+        s.append("========== DETALHES DA INSCRIÇÃO ==========\n");
+        s.append("ID Inscrição: ").append(d.getIdInscricao()).append('\n');
+        s.append("Evento: ").append(nomeEvento).append(" (ID=").append(d.getIdEvento()).append(")\n");
+        s.append("Participante: ").append(d.getNome()).append(" | Email: ").append(d.getEmail()).append('\n');
+        s.append("Tipo de Inscrição: ").append(d.getTipoInscricao()).append('\n');
+
+        s.append("\nOpções adicionais:\n");
+        if (d.getOpcoesEscolhidas().isEmpty()) {
+            s.append("  Nenhuma\n");
+        } else {
+            for (OpcaoAdicional op : d.getOpcoesEscolhidas()) {
+                s.append("  - ").append(op.getNome()).append(" (").append(op.getPreco()).append("€)")
+                        .append(op.isObrigatoria() ? " [Obrigatória]" : "").append('\n');
+            }
+        }
+
+        s.append("\nValor Total: ").append(d.getValorTotal()).append("€\n");
+        s.append("IBAN: ").append(d.getIban()).append('\n');
+        s.append("Descrição da Transferência: ").append(d.getDescricaoTransferencia()).append('\n');
+        s.append("Estado: ").append(d.getEstado()).append('\n');
+        s.append("Data de Criação: ").append(d.getDataCriacao()).append('\n');
+        s.append("===========================================\n");
+    }
+
+    private static void inscricaoJson(DetalhesInscricao d, StringBuilder s) {
+        s.append("{\"idInscricao\":").append(d.getIdInscricao());
+        s.append(",\"idEvento\":").append(d.getIdEvento());
+        s.append(",\"nomeEvento\":"); texto(s, d.getNomeEvento());
+        s.append(",\"nome\":"); texto(s, d.getNome());
+        s.append(",\"email\":"); texto(s, d.getEmail());
+        s.append(",\"tipoInscricao\":"); texto(s, d.getTipoInscricao());
+        s.append(",\"opcoesEscolhidas\":");
+        opcoesJson(d.getOpcoesEscolhidas(), s, false);
+        s.append(",\"valorTotal\":").append(d.getValorTotal());
+        s.append(",\"iban\":"); texto(s, d.getIban());
+        s.append(",\"descricaoTransferencia\":"); texto(s, d.getDescricaoTransferencia());
+        s.append(",\"estado\":"); texto(s, d.getEstado());
+        s.append(",\"dataCriacao\":"); texto(s, d.getDataCriacao());
+        s.append("}");
+    }
+
+    private static void pagamentoTexto(DetalhesPagamento d, StringBuilder s) {
+        s.append("========== PAGAMENTO ==========\n");
+        s.append("ID Inscrição: ").append(d.getIdInscricao()).append('\n');
+        s.append("Participante: ").append(d.getNome()).append('\n');
+        s.append("E-mail: ").append(d.getEmail()).append('\n');
+        s.append("Valor Total a Pagar: ").append(d.getValorTotal()).append("€\n");
+        s.append("\n--- Estado do Pagamento ---\n");
+        s.append("Valor Transferido: ").append(d.getValorTransferido()).append("€\n");
+        s.append("Data da Transferência: ")
+                .append(d.getDataTransferencia() != null ? d.getDataTransferencia() : "Não registada").append('\n');
+        s.append("Estado: ").append(d.getEstado()).append('\n');
+        s.append("Notas Internas: ")
+                .append(d.getNotasInternas() != null ? d.getNotasInternas() : "Sem notas").append('\n');
+        s.append("================================\n\n");
+    }
+
+    private static void pagamentoJson(DetalhesPagamento d, StringBuilder s) {
+        s.append("{\"idInscricao\":").append(d.getIdInscricao());
+        s.append(",\"nome\":"); texto(s, d.getNome());
+        s.append(",\"email\":"); texto(s, d.getEmail());
+        s.append(",\"valorTotal\":").append(d.getValorTotal());
+        s.append(",\"valorTransferido\":").append(d.getValorTransferido());
+        s.append(",\"dataTransferencia\":"); texto(s, d.getDataTransferencia());
+        s.append(",\"estado\":"); texto(s, d.getEstado());
+        s.append(",\"notasInternas\":"); texto(s, d.getNotasInternas());
+        s.append("}");
+    }
+
+    // Lista de opções em JSON (a descrição só é incluída nos detalhes do evento)
+    private static void opcoesJson(Iterable<OpcaoAdicional> opcoes, StringBuilder s, boolean comDescricao) {
+        s.append('[');
+        boolean primeira = true;
+        for (OpcaoAdicional opcao : opcoes) {
+            s.append(primeira ? "{" : ",{");
+            primeira = false;
+            s.append("\"nome\":"); texto(s, opcao.getNome());
+            if (comDescricao) {
+                s.append(",\"descricao\":"); texto(s, opcao.getDescricao());
+            }
+            s.append(",\"preco\":").append(opcao.getPreco());
+            s.append(",\"obrigatoria\":").append(opcao.isObrigatoria());
+            s.append('}');
+        }
+        s.append(']');
+    }
+
+    // Valor como string JSON (null se o valor for null), com aspas, barras e caracteres de controlo escapados
+    private static void texto(StringBuilder s, Object valor) {
+        if (valor == null) {
+            s.append("null");
+            return;
+        }
+        String texto = valor.toString();
+        s.append('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '"' -> s.append("\\\"");
+                case '\\' -> s.append("\\\\");
+                case '\n' -> s.append("\\n");
+                case '\r' -> s.append("\\r");
+                case '\t' -> s.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        s.append("\\u00").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        s.append(c);
+                    }
+                }
+            }
+        }
+        s.append('"');
+    }
+}
@@ -1,6 +1,8 @@
 package com.eventastic.demo;
 
 import com.eventastic.api.EventasticAPI;
+import com.eventastic.apresentacao.FormatadorDetalhes;
+import com.eventastic.enums.FormatoDetalhes;
 import com.eventastic.enums.TipoFase;
 import com.eventastic.enums.TipoInscricao;
 import com.eventastic.model.ConfiguracaoPreco;
@@ -20,7 +22,7 @@ import java.util.Map;
 
 public class Main {
 
-    public static void main(String[] args) throws IOException {
+    public static void main(String[] args) throws IOException, InterruptedException {
         EventasticAPI api = new EventasticAPI();
 
         System.out.println("\n================ DEMO EVENTASTIC =================\n");
@@ -47,8 +49,8 @@ public class Main {
 
         // 4) Detalhes de um evento
         System.out.println("\n4) Detalhes dos eventos criados");
-        api.detalhesEvento(techConf.getIdEvento());
-        api.detalhesEvento(musicFest.getIdEvento());
+        System.out.print(api.detalhesEventoFormatados(techConf.getIdEvento(), FormatoDetalhes.TEXTO));
+        System.out.print(api.detalhesEventoFormatados(musicFest.getIdEvento(), FormatoDetalhes.TEXTO));
 
         // 5) Procurar evento por ID
         System.out.println("\n5) Procurar evento techConf (esperado ser encontrado)");
@@ -132,7 +134,8 @@ public class Main {
 
         // 8) Consultar inscrição (dados corretos)
         System.out.println("\n8) Consultar inscrição de André (e-mail correto)");
-        api.consultarInscricao(insc1.getId(), "andre@exemplo.com");
+        System.out.print(FormatadorDetalhes.formatar(api.consultarInscricao(insc1.getId(), "andre@exemplo.com"),
+                FormatoDetalhes.TEXTO));
         System.out.println("Consultar inscrição de André (e-mail errado - deve falhar)");
         try {
             api.consultarInscricao(insc1.getId(), "andre_errado@exemplo.com");
@@ -166,10 +169,11 @@ public class Main {
 
         // 12) Pagamento: consultar e registar 
         System.out.println("\n12) Pagamento (consultar e registar)");
-        api.consultarPagamento(insc1.getId());
+        System.out.print(FormatadorDetalhes.formatar(api.consultarPagamento(insc1.getId()), FormatoDetalhes.TEXTO));
         System.out.println("A registar pagamento de 30.00€ para André Gonçalves...");
         api.registarPagamento(insc1.getId(), 30.00f, LocalDateTime.now(), "Transferência recebida");
-        api.consultarPagamento(insc1.getId());
+        System.out.println("Pagamento registado.");
+        System.out.print(FormatadorDetalhes.formatar(api.consultarPagamento(insc1.getId()), FormatoDetalhes.TEXTO));
         System.out.println("A registar pagamento de -25.00€ para Miguel Costa (valor negativo, deve falhar)...");
         try {
             api.registarPagamento(insc2.getId(), -25.00f, LocalDateTime.now(), "Transferência recebida");
@@ -184,7 +188,7 @@ public class Main {
                 techConf.getHoraInicioEvento(), techConf.getHoraFimEvento(),
                 techConf.getMaxParticipantes(), techConf.getFases(), techConf.getOpcoes());
         System.out.println("Evento editado com sucesso.\n");
-        api.detalhesEvento(techConf.getIdEvento());
+        System.out.print(api.detalhesEventoFormatados(techConf.getIdEvento(), FormatoDetalhes.TEXTO));
 
         // 14) Tentar editar evento a decorrer (deve falhar)
         System.out.println("14) Editar evento a decorrer (Music Fest) - deve falhar");
@@ -197,9 +201,10 @@ public class Main {
             System.out.println("[OK] Bloqueou edição de evento a decorrer: " + ex.getMessage());
         }
 
-        // 15) Inativar evento futuro (gera reembolsos e limpa)
+        // 15) Inativar evento futuro (gera reembolsos e limpa; o envio é feito em segundo plano)
         System.out.println("\n15) Inativar evento futuro (Tech Conf)");
-        api.inativarEvento(techConf.getIdEvento());
+        api.inativarEvento(techConf.getIdEvento()).aguardar();
+        System.out.println("Evento " + techConf.getIdEvento() + " e todos os dados relacionados foram removidos da memória.");
 
         // 16) Inativar evento a decorrer (deve falhar)
         System.out.println("\n16) Tentativa de inativar evento a decorrer (Music Fest) - deve falhar");
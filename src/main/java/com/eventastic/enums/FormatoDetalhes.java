@@ -0,0 +1,7 @@
+package com.eventastic.enums;
+
+// Formato em que os detalhes de eventos, inscrições e pagamentos são apresentados
+public enum FormatoDetalhes {
+    TEXTO, // Texto legível, para a consola
+    JSON   // Um objeto JSON, para integração com outros sistemas
+}
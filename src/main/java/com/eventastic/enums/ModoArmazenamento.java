@@ -0,0 +1,7 @@
+package com.eventastic.enums;
+
+// Como o InscricaoService guarda as inscrições em memória
+public enum ModoArmazenamento {
+    OBJETOS, // Um objeto Inscricao (e Pagamento) por inscrição
+    COLUNAR  // Colunas de tipos primitivos por bloco de IDs; as inscrições são vistas criadas a pedido
+}
@@ -0,0 +1,7 @@
+package com.eventastic.enums;
+
+// Como um lote de inscrições trata pedidos inválidos
+public enum ModoLote {
+    ATOMICO,   // Qualquer pedido inválido (ou falta de lugares) cancela o lote inteiro
+    POR_PEDIDO // Os pedidos válidos são inscritos; os inválidos ficam no relatório de erros
+}
@@ -0,0 +1,102 @@
+package com.eventastic.metricas;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/*
+ * Histograma de latências (em nanossegundos) sem locks.
+ *
+ * Os valores abaixo de SUB_BALDES ficam cada um no seu balde; acima disso cada potência de 2 é
+ * dividida em SUB_BALDES baldes de igual largura, pelo que um percentil tem um erro relativo de
+ * no máximo 1/SUB_BALDES (6,25%). Registar um valor são três operações atómicas (incremento do
+ * balde, soma e leitura do máximo) e, só quando o valor é um novo máximo, um ciclo de CAS; sem
+ * alocação.
+ *
+ * Para que threads concorrentes não disputem as mesmas linhas de cache, os contadores estão
+ * repartidos por faixas (escolhidas pela thread, como num LongAdder), criadas a pedido e somadas
+ * apenas quando o histograma é lido.
+ */
+final class Histograma {
+
+    private static final int BITS_SUB = 4;
+    private static final int SUB_BALDES = 1 << BITS_SUB;
+    private static final int EXPOENTE_MAXIMO = 40; // ~18 minutos; valores acima ficam no último balde
+    static final int NUM_BALDES = SUB_BALDES + (EXPOENTE_MAXIMO - BITS_SUB + 1) * SUB_BALDES;
+
+    // Posições extra de cada faixa, a seguir aos baldes
+    private static final int SOMA = NUM_BALDES;
+    private static final int MAXIMO = NUM_BALDES + 1;
+
+    private static final int NUM_FAIXAS = Math.min(Integer.highestOneBit(
+            Math.max(1, Runtime.getRuntime().availableProcessors() - 1)) << 1, 16);
+
+    private final AtomicReferenceArray<AtomicLongArray> faixas = new AtomicReferenceArray<>(NUM_FAIXAS);
+
+    // Regista uma duração (valores negativos contam como 0)
+    void registar(long nanos) {
+        long valor = Math.max(nanos, 0);
+        AtomicLongArray faixa = faixa();
+        faixa.getAndIncrement(balde(valor));
+        faixa.getAndAdd(SOMA, valor);
+        long maximo = faixa.get(MAXIMO);
+        while (valor > maximo && !faixa.compareAndSet(MAXIMO, maximo, valor)) {
+            maximo = faixa.get(MAXIMO);
+        }
+    }
+
+    /*
+     * Soma as faixas em 'baldes' (NUM_BALDES posições) e retorna {soma, máximo}. Registos feitos
+     * durante a leitura podem ou não ser incluídos.
+     */
+    long[] somar(long[] baldes) {
+        long soma = 0;
+        long maximo = 0;
+        for (int f = 0; f < NUM_FAIXAS; f++) {
+            AtomicLongArray faixa = faixas.get(f);
+            if (faixa == null) {
+                continue;
+            }
+            for (int i = 0; i < NUM_BALDES; i++) {
+                baldes[i] += faixa.get(i);
+            }
+            soma += faixa.get(SOMA);
+            maximo = Math.max(maximo, faixa.get(MAXIMO));
+        }
+        return new long[] { soma, maximo };
+    }
+
+    // Balde de um valor (índice direto abaixo de SUB_BALDES, depois expoente + bits seguintes)
+    static int balde(long valor) {
+        if (valor < SUB_BALDES) {
+            return (int) valor;
+        }
+        int expoente = 63 - Long.numberOfLeadingZeros(valor);
+        if (expoente > EXPOENTE_MAXIMO) {
+            return NUM_BALDES - 1;
+        }
+        int sub = (int) (valor >>> (expoente - BITS_SUB)) & (SUB_BALDES - 1);
+        return SUB_BALDES + (expoente - BITS_SUB) * SUB_BALDES + sub;
+    }
+
+    // Maior valor que cai no balde dado
+    static long limiteSuperior(int balde) {
+        if (balde < SUB_BALDES) {
+            return balde;
+        }
+        int expoente = (balde - SUB_BALDES) / SUB_BALDES + BITS_SUB;
+        int sub = (balde - SUB_BALDES) % SUB_BALDES;
+        long largura = 1L << (expoente - BITS_SUB);
+        return (SUB_BALDES + sub) * largura + largura - 1;
+    }
+
+    // Faixa da thread atual (criada no primeiro registo dessa faixa)
+    private AtomicLongArray faixa() {
+        int indice = (int) ((Thread.currentThread().getId() * 0x9E3779B97F4A7C15L) >>> 60) & (NUM_FAIXAS - 1);
+        AtomicLongArray faixa = faixas.get(indice);
+        if (faixa == null) {
+            faixas.compareAndSet(indice, null, new AtomicLongArray(NUM_BALDES + 2));
+            faixa = faixas.get(indice);
+        }
+        return faixa;
+    }
+}
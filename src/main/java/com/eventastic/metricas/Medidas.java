@@ -0,0 +1,43 @@
+package com.eventastic.metricas;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/*
+ * Operações medidas de um serviço, uma por constante da enum E, criadas uma vez e reutilizadas em
+ * todas as chamadas. Os métodos públicos dos serviços correm dentro de medir()/executar(), que
+ * delegam em Operacao.medirComExcecao: a medição é feita só nesse sítio.
+ */
+public final class Medidas<E extends Enum<E>> {
+
+    // Chamada medida sem resultado (pode lançar a exceção verificada X)
+    @FunctionalInterface
+    public interface Acao<X extends Exception> {
+        void executar() throws X;
+    }
+
+    private final Operacao[] operacoes; // Indexadas pelo ordinal da constante
+
+    // Regista em 'metricas' uma operação por constante de 'tipo', com o nome dado por 'nome'
+    public Medidas(Metricas metricas, String servico, Class<E> tipo, Function<E, String> nome) {
+        Objects.requireNonNull(metricas, "metricas");
+        E[] constantes = tipo.getEnumConstants();
+        this.operacoes = new Operacao[constantes.length];
+        for (E constante : constantes) {
+            operacoes[constante.ordinal()] = metricas.operacao(servico, nome.apply(constante));
+        }
+    }
+
+    // Executa e mede uma chamada que retorna um valor
+    public <T, X extends Exception> T medir(E operacao, Operacao.Chamada<T, X> chamada) throws X {
+        return operacoes[operacao.ordinal()].medirComExcecao(chamada);
+    }
+
+    // Executa e mede uma chamada sem resultado
+    public <X extends Exception> void executar(E operacao, Acao<X> acao) throws X {
+        operacoes[operacao.ordinal()].medirComExcecao(() -> {
+            acao.executar();
+            return null;
+        });
+    }
+}
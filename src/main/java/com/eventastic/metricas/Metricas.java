@@ -0,0 +1,175 @@
+package com.eventastic.metricas;
+
+import com.eventastic.model.EstatisticasOperacao;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Registo das métricas das operações dos serviços (ver Operacao e Medidas): estado atual, reposição e
+ * exportação no formato de texto do Prometheus, a pedido ou periodicamente para um ficheiro.
+ *
+ * A exportação periódica escreve num ficheiro temporário e move-o por cima do anterior, pelo que
+ * quem o lê (ex: textfile collector do node_exporter) nunca vê um ficheiro a meio. Não repõe as
+ * métricas: os contadores só crescem, como o Prometheus espera.
+ */
+public final class Metricas implements AutoCloseable {
+
+    private static final String PREFIXO = "eventastic_operacao";
+
+    private final List<Operacao> operacoes = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService exportacao; // null se não houver exportação periódica
+    private Path ficheiroExportacao;
+
+    // Cria e regista uma operação ('servico' e 'nome' aparecem como etiquetas na exportação)
+    public Operacao operacao(String servico, String nome) {
+        Operacao operacao = new Operacao(servico, nome);
+        operacoes.add(operacao);
+        return operacao;
+    }
+
+    // Estado atual de todas as operações (pela ordem em que foram registadas)
+    public List<EstatisticasOperacao> obterEstatisticas() {
+        return copiar(false);
+    }
+
+    // Estado atual de todas as operações, recomeçando a contagem a partir de agora
+    public List<EstatisticasOperacao> obterEstatisticasERepor() {
+        return copiar(true);
+    }
+
+    // Estado atual no formato de texto do Prometheus (um summary de durações e um counter de erros)
+    public String formatoPrometheus() {
+        StringBuilder texto = new StringBuilder(4096);
+        escreverPrometheus(obterEstatisticas(), texto);
+        return texto.toString();
+    }
+
+    /*
+     * Passa a escrever o formato Prometheus em 'ficheiro' a cada 'intervalo' (substitui uma
+     * exportação periódica anterior). A última escrita é feita ao fechar.
+     */
+    public synchronized void exportarPeriodicamente(Path ficheiro, Duration intervalo) {
+        Objects.requireNonNull(ficheiro, "ficheiro");
+        if (intervalo == null || intervalo.isNegative() || intervalo.isZero()) {
+            throw new IllegalArgumentException("Intervalo de exportação deve ser positivo");
+        }
+        pararExportacao();
+        ficheiroExportacao = ficheiro;
+        exportacao = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "eventastic-metricas");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervaloMs = intervalo.toMillis();
+        exportacao.scheduleWithFixedDelay(() -> exportarComTratamento(ficheiro), intervaloMs, intervaloMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    // Escreve o formato Prometheus em 'ficheiro' (substituindo-o de forma atómica)
+    public void exportar(Path ficheiro) throws IOException {
+        Path temporario = ficheiro.resolveSibling(ficheiro.getFileName() + ".tmp");
+        try (BufferedWriter escritor = Files.newBufferedWriter(temporario, StandardCharsets.UTF_8)) {
+            escreverPrometheus(obterEstatisticas(), escritor);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        Files.move(temporario, ficheiro, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Para a exportação periódica (com uma última escrita)
+    @Override
+    public synchronized void close() {
+        pararExportacao();
+    }
+
+    private void pararExportacao() {
+        if (exportacao == null) {
+            return;
+        }
+        exportacao.shutdown();
+        try {
+            exportacao.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        exportarComTratamento(ficheiroExportacao);
+        exportacao = null;
+        ficheiroExportacao = null;
+    }
+
+    private void exportarComTratamento(Path ficheiro) {
+        try {
+            exportar(ficheiro);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Falha ao exportar métricas para " + ficheiro + ": " + e.getMessage());
+        }
+    }
+
+    private List<EstatisticasOperacao> copiar(boolean repor) {
+        List<EstatisticasOperacao> estatisticas = new ArrayList<>(operacoes.size());
+        for (Operacao operacao : operacoes) {
+            estatisticas.add(operacao.copiar(repor));
+        }
+        return List.copyOf(estatisticas);
+    }
+
+    // Escreve as métricas no formato de texto do Prometheus (durações em segundos)
+    private static void escreverPrometheus(List<EstatisticasOperacao> estatisticas, Appendable destino) {
+        try {
+            destino.append("# HELP ").append(PREFIXO).append("_duracao_segundos Duração das operações dos serviços\n");
+            destino.append("# TYPE ").append(PREFIXO).append("_duracao_segundos summary\n");
+            for (EstatisticasOperacao e : estatisticas) {
+                String etiquetas = etiquetas(e);
+                boolean vazio = e.getChamadas() == 0; // Sem chamadas os quantis não existem (NaN)
+                quantil(destino, etiquetas, "0.5", vazio ? "NaN" : segundos(e.getP50Ns()));
+                quantil(destino, etiquetas, "0.9", vazio ? "NaN" : segundos(e.getP90Ns()));
+                quantil(destino, etiquetas, "0.99", vazio ? "NaN" : segundos(e.getP99Ns()));
+                quantil(destino, etiquetas, "0.999", vazio ? "NaN" : segundos(e.getP999Ns()));
+                destino.append(PREFIXO).append("_duracao_segundos_sum{").append(etiquetas).append("} ")
+                        .append(segundos(e.getDuracaoTotalNs())).append('\n');
+                destino.append(PREFIXO).append("_duracao_segundos_count{").append(etiquetas).append("} ")
+                        .append(Long.toString(e.getChamadas())).append('\n');
+            }
+            destino.append("# HELP ").append(PREFIXO).append("_erros_total Chamadas terminadas com exceção, por tipo\n");
+            destino.append("# TYPE ").append(PREFIXO).append("_erros_total counter\n");
+            for (EstatisticasOperacao e : estatisticas) {
+                String etiquetas = etiquetas(e);
+                for (Map.Entry<String, Long> erro : e.getErros().entrySet()) {
+                    destino.append(PREFIXO).append("_erros_total{").append(etiquetas)
+                            .append(",excecao=\"").append(erro.getKey()).append("\"} ")
+                            .append(Long.toString(erro.getValue())).append('\n');
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void quantil(Appendable destino, String etiquetas, String quantil, String valor) throws IOException {
+        destino.append(PREFIXO).append("_duracao_segundos{").append(etiquetas)
+                .append(",quantile=\"").append(quantil).append("\"} ").append(valor).append('\n');
+    }
+
+    private static String etiquetas(EstatisticasOperacao e) {
+        return "servico=\"" + e.getServico() + "\",operacao=\"" + e.getOperacao() + "\"";
+    }
+
+    private static String segundos(long nanos) {
+        return Double.toString(nanos / 1e9);
+    }
+}
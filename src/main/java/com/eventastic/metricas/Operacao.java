@@ -0,0 +1,153 @@
+package com.eventastic.metricas;
+
+import com.eventastic.model.EstatisticasOperacao;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/*
+ * Métricas de uma operação: histograma de latências (todas as chamadas, com ou sem exceção) e
+ * número de exceções por tipo. Medir uma chamada custa duas leituras de System.nanoTime() e o
+ * registo no histograma, sem locks.
+ *
+ * Os serviços medem através de medirComExcecao (ver Medidas), cuja lambda não é alocada depois de
+ * o JIT compilar a chamada; iniciar()/falhou()/terminar() medem sem lambda, mas repetem o
+ * try/catch/finally em cada sítio medido.
+ *
+ * Os registos ficam numa "janela" que é trocada inteira ao repor: chamadas em curso nesse
+ * instante podem ainda ser contadas na janela anterior (ou, com terminar(), na nova).
+ */
+public final class Operacao {
+
+    // Chamada medida que pode lançar exceções verificadas (ex: IOException)
+    @FunctionalInterface
+    public interface Chamada<T, E extends Exception> {
+        T executar() throws E;
+    }
+
+    private static final double[] PERCENTIS = { 0.5, 0.9, 0.99, 0.999 };
+
+    private final String servico;
+    private final String nome;
+    private volatile Janela janela = new Janela();
+
+    // Registos desde o arranque ou a última reposição
+    private static final class Janela {
+        private final long inicio = System.nanoTime();
+        private final Histograma latencias = new Histograma();
+        private final Map<Class<?>, LongAdder> erros = new ConcurrentHashMap<>();
+    }
+
+    // Construtor (as operações são criadas por Metricas.operacao)
+    Operacao(String servico, String nome) {
+        this.servico = Objects.requireNonNull(servico, "servico");
+        this.nome = Objects.requireNonNull(nome, "nome");
+    }
+
+    public String getServico() { return servico; }
+    public String getNome() { return nome; }
+
+    // Executa e mede uma chamada que retorna um valor
+    public <T> T medir(Supplier<T> chamada) {
+        return medirComExcecao(chamada::get);
+    }
+
+    // Início de uma chamada medida sem lambda (ver terminar)
+    public long iniciar() {
+        return System.nanoTime();
+    }
+
+    // Conta a exceção lançada por uma chamada medida com iniciar()/terminar()
+    public void falhou(Throwable erro) {
+        contarErro(janela, erro);
+    }
+
+    // Regista a duração de uma chamada iniciada com iniciar() (num finally, com ou sem exceção)
+    public void terminar(long inicio) {
+        janela.latencias.registar(System.nanoTime() - inicio);
+    }
+
+    // Executa e mede uma chamada sem resultado
+    public void executar(Runnable chamada) {
+        medirComExcecao(() -> {
+            chamada.run();
+            return null;
+        });
+    }
+
+    /*
+     * Executa e mede uma chamada que pode lançar a exceção verificada E. É o único sítio onde as
+     * chamadas com lambda são cronometradas: o caminho normal só regista uma vez no histograma e a
+     * exceção vai para um método à parte, para o código compilado ser pequeno o bastante para o JIT
+     * o copiar para quem chama. Assim a lambda não escapa e não chega a ser alocada (ver
+     * MetricasBenchmark.viaApi com -prof gc).
+     */
+    public <T, E extends Exception> T medirComExcecao(Chamada<T, E> chamada) throws E {
+        Janela atual = janela;
+        long inicio = System.nanoTime();
+        T resultado;
+        try {
+            resultado = chamada.executar();
+        } catch (Throwable e) {
+            registarFalha(atual, inicio, e);
+            throw e;
+        }
+        atual.latencias.registar(System.nanoTime() - inicio);
+        return resultado;
+    }
+
+    // Estado atual; com 'repor' a true começa uma janela nova (a devolvida deixa de receber registos)
+    EstatisticasOperacao copiar(boolean repor) {
+        Janela lida = janela;
+        if (repor) {
+            janela = new Janela();
+        }
+        long intervalo = System.nanoTime() - lida.inicio;
+
+        long[] baldes = new long[Histograma.NUM_BALDES];
+        long[] somaMaximo = lida.latencias.somar(baldes);
+        long chamadas = 0;
+        for (long n : baldes) {
+            chamadas += n;
+        }
+        long[] percentis = new long[PERCENTIS.length];
+        for (int p = 0; p < PERCENTIS.length; p++) {
+            percentis[p] = Math.min(percentil(baldes, chamadas, PERCENTIS[p]), somaMaximo[1]);
+        }
+
+        Map<String, Long> erros = new HashMap<>();
+        lida.erros.forEach((tipo, n) -> erros.merge(tipo.getSimpleName(), n.sum(), Long::sum));
+        return new EstatisticasOperacao(servico, nome, chamadas, erros, somaMaximo[0],
+                percentis[0], percentis[1], percentis[2], percentis[3], somaMaximo[1], intervalo);
+    }
+
+    // Limite superior do balde onde fica a fração 'p' das chamadas
+    private static long percentil(long[] baldes, long chamadas, double p) {
+        if (chamadas == 0) {
+            return 0;
+        }
+        long alvo = Math.max(1, (long) Math.ceil(p * chamadas));
+        long acumulado = 0;
+        for (int i = 0; i < baldes.length; i++) {
+            acumulado += baldes[i];
+            if (acumulado >= alvo) {
+                return Histograma.limiteSuperior(i);
+            }
+        }
+        return Histograma.limiteSuperior(baldes.length - 1);
+    }
+
+    // Duração e tipo de exceção de uma chamada que falhou (fora do caminho normal de medirComExcecao)
+    private static void registarFalha(Janela janela, long inicio, Throwable erro) {
+        janela.latencias.registar(System.nanoTime() - inicio);
+        contarErro(janela, erro);
+    }
+
+    private static void contarErro(Janela janela, Throwable erro) {
+        janela.erros.computeIfAbsent(erro.getClass(), tipo -> new LongAdder()).increment();
+    }
+}
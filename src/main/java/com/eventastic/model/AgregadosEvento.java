@@ -0,0 +1,66 @@
+package com.eventastic.model;
+
+import com.eventastic.enums.EstadoInscricao;
+import com.eventastic.enums.EstadoPagamento;
+import com.eventastic.enums.TipoFase;
+import com.eventastic.enums.TipoInscricao;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Classe que representa os totais de inscrições e pagamentos de um evento num dado instante
+public final class AgregadosEvento {
+
+    private final int idEvento;
+    private final int numInscricoes;
+    private final long valorEsperadoCentimos; // Soma dos valores totais das inscrições não canceladas
+    private final long valorTransferidoCentimos; // Soma dos valores transferidos
+    private final Map<EstadoInscricao, Integer> porEstadoInscricao;
+    private final Map<EstadoPagamento, Integer> porEstadoPagamento;
+    private final Map<TipoInscricao, Integer> porTipoInscricao;
+    private final Map<TipoFase, Integer> porTipoFase; // Fase em que cada inscrição foi criada
+
+    // Construtor (os arrays de contagens são indexados pelo ordinal de cada enum)
+    public AgregadosEvento(int idEvento, int numInscricoes, long valorEsperadoCentimos, long valorTransferidoCentimos,
+                           int[] porEstadoInscricao, int[] porEstadoPagamento, int[] porTipoInscricao, int[] porTipoFase) {
+        this.idEvento = idEvento;
+        this.numInscricoes = numInscricoes;
+        this.valorEsperadoCentimos = valorEsperadoCentimos;
+        this.valorTransferidoCentimos = valorTransferidoCentimos;
+        this.porEstadoInscricao = contagens(EstadoInscricao.class, porEstadoInscricao);
+        this.porEstadoPagamento = contagens(EstadoPagamento.class, porEstadoPagamento);
+        this.porTipoInscricao = contagens(TipoInscricao.class, porTipoInscricao);
+        this.porTipoFase = contagens(TipoFase.class, porTipoFase);
+    }
+
+    public int getIdEvento() { return idEvento; }
+    public int getNumInscricoes() { return numInscricoes; }
+    public long getValorEsperadoCentimos() { return valorEsperadoCentimos; }
+    public long getValorTransferidoCentimos() { return valorTransferidoCentimos; }
+    public float getValorEsperado() { return valorEsperadoCentimos / 100f; }
+    public float getValorTransferido() { return valorTransferidoCentimos / 100f; }
+    public Map<EstadoInscricao, Integer> getPorEstadoInscricao() { return porEstadoInscricao; }
+    public Map<EstadoPagamento, Integer> getPorEstadoPagamento() { return porEstadoPagamento; }
+    public Map<TipoInscricao, Integer> getPorTipoInscricao() { return porTipoInscricao; }
+    public Map<TipoFase, Integer> getPorTipoFase() { return porTipoFase; }
+
+    @Override
+    public String toString() {
+        return "AgregadosEvento{evento=" + idEvento
+                + ", inscricoes=" + numInscricoes
+                + ", esperado=" + getValorEsperado() + "€"
+                + ", transferido=" + getValorTransferido() + "€"
+                + ", estados=" + porEstadoInscricao
+                + ", pagamentos=" + porEstadoPagamento + "}";
+    }
+
+    // Método auxiliar para converter um array de contagens num mapa imutável (todas as constantes presentes)
+    private static <E extends Enum<E>> Map<E, Integer> contagens(Class<E> tipo, int[] valores) {
+        Map<E, Integer> mapa = new EnumMap<>(tipo);
+        for (E constante : tipo.getEnumConstants()) {
+            mapa.put(constante, valores[constante.ordinal()]);
+        }
+        return Collections.unmodifiableMap(mapa);
+    }
+}
@@ -0,0 +1,64 @@
+package com.eventastic.model;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Classe que representa o catálogo das opções adicionais de um evento, construído sempre que o
+ * evento é criado ou as suas opções são editadas.
+ *
+ * Cada opção distinta (nome, preço em cêntimos) recebe um índice; as opções obrigatórias ficam
+ * marcadas num BitSet. Opções repetidas no evento (mesmo nome e preço) partilham o índice e
+ * contam como obrigatórias se alguma delas o for.
+ */
+public final class CatalogoOpcoes {
+
+    // Chave de uma opção no catálogo (preço em cêntimos, para não comparar floats)
+    private record Chave(String nome, long precoCentimos) { }
+
+    private final Map<Chave, Integer> indices = new HashMap<>();
+    private final List<OpcaoAdicional> opcoes = new ArrayList<>(); // Opção representativa de cada índice
+    private final BitSet obrigatorias = new BitSet();
+    private final int numObrigatorias;
+
+    // Construtor
+    public CatalogoOpcoes(List<OpcaoAdicional> opcoesEvento) {
+        for (OpcaoAdicional opcao : opcoesEvento) {
+            Integer indice = indices.putIfAbsent(new Chave(opcao.getNome(), opcao.getPrecoCentimos()), opcoes.size());
+            if (indice == null) {
+                indice = opcoes.size();
+                opcoes.add(opcao);
+            }
+            if (opcao.isObrigatoria()) {
+                obrigatorias.set(indice);
+            }
+        }
+        this.numObrigatorias = obrigatorias.cardinality();
+    }
+
+    public int getNumOpcoes() { return opcoes.size(); }
+    public int getNumObrigatorias() { return numObrigatorias; }
+
+    // Índice da opção com o mesmo nome e preço, ou -1 se não existir no evento
+    public int indiceDe(OpcaoAdicional opcao) {
+        Integer indice = indices.get(new Chave(opcao.getNome(), opcao.getPrecoCentimos()));
+        return (indice != null) ? indice : -1;
+    }
+
+    public boolean isObrigatoria(int indice) {
+        return obrigatorias.get(indice);
+    }
+
+    // Primeira opção obrigatória que não está em 'incluidas' (para a mensagem de erro), ou null
+    public OpcaoAdicional primeiraObrigatoriaEmFalta(BitSet incluidas) {
+        for (int i = obrigatorias.nextSetBit(0); i >= 0; i = obrigatorias.nextSetBit(i + 1)) {
+            if (!incluidas.get(i)) {
+                return opcoes.get(i);
+            }
+        }
+        return null;
+    }
+}
@@ -9,6 +9,7 @@ public final class ConfiguracaoPreco {
 
     private final TipoInscricao tipoInscricao;
     private final float preco;
+    private final long precoCentimos;
 
     // Construtor
     public ConfiguracaoPreco(TipoInscricao tipoInscricao, float preco) {
@@ -17,6 +18,7 @@ public final class ConfiguracaoPreco {
             throw new IllegalArgumentException("preco nao pode ser negativo");
         }
         this.preco = preco;
+        this.precoCentimos = TabelaPrecos.paraCentimos(preco);
     }
 
     public TipoInscricao getTipoInscricao() {
@@ -27,6 +29,10 @@ public final class ConfiguracaoPreco {
         return preco;
     }
 
+    public long getPrecoCentimos() {
+        return precoCentimos;
+    }
+
     @Override
     public String toString() {
         return "ConfiguracaoPreco{" + tipoInscricao + "=" + preco + "}";
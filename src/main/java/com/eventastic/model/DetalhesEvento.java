@@ -0,0 +1,62 @@
+package com.eventastic.model;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+// Classe que representa os detalhes de um evento num dado instante (não acompanha alterações posteriores)
+public final class DetalhesEvento {
+
+    private final int idEvento;
+    private final String nome;
+    private final String descricao;
+    private final String local;
+    private final LocalDate dataInicioEvento;
+    private final LocalDate dataFimEvento;
+    private final LocalTime horaInicioEvento;
+    private final LocalTime horaFimEvento;
+    private final int maxParticipantes;
+    private final LocalDate dataInicioInscricoes;
+    private final LocalDate dataFimInscricoes;
+    private final boolean ativo;
+    private final List<FaseInscricao> fases;
+    private final List<OpcaoAdicional> opcoes;
+
+    // Construtor (copia os campos do evento)
+    public DetalhesEvento(Event evento) {
+        this.idEvento = evento.getIdEvento();
+        this.nome = evento.getNome();
+        this.descricao = evento.getDescricao();
+        this.local = evento.getLocal();
+        this.dataInicioEvento = evento.getDataInicioEvento();
+        this.dataFimEvento = evento.getDataFimEvento();
+        this.horaInicioEvento = evento.getHoraInicioEvento();
+        this.horaFimEvento = evento.getHoraFimEvento();
+        this.maxParticipantes = evento.getMaxParticipantes();
+        this.dataInicioInscricoes = evento.getDataInicioInscricoes();
+        this.dataFimInscricoes = evento.getDataFimInscricoes();
+        this.ativo = evento.getActive();
+        this.fases = List.copyOf(evento.getFases());
+        this.opcoes = List.copyOf(evento.getOpcoes());
+    }
+
+    public int getIdEvento() { return idEvento; }
+    public String getNome() { return nome; }
+    public String getDescricao() { return descricao; }
+    public String getLocal() { return local; }
+    public LocalDate getDataInicioEvento() { return dataInicioEvento; }
+    public LocalDate getDataFimEvento() { return dataFimEvento; }
+    public LocalTime getHoraInicioEvento() { return horaInicioEvento; }
+    public LocalTime getHoraFimEvento() { return horaFimEvento; }
+    public int getMaxParticipantes() { return maxParticipantes; }
+    public LocalDate getDataInicioInscricoes() { return dataInicioInscricoes; }
+    public LocalDate getDataFimInscricoes() { return dataFimInscricoes; }
+    public boolean isAtivo() { return ativo; }
+    public List<FaseInscricao> getFases() { return fases; }
+    public List<OpcaoAdicional> getOpcoes() { return opcoes; }
+
+    @Override
+    public String toString() {
+        return "DetalhesEvento{id=" + idEvento + ", nome='" + nome + "', ativo=" + ativo + "}";
+    }
+}
@@ -0,0 +1,59 @@
+package com.eventastic.model;
+
+import com.eventastic.enums.EstadoInscricao;
+import com.eventastic.enums.TipoInscricao;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Classe que representa os detalhes de uma inscrição num dado instante (não acompanha alterações posteriores)
+public final class DetalhesInscricao {
+
+    private final int idInscricao;
+    private final int idEvento;
+    private final String nomeEvento; // null se o evento já não existir
+    private final String nome;
+    private final String email;
+    private final TipoInscricao tipoInscricao;
+    private final List<OpcaoAdicional> opcoesEscolhidas;
+    private final long valorTotalCentimos;
+    private final String iban;
+    private final String descricaoTransferencia;
+    private final EstadoInscricao estado;
+    private final LocalDateTime dataCriacao;
+
+    // Construtor (copia os campos da inscrição)
+    public DetalhesInscricao(Inscricao inscricao, String nomeEvento) {
+        this.idInscricao = inscricao.getId();
+        this.idEvento = inscricao.getIdEvento();
+        this.nomeEvento = nomeEvento;
+        this.nome = inscricao.getNome();
+        this.email = inscricao.getEmail();
+        this.tipoInscricao = inscricao.getTipoInscricao();
+        this.opcoesEscolhidas = List.copyOf(inscricao.getOpcoesEscolhidas());
+        this.valorTotalCentimos = inscricao.getValorTotalCentimos();
+        this.iban = inscricao.getIban();
+        this.descricaoTransferencia = inscricao.getDescricaoTransferencia();
+        this.estado = inscricao.getEstado();
+        this.dataCriacao = inscricao.getDataCriacao();
+    }
+
+    public int getIdInscricao() { return idInscricao; }
+    public int getIdEvento() { return idEvento; }
+    public String getNomeEvento() { return nomeEvento; }
+    public String getNome() { return nome; }
+    public String getEmail() { return email; }
+    public TipoInscricao getTipoInscricao() { return tipoInscricao; }
+    public List<OpcaoAdicional> getOpcoesEscolhidas() { return opcoesEscolhidas; }
+    public float getValorTotal() { return valorTotalCentimos / 100f; }
+    public long getValorTotalCentimos() { return valorTotalCentimos; }
+    public String getIban() { return iban; }
+    public String getDescricaoTransferencia() { return descricaoTransferencia; }
+    public EstadoInscricao getEstado() { return estado; }
+    public LocalDateTime getDataCriacao() { return dataCriacao; }
+
+    @Override
+    public String toString() {
+        return "DetalhesInscricao{id=" + idInscricao + ", evento=" + idEvento + ", estado=" + estado + "}";
+    }
+}
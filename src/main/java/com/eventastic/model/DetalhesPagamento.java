@@ -0,0 +1,45 @@
+package com.eventastic.model;
+
+import com.eventastic.enums.EstadoPagamento;
+
+import java.time.LocalDateTime;
+
+// Classe que representa o estado do pagamento de uma inscrição num dado instante
+public final class DetalhesPagamento {
+
+    private final int idInscricao;
+    private final String nome;
+    private final String email;
+    private final long valorTotalCentimos;
+    private final float valorTransferido;
+    private final LocalDateTime dataTransferencia; // null se ainda não foi registada
+    private final EstadoPagamento estado;
+    private final String notasInternas; // null se não houver notas
+
+    // Construtor (copia os campos da inscrição e do pagamento; o pagamento não deve mudar durante a cópia)
+    public DetalhesPagamento(Inscricao inscricao, Pagamento pagamento) {
+        this.idInscricao = inscricao.getId();
+        this.nome = inscricao.getNome();
+        this.email = inscricao.getEmail();
+        this.valorTotalCentimos = inscricao.getValorTotalCentimos();
+        this.valorTransferido = pagamento.getValorTransferido();
+        this.dataTransferencia = pagamento.getDataTransferencia();
+        this.estado = pagamento.getEstado();
+        this.notasInternas = pagamento.getNotasInternas();
+    }
+
+    public int getIdInscricao() { return idInscricao; }
+    public String getNome() { return nome; }
+    public String getEmail() { return email; }
+    public float getValorTotal() { return valorTotalCentimos / 100f; }
+    public long getValorTotalCentimos() { return valorTotalCentimos; }
+    public float getValorTransferido() { return valorTransferido; }
+    public LocalDateTime getDataTransferencia() { return dataTransferencia; }
+    public EstadoPagamento getEstado() { return estado; }
+    public String getNotasInternas() { return notasInternas; }
+
+    @Override
+    public String toString() {
+        return "DetalhesPagamento{inscricao=" + idInscricao + ", estado=" + estado + "}";
+    }
+}
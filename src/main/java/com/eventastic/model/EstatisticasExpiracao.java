@@ -0,0 +1,46 @@
+package com.eventastic.model;
+
+import java.time.LocalDateTime;
+
+// Classe que representa o estado da expiração de eventos em segundo plano
+public final class EstatisticasExpiracao {
+
+    private final long eventosExpirados; // Total de eventos removidos por expiração desde o arranque
+    private final int eventosPendentes; // Eventos já terminados que ainda não foram removidos
+    private final LocalDateTime ultimaVarredura; // null se ainda não houve nenhuma
+    private final long duracaoUltimaVarreduraMs;
+    private final int expiradosUltimaVarredura;
+
+    // Construtor
+    public EstatisticasExpiracao(long eventosExpirados, int eventosPendentes, LocalDateTime ultimaVarredura,
+                                 long duracaoUltimaVarreduraMs, int expiradosUltimaVarredura) {
+        this.eventosExpirados = eventosExpirados;
+        this.eventosPendentes = eventosPendentes;
+        this.ultimaVarredura = ultimaVarredura;
+        this.duracaoUltimaVarreduraMs = duracaoUltimaVarreduraMs;
+        this.expiradosUltimaVarredura = expiradosUltimaVarredura;
+    }
+
+    public long getEventosExpirados() { return eventosExpirados; }
+    public int getEventosPendentes() { return eventosPendentes; }
+    public LocalDateTime getUltimaVarredura() { return ultimaVarredura; }
+    public long getDuracaoUltimaVarreduraMs() { return duracaoUltimaVarreduraMs; }
+    public int getExpiradosUltimaVarredura() { return expiradosUltimaVarredura; }
+
+    // Eventos removidos por segundo na última varredura (0 se não removeu nenhum)
+    public double getTaxaUltimaVarredura() {
+        if (expiradosUltimaVarredura == 0) {
+            return 0;
+        }
+        return expiradosUltimaVarredura * 1000.0 / Math.max(1, duracaoUltimaVarreduraMs);
+    }
+
+    @Override
+    public String toString() {
+        return "EstatisticasExpiracao{expirados=" + eventosExpirados
+                + ", pendentes=" + eventosPendentes
+                + ", ultimaVarredura=" + ultimaVarredura
+                + ", removidosNaUltima=" + expiradosUltimaVarredura
+                + " em " + duracaoUltimaVarreduraMs + "ms}";
+    }
+}
@@ -0,0 +1,81 @@
+package com.eventastic.model;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+// Classe que representa as métricas de uma operação da API desde o arranque (ou a última reposição)
+public final class EstatisticasOperacao {
+
+    private final String servico; // eventos, inscricoes ou pagamentos
+    private final String operacao; // Nome do método da EventasticAPI
+    private final long chamadas;
+    private final Map<String, Long> erros; // Nome simples da exceção -> número de chamadas que a lançaram
+    private final long duracaoTotalNs;
+    private final long p50Ns;
+    private final long p90Ns;
+    private final long p99Ns;
+    private final long p999Ns;
+    private final long maximoNs;
+    private final long intervaloNs; // Tempo decorrido desde o arranque (ou a última reposição)
+
+    // Construtor
+    public EstatisticasOperacao(String servico, String operacao, long chamadas, Map<String, Long> erros,
+                                long duracaoTotalNs, long p50Ns, long p90Ns, long p99Ns, long p999Ns,
+                                long maximoNs, long intervaloNs) {
+        this.servico = Objects.requireNonNull(servico, "servico");
+        this.operacao = Objects.requireNonNull(operacao, "operacao");
+        this.chamadas = chamadas;
+        this.erros = Collections.unmodifiableMap(new TreeMap<>(Objects.requireNonNull(erros, "erros")));
+        this.duracaoTotalNs = duracaoTotalNs;
+        this.p50Ns = p50Ns;
+        this.p90Ns = p90Ns;
+        this.p99Ns = p99Ns;
+        this.p999Ns = p999Ns;
+        this.maximoNs = maximoNs;
+        this.intervaloNs = intervaloNs;
+    }
+
+    public String getServico() { return servico; }
+    public String getOperacao() { return operacao; }
+    public long getChamadas() { return chamadas; }
+    public Map<String, Long> getErros() { return erros; }
+    public long getDuracaoTotalNs() { return duracaoTotalNs; }
+    public long getP50Ns() { return p50Ns; }
+    public long getP90Ns() { return p90Ns; }
+    public long getP99Ns() { return p99Ns; }
+    public long getP999Ns() { return p999Ns; }
+    public long getMaximoNs() { return maximoNs; }
+    public long getIntervaloNs() { return intervaloNs; }
+
+    // Total de chamadas que terminaram com exceção
+    public long getTotalErros() {
+        long total = 0;
+        for (long n : erros.values()) {
+            total += n;
+        }
+        return total;
+    }
+
+    // Duração média por chamada (0 se não houve chamadas)
+    public long getDuracaoMediaNs() {
+        return (chamadas == 0) ? 0 : duracaoTotalNs / chamadas;
+    }
+
+    // Chamadas por segundo no intervalo
+    public double getDebitoPorSegundo() {
+        return (intervaloNs <= 0) ? 0 : chamadas * 1e9 / intervaloNs;
+    }
+
+    @Override
+    public String toString() {
+        return "EstatisticasOperacao{" + servico + "." + operacao
+                + ", chamadas=" + chamadas
+                + ", erros=" + erros
+                + ", p50=" + p50Ns + "ns"
+                + ", p99=" + p99Ns + "ns"
+                + ", p99.9=" + p999Ns + "ns"
+                + ", max=" + maximoNs + "ns}";
+    }
+}
@@ -20,9 +20,11 @@ public final class Event {
     private int maxParticipantes;
     private LocalDate dataInicioInscricoes;
     private LocalDate dataFimInscricoes;
-    private boolean active = true;
-    private List<FaseInscricao> fases;
+    private volatile boolean active = true;
+    private List<FaseInscricao> fases; // Listas imutáveis: os getters devolvem-nas sem copiar
     private List<OpcaoAdicional> opcoes;
+    private TabelaPrecos tabelaPrecos; // Compilada a partir das fases (recompilada em setFases)
+    private CatalogoOpcoes catalogoOpcoes; // Construído a partir das opções (reconstruído em setOpcoes)
 
     // Construtor
     public Event(int idEvento, String nome, String descricao, String local,
@@ -43,8 +45,10 @@ public final class Event {
         this.maxParticipantes = maxParticipantes;
         this.dataInicioInscricoes = Objects.requireNonNull(dataInicioInscricoes, "dataInicioInscricoes");
         this.dataFimInscricoes = Objects.requireNonNull(dataFimInscricoes, "dataFimInscricoes");
-        this.fases = Objects.requireNonNull(fases, "fases");
-        this.opcoes = Objects.requireNonNull(opcoes, "opcoes");
+        this.fases = List.copyOf(Objects.requireNonNull(fases, "fases"));
+        this.tabelaPrecos = new TabelaPrecos(this.fases);
+        this.opcoes = List.copyOf(Objects.requireNonNull(opcoes, "opcoes"));
+        this.catalogoOpcoes = new CatalogoOpcoes(this.opcoes);
     }
 
     // Getters e Setters
@@ -59,8 +63,10 @@ public final class Event {
     public int getMaxParticipantes() { return maxParticipantes; }
     public LocalDate getDataInicioInscricoes() { return dataInicioInscricoes; }
     public LocalDate getDataFimInscricoes() { return dataFimInscricoes; }
-    public List<FaseInscricao> getFases() { return List.copyOf(fases); }
-    public List<OpcaoAdicional> getOpcoes() { return List.copyOf(opcoes); }
+    public List<FaseInscricao> getFases() { return fases; }
+    public List<OpcaoAdicional> getOpcoes() { return opcoes; }
+    public TabelaPrecos getTabelaPrecos() { return tabelaPrecos; }
+    public CatalogoOpcoes getCatalogoOpcoes() { return catalogoOpcoes; }
     public boolean getActive() { return active; }
 
     public void setNome(String nome){this.nome = requireNonBlank(nome, "nome");}
@@ -73,8 +79,16 @@ public final class Event {
     public void setMaxParticipantes(int maxParticipantes){this.maxParticipantes = maxParticipantes;}
     public void setDataInicioInscricoes(LocalDate dataInicioInscricoes) {this.dataInicioInscricoes = Objects.requireNonNull(dataInicioInscricoes, "dataInicioInscricoes");}
     public void setDataFimInscricoes(LocalDate dataFimInscricoes) {this.dataFimInscricoes = Objects.requireNonNull(dataFimInscricoes, "dataFimInscricoes");}
-    public void setFases(List<FaseInscricao> fases) {this.fases = List.copyOf(fases);}
-    public void setOpcoes(List<OpcaoAdicional> opcoes) {this.opcoes = List.copyOf(opcoes);}
+    public void setFases(List<FaseInscricao> fases) {
+        List<FaseInscricao> copia = List.copyOf(fases);
+        this.fases = copia;
+        this.tabelaPrecos = new TabelaPrecos(copia);
+    }
+    public void setOpcoes(List<OpcaoAdicional> opcoes) {
+        List<OpcaoAdicional> copia = List.copyOf(opcoes);
+        this.opcoes = copia;
+        this.catalogoOpcoes = new CatalogoOpcoes(copia);
+    }
     public void setActive(boolean active) {this.active = active;}
 
     @Override
@@ -24,10 +24,10 @@ public final class Inscricao {
     private final TipoInscricao tipoInscricao;
     private final Integer numAluno; // numAluno pode ser null se não for estudante
     private final List<OpcaoAdicional> opcoesEscolhidas;
-    private final float valorTotal;
+    private final float precoFase; // Preço da fase no momento da inscrição (sem opções)
+    private final long valorTotalCentimos; // Valor exato em cêntimos (getValorTotal converte para euros)
     private final String iban;
-    private final String descricaoTransferencia;
-    private final EstadoInscricao estado;
+    private volatile EstadoInscricao estado; // Acompanha o estado do pagamento (ver InscricaoService.atualizarPagamento)
     private final LocalDateTime dataCriacao;
     private final Pagamento pagamento; // Cada inscrição tem um único pagamento associado
 
@@ -37,31 +37,20 @@ public final class Inscricao {
               List<OpcaoAdicional> opcoesEscolhidas, float precoFase,
               EstadoInscricao estado, LocalDateTime dataCriacao) {
         
+        validarDados(nome, email, tipoInscricao, numAluno);
         this.id = id;
         this.idEvento = idEvento;
-        this.nome = requireNonBlank(nome, "nome");
-        this.email = requireNonBlank(email, "email");
+        this.nome = nome;
+        this.email = email;
         this.nif = nif;
-        this.tipoInscricao = Objects.requireNonNull(tipoInscricao, "tipoInscricao");
-        
-        // Validar número de aluno
-        if (tipoInscricao == TipoInscricao.ESTUDANTE) {
-            if (numAluno == null) {
-                throw new IllegalArgumentException("Número de aluno é obrigatório para inscrições de estudante");
-            }
-            validarNumeroAluno(numAluno);
-            this.numAluno = numAluno;
-        } else {
-            if (numAluno != null) {
-                throw new IllegalArgumentException("Número de aluno só é permitido para inscrições de estudante");
-            }
-            this.numAluno = null;
-        }
+        this.tipoInscricao = tipoInscricao;
+        this.numAluno = numAluno;
 
-        this.opcoesEscolhidas = Objects.requireNonNull(opcoesEscolhidas, "opcoesEscolhidas");
-        this.valorTotal = calcularValorTotal(precoFase, opcoesEscolhidas);
+        // Cópia imutável (não copia se já for imutável, ex: lista partilhada pelo snapshot)
+        this.opcoesEscolhidas = List.copyOf(Objects.requireNonNull(opcoesEscolhidas, "opcoesEscolhidas"));
+        this.precoFase = precoFase;
+        this.valorTotalCentimos = calcularValorTotalCentimos(precoFase, this.opcoesEscolhidas);
         this.iban = IBAN_FIXO;
-        this.descricaoTransferencia = gerarDescricaoTransferencia(id, idEvento);
         this.estado = Objects.requireNonNull(estado, "estado");
         this.dataCriacao = Objects.requireNonNull(dataCriacao, "dataCriacao");
         this.pagamento = new Pagamento(id);
@@ -75,24 +64,47 @@ public final class Inscricao {
     public Integer getNif() { return nif; }
     public TipoInscricao getTipoInscricao() { return tipoInscricao; }
     public Integer getNumAluno() { return numAluno; }
-    public List<OpcaoAdicional> getOpcoesEscolhidas() { return List.copyOf(opcoesEscolhidas); }
-    public float getValorTotal() { return valorTotal; }
+    public List<OpcaoAdicional> getOpcoesEscolhidas() { return opcoesEscolhidas; }
+    public float getPrecoFase() { return precoFase; }
+    public float getValorTotal() { return valorTotalCentimos / 100f; }
+    public long getValorTotalCentimos() { return valorTotalCentimos; }
     public String getIban() { return iban; }
-    public String getDescricaoTransferencia() { return descricaoTransferencia; }
+    public String getDescricaoTransferencia() { return gerarDescricaoTransferencia(id, idEvento); } // Gerada a pedido (não ocupa memória por inscrição)
     public EstadoInscricao getEstado() { return estado; }
     public LocalDateTime getDataCriacao() { return dataCriacao; }
     public Pagamento getPagamento() { return pagamento; }
 
+    public void setEstado(EstadoInscricao estado) {
+        this.estado = Objects.requireNonNull(estado, "estado não pode ser nulo");
+    }
+
     @Override
     public String toString() {
         return "Inscricao{id=" + id + ", evento=" + idEvento + ", participante=" + nome + "}";
     }
 
-    // Método auxiliar para calcular o valor total da inscrição
-    private static float calcularValorTotal(float precoFase, List<OpcaoAdicional> opcoes) {
-        float total = precoFase;
-        for (OpcaoAdicional opcao : opcoes) {
-            total += opcao.getPreco();
+    // Valida os dados do participante (as mesmas regras do construtor, ex: antes de entrar na lista de espera)
+    public static void validarDados(String nome, String email, TipoInscricao tipoInscricao, Integer numAluno) {
+        requireNonBlank(nome, "nome");
+        requireNonBlank(email, "email");
+        Objects.requireNonNull(tipoInscricao, "tipoInscricao");
+        
+        // Validar número de aluno
+        if (tipoInscricao == TipoInscricao.ESTUDANTE) {
+            if (numAluno == null) {
+                throw new IllegalArgumentException("Número de aluno é obrigatório para inscrições de estudante");
+            }
+            validarNumeroAluno(numAluno);
+        } else if (numAluno != null) {
+            throw new IllegalArgumentException("Número de aluno só é permitido para inscrições de estudante");
+        }
+    }
+
+    // Método auxiliar para calcular o valor total da inscrição (soma exata em cêntimos)
+    private static long calcularValorTotalCentimos(float precoFase, List<OpcaoAdicional> opcoes) {
+        long total = TabelaPrecos.paraCentimos(precoFase);
+        for (int i = 0; i < opcoes.size(); i++) {
+            total += opcoes.get(i).getPrecoCentimos();
         }
         return total;
     }
@@ -8,6 +8,7 @@ public final class OpcaoAdicional {
     private final String nome;
     private final String descricao;
     private final float preco;
+    private final long precoCentimos;
     private final boolean obrigatoria;
 
     // Construtor
@@ -18,6 +19,7 @@ public final class OpcaoAdicional {
         this.nome = requireNonBlank(nome, "nome");
         this.descricao = requireNonBlank(descricao, "descricao");
         this.preco = preco;
+        this.precoCentimos = TabelaPrecos.paraCentimos(preco);
         this.obrigatoria = obrigatoria;
     }
 
@@ -33,6 +35,10 @@ public final class OpcaoAdicional {
         return preco;
     }
 
+    public long getPrecoCentimos() {
+        return precoCentimos;
+    }
+
     public boolean isObrigatoria() {
         return obrigatoria;
     }
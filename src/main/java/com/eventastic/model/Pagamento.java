@@ -3,16 +3,20 @@ package com.eventastic.model;
 import com.eventastic.enums.EstadoPagamento;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.Objects;
 
 // Classe que representa o pagamento de uma inscrição
 public final class Pagamento {
 
+    private static final long[] SEM_TRANSFERENCIAS = new long[0];
+
     private final int idInscricao;
     private float valorTransferido;
     private LocalDateTime dataTransferencia;
     private String notasInternas;
     private EstadoPagamento estado;
+    private long[] transferenciasReconciliadas; // Chaves das linhas de extrato já somadas (ordenadas)
 
     // Construtor
     public Pagamento(int idInscricao) {
@@ -21,6 +25,7 @@ public final class Pagamento {
         this.dataTransferencia = null;
         this.notasInternas = null;
         this.estado = EstadoPagamento.PENDENTE;
+        this.transferenciasReconciliadas = SEM_TRANSFERENCIAS;
     }
 
     // Getters e Setters
@@ -30,6 +35,17 @@ public final class Pagamento {
     public String getNotasInternas() { return notasInternas; }
     public EstadoPagamento getEstado() { return estado; }
 
+    public long[] getTransferenciasReconciliadas() {
+        return (transferenciasReconciliadas.length == 0) ? SEM_TRANSFERENCIAS : transferenciasReconciliadas.clone();
+    }
+
+    public boolean temTransferenciasReconciliadas() { return transferenciasReconciliadas.length > 0; }
+
+    // Indica se a linha de extrato com esta chave já foi somada ao valor transferido
+    public boolean isTransferenciaReconciliada(long chave) {
+        return Arrays.binarySearch(transferenciasReconciliadas, chave) >= 0;
+    }
+
     public void setValorTransferido(float valorTransferido) {
         if (valorTransferido < 0) {
             throw new IllegalArgumentException("Valor transferido não pode ser negativo");
@@ -49,6 +65,16 @@ public final class Pagamento {
         this.estado = Objects.requireNonNull(estado, "estado não pode ser nulo");
     }
 
+    public void setTransferenciasReconciliadas(long[] chaves) {
+        if (chaves.length == 0) {
+            this.transferenciasReconciliadas = SEM_TRANSFERENCIAS;
+            return;
+        }
+        long[] ordenadas = chaves.clone();
+        Arrays.sort(ordenadas);
+        this.transferenciasReconciliadas = ordenadas;
+    }
+
     @Override
     public String toString() {
         return "Pagamento{inscricao=" + idInscricao + ", estado=" + estado + "}";
@@ -0,0 +1,32 @@
+package com.eventastic.model;
+
+import java.util.List;
+import java.util.Objects;
+
+/*
+ * Classe que representa uma página de uma listagem paginada por cursor (keyset).
+ * O cursor é o ID do último elemento da página: a página seguinte pede os elementos com ID
+ * superior a esse, por isso a paginação é estável mesmo que entretanto sejam criados elementos.
+ */
+public final class Pagina<T> {
+
+    public static final int TAMANHO_MAXIMO = 1000; // Limita a memória usada por cada pedido
+
+    private final List<T> itens;
+    private final Integer proximoCursor; // null quando não há mais elementos
+
+    // Construtor
+    public Pagina(List<T> itens, Integer proximoCursor) {
+        this.itens = List.copyOf(Objects.requireNonNull(itens, "itens"));
+        this.proximoCursor = proximoCursor;
+    }
+
+    public List<T> getItens() { return itens; }
+    public Integer getProximoCursor() { return proximoCursor; }
+    public boolean temMais() { return proximoCursor != null; }
+
+    @Override
+    public String toString() {
+        return "Pagina{itens=" + itens.size() + ", proximoCursor=" + proximoCursor + "}";
+    }
+}
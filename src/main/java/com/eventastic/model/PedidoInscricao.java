@@ -0,0 +1,40 @@
+package com.eventastic.model;
+
+import com.eventastic.enums.TipoInscricao;
+
+import java.util.List;
+import java.util.Objects;
+
+// Classe que representa um pedido de inscrição de um lote (dados de uma linha de uma folha de cálculo)
+public final class PedidoInscricao {
+
+    private final String nome;
+    private final String email;
+    private final Integer nif; // Nif é opcional
+    private final TipoInscricao tipoInscricao;
+    private final Integer numAluno; // Só para estudantes
+    private final List<OpcaoAdicional> opcoesEscolhidas;
+
+    // Construtor (os dados são validados quando o lote é inscrito)
+    public PedidoInscricao(String nome, String email, Integer nif, TipoInscricao tipoInscricao,
+                           Integer numAluno, List<OpcaoAdicional> opcoesEscolhidas) {
+        this.nome = nome;
+        this.email = email;
+        this.nif = nif;
+        this.tipoInscricao = tipoInscricao;
+        this.numAluno = numAluno;
+        this.opcoesEscolhidas = List.copyOf(Objects.requireNonNull(opcoesEscolhidas, "opcoesEscolhidas"));
+    }
+
+    public String getNome() { return nome; }
+    public String getEmail() { return email; }
+    public Integer getNif() { return nif; }
+    public TipoInscricao getTipoInscricao() { return tipoInscricao; }
+    public Integer getNumAluno() { return numAluno; }
+    public List<OpcaoAdicional> getOpcoesEscolhidas() { return opcoesEscolhidas; }
+
+    @Override
+    public String toString() {
+        return "PedidoInscricao{" + nome + ", " + email + "}";
+    }
+}
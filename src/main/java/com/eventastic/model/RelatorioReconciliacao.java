@@ -0,0 +1,40 @@
+package com.eventastic.model;
+
+import java.util.List;
+import java.util.Objects;
+
+// Classe que representa o resultado da reconciliação de um extrato bancário com as inscrições
+public final class RelatorioReconciliacao {
+
+    private final int linhasProcessadas;
+    private final List<Integer> inscricoesPagas; // Valor transferido cobre o valor total
+    private final List<Integer> inscricoesParciais; // Receberam transferências, mas ainda falta pagar
+    private final List<String> linhasNaoAssociadas; // Linhas do extrato sem inscrição correspondente
+    private final int linhasRepetidas; // Linhas já reconciliadas antes (não voltam a ser somadas)
+
+    // Construtor
+    public RelatorioReconciliacao(int linhasProcessadas, List<Integer> inscricoesPagas,
+                                  List<Integer> inscricoesParciais, List<String> linhasNaoAssociadas,
+                                  int linhasRepetidas) {
+        this.linhasProcessadas = linhasProcessadas;
+        this.inscricoesPagas = List.copyOf(Objects.requireNonNull(inscricoesPagas, "inscricoesPagas"));
+        this.inscricoesParciais = List.copyOf(Objects.requireNonNull(inscricoesParciais, "inscricoesParciais"));
+        this.linhasNaoAssociadas = List.copyOf(Objects.requireNonNull(linhasNaoAssociadas, "linhasNaoAssociadas"));
+        this.linhasRepetidas = linhasRepetidas;
+    }
+
+    public int getLinhasProcessadas() { return linhasProcessadas; }
+    public List<Integer> getInscricoesPagas() { return inscricoesPagas; }
+    public List<Integer> getInscricoesParciais() { return inscricoesParciais; }
+    public List<String> getLinhasNaoAssociadas() { return linhasNaoAssociadas; }
+    public int getLinhasRepetidas() { return linhasRepetidas; }
+
+    @Override
+    public String toString() {
+        return "RelatorioReconciliacao{linhas=" + linhasProcessadas
+                + ", pagas=" + inscricoesPagas.size()
+                + ", parciais=" + inscricoesParciais.size()
+                + ", naoAssociadas=" + linhasNaoAssociadas.size()
+                + ", repetidas=" + linhasRepetidas + "}";
+    }
+}
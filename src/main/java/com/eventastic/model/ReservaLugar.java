@@ -0,0 +1,27 @@
+package com.eventastic.model;
+
+import java.time.LocalDateTime;
+
+// Classe que representa um lugar reservado num evento por tempo limitado, à espera de ser confirmado
+public final class ReservaLugar {
+
+    private final long idReserva;
+    private final int idEvento;
+    private final LocalDateTime expiraEm; // Depois disto o lugar volta a ficar livre (com até um tick de atraso)
+
+    // Construtor
+    public ReservaLugar(long idReserva, int idEvento, LocalDateTime expiraEm) {
+        this.idReserva = idReserva;
+        this.idEvento = idEvento;
+        this.expiraEm = expiraEm;
+    }
+
+    public long getIdReserva() { return idReserva; }
+    public int getIdEvento() { return idEvento; }
+    public LocalDateTime getExpiraEm() { return expiraEm; }
+
+    @Override
+    public String toString() {
+        return "ReservaLugar{id=" + idReserva + ", evento=" + idEvento + ", expiraEm=" + expiraEm + "}";
+    }
+}
@@ -0,0 +1,29 @@
+package com.eventastic.model;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+// Classe que representa o resultado da inscrição de um lote de pedidos
+public final class ResultadoLote {
+
+    private final List<Inscricao> inscricoes; // Inscrições criadas (pela ordem dos pedidos)
+    private final Map<Integer, String> erros; // Posição do pedido no lote (a partir de 0) -> motivo
+
+    // Construtor
+    public ResultadoLote(List<Inscricao> inscricoes, Map<Integer, String> erros) {
+        this.inscricoes = List.copyOf(Objects.requireNonNull(inscricoes, "inscricoes"));
+        this.erros = Collections.unmodifiableMap(new TreeMap<>(Objects.requireNonNull(erros, "erros")));
+    }
+
+    public List<Inscricao> getInscricoes() { return inscricoes; }
+    public Map<Integer, String> getErros() { return erros; }
+    public boolean isSemErros() { return erros.isEmpty(); }
+
+    @Override
+    public String toString() {
+        return "ResultadoLote{inscritos=" + inscricoes.size() + ", erros=" + erros.size() + "}";
+    }
+}
@@ -0,0 +1,80 @@
+package com.eventastic.model;
+
+import com.eventastic.enums.TipoFase;
+import com.eventastic.enums.TipoInscricao;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/*
+ * Classe que representa a tabela de preços de um evento, compilada a partir das fases de inscrição
+ * sempre que o evento é criado ou as suas fases são editadas.
+ *
+ * Cada fase fica reduzida a um intervalo de dias (epoch day, inclusive) e a um preço por tipo de
+ * inscrição, guardado num array indexado pelo ordinal de TipoInscricao. Resolver o preço de uma
+ * inscrição é assim uma comparação de inteiros por fase, sem criar datas nem consultar mapas.
+ */
+public final class TabelaPrecos {
+
+    private static final TipoInscricao[] TIPOS = TipoInscricao.values();
+
+    private final long[] inicioDia;
+    private final long[] fimDia;
+    private final TipoFase[] tiposFase;
+    private final float[] precos; // [fase * TIPOS.length + tipo.ordinal()]
+    private final long[] precosCentimos; // Mesma disposição de 'precos', em cêntimos
+
+    // Construtor
+    public TabelaPrecos(List<FaseInscricao> fases) {
+        int numFases = fases.size();
+        this.inicioDia = new long[numFases];
+        this.fimDia = new long[numFases];
+        this.tiposFase = new TipoFase[numFases];
+        this.precos = new float[numFases * TIPOS.length];
+        this.precosCentimos = new long[numFases * TIPOS.length];
+
+        for (int i = 0; i < numFases; i++) {
+            FaseInscricao fase = fases.get(i);
+            inicioDia[i] = fase.getDataInicio().toEpochDay();
+            fimDia[i] = fase.getDataFim().toEpochDay();
+            tiposFase[i] = fase.getTipoFase();
+            for (TipoInscricao tipo : TIPOS) {
+                ConfiguracaoPreco config = fase.getConfiguracoes().get(tipo);
+                if (config != null) {
+                    precos[i * TIPOS.length + tipo.ordinal()] = config.getPreco();
+                    precosCentimos[i * TIPOS.length + tipo.ordinal()] = config.getPrecoCentimos();
+                }
+            }
+        }
+    }
+
+    public int getNumFases() { return inicioDia.length; }
+
+    // Índice da fase ativa no dia dado (a última que o inclua, como na lista de fases), ou -1
+    public int faseAtiva(LocalDate dia) {
+        long epochDay = dia.toEpochDay();
+        for (int i = inicioDia.length - 1; i >= 0; i--) {
+            if (epochDay >= inicioDia[i] && epochDay <= fimDia[i]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public TipoFase getTipoFase(int fase) {
+        return tiposFase[fase];
+    }
+
+    public float getPreco(int fase, TipoInscricao tipo) {
+        return precos[fase * TIPOS.length + tipo.ordinal()];
+    }
+
+    public long getPrecoCentimos(int fase, TipoInscricao tipo) {
+        return precosCentimos[fase * TIPOS.length + tipo.ordinal()];
+    }
+
+    // Converte um valor em euros para cêntimos (arredondado ao cêntimo mais próximo)
+    public static long paraCentimos(float valor) {
+        return Math.round((double) valor * 100);
+    }
+}
@@ -0,0 +1,90 @@
+package com.eventastic.notificacao;
+
+import com.eventastic.model.Inscricao;
+
+import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Envio assíncrono dos avisos de promoção da lista de espera.
+ *
+ * Os avisos são entregues ao DestinoPromocoes por uma única thread, pela ordem das promoções.
+ * agendar() nunca bloqueia nem envia na thread de quem promove: quem promove tem o lock da
+ * partição do evento (ou é a thread que devolve os lugares das reservas expiradas) e não pode
+ * ficar preso num destino lento. A fila tem no máximo CAPACIDADE_FILA avisos; se um destino lento
+ * a deixar encher, os avisos seguintes são descartados (a promoção em si já está feita e gravada,
+ * só o aviso se perde), contados em getDescartados() e registados em System.err (o primeiro e
+ * depois um a cada INTERVALO_REGISTO_DESCARTES, para não inundar o registo).
+ * Um aviso que falha é reenviado (ver EnviosComRepeticao); se falhar sempre, se for descartado ou
+ * se for agendado depois de close(), é contado como não entregue.
+ */
+public final class AvisosPromocao implements AutoCloseable {
+
+    private static final int CAPACIDADE_FILA = 10_000;
+    private static final long INTERVALO_REGISTO_DESCARTES = 1_000;
+
+    private final EnviosComRepeticao envios = EnviosComRepeticao.comDescarte("eventastic-promocoes", CAPACIDADE_FILA);
+    private final LongAdder entregues = new LongAdder();
+    private final LongAdder naoEntregues = new LongAdder();
+    private final AtomicLong descartados = new AtomicLong();
+    private volatile DestinoPromocoes destino;
+
+    // Construtor (a thread só é criada quando há avisos e termina quando fica inativa)
+    public AvisosPromocao(DestinoPromocoes destino) {
+        this.destino = Objects.requireNonNull(destino, "destino");
+    }
+
+    // Troca o destino dos avisos (aplica-se aos avisos enviados a partir deste momento)
+    public void setDestino(DestinoPromocoes destino) {
+        this.destino = Objects.requireNonNull(destino, "destino");
+    }
+
+    // Agenda o aviso de uma inscrição promovida e retorna de imediato
+    public void agendar(Inscricao inscricao) {
+        try {
+            envios.executar(() -> entregar(inscricao));
+        } catch (RejectedExecutionException e) {
+            naoEntregues.increment();
+            if (envios.isEncerrado()) {
+                System.err.println("Aviso de promoção não enviado (avisos encerrados): " + inscricao);
+                return;
+            }
+            long total = descartados.incrementAndGet();
+            if (total % INTERVALO_REGISTO_DESCARTES == 1) {
+                System.err.println("Aviso de promoção descartado (fila com " + CAPACIDADE_FILA
+                        + " avisos por enviar; " + total + " descartados até agora): " + inscricao);
+            }
+        }
+    }
+
+    public long getEntregues() { return entregues.sum(); }
+    public long getNaoEntregues() { return naoEntregues.sum(); }
+    public long getDescartados() { return descartados.get(); }
+
+    // Número de avisos à espera ou em curso
+    public int getPendentes() {
+        return envios.getPendentes();
+    }
+
+    // Entrega um aviso (com repetições) e conta o resultado
+    private void entregar(Inscricao inscricao) {
+        try {
+            if (envios.entregar("Aviso de promoção", inscricao, () -> destino.enviar(inscricao))) {
+                entregues.increment();
+            } else {
+                naoEntregues.increment();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            naoEntregues.increment();
+        }
+    }
+
+    // Deixa de aceitar avisos (os seguintes são contados como não entregues) e espera pelos pendentes
+    @Override
+    public void close() {
+        envios.close();
+    }
+}
@@ -0,0 +1,94 @@
+package com.eventastic.notificacao;
+
+import com.eventastic.model.Inscricao;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
+
+/*
+ * Caixa de saída assíncrona para os reembolsos e notificações de eventos cancelados.
+ *
+ * Cada cancelamento é uma tarefa: primeiro os lotes de reembolsos e depois os de notificações
+ * (até TAMANHO_LOTE inscrições por lote), entregues por ordem ao DestinoCancelamentos.
+ * Um lote que falha é reenviado (ver EnviosComRepeticao); se falhar sempre, fica registado na
+ * tarefa como não entregue e a tarefa continua.
+ *
+ * As tarefas correm num pool limitado de threads (NUM_THREADS) com uma fila limitada. Se a fila
+ * encher, a thread que cancela o evento faz ela própria o envio (backpressure), em vez de se
+ * acumularem tarefas sem limite em memória; por isso agendar() não pode ser chamado com locks
+ * partilhados (o EventService agenda depois de libertar o seu).
+ */
+public final class CaixaSaida implements AutoCloseable {
+
+    private static final int TAMANHO_LOTE = 500;
+    private static final int NUM_THREADS = 2;
+    private static final int CAPACIDADE_FILA = 256;
+
+    private final EnviosComRepeticao envios;
+    private volatile DestinoCancelamentos destino;
+
+    // Construtor (as threads só são criadas quando há tarefas e terminam quando ficam inativas)
+    public CaixaSaida(DestinoCancelamentos destino) {
+        this.destino = Objects.requireNonNull(destino, "destino");
+        this.envios = EnviosComRepeticao.comBackpressure("eventastic-notificacoes", NUM_THREADS, CAPACIDADE_FILA);
+    }
+
+    // Troca o destino das mensagens (aplica-se aos lotes enviados a partir deste momento)
+    public void setDestino(DestinoCancelamentos destino) {
+        this.destino = Objects.requireNonNull(destino, "destino");
+    }
+
+    // Agenda o envio dos reembolsos e notificações de um evento e retorna de imediato
+    public TarefaCancelamento agendar(int idEvento, List<Inscricao> inscricoes) {
+        int numLotes = Math.max(1, (inscricoes.size() + TAMANHO_LOTE - 1) / TAMANHO_LOTE);
+        TarefaCancelamento tarefa = new TarefaCancelamento(idEvento, inscricoes.size(),
+                numLotes * LoteCancelamento.Tipo.values().length);
+        try {
+            envios.executar(() -> processar(tarefa, inscricoes));
+        } catch (RejectedExecutionException e) {
+            throw new IllegalStateException("Caixa de saída encerrada: não é possível enviar mensagens do evento " + idEvento);
+        }
+        return tarefa;
+    }
+
+    // Número de tarefas à espera ou em curso
+    public int getTarefasPendentes() {
+        return envios.getPendentes();
+    }
+
+    private void processar(TarefaCancelamento tarefa, List<Inscricao> inscricoes) {
+        try {
+            for (LoteCancelamento.Tipo tipo : LoteCancelamento.Tipo.values()) {
+                int inicio = 0;
+                do {
+                    int fim = Math.min(inicio + TAMANHO_LOTE, inscricoes.size());
+                    entregar(tarefa, new LoteCancelamento(tarefa.getIdEvento(), tipo,
+                            inscricoes.subList(inicio, fim), inicio, inscricoes.size()));
+                    inicio = fim;
+                } while (inicio < inscricoes.size());
+            }
+            tarefa.concluir();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            tarefa.falhar(e);
+        } catch (RuntimeException e) {
+            tarefa.falhar(e);
+        }
+    }
+
+    // Entrega um lote (com repetições); se falhar sempre, fica registado na tarefa
+    private void entregar(TarefaCancelamento tarefa, LoteCancelamento lote) throws InterruptedException {
+        if (envios.entregar("Lote", lote, () -> destino.enviar(lote))) {
+            tarefa.loteEntregue();
+        } else {
+            tarefa.loteNaoEntregue(lote);
+        }
+    }
+
+    // Deixa de aceitar tarefas e espera que as pendentes terminem
+    @Override
+    public void close() {
+        envios.close();
+    }
+}
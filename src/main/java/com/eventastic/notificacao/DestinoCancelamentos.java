@@ -0,0 +1,14 @@
+package com.eventastic.notificacao;
+
+import java.io.IOException;
+
+/*
+ * Destino das instruções de reembolso e das notificações geradas ao cancelar um evento
+ * (consola, memória, ficheiro, ou um serviço externo de email/pagamentos).
+ * Recebe as mensagens em lotes; se lançar uma exceção, o lote é reenviado pela CaixaSaida.
+ */
+@FunctionalInterface
+public interface DestinoCancelamentos {
+
+    void enviar(LoteCancelamento lote) throws IOException;
+}
@@ -0,0 +1,43 @@
+package com.eventastic.notificacao;
+
+import com.eventastic.model.Inscricao;
+import com.eventastic.model.Pagamento;
+
+import java.io.PrintStream;
+
+// Destino por omissão: imprime os reembolsos a efetuar e simula o envio das notificações na consola
+public final class DestinoConsola implements DestinoCancelamentos {
+
+    @Override
+    public void enviar(LoteCancelamento lote) {
+        // O texto de cada lote é montado antes de ser impresso, para não se misturar com outros eventos
+        StringBuilder texto = new StringBuilder();
+        if (lote.getTipo() == LoteCancelamento.Tipo.REEMBOLSOS) {
+            if (lote.isPrimeiro()) {
+                texto.append("========== REEMBOLSOS A EFETUAR (evento ").append(lote.getIdEvento()).append(") ==========\n");
+            }
+            for (Inscricao inscricao : lote.getInscricoes()) {
+                Pagamento pagamento = inscricao.getPagamento();
+                texto.append("Inscrição ID: ").append(inscricao.getId()).append('\n');
+                texto.append("  Participante: ").append(inscricao.getNome()).append('\n');
+                texto.append("  Email: ").append(inscricao.getEmail()).append('\n');
+                texto.append("  Valor a Reembolsar: ").append(pagamento.getValorTransferido()).append("€\n");
+                texto.append("  Estado Pagamento: ").append(pagamento.getEstado()).append('\n');
+                texto.append("---\n");
+            }
+        } else {
+            if (lote.isPrimeiro()) {
+                texto.append("Notificando ").append(lote.getTotal()).append(" participantes sobre cancelamento...\n");
+            }
+            for (Inscricao inscricao : lote.getInscricoes()) {
+                texto.append("  [NOTIFICAÇÃO] Email enviado para: ").append(inscricao.getEmail()).append('\n');
+            }
+            if (lote.isUltimo()) {
+                texto.append("Notificações enviadas.\n\n");
+            }
+        }
+        PrintStream out = System.out;
+        out.print(texto);
+        out.flush();
+    }
+}
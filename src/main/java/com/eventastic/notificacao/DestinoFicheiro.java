@@ -0,0 +1,44 @@
+package com.eventastic.notificacao;
+
+import com.eventastic.model.Inscricao;
+import com.eventastic.model.Pagamento;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/*
+ * Destino que acrescenta as mensagens a um ficheiro de texto (uma linha por mensagem):
+ *   REEMBOLSO;idEvento;idInscricao;email;valorTransferido;estadoPagamento
+ *   NOTIFICACAO;idEvento;idInscricao;email
+ */
+public final class DestinoFicheiro implements DestinoCancelamentos {
+
+    private final Path caminho;
+
+    // Construtor
+    public DestinoFicheiro(Path caminho) {
+        this.caminho = Objects.requireNonNull(caminho, "caminho");
+    }
+
+    @Override
+    public synchronized void enviar(LoteCancelamento lote) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(caminho, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE)) {
+            for (Inscricao inscricao : lote.getInscricoes()) {
+                if (lote.getTipo() == LoteCancelamento.Tipo.REEMBOLSOS) {
+                    Pagamento pagamento = inscricao.getPagamento();
+                    out.write("REEMBOLSO;" + lote.getIdEvento() + ";" + inscricao.getId() + ";" + inscricao.getEmail()
+                            + ";" + pagamento.getValorTransferido() + ";" + pagamento.getEstado());
+                } else {
+                    out.write("NOTIFICACAO;" + lote.getIdEvento() + ";" + inscricao.getId() + ";" + inscricao.getEmail());
+                }
+                out.newLine();
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.eventastic.notificacao;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Destino que guarda os lotes recebidos em memória (útil para testes e demonstrações)
+public final class DestinoMemoria implements DestinoCancelamentos {
+
+    private final List<LoteCancelamento> lotes = new ArrayList<>();
+
+    @Override
+    public synchronized void enviar(LoteCancelamento lote) {
+        lotes.add(lote);
+    }
+
+    // Cópia dos lotes recebidos até agora (pela ordem de chegada)
+    public synchronized List<LoteCancelamento> getLotes() {
+        return List.copyOf(lotes);
+    }
+
+    // Número de mensagens recebidas de um tipo (uma por inscrição)
+    public synchronized int contarMensagens(LoteCancelamento.Tipo tipo) {
+        int total = 0;
+        for (LoteCancelamento lote : lotes) {
+            if (lote.getTipo() == tipo) {
+                total += lote.getInscricoes().size();
+            }
+        }
+        return total;
+    }
+
+    public synchronized void limpar() {
+        lotes.clear();
+    }
+}
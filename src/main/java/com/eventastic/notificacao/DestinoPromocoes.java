@@ -0,0 +1,21 @@
+package com.eventastic.notificacao;
+
+import com.eventastic.model.Inscricao;
+
+import java.io.IOException;
+
+/*
+ * Destino dos avisos de promoção da lista de espera: a inscrição criada para quem estava à espera
+ * quando um lugar ficou livre (consola, ou um serviço externo de email).
+ * Se lançar uma exceção, o aviso é reenviado pelos AvisosPromocao.
+ */
+@FunctionalInterface
+public interface DestinoPromocoes {
+
+    // Destino por omissão: simula o envio do aviso na consola
+    DestinoPromocoes CONSOLA = inscricao -> System.out.println("  [NOTIFICAÇÃO] Lugar atribuído a "
+            + inscricao.getEmail() + ": inscrição " + inscricao.getId() + " no evento " + inscricao.getIdEvento()
+            + " (" + inscricao.getValorTotal() + "€)");
+
+    void enviar(Inscricao inscricao) throws IOException;
+}
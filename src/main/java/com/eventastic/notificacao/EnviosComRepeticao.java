@@ -0,0 +1,112 @@
+package com.eventastic.notificacao;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Envios em segundo plano com repetição, partilhados pela CaixaSaida e pelos AvisosPromocao.
+ *
+ * As tarefas correm num pool de threads daemon (criadas quando há tarefas e terminadas quando
+ * ficam inativas). Uma mensagem que falha é reenviada até MAX_TENTATIVAS vezes, com espera
+ * exponencial a partir de ESPERA_INICIAL_MS; se falhar sempre, é registada em System.err e
+ * entregar() retorna false. Depois de close(), executar() lança RejectedExecutionException.
+ */
+final class EnviosComRepeticao implements AutoCloseable {
+
+    static final int MAX_TENTATIVAS = 3;
+    private static final long ESPERA_INICIAL_MS = 100;
+
+    // Envio de uma mensagem ao seu destino (pode falhar e ser repetido)
+    @FunctionalInterface
+    interface Envio {
+        void enviar() throws IOException;
+    }
+
+    private final ThreadPoolExecutor executor;
+
+    private EnviosComRepeticao(String nomeThread, int numThreads, BlockingQueue<Runnable> fila,
+                               RejectedExecutionHandler aoRejeitar) {
+        this.executor = new ThreadPoolExecutor(numThreads, numThreads, 30, TimeUnit.SECONDS, fila,
+                r -> {
+                    Thread thread = new Thread(r, nomeThread);
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                aoRejeitar);
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /*
+     * Fila limitada: se encher, quem submete executa a tarefa (backpressure, em vez de acumular
+     * tarefas sem limite em memória). Só serve para quem pode bloquear durante o envio.
+     */
+    static EnviosComRepeticao comBackpressure(String nomeThread, int numThreads, int capacidadeFila) {
+        return new EnviosComRepeticao(nomeThread, numThreads, new ArrayBlockingQueue<>(capacidadeFila),
+                (tarefa, pool) -> {
+                    if (pool.isShutdown()) {
+                        throw new RejectedExecutionException("Envios encerrados");
+                    }
+                    tarefa.run(); // Fila cheia: quem submete faz o envio
+                });
+    }
+
+    /*
+     * Fila limitada e uma só thread (envios pela ordem de chegada): submeter nunca bloqueia nem
+     * envia na thread de quem submete. Com a fila cheia, executar() lança RejectedExecutionException
+     * e a tarefa é descartada (quem submete decide como a contar).
+     */
+    static EnviosComRepeticao comDescarte(String nomeThread, int capacidadeFila) {
+        return new EnviosComRepeticao(nomeThread, 1, new ArrayBlockingQueue<>(capacidadeFila),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Agenda uma tarefa (RejectedExecutionException depois de close() ou, com descarte, com a fila cheia)
+    void executar(Runnable tarefa) {
+        executor.execute(tarefa);
+    }
+
+    // Entrega uma mensagem, tentando de novo (com espera exponencial) se o destino falhar; false se não foi entregue
+    boolean entregar(String descricao, Object mensagem, Envio envio) throws InterruptedException {
+        long espera = ESPERA_INICIAL_MS;
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                envio.enviar();
+                return true;
+            } catch (IOException | RuntimeException e) {
+                if (tentativa == MAX_TENTATIVAS) {
+                    System.err.println(descricao + " não entregue após " + MAX_TENTATIVAS + " tentativas: "
+                            + mensagem + " (" + e.getMessage() + ")");
+                    return false;
+                }
+                Thread.sleep(espera);
+                espera *= 2;
+            }
+        }
+    }
+
+    // true depois de close()
+    boolean isEncerrado() {
+        return executor.isShutdown();
+    }
+
+    // Número de tarefas à espera ou em curso
+    int getPendentes() {
+        return executor.getQueue().size() + executor.getActiveCount();
+    }
+
+    // Deixa de aceitar tarefas e espera que as pendentes terminem
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.eventastic.notificacao;
+
+import com.eventastic.model.Inscricao;
+
+import java.util.List;
+import java.util.Objects;
+
+// Classe que representa um lote de reembolsos ou de notificações de um evento cancelado
+public final class LoteCancelamento {
+
+    // Tipo de mensagens do lote
+    public enum Tipo {
+        REEMBOLSOS,
+        NOTIFICACOES
+    }
+
+    private final int idEvento;
+    private final Tipo tipo;
+    private final List<Inscricao> inscricoes;
+    private final int inicio; // Posição da primeira inscrição do lote no total do evento
+    private final int total; // Número total de inscrições do evento
+
+    // Construtor
+    public LoteCancelamento(int idEvento, Tipo tipo, List<Inscricao> inscricoes, int inicio, int total) {
+        this.idEvento = idEvento;
+        this.tipo = Objects.requireNonNull(tipo, "tipo");
+        this.inscricoes = List.copyOf(Objects.requireNonNull(inscricoes, "inscricoes"));
+        this.inicio = inicio;
+        this.total = total;
+    }
+
+    public int getIdEvento() { return idEvento; }
+    public Tipo getTipo() { return tipo; }
+    public List<Inscricao> getInscricoes() { return inscricoes; }
+    public int getInicio() { return inicio; }
+    public int getTotal() { return total; }
+
+    // true se é o primeiro lote deste tipo para o evento
+    public boolean isPrimeiro() {
+        return inicio == 0;
+    }
+
+    // true se é o último lote deste tipo para o evento
+    public boolean isUltimo() {
+        return inicio + inscricoes.size() >= total;
+    }
+
+    @Override
+    public String toString() {
+        return "LoteCancelamento{evento=" + idEvento + ", " + tipo + ", "
+                + inicio + "-" + (inicio + inscricoes.size()) + " de " + total + "}";
+    }
+}
@@ -0,0 +1,101 @@
+package com.eventastic.notificacao;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Referência para o envio (em segundo plano) dos reembolsos e notificações de um evento cancelado.
+ * Permite acompanhar o progresso e esperar pelo fim. Lotes que falharam em todas as tentativas
+ * ficam guardados em getLotesNaoEntregues().
+ */
+public final class TarefaCancelamento {
+
+    private final int idEvento;
+    private final int numParticipantes;
+    private final int totalLotes;
+    private final AtomicInteger lotesEntregues = new AtomicInteger();
+    private final List<LoteCancelamento> lotesNaoEntregues = new ArrayList<>();
+    private final CompletableFuture<TarefaCancelamento> conclusao = new CompletableFuture<>();
+
+    // Construtor
+    TarefaCancelamento(int idEvento, int numParticipantes, int totalLotes) {
+        this.idEvento = idEvento;
+        this.numParticipantes = numParticipantes;
+        this.totalLotes = totalLotes;
+    }
+
+    // Tarefa já concluída, sem mensagens (ex: evento expirado, que não gera reembolsos)
+    public static TarefaCancelamento semMensagens(int idEvento) {
+        TarefaCancelamento tarefa = new TarefaCancelamento(idEvento, 0, 0);
+        tarefa.conclusao.complete(tarefa);
+        return tarefa;
+    }
+
+    public int getIdEvento() { return idEvento; }
+    public int getNumParticipantes() { return numParticipantes; }
+    public int getTotalLotes() { return totalLotes; }
+    public int getLotesEntregues() { return lotesEntregues.get(); }
+
+    public synchronized List<LoteCancelamento> getLotesNaoEntregues() {
+        return List.copyOf(lotesNaoEntregues);
+    }
+
+    public boolean isConcluida() {
+        return conclusao.isDone();
+    }
+
+    // Future completado quando todos os lotes foram processados (entregues ou não)
+    public CompletableFuture<TarefaCancelamento> getConclusao() {
+        return conclusao;
+    }
+
+    // Espera pela conclusão da tarefa
+    public TarefaCancelamento aguardar() throws InterruptedException {
+        try {
+            return conclusao.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha no envio das mensagens do evento " + idEvento, e.getCause());
+        }
+    }
+
+    // Espera pela conclusão da tarefa durante, no máximo, 'limite'; retorna false se não terminou
+    public boolean aguardar(Duration limite) throws InterruptedException {
+        try {
+            conclusao.get(limite.toNanos(), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha no envio das mensagens do evento " + idEvento, e.getCause());
+        }
+    }
+
+    void loteEntregue() {
+        lotesEntregues.incrementAndGet();
+    }
+
+    synchronized void loteNaoEntregue(LoteCancelamento lote) {
+        lotesNaoEntregues.add(lote);
+    }
+
+    void concluir() {
+        conclusao.complete(this);
+    }
+
+    void falhar(Throwable erro) {
+        conclusao.completeExceptionally(erro);
+    }
+
+    @Override
+    public String toString() {
+        return "TarefaCancelamento{evento=" + idEvento + ", participantes=" + numParticipantes
+                + ", lotes=" + lotesEntregues.get() + "/" + totalLotes
+                + (isConcluida() ? ", concluída" : "") + "}";
+    }
+}
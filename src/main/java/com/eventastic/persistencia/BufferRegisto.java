@@ -0,0 +1,23 @@
+package com.eventastic.persistencia;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+
+// Buffer reutilizável para serializar registos sem alocar por operação
+final class BufferRegisto extends ByteArrayOutputStream {
+
+    final DataOutputStream dados = new DataOutputStream(this);
+
+    BufferRegisto(int capacidade) {
+        super(capacidade);
+    }
+
+    BufferRegisto limpar() {
+        reset();
+        return this;
+    }
+
+    byte[] bytes() {
+        return buf;
+    }
+}
@@ -0,0 +1,269 @@
+package com.eventastic.persistencia;
+
+import com.eventastic.enums.EstadoInscricao;
+import com.eventastic.enums.EstadoPagamento;
+import com.eventastic.enums.TipoFase;
+import com.eventastic.enums.TipoInscricao;
+import com.eventastic.model.ConfiguracaoPreco;
+import com.eventastic.model.Event;
+import com.eventastic.model.FaseInscricao;
+import com.eventastic.model.Inscricao;
+import com.eventastic.model.OpcaoAdicional;
+import com.eventastic.model.Pagamento;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+// Serialização binária das entidades guardadas no journal e nos snapshots
+final class CodecRegistos {
+
+    private static final TipoFase[] TIPOS_FASE = TipoFase.values();
+    private static final TipoInscricao[] TIPOS_INSCRICAO = TipoInscricao.values();
+    private static final EstadoInscricao[] ESTADOS_INSCRICAO = EstadoInscricao.values();
+    private static final EstadoPagamento[] ESTADOS_PAGAMENTO = EstadoPagamento.values();
+
+    private CodecRegistos() {
+    }
+
+    // ---------- Evento ----------
+
+    static void escreverEvento(DataOutput out, Event evento) throws IOException {
+        out.writeInt(evento.getIdEvento());
+        escreverTexto(out, evento.getNome());
+        escreverTexto(out, evento.getDescricao());
+        escreverTexto(out, evento.getLocal());
+        escreverData(out, evento.getDataInicioEvento());
+        escreverData(out, evento.getDataFimEvento());
+        out.writeLong(evento.getHoraInicioEvento().toNanoOfDay());
+        out.writeLong(evento.getHoraFimEvento().toNanoOfDay());
+        out.writeInt(evento.getMaxParticipantes());
+        escreverData(out, evento.getDataInicioInscricoes());
+        escreverData(out, evento.getDataFimInscricoes());
+
+        List<FaseInscricao> fases = evento.getFases();
+        out.writeByte(fases.size());
+        for (FaseInscricao fase : fases) {
+            out.writeByte(fase.getTipoFase().ordinal());
+            escreverData(out, fase.getDataInicio());
+            escreverData(out, fase.getDataFim());
+            for (TipoInscricao tipo : TIPOS_INSCRICAO) {
+                out.writeFloat(fase.obterPreco(tipo));
+            }
+        }
+
+        escreverOpcoes(out, evento.getOpcoes());
+    }
+
+    static Event lerEvento(DataInput in) throws IOException {
+        int id = in.readInt();
+        String nome = lerTexto(in);
+        String descricao = lerTexto(in);
+        String local = lerTexto(in);
+        LocalDate dataInicioEvento = lerData(in);
+        LocalDate dataFimEvento = lerData(in);
+        LocalTime horaInicio = LocalTime.ofNanoOfDay(in.readLong());
+        LocalTime horaFim = LocalTime.ofNanoOfDay(in.readLong());
+        int maxParticipantes = in.readInt();
+        LocalDate dataInicioInscricoes = lerData(in);
+        LocalDate dataFimInscricoes = lerData(in);
+
+        int numFases = in.readByte();
+        List<FaseInscricao> fases = new ArrayList<>(numFases);
+        for (int i = 0; i < numFases; i++) {
+            TipoFase tipoFase = TIPOS_FASE[in.readByte()];
+            LocalDate inicio = lerData(in);
+            LocalDate fim = lerData(in);
+            Map<TipoInscricao, ConfiguracaoPreco> precos = new EnumMap<>(TipoInscricao.class);
+            for (TipoInscricao tipo : TIPOS_INSCRICAO) {
+                precos.put(tipo, new ConfiguracaoPreco(tipo, in.readFloat()));
+            }
+            fases.add(new FaseInscricao(tipoFase, inicio, fim, precos));
+        }
+
+        List<OpcaoAdicional> opcoes = lerOpcoes(in);
+        return new Event(id, nome, descricao, local, dataInicioEvento, dataFimEvento, horaInicio, horaFim,
+                maxParticipantes, dataInicioInscricoes, dataFimInscricoes, List.copyOf(fases), opcoes);
+    }
+
+    // ---------- Inscrição ----------
+
+    static void escreverInscricao(DataOutput out, Inscricao inscricao) throws IOException {
+        out.writeInt(inscricao.getId());
+        out.writeInt(inscricao.getIdEvento());
+        escreverTexto(out, inscricao.getNome());
+        escreverTexto(out, inscricao.getEmail());
+        escreverInteiroOpcional(out, inscricao.getNif());
+        out.writeByte(inscricao.getTipoInscricao().ordinal());
+        escreverInteiroOpcional(out, inscricao.getNumAluno());
+        escreverOpcoes(out, inscricao.getOpcoesEscolhidas());
+        out.writeFloat(inscricao.getPrecoFase());
+        out.writeByte(inscricao.getEstado().ordinal());
+        escreverDataHora(out, inscricao.getDataCriacao());
+    }
+
+    static Inscricao lerInscricao(DataInput in) throws IOException {
+        return lerInscricao(in, UnaryOperator.identity());
+    }
+
+    // 'canonizar' permite trocar a lista de opções lida por uma instância partilhada equivalente
+    static Inscricao lerInscricao(DataInput in, UnaryOperator<List<OpcaoAdicional>> canonizar) throws IOException {
+        int id = in.readInt();
+        int idEvento = in.readInt();
+        String nome = lerTexto(in);
+        String email = lerTexto(in);
+        Integer nif = lerInteiroOpcional(in);
+        TipoInscricao tipo = TIPOS_INSCRICAO[in.readByte()];
+        Integer numAluno = lerInteiroOpcional(in);
+        List<OpcaoAdicional> opcoes = canonizar.apply(lerOpcoes(in));
+        float precoFase = in.readFloat();
+        EstadoInscricao estado = ESTADOS_INSCRICAO[in.readByte()];
+        LocalDateTime dataCriacao = lerDataHora(in);
+        return new Inscricao(id, idEvento, nome, email, nif, tipo, numAluno, opcoes, precoFase, estado, dataCriacao);
+    }
+
+    // ---------- Pagamento ----------
+
+    static void escreverPagamento(DataOutput out, Pagamento pagamento) throws IOException {
+        out.writeInt(pagamento.getIdInscricao());
+        out.writeFloat(pagamento.getValorTransferido());
+        out.writeBoolean(pagamento.getDataTransferencia() != null);
+        if (pagamento.getDataTransferencia() != null) {
+            escreverDataHora(out, pagamento.getDataTransferencia());
+        }
+        escreverTextoOpcional(out, pagamento.getNotasInternas());
+        out.writeByte(pagamento.getEstado().ordinal());
+    }
+
+    // Lê o estado de um pagamento (num Pagamento novo, a aplicar com copiarPagamento)
+    static Pagamento lerPagamento(DataInput in) throws IOException {
+        Pagamento pagamento = new Pagamento(in.readInt());
+        pagamento.setValorTransferido(in.readFloat());
+        pagamento.setDataTransferencia(in.readBoolean() ? lerDataHora(in) : null);
+        pagamento.setNotasInternas(lerTextoOpcional(in));
+        pagamento.setEstado(ESTADOS_PAGAMENTO[in.readByte()]);
+        return pagamento;
+    }
+
+    // Copia o estado de um pagamento lido para o pagamento da inscrição
+    static void copiarPagamento(Pagamento origem, Pagamento destino) {
+        destino.setValorTransferido(origem.getValorTransferido());
+        destino.setDataTransferencia(origem.getDataTransferencia());
+        destino.setNotasInternas(origem.getNotasInternas());
+        destino.setEstado(origem.getEstado());
+        destino.setTransferenciasReconciliadas(origem.getTransferenciasReconciliadas());
+    }
+
+    // Chaves das linhas de extrato já somadas ao pagamento (gravadas a seguir ao pagamento)
+    static void escreverTransferencias(DataOutput out, Pagamento pagamento) throws IOException {
+        long[] chaves = pagamento.getTransferenciasReconciliadas();
+        out.writeInt(chaves.length);
+        for (long chave : chaves) {
+            out.writeLong(chave);
+        }
+    }
+
+    static void lerTransferencias(DataInput in, Pagamento pagamento) throws IOException {
+        long[] chaves = new long[in.readInt()];
+        for (int i = 0; i < chaves.length; i++) {
+            chaves[i] = in.readLong();
+        }
+        pagamento.setTransferenciasReconciliadas(chaves);
+    }
+
+    // ---------- Tipos auxiliares ----------
+
+    private static void escreverOpcoes(DataOutput out, List<OpcaoAdicional> opcoes) throws IOException {
+        out.writeInt(opcoes.size());
+        for (OpcaoAdicional opcao : opcoes) {
+            escreverTexto(out, opcao.getNome());
+            escreverTexto(out, opcao.getDescricao());
+            out.writeFloat(opcao.getPreco());
+            out.writeBoolean(opcao.isObrigatoria());
+        }
+    }
+
+    private static List<OpcaoAdicional> lerOpcoes(DataInput in) throws IOException {
+        int numOpcoes = in.readInt();
+        if (numOpcoes == 0) {
+            return List.of();
+        }
+        OpcaoAdicional[] opcoes = new OpcaoAdicional[numOpcoes];
+        for (int i = 0; i < numOpcoes; i++) {
+            opcoes[i] = new OpcaoAdicional(lerTexto(in), lerTexto(in), in.readFloat(), in.readBoolean());
+        }
+        return List.of(opcoes);
+    }
+
+    static void escreverTexto(DataOutput out, String texto) throws IOException {
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String lerTexto(DataInput in) throws IOException {
+        return lerTexto(in, in.readInt());
+    }
+
+    private static String lerTexto(DataInput in, int tamanho) throws IOException {
+        if (in instanceof EntradaBinaria entrada) {
+            return entrada.lerTexto(tamanho);
+        }
+        byte[] bytes = new byte[tamanho];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void escreverTextoOpcional(DataOutput out, String texto) throws IOException {
+        if (texto == null) {
+            out.writeInt(-1);
+        } else {
+            escreverTexto(out, texto);
+        }
+    }
+
+    private static String lerTextoOpcional(DataInput in) throws IOException {
+        int tamanho = in.readInt();
+        return (tamanho < 0) ? null : lerTexto(in, tamanho);
+    }
+
+    private static void escreverInteiroOpcional(DataOutput out, Integer valor) throws IOException {
+        out.writeBoolean(valor != null);
+        if (valor != null) {
+            out.writeInt(valor);
+        }
+    }
+
+    private static Integer lerInteiroOpcional(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+
+    private static void escreverData(DataOutput out, LocalDate data) throws IOException {
+        out.writeLong(data.toEpochDay());
+    }
+
+    private static LocalDate lerData(DataInput in) throws IOException {
+        return LocalDate.ofEpochDay(in.readLong());
+    }
+
+    private static void escreverDataHora(DataOutput out, LocalDateTime dataHora) throws IOException {
+        out.writeLong(dataHora.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(dataHora.getNano());
+    }
+
+    private static LocalDateTime lerDataHora(DataInput in) throws IOException {
+        long segundos = in.readLong();
+        int nanos = in.readInt();
+        return LocalDateTime.ofEpochSecond(segundos, nanos, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,168 @@
+package com.eventastic.persistencia;
+
+import java.io.DataInput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/*
+ * DataInput sobre um ByteBuffer, sem sincronização por byte (ao contrário de DataInputStream
+ * sobre BufferedInputStream). Se for criado sobre um FileChannel, o buffer é reabastecido
+ * à medida que é consumido.
+ */
+final class EntradaBinaria implements DataInput {
+
+    private ByteBuffer buffer;
+    private final FileChannel canal; // null quando o buffer já contém todos os dados
+    private long posicao; // Bytes consumidos desde o início
+    private byte[] texto = new byte[64]; // Reutilizado ao descodificar strings
+
+    // Lê diretamente de um buffer já preenchido
+    EntradaBinaria(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.canal = null;
+    }
+
+    // Lê de um ficheiro através de um buffer com a capacidade dada
+    EntradaBinaria(FileChannel canal, int capacidade) {
+        this.buffer = ByteBuffer.allocate(capacidade).flip();
+        this.canal = canal;
+    }
+
+    long getPosicao() {
+        return posicao;
+    }
+
+    // Reposiciona a leitura dentro do buffer (apenas para entradas sem canal)
+    void reposicionar(ByteBuffer novoBuffer) {
+        this.buffer = novoBuffer;
+    }
+
+    private void garantir(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        if (canal == null) {
+            throw new EOFException();
+        }
+        if (buffer.capacity() < bytes) {
+            ByteBuffer maior = ByteBuffer.allocate(Math.max(bytes, buffer.capacity() * 2));
+            maior.put(buffer);
+            buffer = maior;
+        } else {
+            buffer.compact();
+        }
+        while (buffer.position() < bytes) {
+            if (canal.read(buffer) < 0) {
+                buffer.flip();
+                throw new EOFException();
+            }
+        }
+        buffer.flip();
+    }
+
+    @Override
+    public void readFully(byte[] destino) throws IOException {
+        readFully(destino, 0, destino.length);
+    }
+
+    @Override
+    public void readFully(byte[] destino, int inicio, int tamanho) throws IOException {
+        garantir(tamanho);
+        buffer.get(destino, inicio, tamanho);
+        posicao += tamanho;
+    }
+
+    @Override
+    public int skipBytes(int n) throws IOException {
+        garantir(n);
+        buffer.position(buffer.position() + n);
+        posicao += n;
+        return n;
+    }
+
+    @Override
+    public boolean readBoolean() throws IOException {
+        return readByte() != 0;
+    }
+
+    @Override
+    public byte readByte() throws IOException {
+        garantir(1);
+        posicao++;
+        return buffer.get();
+    }
+
+    @Override
+    public int readUnsignedByte() throws IOException {
+        return readByte() & 0xFF;
+    }
+
+    @Override
+    public short readShort() throws IOException {
+        garantir(2);
+        posicao += 2;
+        return buffer.getShort();
+    }
+
+    @Override
+    public int readUnsignedShort() throws IOException {
+        return readShort() & 0xFFFF;
+    }
+
+    @Override
+    public char readChar() throws IOException {
+        garantir(2);
+        posicao += 2;
+        return buffer.getChar();
+    }
+
+    @Override
+    public int readInt() throws IOException {
+        garantir(4);
+        posicao += 4;
+        return buffer.getInt();
+    }
+
+    @Override
+    public long readLong() throws IOException {
+        garantir(8);
+        posicao += 8;
+        return buffer.getLong();
+    }
+
+    @Override
+    public float readFloat() throws IOException {
+        garantir(4);
+        posicao += 4;
+        return buffer.getFloat();
+    }
+
+    @Override
+    public double readDouble() throws IOException {
+        garantir(8);
+        posicao += 8;
+        return buffer.getDouble();
+    }
+
+    // Lê uma string UTF-8 com o tamanho dado, sem alocar um array de bytes por string
+    String lerTexto(int tamanho) throws IOException {
+        if (texto.length < tamanho) {
+            texto = new byte[Math.max(tamanho, texto.length * 2)];
+        }
+        readFully(texto, 0, tamanho);
+        return new String(texto, 0, tamanho, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String readLine() {
+        throw new UnsupportedOperationException("readLine não suportado");
+    }
+
+    @Override
+    public String readUTF() {
+        throw new UnsupportedOperationException("readUTF não suportado (usar CodecRegistos.lerTexto)");
+    }
+}
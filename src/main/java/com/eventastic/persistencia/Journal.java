@@ -0,0 +1,340 @@
+package com.eventastic.persistencia;
+
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/*
+ * Journal append-only, dividido em segmentos (journal-000001.log, journal-000002.log, ...).
+ * Formato de cada registo: [int tamanho][int crc32][byte tipo][payload].
+ *
+ * Group commit: quem regista só copia o registo para um buffer em memória (sob um lock curto) e
+ * recebe o número de sequência do registo; uma thread de escrita troca o buffer, escreve-o no
+ * segmento atual e faz fsync em lote. aguardar(sequencia) espera pelo fsync do lote que inclui
+ * esse registo (e acorda a thread de escrita), pelo que vários registos concorrentes partilham
+ * o mesmo fsync; sem ninguém à espera, o lote é escrito no máximo INTERVALO_ESCRITA_MS depois.
+ *
+ * A thread de escrita nunca termina com uma exceção: uma falha de I/O (ou uma interrupção) fecha
+ * o journal e fica guardada em 'erro', que é relançado a quem espera ou regista a seguir.
+ */
+final class Journal implements Closeable {
+
+    static final String PREFIXO_SEGMENTO = "journal-";
+    static final String SUFIXO_SEGMENTO = ".log";
+
+    private static final int INTERVALO_ESCRITA_MS = 5;
+    private static final int TAMANHO_CABECALHO = 9;
+    private static final int LIMITE_BUFFER = 1024 * 1024; // Acorda a thread de escrita antes do intervalo
+
+    private final Path diretorio;
+    private final Object lock = new Object();
+    private final Thread escritor;
+
+    // Estado protegido por lock
+    private byte[] pendentes = new byte[64 * 1024];
+    private int tamanhoPendentes;
+    private byte[] livre = new byte[64 * 1024];
+    private long sequencia; // Número de registos aceites
+    private long sequenciaDuravel; // Número de registos já em disco
+    private FileChannel canal;
+    private int segmentoAtual;
+    private boolean rotacaoPedida;
+    private boolean fechado; // Não aceita mais registos (close() ou erro da thread de escrita)
+    private boolean encerrado; // close() já foi chamado
+    private IOException erro;
+
+    // Abre um novo segmento com o número dado e inicia a thread de escrita
+    Journal(Path diretorio, int primeiroSegmento) throws IOException {
+        this.diretorio = diretorio;
+        this.segmentoAtual = primeiroSegmento;
+        this.canal = abrirSegmento(primeiroSegmento);
+        this.escritor = new Thread(this::escrever, "eventastic-journal");
+        this.escritor.setDaemon(true);
+        this.escritor.start();
+    }
+
+    // Acrescenta um registo (não espera pelo fsync) e retorna o seu número de sequência
+    long registar(TipoOperacao tipo, byte[] payload, int tamanho) {
+        CRC32 crc = new CRC32();
+        crc.update(tipo.codigo());
+        crc.update(payload, 0, tamanho);
+        int valorCrc = (int) crc.getValue();
+
+        synchronized (lock) {
+            if (fechado) {
+                throw new IllegalStateException("Journal fechado", erro);
+            }
+            garantirCapacidade(TAMANHO_CABECALHO + tamanho);
+            escreverInt(tamanho);
+            escreverInt(valorCrc);
+            pendentes[tamanhoPendentes++] = tipo.codigo();
+            System.arraycopy(payload, 0, pendentes, tamanhoPendentes, tamanho);
+            tamanhoPendentes += tamanho;
+            sequencia++;
+            if (tamanhoPendentes >= LIMITE_BUFFER) {
+                lock.notifyAll();
+            }
+            return sequencia;
+        }
+    }
+
+    // Espera até o registo com o número de sequência dado (e todos os anteriores) estar em disco
+    void aguardar(long sequenciaRegisto) throws IOException {
+        synchronized (lock) {
+            if (sequenciaDuravel >= sequenciaRegisto) {
+                return;
+            }
+            lock.notifyAll(); // Não espera pelo intervalo da thread de escrita
+            while (sequenciaDuravel < sequenciaRegisto && erro == null) {
+                esperar();
+            }
+            if (sequenciaDuravel < sequenciaRegisto) {
+                throw erro;
+            }
+        }
+    }
+
+    // Espera até todos os registos aceites até agora estarem em disco
+    void sincronizar() throws IOException {
+        long alvo;
+        synchronized (lock) {
+            alvo = sequencia;
+        }
+        aguardar(alvo);
+    }
+
+    /*
+     * Fecha o segmento atual e passa a escrever num novo.
+     * Tudo o que foi registado antes da chamada fica nos segmentos anteriores; retorna o número
+     * do novo segmento (a partir do qual um snapshot tirado a seguir deve fazer replay).
+     */
+    int rodarSegmento() throws IOException {
+        synchronized (lock) {
+            rotacaoPedida = true;
+            lock.notifyAll();
+            while (rotacaoPedida && erro == null) {
+                esperar();
+            }
+            if (rotacaoPedida) {
+                throw erro;
+            }
+            return segmentoAtual;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (encerrado) {
+                return;
+            }
+            encerrado = true;
+            fechado = true;
+            lock.notifyAll();
+        }
+        try {
+            escritor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        canal.close();
+        if (erro != null) {
+            throw erro;
+        }
+    }
+
+    // Ciclo da thread de escrita: troca o buffer, escreve e faz fsync em lote
+    private void escrever() {
+        boolean interrompida = false;
+        try {
+            while (true) {
+                byte[] lote;
+                int tamanhoLote;
+                long sequenciaLote;
+                boolean rodar;
+                boolean terminar;
+                synchronized (lock) {
+                    while (tamanhoPendentes == 0 && !rotacaoPedida && !fechado) {
+                        try {
+                            lock.wait(INTERVALO_ESCRITA_MS);
+                        } catch (InterruptedException e) {
+                            // Interrompida: deixa de aceitar registos e escreve os pendentes antes de terminar
+                            interrompida = true;
+                            fechado = true;
+                            erro = new InterruptedIOException("Thread de escrita do journal interrompida");
+                        }
+                    }
+                    lote = pendentes;
+                    tamanhoLote = tamanhoPendentes;
+                    pendentes = livre;
+                    tamanhoPendentes = 0;
+                    sequenciaLote = sequencia;
+                    rodar = rotacaoPedida;
+                    terminar = fechado;
+                }
+
+                if (tamanhoLote > 0) {
+                    ByteBuffer buffer = ByteBuffer.wrap(lote, 0, tamanhoLote);
+                    while (buffer.hasRemaining()) {
+                        canal.write(buffer);
+                    }
+                    canal.force(false);
+                }
+                FileChannel novoCanal = rodar ? abrirSegmento(segmentoAtual + 1) : null;
+                synchronized (lock) {
+                    livre = lote;
+                    sequenciaDuravel = sequenciaLote;
+                    if (novoCanal != null) {
+                        canal.close();
+                        canal = novoCanal;
+                        segmentoAtual++;
+                        rotacaoPedida = false;
+                    }
+                    lock.notifyAll();
+                    if (terminar && tamanhoPendentes == 0) {
+                        return;
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException | Error e) {
+            synchronized (lock) {
+                erro = (e instanceof IOException io) ? io : new IOException("Falha na thread de escrita do journal", e);
+                fechado = true;
+                lock.notifyAll();
+            }
+        } finally {
+            if (interrompida) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private FileChannel abrirSegmento(int numero) throws IOException {
+        return FileChannel.open(caminhoSegmento(diretorio, numero),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private void garantirCapacidade(int adicional) {
+        if (tamanhoPendentes + adicional > pendentes.length) {
+            pendentes = Arrays.copyOf(pendentes, Math.max(pendentes.length * 2, tamanhoPendentes + adicional));
+        }
+    }
+
+    private void escreverInt(int valor) {
+        pendentes[tamanhoPendentes++] = (byte) (valor >>> 24);
+        pendentes[tamanhoPendentes++] = (byte) (valor >>> 16);
+        pendentes[tamanhoPendentes++] = (byte) (valor >>> 8);
+        pendentes[tamanhoPendentes++] = (byte) valor;
+    }
+
+    // Espera (com o lock) por uma notificação da thread de escrita
+    private void esperar() throws InterruptedIOException {
+        try {
+            lock.wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrompido à espera do journal");
+        }
+    }
+
+    // ---------- Leitura (recuperação) ----------
+
+    // Recebe cada registo válido lido de um segmento
+    interface LeitorRegistos {
+        void aplicar(TipoOperacao tipo, DataInput payload) throws IOException;
+    }
+
+    static Path caminhoSegmento(Path diretorio, int numero) {
+        return diretorio.resolve(String.format("%s%06d%s", PREFIXO_SEGMENTO, numero, SUFIXO_SEGMENTO));
+    }
+
+    // Números dos segmentos existentes no diretório, por ordem
+    static List<Integer> listarSegmentos(Path diretorio) throws IOException {
+        List<Integer> segmentos = new ArrayList<>();
+        try (Stream<Path> ficheiros = Files.list(diretorio)) {
+            ficheiros.map(p -> p.getFileName().toString())
+                .filter(n -> n.startsWith(PREFIXO_SEGMENTO) && n.endsWith(SUFIXO_SEGMENTO))
+                .forEach(n -> segmentos.add(Integer.parseInt(
+                    n.substring(PREFIXO_SEGMENTO.length(), n.length() - SUFIXO_SEGMENTO.length()))));
+        }
+        segmentos.sort(null);
+        return segmentos;
+    }
+
+    /*
+     * Lê os registos de um segmento por ordem. Só o último segmento pode acabar num registo
+     * incompleto ou com CRC errado que termina no fim do ficheiro (escrita interrompida): é
+     * descartado e o segmento é truncado nesse ponto. Qualquer outro registo inválido lança
+     * IOException, em vez de perder os registos seguintes. Retorna o número de registos aplicados.
+     */
+    static long lerSegmento(Path segmento, LeitorRegistos leitor, boolean ultimo) throws IOException {
+        long registos = 0;
+        long posicaoValida = 0;
+        long tamanhoFicheiro = Files.size(segmento);
+        CRC32 crc = new CRC32();
+        byte[] payload = new byte[1024];
+        ByteBuffer bufferPayload = ByteBuffer.wrap(payload);
+        EntradaBinaria entradaPayload = new EntradaBinaria(bufferPayload);
+        try (FileChannel canalLeitura = FileChannel.open(segmento, StandardOpenOption.READ)) {
+            EntradaBinaria in = new EntradaBinaria(canalLeitura, 1 << 20);
+            while (true) {
+                int tamanho;
+                int valorCrc;
+                byte tipo;
+                try {
+                    tamanho = in.readInt();
+                    valorCrc = in.readInt();
+                    tipo = in.readByte();
+                    if (tamanho < 0) {
+                        throw new IOException("Registo corrompido em " + segmento + " (posição " + posicaoValida
+                                + "): tamanho negativo");
+                    }
+                    if (payload.length < tamanho) {
+                        payload = new byte[Math.max(tamanho, payload.length * 2)];
+                        bufferPayload = ByteBuffer.wrap(payload);
+                        entradaPayload.reposicionar(bufferPayload);
+                    }
+                    in.readFully(payload, 0, tamanho);
+                } catch (EOFException e) {
+                    break;
+                }
+                crc.reset();
+                crc.update(tipo);
+                crc.update(payload, 0, tamanho);
+                if ((int) crc.getValue() != valorCrc) {
+                    if (in.getPosicao() < tamanhoFicheiro) {
+                        throw new IOException("Registo corrompido em " + segmento + " (posição " + posicaoValida
+                                + "): CRC errado a meio do segmento");
+                    }
+                    break; // Último registo escrito só em parte
+                }
+                bufferPayload.clear().limit(tamanho);
+                leitor.aplicar(TipoOperacao.deCodigo(tipo), entradaPayload);
+                registos++;
+                posicaoValida = in.getPosicao();
+            }
+        }
+        if (tamanhoFicheiro > posicaoValida) {
+            if (!ultimo) {
+                throw new IOException("Segmento " + segmento + " termina num registo incompleto (posição "
+                        + posicaoValida + "), mas não é o último");
+            }
+            try (FileChannel canalTruncar = FileChannel.open(segmento, StandardOpenOption.WRITE)) {
+                canalTruncar.truncate(posicaoValida);
+            }
+        }
+        return registos;
+    }
+}
@@ -0,0 +1,320 @@
+package com.eventastic.persistencia;
+
+import com.eventastic.model.Event;
+import com.eventastic.model.Inscricao;
+import com.eventastic.model.Pagamento;
+import com.eventastic.service.EventService;
+import com.eventastic.service.InscricaoService;
+import com.eventastic.service.RegistoOperacoes;
+
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Persistência dos serviços em disco: journal de operações + snapshots compactados.
+ *
+ * Ao abrir, o estado é recuperado a partir do último snapshot e dos segmentos do journal
+ * escritos depois dele. A seguir, a Persistencia fica registada nos serviços e cada operação
+ * (criar/editar/inativar evento, inscrever, cancelar inscrição, registar pagamento) é acrescentada ao journal.
+ *
+ * Durabilidade: registar uma operação não espera pelo fsync; aguardarOperacoes() espera pelo fsync
+ * do lote que inclui as operações registadas pela thread atual (a EventasticAPI chama-o antes de
+ * responder a cada operação de escrita, fora dos locks dos serviços).
+ *
+ * Compactação: o journal passa para um novo segmento e só depois é tirado o snapshot (ver Snapshot), sem parar
+ * as escritas. O snapshot pode já conter operações que também estão no novo segmento, por isso o
+ * replay é idempotente (eventos e pagamentos são gravados com o estado completo e inscrições já
+ * existentes são ignoradas).
+ *
+ * Uma inscrição fica visível (e pode ser paga) antes de o seu INSCREVER ser registado, por isso um
+ * REGISTAR_PAGAMENTO pode aparecer no journal antes da inscrição: no replay fica guardado e é
+ * aplicado quando a inscrição for restaurada.
+ */
+public final class Persistencia implements RegistoOperacoes, Closeable {
+
+    static final String FICHEIRO_SNAPSHOT = "snapshot.bin";
+
+    private final Path diretorio;
+    private final EventService eventService;
+    private final InscricaoService inscricaoService;
+    private final Journal journal;
+    private final ScheduledExecutorService compactador;
+    private final AtomicLong registosDesdeSnapshot = new AtomicLong();
+    private final ThreadLocal<BufferRegisto> buffers = ThreadLocal.withInitial(() -> new BufferRegisto(512));
+    private final ThreadLocal<long[]> ultimoRegisto = ThreadLocal.withInitial(() -> new long[1]); // Sequência no journal
+
+    private Persistencia(Path diretorio, EventService eventService, InscricaoService inscricaoService,
+                         Journal journal, Duration intervaloCompactacao) {
+        this.diretorio = diretorio;
+        this.eventService = eventService;
+        this.inscricaoService = inscricaoService;
+        this.journal = journal;
+        this.compactador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "eventastic-compactacao");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalo = intervaloCompactacao.toMillis();
+        compactador.scheduleWithFixedDelay(this::compactarSeNecessario, intervalo, intervalo, TimeUnit.MILLISECONDS);
+    }
+
+    /*
+     * Recupera o estado guardado em 'diretorio' para os serviços (que devem estar vazios)
+     * e passa a registar as operações seguintes. Cria o diretório se não existir.
+     */
+    public static Persistencia abrir(Path diretorio, EventService eventService, InscricaoService inscricaoService,
+                                     Duration intervaloCompactacao) throws IOException {
+        Objects.requireNonNull(intervaloCompactacao, "intervaloCompactacao");
+        Files.createDirectories(diretorio);
+
+        int segmentoInicial = lerSnapshot(diretorio, eventService, inscricaoService);
+        int ultimoSegmento = segmentoInicial - 1;
+        List<Integer> segmentos = Journal.listarSegmentos(diretorio);
+        int maiorSegmento = segmentos.isEmpty() ? 0 : segmentos.get(segmentos.size() - 1);
+        Map<Integer, Pagamento> pagamentosAntecipados = new HashMap<>();
+        for (int segmento : segmentos) {
+            if (segmento >= segmentoInicial) {
+                Journal.lerSegmento(Journal.caminhoSegmento(diretorio, segmento),
+                    (tipo, in) -> aplicar(tipo, in, eventService, inscricaoService, pagamentosAntecipados),
+                    segmento == maiorSegmento);
+                ultimoSegmento = segmento;
+            }
+        }
+
+        Journal journal = new Journal(diretorio, ultimoSegmento + 1);
+        Persistencia persistencia = new Persistencia(diretorio, eventService, inscricaoService, journal, intervaloCompactacao);
+        eventService.setRegistoOperacoes(persistencia);
+        inscricaoService.setRegistoOperacoes(persistencia);
+        return persistencia;
+    }
+
+    // ---------- Registo de operações (write path) ----------
+
+    @Override
+    public void eventoCriado(Event evento) {
+        BufferRegisto buffer = buffers.get().limpar();
+        try {
+            CodecRegistos.escreverEvento(buffer.dados, evento);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        registar(TipoOperacao.CRIAR_EVENTO, buffer);
+    }
+
+    @Override
+    public void eventoEditado(Event evento) {
+        BufferRegisto buffer = buffers.get().limpar();
+        try {
+            CodecRegistos.escreverEvento(buffer.dados, evento);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        registar(TipoOperacao.EDITAR_EVENTO, buffer);
+    }
+
+    @Override
+    public void eventoRemovido(int idEvento) {
+        BufferRegisto buffer = buffers.get().limpar();
+        try {
+            buffer.dados.writeInt(idEvento);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        registar(TipoOperacao.INATIVAR_EVENTO, buffer);
+    }
+
+    @Override
+    public void inscricaoCriada(Inscricao inscricao) {
+        BufferRegisto buffer = buffers.get().limpar();
+        try {
+            CodecRegistos.escreverInscricao(buffer.dados, inscricao);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        registar(TipoOperacao.INSCREVER, buffer);
+    }
+
+    @Override
+    public void inscricoesCriadas(List<Inscricao> inscricoes) {
+        if (inscricoes.isEmpty()) {
+            return;
+        }
+        // Buffer próprio: um lote grande não deve ficar retido no buffer da thread
+        BufferRegisto buffer = new BufferRegisto(128 * inscricoes.size());
+        try {
+            buffer.dados.writeInt(inscricoes.size());
+            for (Inscricao inscricao : inscricoes) {
+                CodecRegistos.escreverInscricao(buffer.dados, inscricao);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        ultimoRegisto.get()[0] = journal.registar(TipoOperacao.INSCREVER_LOTE, buffer.bytes(), buffer.size());
+        registosDesdeSnapshot.addAndGet(inscricoes.size());
+    }
+
+    @Override
+    public void inscricaoCancelada(int idInscricao) {
+        BufferRegisto buffer = buffers.get().limpar();
+        try {
+            buffer.dados.writeInt(idInscricao);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        registar(TipoOperacao.CANCELAR_INSCRICAO, buffer);
+    }
+
+    @Override
+    public void pagamentoAtualizado(Pagamento pagamento) {
+        BufferRegisto buffer = buffers.get().limpar();
+        try {
+            CodecRegistos.escreverPagamento(buffer.dados, pagamento);
+            if (pagamento.temTransferenciasReconciliadas()) {
+                CodecRegistos.escreverTransferencias(buffer.dados, pagamento);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        registar(pagamento.temTransferenciasReconciliadas()
+                ? TipoOperacao.REGISTAR_PAGAMENTO_RECONCILIADO : TipoOperacao.REGISTAR_PAGAMENTO, buffer);
+    }
+
+    private void registar(TipoOperacao tipo, BufferRegisto buffer) {
+        ultimoRegisto.get()[0] = journal.registar(tipo, buffer.bytes(), buffer.size());
+        registosDesdeSnapshot.incrementAndGet();
+    }
+
+    // Espera até as operações registadas pela thread atual estarem em disco (partilha o fsync com as outras threads)
+    public void aguardarOperacoes() throws IOException {
+        journal.aguardar(ultimoRegisto.get()[0]);
+    }
+
+    // Espera até todas as operações registadas estarem em disco (fsync)
+    public void sincronizar() throws IOException {
+        journal.sincronizar();
+    }
+
+    // ---------- Snapshots ----------
+
+    // Tira um snapshot do estado atual e apaga os segmentos do journal que ficaram cobertos
+    public synchronized void compactar() throws IOException {
+        int segmentoInicial = journal.rodarSegmento();
+        registosDesdeSnapshot.set(0);
+
+        Path temporario = diretorio.resolve(FICHEIRO_SNAPSHOT + ".tmp");
+        Snapshot.escrever(temporario, segmentoInicial, eventService, inscricaoService);
+        Files.move(temporario, diretorio.resolve(FICHEIRO_SNAPSHOT),
+            StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        // Segmentos anteriores ao snapshot já não são necessários
+        for (int segmento : Journal.listarSegmentos(diretorio)) {
+            if (segmento < segmentoInicial) {
+                Files.deleteIfExists(Journal.caminhoSegmento(diretorio, segmento));
+            }
+        }
+    }
+
+    private void compactarSeNecessario() {
+        if (registosDesdeSnapshot.get() == 0) {
+            return;
+        }
+        try {
+            compactar();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Falha ao compactar o journal: " + e.getMessage());
+        }
+    }
+
+    // Lê o snapshot (se existir) e retorna o primeiro segmento do journal a aplicar
+    private static int lerSnapshot(Path diretorio, EventService eventService,
+                                   InscricaoService inscricaoService) throws IOException {
+        Path ficheiro = diretorio.resolve(FICHEIRO_SNAPSHOT);
+        if (!Files.exists(ficheiro)) {
+            return 1;
+        }
+        return Snapshot.ler(ficheiro, eventService, inscricaoService);
+    }
+
+    // Restaura uma inscrição com o seu evento (para contar a fase em que foi criada)
+    private static void restaurarInscricao(Inscricao inscricao, EventService eventService,
+                                           InscricaoService inscricaoService) {
+        inscricaoService.restaurarInscricao(inscricao, eventService.findEventoByIdSimples(inscricao.getIdEvento()));
+    }
+
+    /*
+     * Aplica uma operação do journal aos serviços. Um pagamento de uma inscrição que ainda não
+     * existe fica em 'pagamentosAntecipados' até o INSCREVER dessa inscrição ser aplicado.
+     */
+    private static void aplicar(TipoOperacao tipo, DataInput in, EventService eventService,
+                                InscricaoService inscricaoService,
+                                Map<Integer, Pagamento> pagamentosAntecipados) throws IOException {
+        switch (tipo) {
+            case CRIAR_EVENTO, EDITAR_EVENTO -> eventService.restaurarEvento(CodecRegistos.lerEvento(in));
+            case INATIVAR_EVENTO -> eventService.restaurarRemocao(in.readInt(), inscricaoService);
+            case INSCREVER -> restaurarInscricao(CodecRegistos.lerInscricao(in), eventService, inscricaoService,
+                    pagamentosAntecipados);
+            case INSCREVER_LOTE -> {
+                int numInscricoes = in.readInt();
+                for (int i = 0; i < numInscricoes; i++) {
+                    restaurarInscricao(CodecRegistos.lerInscricao(in), eventService, inscricaoService,
+                            pagamentosAntecipados);
+                }
+            }
+            case REGISTAR_PAGAMENTO, REGISTAR_PAGAMENTO_RECONCILIADO -> {
+                Pagamento lido = CodecRegistos.lerPagamento(in);
+                if (tipo == TipoOperacao.REGISTAR_PAGAMENTO_RECONCILIADO) {
+                    CodecRegistos.lerTransferencias(in, lido);
+                }
+                if (restaurarPagamento(lido, inscricaoService) == null) {
+                    pagamentosAntecipados.put(lido.getIdInscricao(), lido);
+                }
+            }
+            case CANCELAR_INSCRICAO -> inscricaoService.restaurarCancelamento(in.readInt());
+        }
+    }
+
+    // Restaura uma inscrição do journal e o pagamento que foi registado antes dela (se houver)
+    private static void restaurarInscricao(Inscricao inscricao, EventService eventService,
+                                           InscricaoService inscricaoService,
+                                           Map<Integer, Pagamento> pagamentosAntecipados) {
+        restaurarInscricao(inscricao, eventService, inscricaoService);
+        Pagamento antecipado = pagamentosAntecipados.remove(inscricao.getId());
+        if (antecipado != null) {
+            restaurarPagamento(antecipado, inscricaoService);
+        }
+    }
+
+    // Copia o estado de um pagamento lido para o da inscrição; null se a inscrição não existir
+    private static Pagamento restaurarPagamento(Pagamento lido, InscricaoService inscricaoService) {
+        return inscricaoService.atualizarPagamento(lido.getIdInscricao(), pagamento -> {
+            CodecRegistos.copiarPagamento(lido, pagamento);
+            return pagamento;
+        });
+    }
+
+    // Para a compactação periódica e garante que o journal fica todo em disco
+    @Override
+    public void close() throws IOException {
+        compactador.shutdown();
+        try {
+            compactador.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        journal.close();
+    }
+}
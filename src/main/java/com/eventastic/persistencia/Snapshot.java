@@ -0,0 +1,317 @@
+package com.eventastic.persistencia;
+
+import com.eventastic.model.Event;
+import com.eventastic.model.Inscricao;
+import com.eventastic.model.OpcaoAdicional;
+import com.eventastic.model.Pagamento;
+import com.eventastic.model.Pagina;
+import com.eventastic.service.EventService;
+import com.eventastic.service.InscricaoService;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.UnaryOperator;
+import java.util.zip.CRC32;
+
+/*
+ * Formato binário dos snapshots (usado internamente pela Persistencia).
+ *
+ * Versão 3: [cabeçalho][secção de eventos][blocos de inscrições]
+ *   cabeçalho: magic, versão, segmentoInicial, nextEventId, nextInscricaoId, numBlocos,
+ *              e uma tabela de secções (offset, tamanho, número de registos, crc32):
+ *              primeiro a secção de eventos e depois um bloco a cada TAMANHO_BLOCO inscrições.
+ *   cada registo de um bloco é uma inscrição seguida do respetivo pagamento e das chaves das
+ *   linhas de extrato já somadas a esse pagamento.
+ *   O espaço do cabeçalho é reservado para o número máximo de blocos (pelo nextInscricaoId), por isso
+ *   pode haver um intervalo entre a tabela de secções e a secção de eventos.
+ *
+ * A leitura usa MappedByteBuffer (sem cópia do ficheiro para o heap) e, graças à tabela de
+ * secções, os blocos de inscrições são descodificados em paralelo. As inscrições são depois
+ * instaladas nos serviços pela ordem dos IDs, à medida que cada bloco fica pronto.
+ * A versão 2 (igual, sem as chaves das linhas de extrato) e a versão 1 (stream sequencial)
+ * continuam a ser lidas, para diretórios criados antes desta.
+ */
+final class Snapshot {
+
+    private static final int MAGIC = 0x45565453; // "EVTS"
+    private static final int VERSAO_SEQUENCIAL = 1;
+    private static final int VERSAO_SEM_TRANSFERENCIAS = 2;
+    private static final int VERSAO_ATUAL = 3;
+
+    private static final int TAMANHO_BLOCO = 16_384; // Inscrições por bloco
+    private static final int TAMANHO_CABECALHO_FIXO = 24;
+    private static final int TAMANHO_ENTRADA_SECCAO = 20;
+
+    private Snapshot() {
+    }
+
+    // Posição, tamanho e checksum de uma secção do ficheiro
+    private record Seccao(long offset, int tamanho, int numRegistos, int crc) {
+    }
+
+    // Chave de igualdade de uma opção adicional (usada para partilhar listas de opções iguais)
+    private record ChaveOpcao(String nome, String descricao, float preco, boolean obrigatoria) {
+        ChaveOpcao(OpcaoAdicional opcao) {
+            this(opcao.getNome(), opcao.getDescricao(), opcao.getPreco(), opcao.isObrigatoria());
+        }
+    }
+
+    // ---------- Escrita ----------
+
+    // Escreve o estado atual dos serviços no ficheiro dado (substituindo-o)
+    static void escrever(Path ficheiro, int segmentoInicial, EventService eventService,
+                         InscricaoService inscricaoService) throws IOException {
+        int nextEventId = eventService.getNextEventId();
+        int nextInscricaoId = inscricaoService.getNextInscricaoId();
+        List<Event> eventos = eventService.listarTodosEventos();
+        // Inscrições com ID >= nextInscricaoId foram criadas depois da rotação do journal (ficam no novo segmento)
+        int maxBlocos = (Math.max(nextInscricaoId - 1, 0) + TAMANHO_BLOCO - 1) / TAMANHO_BLOCO;
+
+        try (FileChannel canal = FileChannel.open(ficheiro,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            BufferRegisto buffer = new BufferRegisto(1 << 20);
+            long posicao = tamanhoCabecalho(maxBlocos);
+
+            buffer.limpar();
+            for (Event evento : eventos) {
+                CodecRegistos.escreverEvento(buffer.dados, evento);
+            }
+            Seccao seccaoEventos = escreverSeccao(canal, posicao, buffer, eventos.size());
+            posicao += seccaoEventos.tamanho();
+
+            // As inscrições são lidas página a página (no modo colunar não ficam todas materializadas)
+            List<Seccao> blocos = new ArrayList<>(maxBlocos);
+            int registosBloco = 0;
+            buffer.limpar();
+            Integer cursor = null;
+            boolean fim = false;
+            while (!fim) {
+                Pagina<Inscricao> pagina = inscricaoService.listarInscricoes(cursor, Pagina.TAMANHO_MAXIMO,
+                        null, null, null, null);
+                for (Inscricao inscricao : pagina.getItens()) {
+                    if (inscricao.getId() >= nextInscricaoId) {
+                        fim = true;
+                        break;
+                    }
+                    CodecRegistos.escreverInscricao(buffer.dados, inscricao);
+                    Pagamento pagamento = inscricao.getPagamento();
+                    synchronized (pagamento) {
+                        CodecRegistos.escreverPagamento(buffer.dados, pagamento);
+                        CodecRegistos.escreverTransferencias(buffer.dados, pagamento);
+                    }
+                    if (++registosBloco == TAMANHO_BLOCO) {
+                        Seccao bloco = escreverSeccao(canal, posicao, buffer, registosBloco);
+                        blocos.add(bloco);
+                        posicao += bloco.tamanho();
+                        buffer.limpar();
+                        registosBloco = 0;
+                    }
+                }
+                cursor = pagina.getProximoCursor();
+                fim = fim || cursor == null;
+            }
+            if (registosBloco > 0) {
+                blocos.add(escreverSeccao(canal, posicao, buffer, registosBloco));
+            }
+
+            ByteBuffer cabecalho = ByteBuffer.allocate(tamanhoCabecalho(blocos.size()));
+            cabecalho.putInt(MAGIC).putInt(VERSAO_ATUAL).putInt(segmentoInicial)
+                    .putInt(nextEventId).putInt(nextInscricaoId).putInt(blocos.size());
+            escreverEntrada(cabecalho, seccaoEventos);
+            for (Seccao bloco : blocos) {
+                escreverEntrada(cabecalho, bloco);
+            }
+            escreverTudo(canal, cabecalho.flip(), 0);
+            canal.force(true);
+        }
+    }
+
+    private static int tamanhoCabecalho(int numBlocos) {
+        return TAMANHO_CABECALHO_FIXO + TAMANHO_ENTRADA_SECCAO * (numBlocos + 1);
+    }
+
+    private static Seccao escreverSeccao(FileChannel canal, long offset, BufferRegisto buffer,
+                                         int numRegistos) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.bytes(), 0, buffer.size());
+        escreverTudo(canal, ByteBuffer.wrap(buffer.bytes(), 0, buffer.size()), offset);
+        return new Seccao(offset, buffer.size(), numRegistos, (int) crc.getValue());
+    }
+
+    private static void escreverEntrada(ByteBuffer cabecalho, Seccao seccao) {
+        cabecalho.putLong(seccao.offset()).putInt(seccao.tamanho())
+                .putInt(seccao.numRegistos()).putInt(seccao.crc());
+    }
+
+    private static void escreverTudo(FileChannel canal, ByteBuffer dados, long offset) throws IOException {
+        while (dados.hasRemaining()) {
+            offset += canal.write(dados, offset);
+        }
+    }
+
+    // ---------- Leitura ----------
+
+    // Carrega o snapshot para os serviços e retorna o primeiro segmento do journal a aplicar
+    static int ler(Path ficheiro, EventService eventService, InscricaoService inscricaoService) throws IOException {
+        try (FileChannel canal = FileChannel.open(ficheiro, StandardOpenOption.READ)) {
+            ByteBuffer inicio = lerTudo(canal, 0, 8);
+            if (inicio.getInt() != MAGIC) {
+                throw new IOException("Ficheiro de snapshot inválido: " + ficheiro);
+            }
+            int versao = inicio.getInt();
+            if (versao == VERSAO_SEQUENCIAL) {
+                return lerSequencial(canal, eventService, inscricaoService);
+            }
+            if (versao != VERSAO_ATUAL && versao != VERSAO_SEM_TRANSFERENCIAS) {
+                throw new IOException("Versão de snapshot não suportada: " + versao);
+            }
+
+            ByteBuffer cabecalho = lerTudo(canal, 8, TAMANHO_CABECALHO_FIXO - 8);
+            int segmentoInicial = cabecalho.getInt();
+            eventService.restaurarNextEventId(cabecalho.getInt());
+            inscricaoService.restaurarNextInscricaoId(cabecalho.getInt());
+            int numBlocos = cabecalho.getInt();
+
+            ByteBuffer tabela = lerTudo(canal, TAMANHO_CABECALHO_FIXO, TAMANHO_ENTRADA_SECCAO * (numBlocos + 1));
+            Seccao seccaoEventos = lerEntrada(tabela);
+            Seccao[] blocos = new Seccao[numBlocos];
+            for (int b = 0; b < numBlocos; b++) {
+                blocos[b] = lerEntrada(tabela);
+            }
+
+            // Os eventos têm de existir antes das inscrições (são poucos: leitura sequencial)
+            EntradaBinaria eventos = new EntradaBinaria(mapear(canal, seccaoEventos, "eventos"));
+            for (int i = 0; i < seccaoEventos.numRegistos(); i++) {
+                eventService.restaurarEvento(CodecRegistos.lerEvento(eventos));
+            }
+
+            carregarBlocos(canal, blocos, versao == VERSAO_ATUAL, eventService, inscricaoService);
+            return segmentoInicial;
+        }
+    }
+
+    // Descodifica os blocos em paralelo e instala-os pela ordem original
+    private static void carregarBlocos(FileChannel canal, Seccao[] blocos, boolean comTransferencias,
+                                       EventService eventService, InscricaoService inscricaoService) throws IOException {
+        if (blocos.length == 0) {
+            return;
+        }
+        int numThreads = Math.min(blocos.length, Runtime.getRuntime().availableProcessors());
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads, r -> {
+            Thread thread = new Thread(r, "eventastic-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        /*
+         * Muitas inscrições escolhem as mesmas opções: em vez de manter uma cópia das opções por
+         * inscrição, todas as listas iguais passam a partilhar a mesma instância (imutável).
+         */
+        Map<List<ChaveOpcao>, List<OpcaoAdicional>> opcoesPartilhadas = new ConcurrentHashMap<>();
+        UnaryOperator<List<OpcaoAdicional>> canonizar = opcoes -> opcoes.isEmpty() ? opcoes
+                : opcoesPartilhadas.computeIfAbsent(opcoes.stream().map(ChaveOpcao::new).toList(), chave -> opcoes);
+        try {
+            List<CompletableFuture<Inscricao[]>> pendentes = new ArrayList<>(blocos.length);
+            for (int b = 0; b < blocos.length; b++) {
+                int numBloco = b;
+                pendentes.add(CompletableFuture.supplyAsync(
+                    () -> descodificarBloco(canal, blocos[numBloco], numBloco, comTransferencias, canonizar), executor));
+            }
+            for (CompletableFuture<Inscricao[]> pendente : pendentes) {
+                for (Inscricao inscricao : pendente.join()) {
+                    inscricaoService.restaurarInscricao(inscricao, eventService.findEventoByIdSimples(inscricao.getIdEvento()));
+                }
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException erro) {
+                throw erro.getCause();
+            }
+            throw e;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Inscricao[] descodificarBloco(FileChannel canal, Seccao bloco, int numBloco, boolean comTransferencias,
+                                                 UnaryOperator<List<OpcaoAdicional>> canonizar) {
+        try {
+            EntradaBinaria in = new EntradaBinaria(mapear(canal, bloco, "bloco " + numBloco));
+            Inscricao[] inscricoes = new Inscricao[bloco.numRegistos()];
+            for (int i = 0; i < inscricoes.length; i++) {
+                Inscricao inscricao = CodecRegistos.lerInscricao(in, canonizar);
+                CodecRegistos.copiarPagamento(CodecRegistos.lerPagamento(in), inscricao.getPagamento());
+                if (comTransferencias) {
+                    CodecRegistos.lerTransferencias(in, inscricao.getPagamento());
+                }
+                inscricoes[i] = inscricao;
+            }
+            return inscricoes;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Mapeia uma secção em memória e confirma o checksum
+    private static MappedByteBuffer mapear(FileChannel canal, Seccao seccao, String nome) throws IOException {
+        if (seccao.offset() + seccao.tamanho() > canal.size()) {
+            throw new EOFException("Snapshot truncado (" + nome + ")");
+        }
+        MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_ONLY, seccao.offset(), seccao.tamanho());
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate());
+        if ((int) crc.getValue() != seccao.crc()) {
+            throw new IOException("Snapshot corrompido (" + nome + ")");
+        }
+        return buffer;
+    }
+
+    private static Seccao lerEntrada(ByteBuffer tabela) {
+        return new Seccao(tabela.getLong(), tabela.getInt(), tabela.getInt(), tabela.getInt());
+    }
+
+    private static ByteBuffer lerTudo(FileChannel canal, long offset, int tamanho) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(tamanho);
+        while (buffer.hasRemaining()) {
+            if (canal.read(buffer, offset + buffer.position()) < 0) {
+                throw new EOFException("Snapshot truncado");
+            }
+        }
+        return buffer.flip();
+    }
+
+    // Formato antigo (versão 1): tudo em sequência logo a seguir ao magic e à versão
+    private static int lerSequencial(FileChannel canal, EventService eventService,
+                                     InscricaoService inscricaoService) throws IOException {
+        canal.position(8);
+        EntradaBinaria in = new EntradaBinaria(canal, 1 << 20);
+        int segmentoInicial = in.readInt();
+        eventService.restaurarNextEventId(in.readInt());
+        inscricaoService.restaurarNextInscricaoId(in.readInt());
+
+        int numEventos = in.readInt();
+        for (int i = 0; i < numEventos; i++) {
+            eventService.restaurarEvento(CodecRegistos.lerEvento(in));
+        }
+        int numInscricoes = in.readInt();
+        for (int i = 0; i < numInscricoes; i++) {
+            // O pagamento é aplicado antes do restauro (o armazém colunar copia-o ao guardar a inscrição)
+            Inscricao inscricao = CodecRegistos.lerInscricao(in);
+            CodecRegistos.copiarPagamento(CodecRegistos.lerPagamento(in), inscricao.getPagamento());
+            inscricaoService.restaurarInscricao(inscricao, eventService.findEventoByIdSimples(inscricao.getIdEvento()));
+        }
+        return segmentoInicial;
+    }
+}
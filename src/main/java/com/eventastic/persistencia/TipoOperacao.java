@@ -0,0 +1,26 @@
+package com.eventastic.persistencia;
+
+// Tipos de operação guardados no journal (o código é gravado em disco: não reordenar)
+enum TipoOperacao {
+    CRIAR_EVENTO,
+    EDITAR_EVENTO,
+    INATIVAR_EVENTO, // Evento inativado ou expirado (removido com as suas inscrições)
+    INSCREVER,
+    REGISTAR_PAGAMENTO,
+    INSCREVER_LOTE, // Inscrições de um lote num só registo (recuperadas todas ou nenhuma)
+    CANCELAR_INSCRICAO,
+    REGISTAR_PAGAMENTO_RECONCILIADO; // Pagamento seguido das chaves das linhas de extrato já somadas
+
+    private static final TipoOperacao[] VALORES = values();
+
+    byte codigo() {
+        return (byte) ordinal();
+    }
+
+    static TipoOperacao deCodigo(byte codigo) {
+        if (codigo < 0 || codigo >= VALORES.length) {
+            throw new IllegalArgumentException("Tipo de operação desconhecido: " + codigo);
+        }
+        return VALORES[codigo];
+    }
+}
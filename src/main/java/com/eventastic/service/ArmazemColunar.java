@@ -0,0 +1,439 @@
+package com.eventastic.service;
+
+import com.eventastic.enums.EstadoInscricao;
+import com.eventastic.enums.EstadoPagamento;
+import com.eventastic.enums.TipoInscricao;
+import com.eventastic.model.Inscricao;
+import com.eventastic.model.OpcaoAdicional;
+import com.eventastic.model.Pagamento;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/*
+ * Armazém colunar (ModoArmazenamento.COLUNAR): em vez de objetos, cada bloco de TAMANHO_BLOCO IDs
+ * consecutivos guarda os campos das inscrições em arrays de tipos primitivos:
+ *   - NIF, número de aluno e data de criação (nanossegundos desde 1970, UTC);
+ *   - tipo de inscrição, estado da inscrição e estado do pagamento num único byte;
+ *   - nome e e-mail em UTF-8 numa área de bytes do bloco (o domínio do e-mail é codificado por dicionário);
+ *   - evento, preço da fase e opções escolhidas num único código de dicionário (o "perfil": as
+ *     inscrições de um evento repetem as mesmas combinações), tal como as notas internas;
+ *   - as colunas do pagamento só são criadas no primeiro pagamento registado no bloco; as chaves
+ *     das linhas de extrato reconciliadas (poucas inscrições as têm) ficam num mapa por posição.
+ *
+ * Os IDs são sequenciais, por isso os blocos ficam cheios. obter() cria uma Inscricao nova a cada
+ * chamada (uma vista dos dados): alterar o seu estado ou pagamento não tem efeito no armazém, as
+ * alterações passam por atualizar(). Cada bloco tem o seu lock e é libertado quando todas as suas
+ * inscrições forem removidas.
+ */
+final class ArmazemColunar implements ArmazemInscricoes {
+
+    private static final int BITS_BLOCO = 12;
+    private static final int TAMANHO_BLOCO = 1 << BITS_BLOCO; // IDs por bloco
+    private static final int BITS_PAGINA = 10;
+    private static final int BLOCOS_POR_PAGINA = 1 << BITS_PAGINA;
+    private static final int NUM_PAGINAS = 1 << (31 - BITS_BLOCO - BITS_PAGINA); // Cobre todos os IDs positivos
+
+    private static final int SEM_NIF = Integer.MIN_VALUE;
+    private static final long SEM_DATA = Long.MIN_VALUE;
+    private static final int SEM_DOMINIO = 0; // E-mail sem '@' (fica inteiro na parte local)
+    private static final long NANOS_POR_SEGUNDO = 1_000_000_000L;
+
+    private static final TipoInscricao[] TIPOS_INSCRICAO = TipoInscricao.values();
+    private static final EstadoInscricao[] ESTADOS_INSCRICAO = EstadoInscricao.values();
+    private static final EstadoPagamento[] ESTADOS_PAGAMENTO = EstadoPagamento.values();
+
+    // Diretório de dois níveis (páginas de blocos), criados a pedido
+    private final AtomicReferenceArray<AtomicReferenceArray<Bloco>> paginas = new AtomicReferenceArray<>(NUM_PAGINAS);
+    private final Dicionario<ChavePerfil, Perfil> perfis = new Dicionario<>();
+    private final Dicionario<String, String> dominios = new Dicionario<>();
+    private final Dicionario<String, String> notas = new Dicionario<>();
+
+    // Campos partilhados por muitas inscrições (guardados uma vez no dicionário de perfis)
+    private record Perfil(int idEvento, float precoFase, List<OpcaoAdicional> opcoes) {
+    }
+
+    private record ChavePerfil(int idEvento, float precoFase, List<ChaveOpcao> opcoes) {
+    }
+
+    // Chave de igualdade de uma opção adicional (OpcaoAdicional não define equals)
+    private record ChaveOpcao(String nome, String descricao, float preco, boolean obrigatoria) {
+        ChaveOpcao(OpcaoAdicional opcao) {
+            this(opcao.getNome(), opcao.getDescricao(), opcao.getPreco(), opcao.isObrigatoria());
+        }
+    }
+
+    @Override
+    public void guardar(Inscricao inscricao) {
+        int id = inscricao.getId();
+        if (id <= 0) {
+            throw new IllegalArgumentException("ID de inscrição inválido: " + id);
+        }
+        // Codificação fora do lock do bloco
+        byte[] nome = inscricao.getNome().getBytes(StandardCharsets.UTF_8);
+        String email = inscricao.getEmail();
+        int arroba = email.lastIndexOf('@');
+        byte[] localEmail = ((arroba < 0) ? email : email.substring(0, arroba)).getBytes(StandardCharsets.UTF_8);
+        int dominio = (arroba < 0) ? SEM_DOMINIO : dominios.codificar(email.substring(arroba + 1), email.substring(arroba + 1));
+        int perfil = codificarPerfil(inscricao);
+        long dataCriacao = paraNanos(inscricao.getDataCriacao());
+        Integer nif = inscricao.getNif();
+        Integer numAluno = inscricao.getNumAluno();
+        if (numAluno != null && (numAluno <= 0 || numAluno > Character.MAX_VALUE)) {
+            throw new IllegalArgumentException("Número de aluno inválido.");
+        }
+        byte estado = empacotar(inscricao.getTipoInscricao(), inscricao.getEstado(), EstadoPagamento.PENDENTE);
+
+        Bloco bloco = bloco(id, true);
+        int posicao = id & (TAMANHO_BLOCO - 1);
+        Pagamento pagamento = inscricao.getPagamento();
+        synchronized (pagamento) {
+            synchronized (bloco) {
+                boolean nova = bloco.estado[posicao] == 0;
+                bloco.perfil[posicao] = perfil;
+                bloco.nif[posicao] = (nif != null) ? nif : SEM_NIF;
+                bloco.numAluno[posicao] = (numAluno != null) ? (char) numAluno.intValue() : 0;
+                bloco.dataCriacao[posicao] = dataCriacao;
+                bloco.texto[posicao] = bloco.escreverTexto(nome, localEmail, dominio);
+                bloco.estado[posicao] = estado;
+                if (pagamento.getValorTransferido() != 0f || pagamento.getDataTransferencia() != null
+                        || pagamento.getNotasInternas() != null || pagamento.getEstado() != EstadoPagamento.PENDENTE
+                        || pagamento.temTransferenciasReconciliadas()) {
+                    escreverPagamento(bloco, posicao, pagamento);
+                }
+                if (nova) {
+                    bloco.vivos++;
+                    if (++bloco.escritos == TAMANHO_BLOCO) {
+                        bloco.ajustarTextos(); // Bloco completo: a área de texto já não cresce
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public Inscricao obter(int id) {
+        Bloco bloco = bloco(id, false);
+        if (bloco == null) {
+            return null;
+        }
+        synchronized (bloco) {
+            return ler(bloco, id);
+        }
+    }
+
+    @Override
+    public boolean contem(int id) {
+        Bloco bloco = bloco(id, false);
+        if (bloco == null) {
+            return false;
+        }
+        synchronized (bloco) {
+            return bloco.estado[id & (TAMANHO_BLOCO - 1)] != 0;
+        }
+    }
+
+    @Override
+    public String obterEmail(int id) {
+        Bloco bloco = bloco(id, false);
+        if (bloco == null) {
+            return null;
+        }
+        int posicao = id & (TAMANHO_BLOCO - 1);
+        synchronized (bloco) {
+            if (bloco.estado[posicao] == 0) {
+                return null;
+            }
+            int[] fim = new int[1];
+            bloco.saltarTexto(bloco.texto[posicao], fim);
+            String local = bloco.lerTexto(fim[0], fim);
+            int dominio = bloco.lerVarint(fim[0], fim);
+            return (dominio != SEM_DOMINIO) ? local + '@' + dominios.valor(dominio) : local;
+        }
+    }
+
+    @Override
+    public boolean temEmail(int id, String email) {
+        return email.equals(obterEmail(id));
+    }
+
+    @Override
+    public void remover(int id) {
+        Bloco bloco = bloco(id, false);
+        if (bloco == null) {
+            return;
+        }
+        int posicao = id & (TAMANHO_BLOCO - 1);
+        synchronized (bloco) {
+            if (bloco.estado[posicao] == 0) {
+                return;
+            }
+            bloco.estado[posicao] = 0;
+            if (bloco.transferencias != null) {
+                bloco.transferencias.remove(posicao);
+            }
+            if (--bloco.vivos == 0 && bloco.escritos == TAMANHO_BLOCO) {
+                int numBloco = id >>> BITS_BLOCO;
+                paginas.get(numBloco >>> BITS_PAGINA).compareAndSet(numBloco & (BLOCOS_POR_PAGINA - 1), bloco, null);
+            }
+        }
+    }
+
+    // A inscrição é lida das colunas, alterada e o seu estado e pagamento escritos de volta sob o lock do bloco
+    @Override
+    public <T> T atualizar(int id, Function<Inscricao, T> alteracao) {
+        Bloco bloco = bloco(id, false);
+        if (bloco == null) {
+            return null;
+        }
+        int posicao = id & (TAMANHO_BLOCO - 1);
+        synchronized (bloco) {
+            Inscricao inscricao = ler(bloco, id);
+            if (inscricao == null) {
+                return null;
+            }
+            T resultado = alteracao.apply(inscricao);
+            escreverPagamento(bloco, posicao, inscricao.getPagamento());
+            bloco.estado[posicao] = (byte) ((bloco.estado[posicao] & ~(3 << 2)) | inscricao.getEstado().ordinal() << 2);
+            return resultado;
+        }
+    }
+
+    // Bloco que contém o ID dado (criado se 'criar' for true; senão null se não existir)
+    private Bloco bloco(int id, boolean criar) {
+        if (id < 0) {
+            return null;
+        }
+        int numBloco = id >>> BITS_BLOCO;
+        int numPagina = numBloco >>> BITS_PAGINA;
+        AtomicReferenceArray<Bloco> pagina = paginas.get(numPagina);
+        if (pagina == null) {
+            if (!criar) {
+                return null;
+            }
+            paginas.compareAndSet(numPagina, null, new AtomicReferenceArray<>(BLOCOS_POR_PAGINA));
+            pagina = paginas.get(numPagina);
+        }
+        int indice = numBloco & (BLOCOS_POR_PAGINA - 1);
+        Bloco bloco = pagina.get(indice);
+        if (bloco == null && criar) {
+            pagina.compareAndSet(indice, null, new Bloco());
+            bloco = pagina.get(indice);
+        }
+        return bloco;
+    }
+
+    // Código do perfil (evento, preço da fase, opções) da inscrição
+    private int codificarPerfil(Inscricao inscricao) {
+        List<OpcaoAdicional> opcoes = inscricao.getOpcoesEscolhidas();
+        ChaveOpcao[] chaves = new ChaveOpcao[opcoes.size()];
+        for (int i = 0; i < chaves.length; i++) {
+            chaves[i] = new ChaveOpcao(opcoes.get(i));
+        }
+        return perfis.codificar(new ChavePerfil(inscricao.getIdEvento(), inscricao.getPrecoFase(), List.of(chaves)),
+                new Perfil(inscricao.getIdEvento(), inscricao.getPrecoFase(), opcoes));
+    }
+
+    // Cria a inscrição a partir das colunas, ou null se a posição estiver vazia (chamado com o lock do bloco)
+    private Inscricao ler(Bloco bloco, int id) {
+        int posicao = id & (TAMANHO_BLOCO - 1);
+        byte estado = bloco.estado[posicao];
+        if (estado == 0) {
+            return null;
+        }
+        int nif = bloco.nif[posicao];
+        char numAluno = bloco.numAluno[posicao];
+        int[] fim = new int[1];
+        String nome = bloco.lerTexto(bloco.texto[posicao], fim);
+        String email = bloco.lerTexto(fim[0], fim);
+        int dominio = bloco.lerVarint(fim[0], fim);
+        if (dominio != SEM_DOMINIO) {
+            email = email + '@' + dominios.valor(dominio);
+        }
+        Perfil campos = perfis.valor(bloco.perfil[posicao]);
+        Inscricao inscricao = new Inscricao(id, campos.idEvento(), nome, email, (nif != SEM_NIF) ? nif : null,
+                TIPOS_INSCRICAO[(estado >> 1) & 1], (numAluno != 0) ? (int) numAluno : null,
+                campos.opcoes(), campos.precoFase(), ESTADOS_INSCRICAO[(estado >> 2) & 3],
+                deNanos(bloco.dataCriacao[posicao]));
+        lerPagamento(bloco, posicao, inscricao.getPagamento());
+        return inscricao;
+    }
+
+    // Chamado com o lock do bloco
+    private void lerPagamento(Bloco bloco, int posicao, Pagamento pagamento) {
+        pagamento.setEstado(ESTADOS_PAGAMENTO[(bloco.estado[posicao] >> 4) & 1]);
+        if (bloco.valorTransferido == null) {
+            return;
+        }
+        pagamento.setValorTransferido(bloco.valorTransferido[posicao]);
+        long data = bloco.dataTransferencia[posicao];
+        pagamento.setDataTransferencia((data != SEM_DATA) ? deNanos(data) : null);
+        pagamento.setNotasInternas(notas.valor(bloco.notas[posicao]));
+        if (bloco.transferencias != null) {
+            long[] chaves = bloco.transferencias.get(posicao);
+            if (chaves != null) {
+                pagamento.setTransferenciasReconciliadas(chaves);
+            }
+        }
+    }
+
+    // Chamado com o lock do bloco
+    private void escreverPagamento(Bloco bloco, int posicao, Pagamento pagamento) {
+        long data = (pagamento.getDataTransferencia() != null) ? paraNanos(pagamento.getDataTransferencia()) : SEM_DATA;
+        String nota = pagamento.getNotasInternas();
+        int codigoNota = (nota != null) ? notas.codificar(nota, nota) : 0;
+        if (bloco.valorTransferido == null) {
+            bloco.criarColunasPagamento();
+        }
+        bloco.valorTransferido[posicao] = pagamento.getValorTransferido();
+        bloco.dataTransferencia[posicao] = data;
+        bloco.notas[posicao] = codigoNota;
+        if (pagamento.temTransferenciasReconciliadas()) {
+            if (bloco.transferencias == null) {
+                bloco.transferencias = new HashMap<>();
+            }
+            bloco.transferencias.put(posicao, pagamento.getTransferenciasReconciliadas());
+        } else if (bloco.transferencias != null) {
+            bloco.transferencias.remove(posicao);
+        }
+        bloco.estado[posicao] = (byte) ((bloco.estado[posicao] & ~(1 << 4)) | pagamento.getEstado().ordinal() << 4);
+    }
+
+    // Presença (bit 0), tipo de inscrição (bit 1), estado da inscrição (bits 2-3) e do pagamento (bit 4)
+    private static byte empacotar(TipoInscricao tipo, EstadoInscricao estado, EstadoPagamento estadoPagamento) {
+        return (byte) (1 | tipo.ordinal() << 1 | estado.ordinal() << 2 | estadoPagamento.ordinal() << 4);
+    }
+
+    private static long paraNanos(LocalDateTime data) {
+        try {
+            return Math.addExact(Math.multiplyExact(data.toEpochSecond(ZoneOffset.UTC), NANOS_POR_SEGUNDO), data.getNano());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Data fora do intervalo suportado pelo armazenamento colunar: " + data);
+        }
+    }
+
+    private static LocalDateTime deNanos(long nanos) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, NANOS_POR_SEGUNDO),
+                (int) Math.floorMod(nanos, NANOS_POR_SEGUNDO), ZoneOffset.UTC);
+    }
+
+    // Colunas de um bloco de IDs (protegidas pelo lock do próprio bloco)
+    private static final class Bloco {
+        final byte[] estado = new byte[TAMANHO_BLOCO]; // 0 = posição livre
+        final int[] perfil = new int[TAMANHO_BLOCO];
+        final int[] nif = new int[TAMANHO_BLOCO];
+        final char[] numAluno = new char[TAMANHO_BLOCO]; // 0 = sem número de aluno
+        final long[] dataCriacao = new long[TAMANHO_BLOCO];
+        final int[] texto = new int[TAMANHO_BLOCO]; // Posição do nome e do e-mail em 'textos'
+        byte[] textos = new byte[1024];
+        int fimTextos;
+        float[] valorTransferido; // Colunas do pagamento (null até ao primeiro pagamento no bloco)
+        long[] dataTransferencia;
+        int[] notas;
+        Map<Integer, long[]> transferencias; // Chaves das linhas de extrato reconciliadas, por posição
+        int vivos;
+        int escritos;
+
+        void criarColunasPagamento() {
+            valorTransferido = new float[TAMANHO_BLOCO];
+            dataTransferencia = new long[TAMANHO_BLOCO];
+            Arrays.fill(dataTransferencia, SEM_DATA);
+            notas = new int[TAMANHO_BLOCO];
+        }
+
+        // Acrescenta [nome][parte local do e-mail][código do domínio] e retorna a posição inicial
+        int escreverTexto(byte[] nome, byte[] localEmail, int dominio) {
+            int necessario = nome.length + localEmail.length + 15;
+            if (fimTextos + necessario > textos.length) {
+                textos = Arrays.copyOf(textos, Math.max(textos.length + (textos.length >> 1), fimTextos + necessario));
+            }
+            int inicio = fimTextos;
+            escreverBytes(nome);
+            escreverBytes(localEmail);
+            escreverVarint(dominio);
+            return inicio;
+        }
+
+        private void escreverBytes(byte[] bytes) {
+            escreverVarint(bytes.length);
+            System.arraycopy(bytes, 0, textos, fimTextos, bytes.length);
+            fimTextos += bytes.length;
+        }
+
+        private void escreverVarint(int valor) {
+            while ((valor & ~0x7F) != 0) {
+                textos[fimTextos++] = (byte) ((valor & 0x7F) | 0x80);
+                valor >>>= 7;
+            }
+            textos[fimTextos++] = (byte) valor;
+        }
+
+        // Lê o texto na posição dada; fim[0] fica com a posição seguinte
+        String lerTexto(int posicao, int[] fim) {
+            int tamanho = lerVarint(posicao, fim);
+            String texto = new String(textos, fim[0], tamanho, StandardCharsets.UTF_8);
+            fim[0] += tamanho;
+            return texto;
+        }
+
+        void saltarTexto(int posicao, int[] fim) {
+            int tamanho = lerVarint(posicao, fim);
+            fim[0] += tamanho;
+        }
+
+        int lerVarint(int posicao, int[] fim) {
+            int valor = 0;
+            int deslocamento = 0;
+            byte b;
+            do {
+                b = textos[posicao++];
+                valor |= (b & 0x7F) << deslocamento;
+                deslocamento += 7;
+            } while (b < 0);
+            fim[0] = posicao;
+            return valor;
+        }
+
+        void ajustarTextos() {
+            textos = Arrays.copyOf(textos, fimTextos);
+        }
+    }
+
+    /*
+     * Dicionário de valores repetidos: cada valor distinto recebe um código (a partir de 1; o 0 fica
+     * para "sem valor"). A codificação usa um lock; a descodificação lê o array sem lock, porque
+     * os códigos só são conhecidos depois de o valor estar publicado.
+     */
+    private static final class Dicionario<K, V> {
+        private final Map<K, Integer> codigos = new HashMap<>();
+        private volatile Object[] valores = new Object[16];
+        private int tamanho = 1;
+
+        synchronized int codificar(K chave, V valor) {
+            Integer codigo = codigos.get(chave);
+            if (codigo != null) {
+                return codigo;
+            }
+            Object[] atuais = valores;
+            if (tamanho == atuais.length) {
+                atuais = Arrays.copyOf(atuais, tamanho * 2);
+            }
+            atuais[tamanho] = valor;
+            valores = atuais;
+            codigos.put(chave, tamanho);
+            return tamanho++;
+        }
+
+        @SuppressWarnings("unchecked")
+        V valor(int codigo) {
+            return (V) valores[codigo];
+        }
+    }
+}
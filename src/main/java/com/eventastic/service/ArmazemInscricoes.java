@@ -0,0 +1,36 @@
+package com.eventastic.service;
+
+import com.eventastic.model.Inscricao;
+
+import java.util.function.Function;
+
+/*
+ * Onde o InscricaoService guarda as inscrições, indexadas por ID (ver ModoArmazenamento).
+ * As implementações são thread-safe. As partições por evento guardam apenas os IDs e
+ * pedem ao armazém os dados de cada inscrição.
+ */
+interface ArmazemInscricoes {
+
+    // Guarda uma inscrição nova (com o estado atual do seu pagamento)
+    void guardar(Inscricao inscricao);
+
+    // Inscrição com o ID dado, ou null se não existir
+    Inscricao obter(int id);
+
+    boolean contem(int id);
+
+    // E-mail da inscrição com o ID dado, ou null se não existir
+    String obterEmail(int id);
+
+    // true se a inscrição com o ID dado existir e tiver exatamente este e-mail
+    boolean temEmail(int id, String email);
+
+    void remover(int id);
+
+    /*
+     * Aplica 'alteracao' à inscrição de forma atómica em relação às outras alterações e leituras do
+     * seu pagamento. Só o estado da inscrição e o pagamento podem ser alterados (são os que ficam
+     * guardados). Retorna o resultado, ou null se a inscrição não existir.
+     */
+    <T> T atualizar(int id, Function<Inscricao, T> alteracao);
+}
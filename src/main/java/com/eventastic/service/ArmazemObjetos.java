@@ -0,0 +1,57 @@
+package com.eventastic.service;
+
+import com.eventastic.model.Inscricao;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// Armazém por omissão: um objeto Inscricao por inscrição, num mapa concorrente por ID
+final class ArmazemObjetos implements ArmazemInscricoes {
+
+    private final Map<Integer, Inscricao> inscricoesPorId = new ConcurrentHashMap<>();
+
+    @Override
+    public void guardar(Inscricao inscricao) {
+        inscricoesPorId.put(inscricao.getId(), inscricao);
+    }
+
+    @Override
+    public Inscricao obter(int id) {
+        return inscricoesPorId.get(id);
+    }
+
+    @Override
+    public boolean contem(int id) {
+        return inscricoesPorId.containsKey(id);
+    }
+
+    @Override
+    public String obterEmail(int id) {
+        Inscricao inscricao = inscricoesPorId.get(id);
+        return (inscricao != null) ? inscricao.getEmail() : null;
+    }
+
+    @Override
+    public boolean temEmail(int id, String email) {
+        Inscricao inscricao = inscricoesPorId.get(id);
+        return inscricao != null && inscricao.getEmail().equals(email);
+    }
+
+    @Override
+    public void remover(int id) {
+        inscricoesPorId.remove(id);
+    }
+
+    // A inscrição é alterada no próprio objeto, sob o lock do seu pagamento
+    @Override
+    public <T> T atualizar(int id, Function<Inscricao, T> alteracao) {
+        Inscricao inscricao = inscricoesPorId.get(id);
+        if (inscricao == null) {
+            return null;
+        }
+        synchronized (inscricao.getPagamento()) {
+            return alteracao.apply(inscricao);
+        }
+    }
+}
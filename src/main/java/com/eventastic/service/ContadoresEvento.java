@@ -0,0 +1,91 @@
+package com.eventastic.service;
+
+import com.eventastic.enums.EstadoInscricao;
+import com.eventastic.enums.EstadoPagamento;
+import com.eventastic.enums.TipoFase;
+import com.eventastic.enums.TipoInscricao;
+import com.eventastic.model.AgregadosEvento;
+import com.eventastic.model.Inscricao;
+import com.eventastic.model.Pagamento;
+import com.eventastic.model.TabelaPrecos;
+
+/*
+ * Totais de uma partição, mantidos a cada inscrição e a cada alteração de pagamento (em vez de
+ * percorrer as inscrições a cada consulta). As contagens são arrays indexados pelo ordinal de cada
+ * enum. Tem o seu próprio lock: os pagamentos são alterados sem o lock da partição.
+ */
+final class ContadoresEvento {
+
+    private final int idEvento;
+    private int numInscricoes;
+    private long valorEsperadoCentimos;
+    private long valorTransferidoCentimos;
+    private final int[] porEstadoInscricao = new int[EstadoInscricao.values().length];
+    private final int[] porEstadoPagamento = new int[EstadoPagamento.values().length];
+    private final int[] porTipoInscricao = new int[TipoInscricao.values().length];
+    private final int[] porTipoFase = new int[TipoFase.values().length];
+
+    // Construtor
+    ContadoresEvento(int idEvento) {
+        this.idEvento = idEvento;
+    }
+
+    // Conta uma inscrição nova ('tipoFase' é a fase em que foi criada; null se não for conhecida)
+    synchronized void adicionar(Inscricao inscricao, TipoFase tipoFase) {
+        Pagamento pagamento = inscricao.getPagamento();
+        numInscricoes++;
+        if (inscricao.getEstado() != EstadoInscricao.CANCELADA) {
+            valorEsperadoCentimos += inscricao.getValorTotalCentimos();
+        }
+        valorTransferidoCentimos += TabelaPrecos.paraCentimos(pagamento.getValorTransferido());
+        porEstadoInscricao[inscricao.getEstado().ordinal()]++;
+        porEstadoPagamento[pagamento.getEstado().ordinal()]++;
+        porTipoInscricao[inscricao.getTipoInscricao().ordinal()]++;
+        if (tipoFase != null) {
+            porTipoFase[tipoFase.ordinal()]++;
+        }
+    }
+
+    // Desconta uma inscrição contada por adicionar(), no seu estado atual (criação desfeita)
+    synchronized void remover(Inscricao inscricao, TipoFase tipoFase) {
+        Pagamento pagamento = inscricao.getPagamento();
+        numInscricoes--;
+        if (inscricao.getEstado() != EstadoInscricao.CANCELADA) {
+            valorEsperadoCentimos -= inscricao.getValorTotalCentimos();
+        }
+        valorTransferidoCentimos -= TabelaPrecos.paraCentimos(pagamento.getValorTransferido());
+        porEstadoInscricao[inscricao.getEstado().ordinal()]--;
+        porEstadoPagamento[pagamento.getEstado().ordinal()]--;
+        porTipoInscricao[inscricao.getTipoInscricao().ordinal()]--;
+        if (tipoFase != null) {
+            porTipoFase[tipoFase.ordinal()]--;
+        }
+    }
+
+    // Aplica a diferença entre o estado anterior e o atual de uma inscrição já contada
+    synchronized void alterar(Inscricao inscricao, EstadoInscricao estadoAntes, EstadoPagamento pagamentoAntes,
+                              long transferidoAntesCentimos) {
+        Pagamento pagamento = inscricao.getPagamento();
+        EstadoInscricao estado = inscricao.getEstado();
+        if (estado != estadoAntes) {
+            porEstadoInscricao[estadoAntes.ordinal()]--;
+            porEstadoInscricao[estado.ordinal()]++;
+            if (estado == EstadoInscricao.CANCELADA) {
+                valorEsperadoCentimos -= inscricao.getValorTotalCentimos();
+            } else if (estadoAntes == EstadoInscricao.CANCELADA) {
+                valorEsperadoCentimos += inscricao.getValorTotalCentimos();
+            }
+        }
+        if (pagamento.getEstado() != pagamentoAntes) {
+            porEstadoPagamento[pagamentoAntes.ordinal()]--;
+            porEstadoPagamento[pagamento.getEstado().ordinal()]++;
+        }
+        valorTransferidoCentimos += TabelaPrecos.paraCentimos(pagamento.getValorTransferido()) - transferidoAntesCentimos;
+    }
+
+    // Cópia dos totais atuais (custo fixo, independente do número de inscrições)
+    synchronized AgregadosEvento copiar() {
+        return new AgregadosEvento(idEvento, numInscricoes, valorEsperadoCentimos, valorTransferidoCentimos,
+                porEstadoInscricao, porEstadoPagamento, porTipoInscricao, porTipoFase);
+    }
+}
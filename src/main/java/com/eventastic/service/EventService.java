@@ -1,94 +1,208 @@
 package com.eventastic.service;
 
+import com.eventastic.apresentacao.FormatadorDetalhes;
+import com.eventastic.enums.FormatoDetalhes;
 import com.eventastic.enums.TipoFase;
-import com.eventastic.enums.TipoInscricao;
+import com.eventastic.metricas.Medidas;
+import com.eventastic.metricas.Metricas;
+import com.eventastic.model.DetalhesEvento;
 import com.eventastic.model.Event;
 import com.eventastic.model.FaseInscricao;
 import com.eventastic.model.Inscricao;
 import com.eventastic.model.OpcaoAdicional;
-import com.eventastic.model.Pagamento;
+import com.eventastic.model.Pagina;
+import com.eventastic.notificacao.CaixaSaida;
+import com.eventastic.notificacao.DestinoCancelamentos;
+import com.eventastic.notificacao.DestinoConsola;
+import com.eventastic.notificacao.TarefaCancelamento;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 // Classe que gerencia eventos
 public class EventService {
 
-    // Simulação de base de dados em memória
-    private final List<Event> eventos = new ArrayList<>();
+    // Simulação de base de dados em memória (índice primário por ID).
+    // As alterações são synchronized; as leituras por ID não bloqueiam (a expiração corre noutra thread).
+    private final Map<Integer, Event> eventos = new ConcurrentHashMap<>();
     private int nextEventId = 1; // Simula auto-incremento de IDs
 
-    public Event criarEvento(String nome, String descricao, String local,
+    // Índices secundários: data -> IDs dos eventos que terminam (ou fecham inscrições) nessa data
+    private final NavigableMap<LocalDate, Set<Integer>> eventosPorDataFim = new TreeMap<>();
+    private final NavigableMap<LocalDate, Set<Integer>> eventosPorDataFimInscricoes = new TreeMap<>();
+
+    // Vista mantida de eventos disponíveis (atualizada pelo InscricaoService quando um evento esgota)
+    private final EventosDisponiveis disponiveis = new EventosDisponiveis();
+    private volatile InscricaoService inscricoesAcompanhadas;
+
+    // Envio assíncrono dos reembolsos e notificações de eventos cancelados (consola por omissão)
+    private final CaixaSaida caixaSaida = new CaixaSaida(new DestinoConsola());
+
+    // Detalhes de cada evento já consultado (e os seus formatos), descartados quando o evento muda
+    private final Map<Integer, DetalhesEmCache> cacheDetalhes = new ConcurrentHashMap<>();
+
+    private static final class DetalhesEmCache {
+        private final DetalhesEvento detalhes;
+        private final String[] formatados = new String[FormatoDetalhes.values().length];
+
+        private DetalhesEmCache(DetalhesEvento detalhes) {
+            this.detalhes = detalhes;
+        }
+    }
+
+    private RegistoOperacoes registo = RegistoOperacoes.NENHUM;
+
+    // Operações medidas (nome usado nas métricas, com o serviço "eventos")
+    private enum OperacaoEventos {
+        CRIAR_EVENTO("criarEvento"),
+        EDITAR_EVENTO("editarEvento"),
+        INATIVAR_EVENTO("inativarEvento"),
+        OBTER_LISTA_EVENTOS("obterListaEventos"),
+        OBTER_LISTA_EVENTOS_PAGINADA("obterListaEventosPaginada"),
+        CONSULTAR_EVENTOS_DISPONIVEIS("consultarEventosDisponiveis"),
+        CONSULTAR_VAGAS_DISPONIVEIS("consultarVagasDisponiveis"),
+        DETALHES_EVENTO("detalhesEvento"),
+        DETALHES_EVENTO_FORMATADOS("detalhesEventoFormatados"),
+        PROCURAR_EVENTO("procurarEvento");
+
+        private final String nome;
+
+        OperacaoEventos(String nome) {
+            this.nome = nome;
+        }
+    }
+
+    private final Medidas<OperacaoEventos> medidas;
+
+    // Construtor (as métricas das operações ficam num registo próprio)
+    public EventService() {
+        this(new Metricas());
+    }
+
+    // Construtor que regista as métricas das operações em 'metricas' (ex: o registo da EventasticAPI)
+    public EventService(Metricas metricas) {
+        this.medidas = new Medidas<>(metricas, "eventos", OperacaoEventos.class, operacao -> operacao.nome);
+    }
+
+    // Define quem recebe as operações que alteram eventos (ex: journal de persistência)
+    public void setRegistoOperacoes(RegistoOperacoes registo) {
+        this.registo = Objects.requireNonNull(registo, "registo");
+    }
+
+    // Define para onde vão os reembolsos e notificações de eventos cancelados
+    public void setDestinoCancelamentos(DestinoCancelamentos destino) {
+        caixaSaida.setDestino(destino);
+    }
+
+    // Espera que os reembolsos e notificações pendentes sejam enviados e deixa de aceitar novos
+    public void encerrarNotificacoes() {
+        caixaSaida.close();
+    }
+
+    public synchronized Event criarEvento(String nome, String descricao, String local,
                               LocalDate dataInicioEvento, LocalDate dataFimEvento,
                               LocalTime horaInicioEvento, LocalTime horaFimEvento,
                               int maxParticipantes, List<FaseInscricao> fases,
                               List<OpcaoAdicional> opcoes) {
-        
-        validateFases(fases); // Valida as fases
-        validateOpcoes(opcoes); // Valida as opções adicionais
-        
-        // Determina datas de inscrição a partir das fases
-        LocalDate dataInicioInscricoes = fases.get(0).getDataInicio();
-        LocalDate dataFimInscricoes = fases.get(fases.size() - 1).getDataFim();
-        
-        // Valida dados do evento
-        validateEventoData(nome, descricao, local, dataInicioEvento, dataFimEvento,
-                horaInicioEvento, horaFimEvento, maxParticipantes,
-                dataInicioInscricoes, dataFimInscricoes);
+        return medidas.medir(OperacaoEventos.CRIAR_EVENTO, () -> {
+            validateFases(fases); // Valida as fases
+            validateOpcoes(opcoes); // Valida as opções adicionais
 
-        Event evento = new Event(nextEventId++, nome, descricao, local, dataInicioEvento, dataFimEvento,
-                horaInicioEvento, horaFimEvento, maxParticipantes,
-                dataInicioInscricoes, dataFimInscricoes, List.copyOf(fases), List.copyOf(opcoes));
-        eventos.add(evento);
-        return evento;
+            // Determina datas de inscrição a partir das fases
+            LocalDate dataInicioInscricoes = fases.get(0).getDataInicio();
+            LocalDate dataFimInscricoes = fases.get(fases.size() - 1).getDataFim();
+
+            // Valida dados do evento
+            validateEventoData(nome, descricao, local, dataInicioEvento, dataFimEvento,
+                    horaInicioEvento, horaFimEvento, maxParticipantes,
+                    dataInicioInscricoes, dataFimInscricoes);
+
+            Event evento = new Event(nextEventId++, nome, descricao, local, dataInicioEvento, dataFimEvento,
+                    horaInicioEvento, horaFimEvento, maxParticipantes,
+                    dataInicioInscricoes, dataFimInscricoes, List.copyOf(fases), List.copyOf(opcoes));
+            eventos.put(evento.getIdEvento(), evento);
+            indexarDatas(evento);
+            disponiveis.invalidar();
+            registo.eventoCriado(evento);
+            return evento;
+        });
     }
 
-    public void editarEvento(int idEvento, String nome, String descricao, String local,
+    public synchronized void editarEvento(int idEvento, String nome, String descricao, String local,
                               LocalDate dataInicioEvento, LocalDate dataFimEvento,
                               LocalTime horaInicioEvento, LocalTime horaFimEvento,
                               int maxParticipantes, List<FaseInscricao> fases,
                               List<OpcaoAdicional> opcoes){
+        medidas.executar(OperacaoEventos.EDITAR_EVENTO, () -> {
+            validateFases(fases); // Valida as fases
+            validateOpcoes(opcoes); // Valida as opções adicionais
 
-        validateFases(fases); // Valida as fases
-        validateOpcoes(opcoes); // Valida as opções adicionais
-        
-        // Determina datas de inscrição a partir das fases
-        LocalDate dataInicioInscricoes = fases.get(0).getDataInicio();
-        LocalDate dataFimInscricoes = fases.get(fases.size() - 1).getDataFim();
-        
-        // Valida dados do evento
-        validateEventoData(nome, descricao, local, dataInicioEvento, dataFimEvento,
-                horaInicioEvento, horaFimEvento, maxParticipantes,
-                dataInicioInscricoes, dataFimInscricoes);
+            // Determina datas de inscrição a partir das fases
+            LocalDate dataInicioInscricoes = fases.get(0).getDataInicio();
+            LocalDate dataFimInscricoes = fases.get(fases.size() - 1).getDataFim();
 
-        Event evento = findEventoByIdSimples(idEvento);
-        if (evento == null) {
-            throw new IllegalArgumentException("Evento com id " + idEvento + " não encontrado.");
-        }
+            // Valida dados do evento
+            validateEventoData(nome, descricao, local, dataInicioEvento, dataFimEvento,
+                    horaInicioEvento, horaFimEvento, maxParticipantes,
+                    dataInicioInscricoes, dataFimInscricoes);
 
-        // Impede edição de eventos já iniciados/terminados
-        LocalDate hoje = LocalDate.now();
-        if (hoje.isAfter(evento.getDataInicioEvento())) {
-            throw new IllegalStateException("Não é possível editar um evento que já começou ou terminou.");
-        }
+            Event evento = findEventoByIdSimples(idEvento);
+            if (evento == null) {
+                throw new IllegalArgumentException("Evento com id " + idEvento + " não encontrado.");
+            }
+
+            // Impede edição de eventos já iniciados/terminados
+            LocalDate hoje = LocalDate.now();
+            if (hoje.isAfter(evento.getDataInicioEvento())) {
+                throw new IllegalStateException("Não é possível editar um evento que já começou ou terminou.");
+            }
+
+            // Atualiza os campos editáveis (datas mudam, por isso sai dos índices e volta a entrar)
+            desindexarDatas(evento);
+            evento.setNome(nome);
+            evento.setDescricao(descricao);
+            evento.setLocal(local);
+            evento.setDataInicioEvento(dataInicioEvento);
+            evento.setDataFimEvento(dataFimEvento);
+            evento.setHoraInicioEvento(horaInicioEvento);
+            evento.setHoraFimEvento(horaFimEvento);
+            evento.setMaxParticipantes(maxParticipantes);
+            evento.setFases(List.copyOf(fases));
+            evento.setOpcoes(List.copyOf(opcoes));
+            evento.setDataInicioInscricoes(dataInicioInscricoes);
+            evento.setDataFimInscricoes(dataFimInscricoes);
+            indexarDatas(evento);
+            disponiveis.invalidar();
+            cacheDetalhes.remove(idEvento);
+            registo.eventoEditado(evento);
+        });
+    }
+
+    /*
+     * Inativa um evento. Retorna de imediato: os reembolsos e as notificações são enviados
+     * em segundo plano e podem ser acompanhados pela tarefa retornada.
+     * O envio é agendado depois de libertar o lock do serviço: com a fila da CaixaSaida cheia, é esta
+     * thread que faz o envio, e as outras alterações de eventos não podem ficar à espera dele.
+     */
+    public TarefaCancelamento inativarEvento(int idEvento, InscricaoService inscricaoService) {
+        return medidas.medir(OperacaoEventos.INATIVAR_EVENTO, () -> {
+            List<Inscricao> aNotificar = inativar(idEvento, inscricaoService);
+            return (aNotificar != null) ? caixaSaida.agendar(idEvento, aNotificar) : TarefaCancelamento.semMensagens(idEvento);
+        });
+    }
 
-        // Atualiza os campos editáveis
-        evento.setNome(nome);
-        evento.setDescricao(descricao);
-        evento.setLocal(local);
-        evento.setDataInicioEvento(dataInicioEvento);
-        evento.setDataFimEvento(dataFimEvento);
-        evento.setHoraInicioEvento(horaInicioEvento);
-        evento.setHoraFimEvento(horaFimEvento);
-        evento.setMaxParticipantes(maxParticipantes);
-        evento.setFases(List.copyOf(fases));
-        evento.setOpcoes(List.copyOf(opcoes));
-    }
-
-    // Inativa um evento
-    public void inativarEvento(int idEvento, InscricaoService inscricaoService) {
+    // Inativa (ou remove, se expirado) o evento; retorna os inscritos a notificar, ou null se não houver mensagens
+    private synchronized List<Inscricao> inativar(int idEvento, InscricaoService inscricaoService) {
         Event evento = findEventoByIdSimples(idEvento);
         if (evento == null) {
             throw new IllegalArgumentException("Evento com id " + idEvento + " não encontrado.");
@@ -99,8 +213,9 @@ public class EventService {
         // Caso 1: Evento ainda não começou - pode ser inativado
         if (hoje.isBefore(evento.getDataInicioEvento())) {
             evento.setActive(false);
-            tratarEventoSeInativo(idEvento, inscricaoService);
-            return;
+            disponiveis.invalidar();
+            cacheDetalhes.remove(idEvento);
+            return tratarEventoSeInativo(idEvento, inscricaoService);
         }
         
         // Caso 2: Evento está a decorrer - não pode ser inativado
@@ -109,76 +224,140 @@ public class EventService {
         }
         
         // Caso 3: Evento já terminou (expirado) - chamar tratamento
-        tratarEventoSeInativo(idEvento, inscricaoService);
+        return tratarEventoSeInativo(idEvento, inscricaoService);
     }
 
-    // Obtém a lista de todos os eventos
-    public List<Event> obterListaEventos(InscricaoService inscricaoService) {
-        LocalDate hoje = LocalDate.now();
-        
-        // Identificar eventos expirados para processar
-        List<Integer> eventosExpirados = eventos.stream()
-            .filter(e -> e.getActive() && hoje.isAfter(e.getDataFimEvento()))
-            .map(Event::getIdEvento)
-            .toList();
-        
-        // Tratar cada evento expirado
-        for (int idEvento : eventosExpirados) {
-            tratarEventoSeInativo(idEvento, inscricaoService);
-        }
-        
-        // Retornar lista atualizada de eventos
-        return List.copyOf(eventos);
+    /*
+     * Obtém a lista de todos os eventos (ordenados por ID).
+     * Eventos expirados que ainda não foram removidos pela ExpiracaoEventos não são incluídos.
+     */
+    public List<Event> obterListaEventos() {
+        return medidas.medir(OperacaoEventos.OBTER_LISTA_EVENTOS, () -> {
+            LocalDate hoje = LocalDate.now();
+            return eventos.values().stream()
+                .filter(e -> !hoje.isAfter(e.getDataFimEvento()))
+                .sorted(Comparator.comparingInt(Event::getIdEvento))
+                .toList();
+        });
+    }
+
+    /*
+     * Lista eventos por páginas (ordenados por ID), sem os expirados. 'desde'/'ate' (opcionais)
+     * mantêm só os eventos que decorrem nesse intervalo. 'aposId' é o cursor devolvido pela página
+     * anterior (null para a primeira); como os IDs são sequenciais, cada página percorre só os IDs
+     * a seguir ao cursor.
+     */
+    public Pagina<Event> obterListaEventos(Integer aposId, int tamanho, LocalDate desde, LocalDate ate) {
+        return medidas.medir(OperacaoEventos.OBTER_LISTA_EVENTOS_PAGINADA, () -> {
+            if (tamanho <= 0 || tamanho > Pagina.TAMANHO_MAXIMO) {
+                throw new IllegalArgumentException("Tamanho da página deve estar entre 1 e " + Pagina.TAMANHO_MAXIMO);
+            }
+            LocalDate hoje = LocalDate.now();
+            List<Event> itens = new ArrayList<>();
+            int fim = getNextEventId();
+            for (int id = (aposId != null) ? Math.max(aposId, 0) + 1 : 1; id < fim; id++) {
+                Event evento = eventos.get(id);
+                if (evento == null || hoje.isAfter(evento.getDataFimEvento())
+                        || (desde != null && evento.getDataFimEvento().isBefore(desde))
+                        || (ate != null && evento.getDataInicioEvento().isAfter(ate))) {
+                    continue;
+                }
+                itens.add(evento);
+                if (itens.size() == tamanho) {
+                    return new Pagina<>(itens, (id < fim - 1) ? id : null);
+                }
+            }
+            return new Pagina<>(itens, null);
+        });
     }
 
     // Retorna eventos ativos, com inscrições ainda abertas e com vagas disponíveis
     public List<Event> consultarEventosDisponiveis(InscricaoService inscricaoService) {
-        LocalDate hoje = LocalDate.now();
-        return eventos.stream()
-            .filter(e -> e.getActive() && !hoje.isAfter(e.getDataFimInscricoes()))
-            .filter(e -> {
-                int inscricoesEvento = inscricaoService.obterListaParticipantes(e.getIdEvento()).size();
-                return inscricoesEvento < e.getMaxParticipantes();
-            })
-            .toList();
+        return medidas.medir(OperacaoEventos.CONSULTAR_EVENTOS_DISPONIVEIS, () -> {
+            LocalDate hoje = LocalDate.now();
+            if (inscricoesAcompanhadas == inscricaoService) {
+                List<Event> disponiveisHoje = disponiveis.obter(hoje);
+                if (disponiveisHoje != null) {
+                    return disponiveisHoje; // Vista ainda atualizada: não percorre eventos
+                }
+            }
+            return calcularEventosDisponiveis(hoje, inscricaoService);
+        });
     }
 
-    // Imprime todos os detalhes de um evento
-    public void detalhesEvento(int idEvento) {
-        Event evento = findEventoByIdSimples(idEvento);
-        if (evento == null) {
-            throw new IllegalArgumentException("Evento com id " + idEvento + " não encontrado.");
+    // Retorna as vagas ainda disponíveis num evento (0 se estiver inativo ou com inscrições fechadas; as reservas ativas ocupam vagas)
+    public int consultarVagasDisponiveis(int idEvento, InscricaoService inscricaoService) {
+        return medidas.medir(OperacaoEventos.CONSULTAR_VAGAS_DISPONIVEIS, () -> {
+            Event evento = findEventoByIdSimples(idEvento);
+            if (evento == null) {
+                throw new IllegalArgumentException("Evento com id " + idEvento + " não encontrado.");
+            }
+            if (!evento.getActive() || LocalDate.now().isAfter(evento.getDataFimInscricoes())) {
+                return 0;
+            }
+            return Math.max(0, evento.getMaxParticipantes() - inscricaoService.contarLugaresOcupados(idEvento));
+        });
+    }
+
+    // Recalcula a vista de eventos disponíveis (na primeira consulta, quando é invalidada ou quando muda o dia)
+    private synchronized List<Event> calcularEventosDisponiveis(LocalDate hoje, InscricaoService inscricaoService) {
+        if (inscricoesAcompanhadas != inscricaoService) {
+            inscricaoService.setAoMudarVagas(idEvento -> disponiveis.invalidar());
+            inscricoesAcompanhadas = inscricaoService;
+            disponiveis.invalidar();
         }
+        long versao = disponiveis.getVersao();
+        // Apenas eventos cujas inscrições fecham hoje ou mais tarde
+        List<Event> lista = eventosPorDataFimInscricoes.tailMap(hoje, true).values().stream()
+            .flatMap(Set::stream)
+            .sorted()
+            .map(eventos::get)
+            .filter(Event::getActive)
+            .filter(e -> inscricaoService.contarLugaresOcupados(e.getIdEvento()) < e.getMaxParticipantes()) // As reservas ativas ocupam vagas
+            .toList();
+        disponiveis.guardar(versao, hoje, lista);
+        return lista;
+    }
 
-        System.out.println("========== DETALHES DO EVENTO ==========");
-        System.out.println("ID: " + evento.getIdEvento());
-        System.out.println("Nome: " + evento.getNome());
-        System.out.println("Descrição: " + evento.getDescricao());
-        System.out.println("Local: " + evento.getLocal());
-        System.out.println("Data do Evento: " + evento.getDataInicioEvento() + " a " + evento.getDataFimEvento());
-        System.out.println("Horário: " + evento.getHoraInicioEvento() + " - " + evento.getHoraFimEvento());
-        System.out.println("Máximo de Participantes: " + evento.getMaxParticipantes());
-        System.out.println("Período de Inscrições: " + evento.getDataInicioInscricoes() + " a " + evento.getDataFimInscricoes());
-        System.out.println("Estado: " + (evento.getActive() ? "Ativo" : "Inativo"));
-        
-        System.out.println("\n--- Fases de Inscrição ---");
-        for (FaseInscricao fase : evento.getFases()) {
-            System.out.println("  " + fase.getTipoFase() + ": " + fase.getDataInicio() + " a " + fase.getDataFim());
-            System.out.println("    Preço Estudante: " + fase.obterPreco(TipoInscricao.ESTUDANTE) + "€");
-            System.out.println("    Preço Não Estudante: " + fase.obterPreco(TipoInscricao.NAO_ESTUDANTE) + "€");
+    // Retorna os detalhes de um evento (construídos uma vez e reutilizados até o evento ser alterado)
+    public DetalhesEvento detalhesEvento(int idEvento) {
+        return medidas.medir(OperacaoEventos.DETALHES_EVENTO, () -> {
+            return detalhesEmCache(idEvento).detalhes;
+        });
+    }
+
+    // Retorna os detalhes de um evento já formatados (cada formato é construído uma vez por versão do evento)
+    public String detalhesEventoFormatados(int idEvento, FormatoDetalhes formato) {
+        return medidas.medir(OperacaoEventos.DETALHES_EVENTO_FORMATADOS, () -> {
+            DetalhesEmCache cache = detalhesEmCache(idEvento);
+            int posicao = formato.ordinal();
+            String formatado = cache.formatados[posicao];
+            if (formatado == null) {
+                // Duas threads podem formatar ao mesmo tempo: o resultado é igual e fica o último
+                formatado = FormatadorDetalhes.formatar(cache.detalhes, formato);
+                cache.formatados[posicao] = formatado;
+            }
+            return formatado;
+        });
+    }
+
+    /*
+     * Entrada da cache de detalhes (a leitura não bloqueia). Em falta é construída com o lock do
+     * serviço, como as alterações que a descartam, para que uma cópia de um evento a meio de ser
+     * editado nunca fique em cache depois da edição.
+     */
+    private DetalhesEmCache detalhesEmCache(int idEvento) {
+        DetalhesEmCache cache = cacheDetalhes.get(idEvento);
+        if (cache != null) {
+            return cache;
         }
-        
-        System.out.println("\n--- Opções Adicionais ---");
-        if (evento.getOpcoes().isEmpty()) {
-            System.out.println("  Nenhuma opção adicional disponível");
-        } else {
-            for (OpcaoAdicional opcao : evento.getOpcoes()) {
-                System.out.println("  " + opcao.getNome() + " - " + opcao.getPreco() + "€" + 
-                    (opcao.isObrigatoria() ? " (Obrigatória)" : " (Opcional)"));
-                System.out.println("    " + opcao.getDescricao());
+        synchronized (this) {
+            Event evento = findEventoByIdSimples(idEvento);
+            if (evento == null) {
+                throw new IllegalArgumentException("Evento com id " + idEvento + " não encontrado.");
             }
+            return cacheDetalhes.computeIfAbsent(idEvento, id -> new DetalhesEmCache(new DetalhesEvento(evento)));
         }
-        System.out.println("========================================");
     }
 
     // Valida os dados do evento
@@ -253,90 +432,171 @@ public class EventService {
     /*
      * Procura o evento pelo ID e verifica se expirou para não retornar eventos inválidos.
      * Exposto para permitir consultas externas (em InscricaoService).
+     * A remoção de eventos expirados é feita em segundo plano (ExpiracaoEventos), não aqui.
      */ 
-    public Event findEventoById(int idEvento, InscricaoService inscricaoService) {
-        for (Event evento : eventos) {
-            if (evento.getIdEvento() == idEvento) {
-                // Verificar se o evento expirou
-                LocalDate hoje = LocalDate.now();
-                if (evento.getActive() && hoje.isAfter(evento.getDataFimEvento())) {
-                    tratarEventoSeInativo(idEvento, inscricaoService); // Tratar evento expirado
-                    return null;
-                }
-                return evento;
+    public Event findEventoById(int idEvento) {
+        return medidas.medir(OperacaoEventos.PROCURAR_EVENTO, () -> {
+            Event evento = eventos.get(idEvento);
+            if (evento == null || LocalDate.now().isAfter(evento.getDataFimEvento())) {
+                return null;
             }
-        }
-        return null;
+            return evento;
+        });
     }
 
     // Versão sem verificação de expiração
     public Event findEventoByIdSimples(int idEvento) {
-        for (Event evento : eventos) {
-            if (evento.getIdEvento() == idEvento) {
-                return evento;
-            }
-        }
-        return null;
+        return eventos.get(idEvento);
     }
 
-    // Verifica e trata eventos inativos ou expirados
-    private boolean tratarEventoSeInativo(int idEvento, InscricaoService inscricaoService) {
+    // Verifica e trata eventos inativos ou expirados; retorna os inscritos a notificar (null se não houver mensagens)
+    private List<Inscricao> tratarEventoSeInativo(int idEvento, InscricaoService inscricaoService) {
         Event evento = findEventoByIdSimples(idEvento);
         
         LocalDate hoje = LocalDate.now();
         boolean expirado = hoje.isAfter(evento.getDataFimEvento());
         boolean ativo = evento.getActive();
 
-        // Caso ativo e ainda no prazo: retorna true (tudo ok)
+        // Caso ativo e ainda no prazo: nada a tratar
         if (ativo && !expirado) {
-            return true;
+            return null;
         }
 
         // Caso ativo mas expirado: inativar e limpar tudo
         if (ativo && expirado) {
+            RemocaoEventoJfr jfr = RemocaoEventoJfr.iniciar(idEvento, "expirado",
+                    inscricaoService.contarParticipantes(idEvento));
             evento.setActive(false);
             deleteEvento(idEvento, inscricaoService);
-            return false;
+            jfr.commit();
+            return null;
         }
 
         // Caso já inativo (inativação manual pelo admin antes do evento iniciar)
-        // 1) Obter todas as inscrições do evento
+        // 1) Obter todas as inscrições do evento (cópia, continua válida depois da remoção)
+        RemocaoEventoJfr jfr = RemocaoEventoJfr.iniciar(idEvento, "inativado",
+                inscricaoService.contarParticipantes(idEvento));
         List<Inscricao> inscricoesDoEvento = inscricaoService.obterListaParticipantes(idEvento);
         
-        // 2) Mostrar pagamentos a reembolsar
-        System.out.println("========== REEMBOLSOS A EFETUAR ==========");
-        for (Inscricao inscricao : inscricoesDoEvento) {
-            Pagamento pagamento = inscricao.getPagamento();
-            System.out.println("Inscrição ID: " + inscricao.getId());
-            System.out.println("  Participante: " + inscricao.getNome());
-            System.out.println("  Email: " + inscricao.getEmail());
-            System.out.println("  Valor a Reembolsar: " + pagamento.getValorTransferido() + "€");
-            System.out.println("  Estado Pagamento: " + pagamento.getEstado());
-            System.out.println("---");
-        }
-        
-        // 3) Notificar inscritos (Simulação)
-        System.out.println("Notificando " + inscricoesDoEvento.size() + " participantes sobre cancelamento...");
-        for (Inscricao inscricao : inscricoesDoEvento) {
-            System.out.println("  [NOTIFICAÇÃO] Email enviado para: " + inscricao.getEmail());
-        }
-        System.out.println("Notificações enviadas.\n");
-        
-        // 4) Limpar tudo relacionado ao evento
+        // 2) Limpar tudo relacionado ao evento
         deleteEvento(idEvento, inscricaoService);
         
-        return false;
+        // 3) Reembolsos a efetuar e notificação dos inscritos são enviados em segundo plano (ver inativarEvento)
+        jfr.commit();
+        return inscricoesDoEvento;
     }
 
-    // Apaga evento e todos os dados relacionados
-    private void deleteEvento(int idEvento, InscricaoService inscricaoService) {
+    /*
+     * Apaga evento e todos os dados relacionados. Também corre na thread da expiração em segundo
+     * plano, por isso não escreve na consola: a remoção fica no evento JFR RemocaoEvento de quem chama.
+     */
+    private synchronized void deleteEvento(int idEvento, InscricaoService inscricaoService) {
         // 1. Remover todas as inscrições do evento
         inscricaoService.removerInscricoesDoEvento(idEvento, this);
         
-        // 2. Remover o evento da lista
-        eventos.removeIf(e -> e.getIdEvento() == idEvento);
-        
-        System.out.println("Evento " + idEvento + " e todos os dados relacionados foram removidos da memória.");
+        // 2. Remover o evento do índice primário e dos índices de datas
+        Event evento = eventos.remove(idEvento);
+        if (evento != null) {
+            desindexarDatas(evento);
+        }
+        disponiveis.invalidar();
+        cacheDetalhes.remove(idEvento);
+        registo.eventoRemovido(idEvento);
+    }
+
+    /*
+     * Remove até 'limite' eventos que terminaram antes de 'hoje' (os que terminaram há mais tempo
+     * primeiro, pelo índice de datas de fim) e as suas inscrições. Retorna quantos foram removidos.
+     * Usado pela ExpiracaoEventos, que chama em lotes para não reter o lock durante muito tempo.
+     */
+    synchronized int expirarEventos(LocalDate hoje, int limite, InscricaoService inscricaoService) {
+        int removidos = 0;
+        while (removidos < limite) {
+            Map.Entry<LocalDate, Set<Integer>> maisAntigo = eventosPorDataFim.firstEntry();
+            if (maisAntigo == null || !maisAntigo.getKey().isBefore(hoje)) {
+                break;
+            }
+            int idEvento = maisAntigo.getValue().iterator().next();
+            RemocaoEventoJfr jfr = RemocaoEventoJfr.iniciar(idEvento, "expirado",
+                    inscricaoService.contarParticipantes(idEvento));
+            eventos.get(idEvento).setActive(false);
+            deleteEvento(idEvento, inscricaoService); // Também remove o evento do índice
+            jfr.commit();
+            removidos++;
+        }
+        return removidos;
+    }
+
+    // Número de eventos que já terminaram e ainda não foram removidos
+    synchronized int contarEventosExpirados(LocalDate hoje) {
+        int total = 0;
+        for (Set<Integer> ids : eventosPorDataFim.headMap(hoje, false).values()) {
+            total += ids.size();
+        }
+        return total;
+    }
+
+    // Lista todos os eventos em memória (ordenados por ID), sem filtrar expirados (usado pela persistência)
+    public synchronized List<Event> listarTodosEventos() {
+        return eventos.values().stream()
+            .sorted(Comparator.comparingInt(Event::getIdEvento))
+            .toList();
+    }
+
+    // Próximo ID a atribuir (usado pela persistência)
+    public synchronized int getNextEventId() {
+        return nextEventId;
+    }
+
+    /*
+     * Métodos de restauro (usados ao recuperar o estado a partir do disco).
+     * Não validam datas nem regras de negócio e não geram operações no registo.
+     */
+    public synchronized void restaurarEvento(Event evento) {
+        Event anterior = eventos.put(evento.getIdEvento(), evento);
+        if (anterior != null) {
+            desindexarDatas(anterior);
+        }
+        indexarDatas(evento);
+        disponiveis.invalidar();
+        cacheDetalhes.remove(evento.getIdEvento());
+        nextEventId = Math.max(nextEventId, evento.getIdEvento() + 1);
+    }
+
+    public synchronized void restaurarRemocao(int idEvento, InscricaoService inscricaoService) {
+        Event evento = eventos.remove(idEvento);
+        if (evento != null) {
+            desindexarDatas(evento);
+        }
+        disponiveis.invalidar();
+        cacheDetalhes.remove(idEvento);
+        inscricaoService.descartarInscricoesDoEvento(idEvento);
+    }
+
+    public synchronized void restaurarNextEventId(int nextEventId) {
+        this.nextEventId = Math.max(this.nextEventId, nextEventId);
+    }
+
+    // Adiciona o evento aos índices de datas
+    private void indexarDatas(Event evento) {
+        eventosPorDataFim.computeIfAbsent(evento.getDataFimEvento(), d -> new HashSet<>()).add(evento.getIdEvento());
+        eventosPorDataFimInscricoes.computeIfAbsent(evento.getDataFimInscricoes(), d -> new HashSet<>()).add(evento.getIdEvento());
+    }
+
+    // Remove o evento dos índices de datas (apaga entradas que fiquem vazias)
+    private void desindexarDatas(Event evento) {
+        removerDoIndice(eventosPorDataFim, evento.getDataFimEvento(), evento.getIdEvento());
+        removerDoIndice(eventosPorDataFimInscricoes, evento.getDataFimInscricoes(), evento.getIdEvento());
+    }
+
+    private static void removerDoIndice(Map<LocalDate, Set<Integer>> indice, LocalDate data, int idEvento) {
+        Set<Integer> ids = indice.get(data);
+        if (ids != null) {
+            ids.remove(idEvento);
+            if (ids.isEmpty()) {
+                indice.remove(data);
+            }
+        }
     }
 
     // Método auxiliar para validar strings não vazias
@@ -0,0 +1,54 @@
+package com.eventastic.service;
+
+import com.eventastic.model.Event;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/*
+ * Vista dos eventos disponíveis para inscrição (usada internamente pelo EventService).
+ * A lista é calculada uma vez e reutilizada até ser invalidada por algo que a altere:
+ * criação, edição, inativação ou remoção de um evento, um evento que esgota ou volta a ter vagas
+ * (avisado pelo InscricaoService) ou a mudança de dia. Entre alterações, a consulta é só uma leitura volatile.
+ *
+ * A versão evita guardar uma lista calculada antes de uma invalidação que ocorreu durante o cálculo.
+ */
+final class EventosDisponiveis {
+
+    // Lista calculada para um dia (imutável)
+    private static final class Calculo {
+        private final LocalDate dia;
+        private final List<Event> eventos;
+
+        Calculo(LocalDate dia, List<Event> eventos) {
+            this.dia = dia;
+            this.eventos = eventos;
+        }
+    }
+
+    private volatile Calculo atual; // null quando a vista tem de ser recalculada
+    private long versao;
+
+    // Retorna a lista calculada para hoje, ou null se não estiver atualizada
+    List<Event> obter(LocalDate hoje) {
+        Calculo calculo = atual;
+        return (calculo != null && calculo.dia.equals(hoje)) ? calculo.eventos : null;
+    }
+
+    // Versão atual (obtida antes de começar um cálculo)
+    synchronized long getVersao() {
+        return versao;
+    }
+
+    // Guarda a lista calculada, se nada a invalidou entretanto
+    synchronized void guardar(long versaoCalculo, LocalDate dia, List<Event> eventos) {
+        if (versaoCalculo == versao) {
+            atual = new Calculo(dia, eventos);
+        }
+    }
+
+    synchronized void invalidar() {
+        versao++;
+        atual = null;
+    }
+}
@@ -0,0 +1,103 @@
+package com.eventastic.service;
+
+import com.eventastic.model.EstatisticasExpiracao;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Expiração de eventos em segundo plano: remove os eventos que já terminaram (e as suas
+ * inscrições) fora das threads dos pedidos, que assim deixam de ter latência imprevisível.
+ *
+ * Os eventos são percorridos pela data de fim (índice ordenado do EventService, que funciona
+ * como fila de prioridade) em lotes de LIMITE_LOTE. O lock do EventService é largado entre
+ * lotes, para que criações, edições e consultas não fiquem à espera de uma remoção em cascata.
+ */
+public final class ExpiracaoEventos implements AutoCloseable {
+
+    private static final int LIMITE_LOTE = 32;
+
+    private final EventService eventService;
+    private final InscricaoService inscricaoService;
+    private final ScheduledExecutorService executor;
+    private final AtomicLong eventosExpirados = new AtomicLong();
+    private volatile Varredura ultimaVarredura; // null até à primeira varredura
+
+    // Resultado de uma varredura
+    private static final class Varredura {
+        private final LocalDateTime inicio;
+        private final long duracaoMs;
+        private final int expirados;
+
+        Varredura(LocalDateTime inicio, long duracaoMs, int expirados) {
+            this.inicio = inicio;
+            this.duracaoMs = duracaoMs;
+            this.expirados = expirados;
+        }
+    }
+
+    // Construtor (a primeira varredura corre de imediato e as seguintes a cada 'intervalo')
+    public ExpiracaoEventos(EventService eventService, InscricaoService inscricaoService, Duration intervalo) {
+        this.eventService = Objects.requireNonNull(eventService, "eventService");
+        this.inscricaoService = Objects.requireNonNull(inscricaoService, "inscricaoService");
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "eventastic-expiracao");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervaloMs = intervalo.toMillis();
+        executor.scheduleWithFixedDelay(this::varrerComTratamento, 0, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+
+    // Remove todos os eventos expirados até agora, lote a lote; retorna quantos foram removidos
+    public synchronized int varrer() {
+        LocalDateTime inicio = LocalDateTime.now();
+        LocalDate hoje = inicio.toLocalDate();
+        long t0 = System.nanoTime();
+        int total = 0;
+        int lote;
+        do {
+            lote = eventService.expirarEventos(hoje, LIMITE_LOTE, inscricaoService);
+            total += lote;
+            eventosExpirados.addAndGet(lote);
+        } while (lote == LIMITE_LOTE);
+        ultimaVarredura = new Varredura(inicio, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0), total);
+        return total;
+    }
+
+    // Estatísticas atuais (total removido, eventos em atraso e resultado da última varredura)
+    public EstatisticasExpiracao obterEstatisticas() {
+        Varredura ultima = ultimaVarredura;
+        int pendentes = eventService.contarEventosExpirados(LocalDate.now());
+        if (ultima == null) {
+            return new EstatisticasExpiracao(eventosExpirados.get(), pendentes, null, 0, 0);
+        }
+        return new EstatisticasExpiracao(eventosExpirados.get(), pendentes, ultima.inicio,
+                ultima.duracaoMs, ultima.expirados);
+    }
+
+    private void varrerComTratamento() {
+        try {
+            varrer();
+        } catch (RuntimeException e) {
+            System.err.println("Falha na expiração de eventos: " + e.getMessage());
+        }
+    }
+
+    // Para as varreduras periódicas (espera pela que estiver a decorrer)
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
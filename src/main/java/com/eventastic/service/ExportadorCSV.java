@@ -0,0 +1,156 @@
+package com.eventastic.service;
+
+import com.eventastic.model.Inscricao;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPOutputStream;
+
+/*
+ * Escreve ficheiros CSV de participantes em streaming (usado internamente pelo InscricaoService).
+ * Cada linha é montada num StringBuilder reutilizado e codificada em UTF-8 diretamente para um
+ * buffer de bytes, que é despejado num FileChannel (opcionalmente comprimido em gzip).
+ * Os campos com vírgulas, aspas ou quebras de linha são escritos entre aspas (RFC 4180).
+ */
+final class ExportadorCSV implements Closeable {
+
+    static final String CABECALHO = "Nome,Email,NIF,Tipo Inscrição,Preço,Estado,Data Inscrição";
+
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    private final WritableByteChannel canal;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final ByteBuffer bytes = ByteBuffer.allocateDirect(TAMANHO_BUFFER);
+    private final StringBuilder linha = new StringBuilder(256);
+    private char[] caracteres = new char[256];
+    private CharBuffer origem = CharBuffer.wrap(caracteres);
+
+    // Construtor (abre o ficheiro, truncando-o se já existir)
+    ExportadorCSV(Path caminho, boolean comprimir) throws IOException {
+        FileChannel ficheiro = FileChannel.open(caminho,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        if (comprimir) {
+            try {
+                this.canal = Channels.newChannel(new GZIPOutputStream(Channels.newOutputStream(ficheiro), TAMANHO_BUFFER));
+            } catch (IOException e) {
+                ficheiro.close();
+                throw e;
+            }
+        } else {
+            this.canal = ficheiro;
+        }
+    }
+
+    void escreverCabecalho() throws IOException {
+        linha.setLength(0);
+        linha.append(CABECALHO).append('\n');
+        escreverLinha();
+    }
+
+    // Escreve uma inscrição como uma linha do CSV
+    void escrever(Inscricao inscricao) throws IOException {
+        linha.setLength(0);
+        campo(inscricao.getNome()).append(',');
+        campo(inscricao.getEmail()).append(',');
+        if (inscricao.getNif() != null) {
+            linha.append(inscricao.getNif().intValue());
+        }
+        linha.append(',');
+        linha.append(inscricao.getTipoInscricao().name()).append(',');
+        valor(inscricao.getValorTotalCentimos()).append(',');
+        linha.append(inscricao.getEstado().name()).append(',');
+        linha.append(inscricao.getDataCriacao()).append('\n');
+        escreverLinha();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            encoder.encode(CharBuffer.allocate(0), bytes, true);
+            encoder.flush(bytes);
+            despejar();
+        } finally {
+            canal.close();
+        }
+    }
+
+    // Acrescenta um campo de texto, entre aspas apenas quando necessário
+    private StringBuilder campo(String valor) {
+        if (!precisaAspas(valor)) {
+            return linha.append(valor);
+        }
+        linha.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '"') {
+                linha.append('"');
+            }
+            linha.append(c);
+        }
+        return linha.append('"');
+    }
+
+    private static boolean precisaAspas(String valor) {
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Acrescenta um valor monetário (em cêntimos) com 2 casas decimais (sempre com ponto, independente do Locale)
+    private StringBuilder valor(long centimos) {
+        if (centimos < 0) {
+            linha.append('-');
+            centimos = -centimos;
+        }
+        linha.append(centimos / 100).append('.');
+        long resto = centimos % 100;
+        if (resto < 10) {
+            linha.append('0');
+        }
+        return linha.append(resto);
+    }
+
+    // Codifica a linha atual para o buffer de bytes, despejando-o no canal quando enche
+    private void escreverLinha() throws IOException {
+        int tamanho = linha.length();
+        if (caracteres.length < tamanho) {
+            caracteres = new char[Math.max(tamanho, caracteres.length * 2)];
+            origem = CharBuffer.wrap(caracteres);
+        }
+        linha.getChars(0, tamanho, caracteres, 0);
+        origem.clear().limit(tamanho);
+        while (true) {
+            CoderResult resultado = encoder.encode(origem, bytes, false);
+            if (resultado.isOverflow()) {
+                despejar();
+            } else {
+                break;
+            }
+        }
+    }
+
+    private void despejar() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            canal.write(bytes);
+        }
+        bytes.clear();
+    }
+}
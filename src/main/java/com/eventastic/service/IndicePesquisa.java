@@ -0,0 +1,170 @@
+package com.eventastic.service;
+
+import com.eventastic.model.Inscricao;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/*
+ * Índice de pesquisa das inscrições de um evento (usado internamente pelas partições do InscricaoService).
+ *
+ * Cada inscrição fica indexada pelas palavras do nome e pelo e-mail completo, depois de
+ * normalizados (minúsculas e sem acentos: "José Conceição" -> "jose", "conceicao").
+ * As chaves estão ordenadas, por isso uma pesquisa por prefixo é um intervalo do TreeMap.
+ * O índice guarda apenas os IDs das inscrições (a partição obtém-nas do armazém).
+ * Não é thread-safe: a partição só o usa dentro do seu lock.
+ */
+final class IndicePesquisa {
+
+    private static final int[] NENHUM = new int[0];
+
+    private final NavigableMap<String, IntLista> chaves = new TreeMap<>();
+    // Chaves já normalizadas de cada inscrição (para filtrar pelos restantes termos sem renormalizar)
+    private final Map<Integer, List<String>> chavesPorId = new HashMap<>();
+
+    // Constrói o índice para as inscrições já existentes
+    IndicePesquisa(IntLista ids, ArmazemInscricoes armazem) {
+        for (int i = 0; i < ids.tamanho(); i++) {
+            Inscricao inscricao = armazem.obter(ids.get(i));
+            if (inscricao != null) {
+                adicionar(inscricao);
+            }
+        }
+    }
+
+    void adicionar(Inscricao inscricao) {
+        List<String> chavesInscricao = chavesDe(inscricao);
+        chavesPorId.put(inscricao.getId(), chavesInscricao);
+        for (String chave : chavesInscricao) {
+            chaves.computeIfAbsent(chave, c -> new IntLista(1)).adicionar(inscricao.getId());
+        }
+    }
+
+    // IDs das inscrições com uma palavra do nome igual (normalizada) à primeira palavra de 'nome'
+    int[] candidatosNome(String nome) {
+        List<String> palavras = palavras(normalizar(nome));
+        if (palavras.isEmpty()) {
+            return NENHUM;
+        }
+        return copiar(chaves.get(palavras.get(0)));
+    }
+
+    // IDs das inscrições com o e-mail igual (normalizado) a 'email'
+    int[] candidatosEmail(String email) {
+        return copiar(chaves.get(normalizar(email)));
+    }
+
+    private static int[] copiar(IntLista ids) {
+        return (ids != null) ? ids.copiar() : NENHUM;
+    }
+
+    /*
+     * Pesquisa por prefixo: cada palavra do texto tem de ser o início de uma palavra do nome
+     * ou do e-mail ("ana sil" encontra "Ana Silva"). IDs por ordem alfabética da chave,
+     * no máximo 'limite'.
+     */
+    int[] pesquisar(String texto, int limite) {
+        List<String> termos = palavras(normalizar(texto));
+        if (termos.isEmpty()) {
+            return NENHUM;
+        }
+        // Percorre o intervalo do termo mais longo (normalmente o mais seletivo)
+        String principal = termos.get(0);
+        for (String termo : termos) {
+            if (termo.length() > principal.length()) {
+                principal = termo;
+            }
+        }
+
+        Set<Integer> resultado = new LinkedHashSet<>();
+        for (IntLista ids : intervaloPrefixo(principal).values()) {
+            for (int i = 0; i < ids.tamanho(); i++) {
+                int id = ids.get(i);
+                if (termos.size() == 1 || contemTodos(chavesPorId.get(id), termos)) {
+                    resultado.add(id);
+                    if (resultado.size() >= limite) {
+                        return paraArray(resultado);
+                    }
+                }
+            }
+        }
+        return paraArray(resultado);
+    }
+
+    private static int[] paraArray(Set<Integer> ids) {
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private NavigableMap<String, IntLista> intervaloPrefixo(String prefixo) {
+        return chaves.subMap(prefixo, true, prefixo + Character.MAX_VALUE, false);
+    }
+
+    private static boolean contemTodos(List<String> chavesInscricao, List<String> termos) {
+        for (String termo : termos) {
+            boolean encontrado = false;
+            for (String chave : chavesInscricao) {
+                if (chave.startsWith(termo)) {
+                    encontrado = true;
+                    break;
+                }
+            }
+            if (!encontrado) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Chaves de uma inscrição: palavras do nome (sem repetições) e e-mail completo
+    private static List<String> chavesDe(Inscricao inscricao) {
+        List<String> resultado = palavras(normalizar(inscricao.getNome()));
+        String email = normalizar(inscricao.getEmail());
+        if (!resultado.contains(email)) {
+            resultado.add(email);
+        }
+        return resultado;
+    }
+
+    // Divide um texto normalizado em palavras (por espaços e hífens; e-mails ficam inteiros), sem repetições
+    private static List<String> palavras(String texto) {
+        List<String> resultado = new ArrayList<>(4);
+        for (String parte : texto.trim().split("\\s+")) {
+            if (parte.isEmpty()) {
+                continue;
+            }
+            if (parte.indexOf('@') >= 0) {
+                adicionarPalavra(resultado, parte);
+            } else {
+                for (String palavra : parte.split("-")) {
+                    adicionarPalavra(resultado, palavra);
+                }
+            }
+        }
+        return resultado;
+    }
+
+    private static void adicionarPalavra(List<String> palavras, String palavra) {
+        if (!palavra.isEmpty() && !palavras.contains(palavra)) {
+            palavras.add(palavra);
+        }
+    }
+
+    // Minúsculas e sem acentos (texto só com ASCII evita o Normalizer)
+    static String normalizar(String texto) {
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) >= 0x80) {
+                String decomposto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+                return decomposto.replaceAll("\\p{M}+", "").toLowerCase(Locale.ROOT);
+            }
+        }
+        return texto.toLowerCase(Locale.ROOT);
+    }
+}
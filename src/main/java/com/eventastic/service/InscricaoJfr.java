@@ -0,0 +1,95 @@
+package com.eventastic.service;
+
+import com.eventastic.enums.TipoInscricao;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/*
+ * Evento JFR de InscricaoService.inscrever: evento, fase, duração de cada etapa da validação e,
+ * se a inscrição foi rejeitada, o motivo. As etapas só leem o relógio quando o evento está ativo
+ * na gravação; desativado, o custo é o de criar o objeto (eliminado pelo JIT).
+ */
+@Name("com.eventastic.Inscricao")
+@Label("Inscrição")
+@Category({ "Eventastic", "Inscrições" })
+@Description("Inscrição num evento, com a duração de cada etapa da validação")
+@StackTrace(false)
+final class InscricaoJfr extends Event {
+
+    @Label("ID do evento")
+    int idEvento;
+
+    @Label("ID da inscrição")
+    @Description("0 se a inscrição foi rejeitada")
+    int idInscricao;
+
+    @Label("Tipo de inscrição")
+    String tipoInscricao;
+
+    @Label("Fase")
+    String fase;
+
+    @Label("Validação das opções")
+    @Timespan
+    long validacaoOpcoes;
+
+    @Label("Cálculo do preço")
+    @Timespan
+    long calculoPreco;
+
+    @Label("Espera pelo lock da partição")
+    @Timespan
+    long esperaLock;
+
+    @Label("Validação na partição")
+    @Description("Evento ativo, e-mail único e reserva do lugar")
+    @Timespan
+    long validacaoParticao;
+
+    @Label("Criação e registo")
+    @Description("Criação da inscrição, escrita no journal e inserção no armazém")
+    @Timespan
+    long criacao;
+
+    @Label("Motivo da rejeição")
+    String motivoRejeicao;
+
+    private transient boolean ativo;
+    private transient long marca;
+
+    // Cria e inicia o evento (os campos só são preenchidos se estiver ativo)
+    static InscricaoJfr iniciar(int idEvento, TipoInscricao tipoInscricao) {
+        InscricaoJfr jfr = new InscricaoJfr();
+        jfr.begin();
+        jfr.idEvento = idEvento;
+        jfr.ativo = jfr.isEnabled();
+        if (jfr.ativo) {
+            jfr.tipoInscricao = (tipoInscricao != null) ? tipoInscricao.name() : null;
+            jfr.marca = System.nanoTime();
+        }
+        return jfr;
+    }
+
+    // Duração desde a etapa anterior (0 se o evento não estiver ativo)
+    long etapa() {
+        if (!ativo) {
+            return 0;
+        }
+        long agora = System.nanoTime();
+        long duracao = agora - marca;
+        marca = agora;
+        return duracao;
+    }
+
+    void rejeitar(RuntimeException erro) {
+        if (ativo) {
+            motivoRejeicao = (erro.getMessage() != null) ? erro.getMessage() : erro.getClass().getSimpleName();
+        }
+    }
+}
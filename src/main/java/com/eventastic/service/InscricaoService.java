@@ -1,227 +1,1009 @@
 package com.eventastic.service;
 
 import com.eventastic.enums.EstadoInscricao;
+import com.eventastic.enums.EstadoPagamento;
+import com.eventastic.enums.ModoArmazenamento;
+import com.eventastic.enums.ModoLote;
+import com.eventastic.enums.TipoFase;
 import com.eventastic.enums.TipoInscricao;
+import com.eventastic.metricas.Medidas;
+import com.eventastic.metricas.Metricas;
+import com.eventastic.model.AgregadosEvento;
+import com.eventastic.model.CatalogoOpcoes;
+import com.eventastic.model.DetalhesInscricao;
 import com.eventastic.model.Event;
 import com.eventastic.model.Inscricao;
 import com.eventastic.model.OpcaoAdicional;
+import com.eventastic.model.Pagamento;
+import com.eventastic.model.Pagina;
+import com.eventastic.model.PedidoInscricao;
+import com.eventastic.model.ReservaLugar;
+import com.eventastic.model.ResultadoLote;
+import com.eventastic.model.TabelaPrecos;
+import com.eventastic.notificacao.AvisosPromocao;
+import com.eventastic.notificacao.DestinoPromocoes;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.io.FileWriter;
-import java.io.BufferedWriter;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
 import java.io.IOException;
+import java.nio.file.Path;
 
-// Serviço que gerencia inscrições em eventos
+// Serviço que gerencia inscrições em eventos (seguro para inscrições concorrentes)
 public class InscricaoService {
 
-    // Simula uma base de dados em memória
-    private final List<Inscricao> inscricoes = new ArrayList<>();
-    private int nextInscricaoId = 1; // Simula auto-incremento de IDs
+    // Simula uma base de dados em memória (inscrições particionadas por evento)
+    private final Map<Integer, InscricoesEvento> inscricoesPorEvento = new ConcurrentHashMap<>();
+    private final ModoArmazenamento modoArmazenamento;
+    private final ArmazemInscricoes armazem; // Índice primário por ID (as partições guardam só os IDs)
+    private final AtomicInteger nextInscricaoId = new AtomicInteger(1); // Simula auto-incremento de IDs
+    private volatile RegistoOperacoes registo = RegistoOperacoes.NENHUM;
+    private final ReservasLugares reservas = new ReservasLugares(this::devolverLugar); // Lugares reservados com prazo
+    private final AvisosPromocao avisosPromocao = new AvisosPromocao(DestinoPromocoes.CONSOLA); // Promoções da lista de espera
+    private volatile IntConsumer aoMudarVagas = idEvento -> { }; // Avisado quando um evento esgota ou volta a ter vagas
+    private final Medidas<OperacaoInscricoes> medidas;
 
-    // Cria uma nova inscrição para um evento
+    // Operações medidas (nome usado nas métricas, com o serviço "inscricoes")
+    private enum OperacaoInscricoes {
+        INSCREVER("inscrever"),
+        INSCREVER_EM_LOTE("inscreverEmLote"),
+        RESERVAR_LUGAR("reservarLugar"),
+        CONFIRMAR_RESERVA("confirmarReserva"),
+        LIBERTAR_RESERVA("libertarReserva"),
+        CANCELAR_INSCRICAO("cancelarInscricao"),
+        ENTRAR_LISTA_ESPERA("entrarListaEspera"),
+        SAIR_LISTA_ESPERA("sairListaEspera"),
+        CONTAR_LISTA_ESPERA("contarListaEspera"),
+        PROMOVER_LISTA_ESPERA("promoverListaEspera"),
+        LISTAR_INSCRICOES("listarInscricoes"),
+        LISTAR_INSCRICOES_PAGINADA("listarInscricoesPaginada"),
+        CONSULTAR_INSCRICAO("consultarInscricao"),
+        OBTER_LISTA_PARTICIPANTES("obterListaParticipantes"),
+        OBTER_LISTA_PARTICIPANTES_PAGINADA("obterListaParticipantesPaginada"),
+        PROCURAR_PARTICIPANTE("procurarParticipante"),
+        PESQUISAR_PARTICIPANTES("pesquisarParticipantes"),
+        EXPORTAR_PARTICIPANTES_CSV("exportarParticipantesParaCSV"),
+        OBTER_AGREGADOS("obterAgregadosEvento");
+
+        private final String nome;
+
+        OperacaoInscricoes(String nome) {
+            this.nome = nome;
+        }
+    }
+
+    // Construtor (inscrições guardadas como objetos; as métricas das operações ficam num registo próprio)
+    public InscricaoService() {
+        this(ModoArmazenamento.OBJETOS);
+    }
+
+    /*
+     * Construtor com o modo de armazenamento das inscrições. Em COLUNAR cada inscrição ocupa uma
+     * fração da memória, mas as inscrições devolvidas são vistas criadas a cada consulta: os
+     * pagamentos só podem ser alterados através do PagamentoService (ou de atualizarPagamento).
+     */
+    public InscricaoService(ModoArmazenamento modoArmazenamento) {
+        this(modoArmazenamento, new Metricas());
+    }
+
+    // Construtor que regista as métricas das operações em 'metricas' (ex: o registo da EventasticAPI)
+    public InscricaoService(ModoArmazenamento modoArmazenamento, Metricas metricas) {
+        this.medidas = new Medidas<>(metricas, "inscricoes", OperacaoInscricoes.class, operacao -> operacao.nome);
+        this.modoArmazenamento = Objects.requireNonNull(modoArmazenamento, "modoArmazenamento");
+        this.armazem = (modoArmazenamento == ModoArmazenamento.COLUNAR) ? new ArmazemColunar() : new ArmazemObjetos();
+    }
+
+    public ModoArmazenamento getModoArmazenamento() {
+        return modoArmazenamento;
+    }
+
+    // Define quem recebe as operações que alteram inscrições (ex: journal de persistência)
+    public void setRegistoOperacoes(RegistoOperacoes registo) {
+        this.registo = Objects.requireNonNull(registo, "registo");
+    }
+
+    // Define quem é avisado quando um evento esgota ou volta a ter vagas (usado pela vista de eventos disponíveis)
+    void setAoMudarVagas(IntConsumer aoMudarVagas) {
+        this.aoMudarVagas = Objects.requireNonNull(aoMudarVagas, "aoMudarVagas");
+    }
+
+    // Define para onde vão os avisos de promoção da lista de espera (por omissão, a consola)
+    public void setDestinoPromocoes(DestinoPromocoes destino) {
+        avisosPromocao.setDestino(destino);
+    }
+
+    // Cria uma nova inscrição para um evento (emite um evento JFR com as etapas e o motivo de uma rejeição)
     public Inscricao inscrever(Event evento, String nome, String email, Integer nif,
                                TipoInscricao tipoInscricao, Integer numAluno,
                                List<OpcaoAdicional> opcoesEscolhidas) {
+        return medidas.medir(OperacaoInscricoes.INSCREVER, () -> {
+            return inscrever(evento, nome, email, nif, tipoInscricao, numAluno, opcoesEscolhidas, null);
+        });
+    }
+
+    /*
+     * Reserva um lugar num evento durante 'duracao' (no máximo 1 hora), sem o lock da partição do
+     * evento: o lugar conta para a lotação até a reserva ser confirmada, libertada ou expirar.
+     * Expirada, o lugar volta ao evento com até 100 ms de atraso.
+     */
+    public ReservaLugar reservarLugar(Event evento, Duration duracao) {
+        return medidas.medir(OperacaoInscricoes.RESERVAR_LUGAR, () -> {
+            if (evento == null) {
+                throw new IllegalArgumentException("Evento não pode ser nulo");
+            }
+            if (duracao == null || duracao.isNegative() || duracao.isZero()
+                    || duracao.compareTo(ReservasLugares.DURACAO_MAXIMA) > 0) {
+                throw new IllegalArgumentException("Duração da reserva deve ser positiva e no máximo "
+                        + ReservasLugares.DURACAO_MAXIMA.toMinutes() + " minutos");
+            }
+            faseAtual(evento.getTabelaPrecos()); // Inscrições abertas hoje
+            InscricoesEvento particao = particao(evento.getIdEvento());
+            if (!evento.getActive() || particao.isFechada()) {
+                throw new IllegalArgumentException("Evento não está ativo");
+            }
+            ReservaLugar reserva = reservas.reservar(evento, particao, duracao);
+            if (particao.getLugaresOcupados() >= evento.getMaxParticipantes()) {
+                aoMudarVagas.accept(evento.getIdEvento()); // A reserva ocupou o último lugar
+            }
+            return reserva;
+        });
+    }
+
+    /*
+     * Confirma uma reserva numa inscrição, com as mesmas validações de inscrever (exceto a lotação:
+     * o lugar já é da reserva) e o preço da fase atual. Se os dados forem inválidos a reserva
+     * continua ativa até expirar, para poderem ser corrigidos.
+     */
+    public Inscricao confirmarReserva(long idReserva, String nome, String email, Integer nif,
+                                      TipoInscricao tipoInscricao, Integer numAluno,
+                                      List<OpcaoAdicional> opcoesEscolhidas) {
+        return medidas.medir(OperacaoInscricoes.CONFIRMAR_RESERVA, () -> {
+            ReservasLugares.Reserva reserva = reservas.obter(idReserva);
+            if (reserva == null) {
+                throw new IllegalArgumentException("Reserva com id " + idReserva + " não existe ou já expirou");
+            }
+            return inscrever(reserva.getEvento(), nome, email, nif, tipoInscricao, numAluno, opcoesEscolhidas, reserva);
+        });
+    }
+
+    // Devolve ao evento o lugar de uma reserva; false se a reserva já tinha terminado (ou não existe)
+    public boolean libertarReserva(long idReserva) {
+        return medidas.medir(OperacaoInscricoes.LIBERTAR_RESERVA, () -> {
+            return reservas.libertar(idReserva);
+        });
+    }
+
+    // Número de reservas ativas, em todos os eventos
+    public int contarReservasAtivas() {
+        return reservas.contarAtivas();
+    }
+
+    // Deixa de aceitar reservas e para a expiração das que estão ativas
+    public void encerrarReservas() {
+        reservas.close();
+    }
+
+    /*
+     * Coloca um participante na lista de espera de um evento esgotado (por ordem de chegada). Os dados
+     * são validados agora, com as regras de inscrever. Quando um lugar fica livre (inscrição cancelada,
+     * reserva libertada ou expirada, lotação aumentada) o primeiro da lista é inscrito com o preço da
+     * fase nesse momento e avisado em segundo plano. Retorna a posição na lista (1 = o próximo).
+     * Lança IllegalStateException se o evento ainda tiver lugares livres (a inscrição deve ser direta).
+     */
+    public int entrarListaEspera(Event evento, String nome, String email, Integer nif,
+                                 TipoInscricao tipoInscricao, Integer numAluno,
+                                 List<OpcaoAdicional> opcoesEscolhidas) {
+        return medidas.medir(OperacaoInscricoes.ENTRAR_LISTA_ESPERA, () -> {
+            if (evento == null) {
+                throw new IllegalArgumentException("Evento não pode ser nulo");
+            }
+            if (opcoesEscolhidas == null) {
+                throw new IllegalArgumentException("opcoesEscolhidas não pode ser nulo");
+            }
+            PedidoInscricao pedido = new PedidoInscricao(nome, email, nif, tipoInscricao, numAluno, opcoesEscolhidas);
+            validateOpcoesEscolhidas(pedido.getOpcoesEscolhidas(), evento);
+            Inscricao.validarDados(nome, email, tipoInscricao, numAluno);
+            faseAtual(evento.getTabelaPrecos()); // Inscrições abertas hoje
+
+            InscricoesEvento particao = particao(evento.getIdEvento());
+            synchronized (particao) {
+                validateEventoAtivo(evento, particao);
+                validateEmailEventoUnico(email, particao);
+                ListaEspera espera = particao.listaEspera(evento);
+                if (espera.contem(email)) {
+                    throw new IllegalArgumentException("E-mail '" + email + "' já está na lista de espera deste evento");
+                }
+                // Com o lock da partição, um lugar libertado passa logo à lista: só se espera com o evento cheio
+                if (particao.getLugaresOcupados() < evento.getMaxParticipantes()) {
+                    throw new IllegalStateException("Evento ainda tem lugares disponíveis");
+                }
+                return espera.adicionar(pedido);
+            }
+        });
+    }
+
+    // Retira um e-mail da lista de espera de um evento; false se não estava à espera
+    public boolean sairListaEspera(int idEvento, String email) {
+        return medidas.medir(OperacaoInscricoes.SAIR_LISTA_ESPERA, () -> {
+            InscricoesEvento particao = inscricoesPorEvento.get(idEvento);
+            if (particao == null) {
+                return false;
+            }
+            synchronized (particao) {
+                ListaEspera espera = particao.getListaEspera();
+                return espera != null && espera.remover(email);
+            }
+        });
+    }
+
+    // Número de pessoas na lista de espera de um evento (O(1))
+    public int contarListaEspera(int idEvento) {
+        return medidas.medir(OperacaoInscricoes.CONTAR_LISTA_ESPERA, () -> {
+            InscricoesEvento particao = inscricoesPorEvento.get(idEvento);
+            if (particao == null) {
+                return 0;
+            }
+            synchronized (particao) {
+                ListaEspera espera = particao.getListaEspera();
+                return (espera != null) ? espera.tamanho() : 0;
+            }
+        });
+    }
+
+    /*
+     * Cancela uma inscrição (verificando o e-mail, como consultarInscricao). A inscrição fica
+     * CANCELADA (continua nas listagens, com esse estado; o pagamento não é alterado) e o e-mail
+     * fica livre. O lugar passa ao primeiro da lista de espera, com o preço da fase atual, ou volta
+     * ao evento se ninguém estiver à espera. Retorna a inscrição promovida (avisada em segundo
+     * plano), ou null se o lugar voltou ao evento.
+     */
+    public Inscricao cancelarInscricao(int idInscricao, String email) {
+        return medidas.medir(OperacaoInscricoes.CANCELAR_INSCRICAO, () -> {
+            Inscricao inscricao = procurarInscricaoPorId(idInscricao);
+            if (inscricao == null) {
+                throw new IllegalArgumentException("Inscrição com id " + idInscricao + " não encontrada");
+            }
+            if (!inscricao.getEmail().equals(email)) {
+                throw new IllegalArgumentException("Email não corresponde à inscrição fornecida");
+            }
+
+            InscricoesEvento particao = inscricoesPorEvento.get(inscricao.getIdEvento());
+            if (particao == null) {
+                throw new IllegalArgumentException("Evento não está ativo");
+            }
+            Inscricao promovida;
+            synchronized (particao) {
+                if (particao.isFechada()) {
+                    throw new IllegalArgumentException("Evento não está ativo");
+                }
+                if (!marcarCancelada(idInscricao, particao)) {
+                    throw new IllegalStateException("Inscrição com id " + idInscricao + " já está cancelada");
+                }
+                particao.cancelar(idInscricao, email);
+                registo.inscricaoCancelada(idInscricao);
+                promovida = ocuparLugarLibertado(particao);
+            }
+            avisarPromocao(promovida);
+            return promovida;
+        });
+    }
+
+    /*
+     * Ocupa com a lista de espera os lugares livres de um evento (ex: depois de a lotação aumentar
+     * numa edição). Retorna o número de inscrições promovidas.
+     */
+    public int promoverListaEspera(int idEvento) {
+        return medidas.medir(OperacaoInscricoes.PROMOVER_LISTA_ESPERA, () -> {
+            InscricoesEvento particao = inscricoesPorEvento.get(idEvento);
+            if (particao == null) {
+                return 0;
+            }
+            List<Inscricao> promovidas = new ArrayList<>();
+            synchronized (particao) {
+                ListaEspera espera = particao.getListaEspera();
+                while (espera != null && espera.tamanho() > 0
+                        && particao.reservarLugar(espera.getEvento().getMaxParticipantes())) {
+                    Inscricao promovida = ocuparLugarLibertado(particao);
+                    if (promovida == null) {
+                        break; // O lugar voltou ao evento (inscrições fechadas ou pedidos inválidos)
+                    }
+                    promovidas.add(promovida);
+                }
+            }
+            promovidas.forEach(this::avisarPromocao);
+            return promovidas.size();
+        });
+    }
+
+    // Espera que os avisos de promoção pendentes sejam enviados (os seguintes são contados como não entregues)
+    public void encerrarAvisosPromocao() {
+        avisosPromocao.close();
+    }
+
+    // Cria uma inscrição, ocupando um lugar novo ou o da reserva dada (emite o evento JFR)
+    private Inscricao inscrever(Event evento, String nome, String email, Integer nif,
+                                TipoInscricao tipoInscricao, Integer numAluno,
+                                List<OpcaoAdicional> opcoesEscolhidas, ReservasLugares.Reserva reserva) {
+        InscricaoJfr jfr = InscricaoJfr.iniciar((evento != null) ? evento.getIdEvento() : 0, tipoInscricao);
+        try {
+            Inscricao inscricao = criarInscricao(evento, nome, email, nif, tipoInscricao, numAluno, opcoesEscolhidas,
+                    reserva, jfr);
+            jfr.idInscricao = inscricao.getId();
+            return inscricao;
+        } catch (RuntimeException e) {
+            jfr.rejeitar(e);
+            throw e;
+        } finally {
+            jfr.commit();
+        }
+    }
+
+    // Validações e criação da inscrição (a duração de cada etapa fica no evento JFR)
+    private Inscricao criarInscricao(Event evento, String nome, String email, Integer nif,
+                                     TipoInscricao tipoInscricao, Integer numAluno,
+                                     List<OpcaoAdicional> opcoesEscolhidas, ReservasLugares.Reserva reserva,
+                                     InscricaoJfr jfr) {
         
-        // Validar opções escolhidas
-        validateOpcoesEscolhidas(opcoesEscolhidas, evento);
-        
-        // Validar email + evento (combinação única), não permite inscrição duplicada
-        validateEmailEventoUnico(email, evento.getIdEvento());
-        
-        // Validar se ainda há lugares
-        validateLotacao(evento);
+        // Validar opções escolhidas (sobre a cópia imutável que fica na inscrição)
+        if (opcoesEscolhidas == null) {
+            throw new IllegalArgumentException("opcoesEscolhidas não pode ser nulo");
+        }
+        List<OpcaoAdicional> opcoes = List.copyOf(opcoesEscolhidas);
+        validateOpcoesEscolhidas(opcoes, evento);
+        jfr.validacaoOpcoes = jfr.etapa();
         
         // Obter preço da fase atual
-        float precoFase = obterPrecoFaseAtual(evento, tipoInscricao);
-        
-        Inscricao inscricao = new Inscricao(
-            nextInscricaoId++,
-            evento.getIdEvento(),
-            nome,
-            email,
-            nif,
-            tipoInscricao,
-            numAluno,
-            List.copyOf(opcoesEscolhidas),
-            precoFase,
-            EstadoInscricao.PENDENTE_PAGAMENTO,
-            LocalDateTime.now()
-        );
-        
-        inscricoes.add(inscricao);
-        return inscricao;
+        TabelaPrecos tabela = evento.getTabelaPrecos();
+        int fase = faseAtual(tabela);
+        float precoFase = tabela.getPreco(fase, tipoInscricao);
+        jfr.fase = tabela.getTipoFase(fase).name();
+        jfr.calculoPreco = jfr.etapa();
+
+        InscricoesEvento particao = (reserva != null) ? reserva.getParticao() : particao(evento.getIdEvento());
+
+        // Verificação + reserva + inserção são atómicas por evento (lock da partição)
+        synchronized (particao) {
+            jfr.esperaLock = jfr.etapa();
+
+            // Validar que o evento continua ativo (e que as suas inscrições não foram removidas)
+            validateEventoAtivo(evento, particao);
+
+            // Validar email + evento (combinação única), não permite inscrição duplicada
+            validateEmailEventoUnico(email, particao);
+            
+            // Validar se ainda há lugares (reserva o lugar), exceto se o lugar vier de uma reserva
+            if (reserva == null) {
+                validateLotacao(evento, particao);
+            }
+            jfr.validacaoParticao = jfr.etapa();
+
+            boolean lugarOcupado = (reserva == null);
+            try {
+                Inscricao inscricao = new Inscricao(
+                    nextInscricaoId.getAndIncrement(),
+                    evento.getIdEvento(),
+                    nome,
+                    email,
+                    nif,
+                    tipoInscricao,
+                    numAluno,
+                    opcoes,
+                    precoFase,
+                    EstadoInscricao.PENDENTE_PAGAMENTO,
+                    LocalDateTime.now()
+                );
+
+                // O lugar passa da reserva para a inscrição (falha se a reserva expirou entretanto)
+                if (reserva != null) {
+                    if (!reservas.confirmar(reserva)) {
+                        throw new IllegalStateException("Reserva com id " + reserva.getId() + " expirou ou já foi usada");
+                    }
+                    lugarOcupado = true;
+                }
+
+                registarInscricao(evento, particao, inscricao, tabela.getTipoFase(fase));
+                jfr.criacao = jfr.etapa();
+                return inscricao;
+            } catch (RuntimeException e) {
+                if (lugarOcupado) {
+                    devolverLugares(particao, 1); // Dados inválidos: devolver o lugar reservado
+                }
+                throw e;
+            }
+        }
     }
 
-    // Lista todas as inscrições
-    public List<Inscricao> listarInscricoes() {
-        return List.copyOf(inscricoes);
+    /*
+     * Torna visível uma inscrição nova, com o lock da partição e o lugar já ocupado.
+     * É registada depois de estar no armazém (como os cancelamentos e os pagamentos, registados depois
+     * da alteração): um snapshot concorrente ou já a inclui, ou ela fica no segmento do journal que o
+     * snapshot não apaga. Se o registo falhar (journal fechado), a inscrição é retirada do armazém e
+     * dos totais do evento antes de a exceção ser relançada.
+     */
+    private void registarInscricao(Event evento, InscricoesEvento particao, Inscricao inscricao, TipoFase tipoFase) {
+        particao.getContadores().adicionar(inscricao, tipoFase); // Antes de poder ser paga
+        armazem.guardar(inscricao);
+        try {
+            registo.inscricaoCriada(inscricao);
+        } catch (RuntimeException e) {
+            desfazerCriacao(particao, inscricao.getId(), tipoFase);
+            throw e;
+        }
+        particao.adicionar(inscricao);
+        if (particao.getLugaresOcupados() >= evento.getMaxParticipantes()) {
+            aoMudarVagas.accept(evento.getIdEvento());
+        }
     }
 
-    // Consulta e imprime detalhes de uma inscrição (verificando email)
-    public void consultarInscricao(int idInscricao, String email, EventService eventService) {
-        Inscricao inscricao = inscricoes.stream()
-            .filter(i -> i.getId() == idInscricao)
-            .findFirst()
-            .orElseThrow(() -> new IllegalArgumentException("Inscrição com id " + idInscricao + " não encontrada"));
+    // Retira do armazém e dos totais do evento uma inscrição cuja criação não pôde ser registada
+    private void desfazerCriacao(InscricoesEvento particao, int idInscricao, TipoFase tipoFase) {
+        armazem.atualizar(idInscricao, inscricao -> {
+            particao.getContadores().remover(inscricao, tipoFase); // No estado atual (pode já ter sido paga)
+            return null;
+        });
+        armazem.remover(idInscricao);
+    }
 
-        // Verificar email (segurança)
-        if (!inscricao.getEmail().equals(email)) {
-            throw new IllegalArgumentException("Email não corresponde à inscrição fornecida");
+    /*
+     * Passa um lugar que ficou livre ao primeiro da lista de espera (com o lock da partição): o lugar
+     * continua ocupado, agora pela inscrição promovida, que é retornada para ser avisada fora do lock.
+     * Pedidos que deixaram de ser válidos (e-mail entretanto inscrito, opções alteradas numa edição do
+     * evento) são descartados. Sem ninguém à espera, com as inscrições fechadas ou com a lotação
+     * reduzida abaixo dos lugares ocupados, o lugar volta ao evento e retorna null.
+     */
+    private Inscricao ocuparLugarLibertado(InscricoesEvento particao) {
+        ListaEspera espera = particao.getListaEspera();
+        if (espera != null && espera.tamanho() > 0 && !particao.isFechada()) {
+            Event evento = espera.getEvento();
+            TabelaPrecos tabela = evento.getTabelaPrecos();
+            int fase = tabela.faseAtiva(LocalDate.now());
+            boolean podePromover = evento.getActive() && fase >= 0
+                    && particao.getLugaresOcupados() <= evento.getMaxParticipantes();
+            PedidoInscricao pedido;
+            while (podePromover && (pedido = espera.retirarPrimeiro()) != null) {
+                if (particao.contemEmail(pedido.getEmail())) {
+                    continue; // Já se inscreveu (ex: ao confirmar uma reserva)
+                }
+                Inscricao inscricao;
+                try {
+                    validateOpcoesEscolhidas(pedido.getOpcoesEscolhidas(), evento);
+                    inscricao = new Inscricao(nextInscricaoId.getAndIncrement(), evento.getIdEvento(),
+                            pedido.getNome(), pedido.getEmail(), pedido.getNif(), pedido.getTipoInscricao(),
+                            pedido.getNumAluno(), pedido.getOpcoesEscolhidas(),
+                            tabela.getPreco(fase, pedido.getTipoInscricao()),
+                            EstadoInscricao.PENDENTE_PAGAMENTO, LocalDateTime.now());
+                } catch (IllegalArgumentException e) {
+                    continue;
+                }
+                try {
+                    registarInscricao(evento, particao, inscricao, tabela.getTipoFase(fase));
+                } catch (RuntimeException e) {
+                    devolverLugares(particao, 1);
+                    throw e;
+                }
+                return inscricao;
+            }
         }
+        devolverLugares(particao, 1);
+        return null;
+    }
 
-        Event evento = eventService.findEventoById(inscricao.getIdEvento(), this);
-        String nomeEvento = (evento != null) ? evento.getNome() : "(Evento não encontrado)";
+    // Devolve lugares ao evento, que pode voltar a aparecer nos eventos disponíveis
+    private void devolverLugares(InscricoesEvento particao, int quantidade) {
+        if (quantidade > 0) {
+            particao.libertarLugares(quantidade);
+            aoMudarVagas.accept(particao.getIdEvento());
+        }
+    }
 
-        System.out.println("========== DETALHES DA INSCRIÇÃO ==========");
-        System.out.println("ID Inscrição: " + inscricao.getId());
-        System.out.println("Evento: " + nomeEvento + " (ID=" + inscricao.getIdEvento() + ")");
-        System.out.println("Participante: " + inscricao.getNome() + " | Email: " + inscricao.getEmail());
-        System.out.println("Tipo de Inscrição: " + inscricao.getTipoInscricao());
+    // Devolve o lugar de uma reserva libertada ou expirada (passa à lista de espera ou volta ao evento)
+    private void devolverLugar(InscricoesEvento particao) {
+        Inscricao promovida;
+        synchronized (particao) {
+            promovida = ocuparLugarLibertado(particao);
+        }
+        avisarPromocao(promovida);
+    }
 
-        System.out.println("\nOpções adicionais:");
-        if (inscricao.getOpcoesEscolhidas().isEmpty()) {
-            System.out.println("  Nenhuma");
-        } else {
-            inscricao.getOpcoesEscolhidas().forEach(op ->
-                System.out.println("  - " + op.getNome() + " (" + op.getPreco() + "€)" +
-                    (op.isObrigatoria() ? " [Obrigatória]" : ""))
-            );
+    private void avisarPromocao(Inscricao promovida) {
+        if (promovida != null) {
+            avisosPromocao.agendar(promovida);
         }
+    }
 
-        System.out.println("\nValor Total: " + inscricao.getValorTotal() + "€");
-        System.out.println("IBAN: " + inscricao.getIban());
-        System.out.println("Descrição da Transferência: " + inscricao.getDescricaoTransferencia());
-        System.out.println("Estado: " + inscricao.getEstado());
-        System.out.println("Data de Criação: " + inscricao.getDataCriacao());
-        System.out.println("===========================================");
+    // Marca uma inscrição como CANCELADA no armazém e nos totais do evento; false se já estava cancelada
+    private boolean marcarCancelada(int idInscricao, InscricoesEvento particao) {
+        Boolean cancelada = armazem.atualizar(idInscricao, inscricao -> {
+            EstadoInscricao estadoAntes = inscricao.getEstado();
+            if (estadoAntes == EstadoInscricao.CANCELADA) {
+                return false;
+            }
+            Pagamento pagamento = inscricao.getPagamento();
+            inscricao.setEstado(EstadoInscricao.CANCELADA);
+            particao.getContadores().alterar(inscricao, estadoAntes, pagamento.getEstado(),
+                    TabelaPrecos.paraCentimos(pagamento.getValorTransferido()));
+            return true;
+        });
+        return Boolean.TRUE.equals(cancelada);
+    }
+
+    /*
+     * Inscreve um lote de participantes num evento (ex: grupo de uma empresa importado de uma folha de cálculo).
+     * A fase e o preço são resolvidos uma vez para o lote; o estado do evento, os e-mails e a lotação são
+     * validados sob um único lock da partição, os lugares são reservados de uma vez e os IDs atribuídos num
+     * bloco contíguo. As inscrições do lote são registadas numa só operação.
+     * ATOMICO: se algum pedido for inválido (ou não houver lugares para todos), nenhum é inscrito.
+     * POR_PEDIDO: os pedidos válidos são inscritos por ordem, enquanto houver lugares.
+     * Os pedidos rejeitados ficam em ResultadoLote.getErros(), com o motivo.
+     */
+    public ResultadoLote inscreverEmLote(Event evento, Iterable<PedidoInscricao> pedidos, ModoLote modo) {
+        return medidas.medir(OperacaoInscricoes.INSCREVER_EM_LOTE, () -> {
+            if (evento == null) {
+                throw new IllegalArgumentException("Evento não pode ser nulo");
+            }
+            if (pedidos == null || modo == null) {
+                throw new IllegalArgumentException("pedidos e modo não podem ser nulos");
+            }
+            List<PedidoInscricao> lote = new ArrayList<>();
+            pedidos.forEach(lote::add);
+
+            TabelaPrecos tabela = evento.getTabelaPrecos();
+            int fase = faseAtual(tabela);
+
+            // Validações que não dependem das outras inscrições do evento (fora do lock)
+            Map<Integer, String> erros = new HashMap<>();
+            boolean[] rejeitado = new boolean[lote.size()];
+            Set<String> emailsLote = new HashSet<>(lote.size() * 4 / 3 + 1);
+            for (int i = 0; i < lote.size(); i++) {
+                PedidoInscricao pedido = lote.get(i);
+                String erro = null;
+                if (pedido == null || pedido.getTipoInscricao() == null) {
+                    erro = "Pedido sem tipo de inscrição";
+                } else {
+                    try {
+                        // Dados da inscrição (nome, e-mail, número de aluno): só os pedidos válidos ocupam lugares
+                        Inscricao.validarDados(pedido.getNome(), pedido.getEmail(), pedido.getTipoInscricao(),
+                                pedido.getNumAluno());
+                        if (!emailsLote.add(pedido.getEmail())) {
+                            erro = "E-mail '" + pedido.getEmail() + "' repetido no lote";
+                        } else {
+                            validateOpcoesEscolhidas(pedido.getOpcoesEscolhidas(), evento);
+                        }
+                    } catch (IllegalArgumentException e) {
+                        erro = e.getMessage();
+                    }
+                }
+                if (erro != null) {
+                    erros.put(i, erro);
+                    rejeitado[i] = true;
+                }
+            }
+            if (modo == ModoLote.ATOMICO && !erros.isEmpty()) {
+                return new ResultadoLote(List.of(), erros);
+            }
+
+            InscricoesEvento particao = particao(evento.getIdEvento());
+            synchronized (particao) {
+                validateEventoAtivo(evento, particao);
+
+                // E-mails já inscritos no evento
+                List<Integer> candidatos = new ArrayList<>(lote.size() - erros.size());
+                for (int i = 0; i < lote.size(); i++) {
+                    if (rejeitado[i]) {
+                        continue;
+                    }
+                    if (particao.contemEmail(lote.get(i).getEmail())) {
+                        erros.put(i, "E-mail '" + lote.get(i).getEmail() + "' já tem uma inscrição neste evento");
+                    } else {
+                        candidatos.add(i);
+                    }
+                }
+                if (modo == ModoLote.ATOMICO && !erros.isEmpty()) {
+                    return new ResultadoLote(List.of(), erros);
+                }
+
+                // Lotação: reserva os lugares do lote de uma vez (em POR_PEDIDO, os que couberem)
+                int reservados = particao.reservarLugares(candidatos.size(), evento.getMaxParticipantes(),
+                        modo == ModoLote.ATOMICO);
+                for (int i = reservados; i < candidatos.size(); i++) {
+                    erros.put(candidatos.get(i), "Evento com lotação completa");
+                }
+                if (modo == ModoLote.ATOMICO && !erros.isEmpty()) {
+                    return new ResultadoLote(List.of(), erros);
+                }
+
+                // IDs atribuídos num bloco contíguo (dentro do lock: a partição fica ordenada por ID)
+                int proximoId = nextInscricaoId.getAndAdd(reservados);
+                LocalDateTime agora = LocalDateTime.now();
+                List<Inscricao> criadas = new ArrayList<>(reservados);
+                for (int i = 0; i < reservados; i++) {
+                    PedidoInscricao pedido = lote.get(candidatos.get(i));
+                    try {
+                        criadas.add(new Inscricao(proximoId++, evento.getIdEvento(), pedido.getNome(),
+                                pedido.getEmail(), pedido.getNif(), pedido.getTipoInscricao(), pedido.getNumAluno(),
+                                pedido.getOpcoesEscolhidas(), tabela.getPreco(fase, pedido.getTipoInscricao()),
+                                EstadoInscricao.PENDENTE_PAGAMENTO, agora));
+                    } catch (RuntimeException e) {
+                        erros.put(candidatos.get(i), e.getMessage()); // Salvaguarda: os dados já foram validados antes do lock
+                    }
+                }
+                devolverLugares(particao, reservados - criadas.size());
+                if (modo == ModoLote.ATOMICO && !erros.isEmpty()) {
+                    devolverLugares(particao, criadas.size());
+                    return new ResultadoLote(List.of(), erros);
+                }
+
+                // Registadas depois de estarem no armazém (ver registarInscricao)
+                TipoFase tipoFase = tabela.getTipoFase(fase);
+                for (Inscricao inscricao : criadas) {
+                    particao.getContadores().adicionar(inscricao, tipoFase);
+                    armazem.guardar(inscricao);
+                }
+                try {
+                    registo.inscricoesCriadas(criadas);
+                } catch (RuntimeException e) {
+                    for (Inscricao inscricao : criadas) {
+                        desfazerCriacao(particao, inscricao.getId(), tipoFase);
+                    }
+                    devolverLugares(particao, criadas.size());
+                    throw e;
+                }
+                for (Inscricao inscricao : criadas) {
+                    particao.adicionar(inscricao);
+                }
+                if (!criadas.isEmpty() && particao.getLugaresOcupados() >= evento.getMaxParticipantes()) {
+                    aoMudarVagas.accept(evento.getIdEvento());
+                }
+                return new ResultadoLote(criadas, erros);
+            }
+        });
+    }
+
+    // Lista todas as inscrições (ordenadas por ID: os IDs são sequenciais, basta percorrê-los)
+    public List<Inscricao> listarInscricoes() {
+        return medidas.medir(OperacaoInscricoes.LISTAR_INSCRICOES, () -> {
+            List<Inscricao> inscricoes = new ArrayList<>();
+            int fim = nextInscricaoId.get();
+            for (int id = 1; id < fim; id++) {
+                Inscricao inscricao = armazem.obter(id);
+                if (inscricao != null) {
+                    inscricoes.add(inscricao);
+                }
+            }
+            return List.copyOf(inscricoes);
+        });
+    }
+
+    /*
+     * Lista inscrições por páginas (ordenadas por ID), com filtros opcionais (null = sem filtro;
+     * 'desde'/'ate' filtram pela data de criação). 'aposId' é o cursor devolvido pela página anterior
+     * (null para a primeira). Os IDs são sequenciais, por isso cada página percorre só os IDs a seguir
+     * ao cursor até juntar 'tamanho' inscrições, sem ordenar nem copiar as restantes.
+     */
+    public Pagina<Inscricao> listarInscricoes(Integer aposId, int tamanho, EstadoInscricao estado,
+                                              TipoInscricao tipoInscricao, LocalDate desde, LocalDate ate) {
+        return medidas.medir(OperacaoInscricoes.LISTAR_INSCRICOES_PAGINADA, () -> {
+            validateTamanhoPagina(tamanho);
+            Predicate<Inscricao> filtro = filtroInscricoes(estado, tipoInscricao, desde, ate);
+
+            List<Inscricao> itens = new ArrayList<>();
+            int fim = nextInscricaoId.get();
+            for (int id = (aposId != null) ? Math.max(aposId, 0) + 1 : 1; id < fim; id++) {
+                Inscricao inscricao = armazem.obter(id);
+                if (inscricao != null && filtro.test(inscricao)) {
+                    itens.add(inscricao);
+                    if (itens.size() == tamanho) {
+                        return new Pagina<>(itens, (id < fim - 1) ? id : null);
+                    }
+                }
+            }
+            return new Pagina<>(itens, null);
+        });
+    }
+
+    // Consulta os detalhes de uma inscrição (verificando email)
+    public DetalhesInscricao consultarInscricao(int idInscricao, String email, EventService eventService) {
+        return medidas.medir(OperacaoInscricoes.CONSULTAR_INSCRICAO, () -> {
+            Inscricao inscricao = procurarInscricaoPorId(idInscricao);
+            if (inscricao == null) {
+                throw new IllegalArgumentException("Inscrição com id " + idInscricao + " não encontrada");
+            }
+
+            // Verificar email (segurança)
+            if (!inscricao.getEmail().equals(email)) {
+                throw new IllegalArgumentException("Email não corresponde à inscrição fornecida");
+            }
+
+            Event evento = eventService.findEventoById(inscricao.getIdEvento());
+            return new DetalhesInscricao(inscricao, (evento != null) ? evento.getNome() : null);
+        });
+    }
+
+    // Procura uma inscrição pelo ID (O(1)); retorna null se não existir
+    public Inscricao procurarInscricaoPorId(int idInscricao) {
+        return armazem.obter(idInscricao);
+    }
+
+    /*
+     * Altera o pagamento de uma inscrição de forma atómica (em COLUNAR o pagamento alterado é
+     * escrito de volta no armazém). Retorna o resultado de 'alteracao', ou null se a inscrição não existir.
+     * O estado da inscrição acompanha o do pagamento (CONFIRMADO -> PAGA, PENDENTE -> PENDENTE_PAGAMENTO;
+     * inscrições canceladas mantêm-se) e os totais do evento são atualizados com a diferença.
+     * Depois disso (ainda com o lock da inscrição, para o journal ter os pagamentos pela mesma ordem)
+     * o pagamento é registado; se o registo falhar, o pagamento, o estado e os totais são repostos
+     * antes de a exceção ser relançada.
+     */
+    public <T> T atualizarPagamento(int idInscricao, Function<Pagamento, T> alteracao) {
+        Objects.requireNonNull(alteracao, "alteracao");
+        return armazem.atualizar(idInscricao, inscricao -> {
+            Pagamento pagamento = inscricao.getPagamento();
+            EstadoInscricao estadoAntes = inscricao.getEstado();
+            EstadoPagamento pagamentoAntes = pagamento.getEstado();
+            float valorAntes = pagamento.getValorTransferido();
+            LocalDateTime dataAntes = pagamento.getDataTransferencia();
+            String notasAntes = pagamento.getNotasInternas();
+            long[] transferenciasAntes = pagamento.getTransferenciasReconciliadas();
+            long transferidoAntes = TabelaPrecos.paraCentimos(valorAntes);
+
+            T resultado = alteracao.apply(pagamento);
+
+            if (estadoAntes != EstadoInscricao.CANCELADA) {
+                inscricao.setEstado(pagamento.getEstado() == EstadoPagamento.CONFIRMADO
+                        ? EstadoInscricao.PAGA : EstadoInscricao.PENDENTE_PAGAMENTO);
+            }
+            InscricoesEvento particao = inscricoesPorEvento.get(inscricao.getIdEvento());
+            if (particao != null) {
+                particao.getContadores().alterar(inscricao, estadoAntes, pagamentoAntes, transferidoAntes);
+            }
+            try {
+                registo.pagamentoAtualizado(pagamento);
+            } catch (RuntimeException e) {
+                EstadoInscricao estadoDepois = inscricao.getEstado();
+                EstadoPagamento pagamentoDepois = pagamento.getEstado();
+                long transferidoDepois = TabelaPrecos.paraCentimos(pagamento.getValorTransferido());
+                pagamento.setValorTransferido(valorAntes);
+                pagamento.setDataTransferencia(dataAntes);
+                pagamento.setNotasInternas(notasAntes);
+                pagamento.setTransferenciasReconciliadas(transferenciasAntes);
+                pagamento.setEstado(pagamentoAntes);
+                inscricao.setEstado(estadoAntes);
+                if (particao != null) {
+                    particao.getContadores().alterar(inscricao, estadoDepois, pagamentoDepois, transferidoDepois);
+                }
+                throw e;
+            }
+            return resultado;
+        });
+    }
+
+    /*
+     * Totais de inscrições e pagamentos de um evento (valor esperado e transferido, contagens por
+     * estado, tipo e fase), mantidos a cada inscrição e pagamento: a consulta não percorre as inscrições.
+     */
+    public AgregadosEvento obterAgregados(int idEvento) {
+        return medidas.medir(OperacaoInscricoes.OBTER_AGREGADOS, () -> {
+            InscricoesEvento particao = inscricoesPorEvento.get(idEvento);
+            return (particao != null) ? particao.getContadores().copiar() : new ContadoresEvento(idEvento).copiar();
+        });
     }
 
     // Obtém todas as inscrições para um evento específico
     public List<Inscricao> obterListaParticipantes(int idEvento) {
-        return inscricoes.stream()
-            .filter(i -> i.getIdEvento() == idEvento)
-            .toList();
+        return medidas.medir(OperacaoInscricoes.OBTER_LISTA_PARTICIPANTES, () -> {
+            InscricoesEvento particao = inscricoesPorEvento.get(idEvento);
+            return (particao != null) ? particao.copiarInscricoes() : List.of();
+        });
+    }
+
+    // Obtém uma página dos participantes de um evento (ordenados por ID), com os mesmos filtros de listarInscricoes
+    public Pagina<Inscricao> obterListaParticipantes(int idEvento, Integer aposId, int tamanho, EstadoInscricao estado,
+                                                     TipoInscricao tipoInscricao, LocalDate desde, LocalDate ate) {
+        return medidas.medir(OperacaoInscricoes.OBTER_LISTA_PARTICIPANTES_PAGINADA, () -> {
+            validateTamanhoPagina(tamanho);
+            InscricoesEvento particao = inscricoesPorEvento.get(idEvento);
+            if (particao == null) {
+                return new Pagina<>(List.of(), null);
+            }
+            return particao.pagina((aposId != null) ? aposId : 0, tamanho,
+                    filtroInscricoes(estado, tipoInscricao, desde, ate));
+        });
+    }
+
+    // Obtém o número de participantes inscritos num evento (O(1))
+    public int contarParticipantes(int idEvento) {
+        InscricoesEvento particao = inscricoesPorEvento.get(idEvento);
+        return (particao != null) ? particao.getNumParticipantes() : 0;
+    }
+
+    // Lugares ocupados num evento: inscrições mais reservas ativas
+    public int contarLugaresOcupados(int idEvento) {
+        InscricoesEvento particao = inscricoesPorEvento.get(idEvento);
+        return (particao != null) ? particao.getLugaresOcupados() : 0;
     }
 
     // Procura participantes de um evento por critérios de pesquisa
     public List<Inscricao> procurarParticipante(Event evento, String nome, String email, Integer idInscricao) {
-        if (evento == null) {
-            throw new IllegalArgumentException("Evento não pode ser nulo");
-        }
+        return medidas.medir(OperacaoInscricoes.PROCURAR_PARTICIPANTE, () -> {
+            if (evento == null) {
+                throw new IllegalArgumentException("Evento não pode ser nulo");
+            }
+
+            InscricoesEvento particao = inscricoesPorEvento.get(evento.getIdEvento());
+            if (particao == null) {
+                return List.of();
+            }
+
+            // Reduz os candidatos pelo critério mais seletivo (ID, e-mail ou nome) antes de filtrar
+            List<Inscricao> candidatos;
+            if (idInscricao != null) {
+                Inscricao inscricao = armazem.obter(idInscricao);
+                if (inscricao == null || inscricao.getIdEvento() != evento.getIdEvento()) {
+                    return List.of();
+                }
+                candidatos = List.of(inscricao);
+            } else if (nome != null || email != null) {
+                candidatos = particao.candidatos(nome, email);
+            } else {
+                candidatos = particao.copiarInscricoes();
+            }
+
+            return candidatos.stream()
+                .filter(i -> nome == null || i.getNome().equalsIgnoreCase(nome))
+                .filter(i -> email == null || i.getEmail().equalsIgnoreCase(email))
+                .filter(i -> idInscricao == null || i.getId() == idInscricao)
+                .toList();
+        });
+    }
+
+    /*
+     * Pesquisa participantes de um evento por início do nome ou do e-mail, sem distinguir
+     * maiúsculas nem acentos (ex: "jose con" encontra "José Conceição"). Cada palavra do texto
+     * tem de corresponder ao início de uma palavra do nome ou do e-mail. Retorna no máximo 'limite'.
+     */
+    public List<Inscricao> pesquisarParticipantes(Event evento, String texto, int limite) {
+        return medidas.medir(OperacaoInscricoes.PESQUISAR_PARTICIPANTES, () -> {
+            if (evento == null) {
+                throw new IllegalArgumentException("Evento não pode ser nulo");
+            }
+            if (texto == null) {
+                throw new IllegalArgumentException("Texto de pesquisa não pode ser nulo");
+            }
+            if (limite <= 0) {
+                throw new IllegalArgumentException("limite deve ser positivo");
+            }
+            InscricoesEvento particao = inscricoesPorEvento.get(evento.getIdEvento());
+            return (particao != null) ? particao.pesquisar(texto, limite) : List.of();
+        });
+    }
 
-        return inscricoes.stream()
-            .filter(i -> i.getIdEvento() == evento.getIdEvento())
-            .filter(i -> nome == null || i.getNome().equalsIgnoreCase(nome))
-            .filter(i -> email == null || i.getEmail().equalsIgnoreCase(email))
-            .filter(i -> idInscricao == null || i.getId() == idInscricao)
-            .toList();
+    // Partição do evento (criada na primeira inscrição)
+    private InscricoesEvento particao(int idEvento) {
+        return inscricoesPorEvento.computeIfAbsent(idEvento, id -> new InscricoesEvento(id, armazem));
+    }
+
+    // Filtro das listagens paginadas (critérios a null são ignorados)
+    private static Predicate<Inscricao> filtroInscricoes(EstadoInscricao estado, TipoInscricao tipoInscricao,
+                                                         LocalDate desde, LocalDate ate) {
+        return i -> (estado == null || i.getEstado() == estado)
+                && (tipoInscricao == null || i.getTipoInscricao() == tipoInscricao)
+                && (desde == null || !i.getDataCriacao().toLocalDate().isBefore(desde))
+                && (ate == null || !i.getDataCriacao().toLocalDate().isAfter(ate));
+    }
+
+    // Valida o tamanho pedido para uma página
+    private void validateTamanhoPagina(int tamanho) {
+        if (tamanho <= 0 || tamanho > Pagina.TAMANHO_MAXIMO) {
+            throw new IllegalArgumentException("Tamanho da página deve estar entre 1 e " + Pagina.TAMANHO_MAXIMO);
+        }
     }
 
     // Valida as opções adicionais escolhidas para a inscrição
+    // (uma passagem pelas escolhidas no catálogo do evento; as obrigatórias são contadas pelo BitSet)
     private void validateOpcoesEscolhidas(List<OpcaoAdicional> opcoesEscolhidas, Event evento) {
-        if (opcoesEscolhidas == null) {
-            throw new IllegalArgumentException("opcoesEscolhidas não pode ser nulo");
+        CatalogoOpcoes catalogo = evento.getCatalogoOpcoes();
+        if (opcoesEscolhidas.isEmpty() && catalogo.getNumObrigatorias() == 0) {
+            return;
         }
         
-        List<OpcaoAdicional> opcoesEvento = evento.getOpcoes();
-        
-        // Validar que todas as opções escolhidas existem no evento
-        for (OpcaoAdicional escolhida : opcoesEscolhidas) {
-            boolean existe = opcoesEvento.stream()
-                .anyMatch(o -> o.getNome().equals(escolhida.getNome()) && 
-                             o.getPreco() == escolhida.getPreco());
-            
-            if (!existe) {
+        // Validar que todas as opções escolhidas existem no evento (por nome e preço em cêntimos)
+        BitSet incluidas = new BitSet(catalogo.getNumOpcoes());
+        int obrigatoriasIncluidas = 0;
+        for (int i = 0; i < opcoesEscolhidas.size(); i++) {
+            OpcaoAdicional escolhida = opcoesEscolhidas.get(i);
+            int indice = catalogo.indiceDe(escolhida);
+            if (indice < 0) {
                 throw new IllegalArgumentException("Opção '" + escolhida.getNome() + "' não existe neste evento");
             }
+            if (!incluidas.get(indice)) {
+                incluidas.set(indice);
+                if (catalogo.isObrigatoria(indice)) {
+                    obrigatoriasIncluidas++;
+                }
+            }
         }
         
         // Validar que todas as opções obrigatórias estão incluídas
-        for (OpcaoAdicional opcao : opcoesEvento) {
-            if (opcao.isObrigatoria()) {
-                boolean incluida = opcoesEscolhidas.stream()
-                    .anyMatch(o -> o.getNome().equals(opcao.getNome()) && 
-                             o.getPreco() == opcao.getPreco());
-                
-                if (!incluida) {
-                    throw new IllegalArgumentException("Opção obrigatória '" + opcao.getNome() + "' não foi incluída");
-                }
+        if (obrigatoriasIncluidas != catalogo.getNumObrigatorias()) {
+            OpcaoAdicional emFalta = catalogo.primeiraObrigatoriaEmFalta(incluidas);
+            throw new IllegalArgumentException("Opção obrigatória '" + emFalta.getNome() + "' não foi incluída");
+        }
+    }
+
+    // Valida que o evento está ativo e que a partição ainda não foi fechada (evento removido)
+    private void validateEventoAtivo(Event evento, InscricoesEvento particao) {
+        if (!evento.getActive() || particao.isFechada()) {
+            if (particao.isVazia()) {
+                inscricoesPorEvento.remove(evento.getIdEvento(), particao); // Não deixar partições vazias órfãs
             }
+            throw new IllegalArgumentException("Evento não está ativo");
         }
     }
 
     // Valida que o email não tem inscrição duplicada no mesmo evento
-    private void validateEmailEventoUnico(String email, int idEvento) {
-        boolean existe = inscricoes.stream()
-            .anyMatch(i -> i.getIdEvento() == idEvento && 
-                          i.getEmail().equals(email));
-        
-        if (existe) {
+    private void validateEmailEventoUnico(String email, InscricoesEvento particao) {
+        if (particao.contemEmail(email)) {
             throw new IllegalArgumentException("E-mail '" + email + "' já tem uma inscrição neste evento");
         }
     }
 
     // Valida se o evento ainda tem lotação disponível
-    private void validateLotacao(Event evento) {
-        long inscricoesEvento = inscricoes.stream()
-            .filter(i -> i.getIdEvento() == evento.getIdEvento())
-            .count();
-        
-        if (inscricoesEvento >= evento.getMaxParticipantes()) {
+    private void validateLotacao(Event evento, InscricoesEvento particao) {
+        if (!particao.reservarLugar(evento.getMaxParticipantes())) {
             throw new IllegalArgumentException("Evento com lotação completa");
         }
     }
 
-    // Obtém o preço da fase de inscrição atual para o tipo de inscrição dado
-    private float obterPrecoFaseAtual(Event evento, TipoInscricao tipo) {
-        LocalDateTime agora = LocalDateTime.now();
-        
-        for (int i = evento.getFases().size() - 1; i >= 0; i--) {
-            var fase = evento.getFases().get(i);
-            LocalDateTime dataInicio = fase.getDataInicio().atStartOfDay();
-            LocalDateTime dataFim = fase.getDataFim().plusDays(1).atStartOfDay();
-            
-            if (agora.isAfter(dataInicio) && agora.isBefore(dataFim)) {
-                return fase.obterPreco(tipo);
-            }
+    // Índice da fase de inscrição ativa hoje na tabela de preços do evento
+    private static int faseAtual(TabelaPrecos tabela) {
+        int fase = tabela.faseAtiva(LocalDate.now());
+        if (fase < 0) {
+            throw new IllegalArgumentException("Nenhuma fase de inscrição ativa neste momento");
         }
-        
-        throw new IllegalArgumentException("Nenhuma fase de inscrição ativa neste momento");
+        return fase;
     }
 
-    // Exporta a lista de participantes de um evento para um ficheiro CSV
+    // Exporta a lista de participantes de um evento para um ficheiro CSV (UTF-8)
     public void exportarParticipantesParaCSV(int idEvento, String caminhoFicheiro) throws IOException {
-        List<Inscricao> participantes = obterListaParticipantes(idEvento);
-        
-        if (participantes.isEmpty()) {
-            throw new IllegalArgumentException("Nenhum participante encontrado para este evento.");
-        }
-        
-        try (FileWriter fw = new FileWriter(caminhoFicheiro);
-             BufferedWriter bw = new BufferedWriter(fw)) {
-            
-            // Cabeçalho
-            bw.write("Nome,Email,NIF,Tipo Inscrição,Preço,Estado,Data Inscrição");
-            bw.newLine();
-            
-            // Dados
-            for (Inscricao inscricao : participantes) {
-                bw.write(String.format(
-                    "%s,%s,%d,%s,%.2f,%s,%s",
-                    inscricao.getNome(),
-                    inscricao.getEmail(),
-                    inscricao.getNif(),
-                    inscricao.getTipoInscricao(),
-                    inscricao.getValorTotal(),
-                    inscricao.getEstado(),
-                    inscricao.getDataCriacao()
-                ));
-                bw.newLine();
+        exportarParticipantesParaCSV(idEvento, caminhoFicheiro, false);
+    }
+
+    // Exporta a lista de participantes para CSV em streaming, opcionalmente comprimido em gzip
+    public void exportarParticipantesParaCSV(int idEvento, String caminhoFicheiro, boolean comprimir) throws IOException {
+        medidas.executar(OperacaoInscricoes.EXPORTAR_PARTICIPANTES_CSV, () -> {
+            InscricoesEvento particao = inscricoesPorEvento.get(idEvento);
+            int[] ids = (particao != null) ? particao.copiarIds() : new int[0];
+
+            if (ids.length == 0) {
+                throw new IllegalArgumentException("Nenhum participante encontrado para este evento.");
             }
-        }
+
+            try (ExportadorCSV exportador = new ExportadorCSV(Path.of(caminhoFicheiro), comprimir)) {
+                // Cabeçalho
+                exportador.escreverCabecalho();
+
+                // Dados: cada inscrição é obtida do armazém só quando a sua linha é escrita
+                // (as removidas entretanto são ignoradas)
+                for (int id : ids) {
+                    Inscricao inscricao = armazem.obter(id);
+                    if (inscricao != null) {
+                        exportador.escrever(inscricao);
+                    }
+                }
+            }
+        });
     }
 
     // Remove todas as inscrições associadas a um evento (apenas se o evento estiver inativo)
@@ -236,6 +1018,73 @@ public class InscricaoService {
             throw new IllegalStateException("Não é possível remover inscrições de um evento ativo.");
         }
         
-        inscricoes.removeIf(i -> i.getIdEvento() == idEvento);
+        descartarInscricoesDoEvento(idEvento);
+    }
+
+    // Remove a partição do evento e as suas entradas no índice por ID (sem validar o evento)
+    void descartarInscricoesDoEvento(int idEvento) {
+        InscricoesEvento particao = inscricoesPorEvento.remove(idEvento);
+        if (particao != null) {
+            particao.fechar(); // Inscrições em curso neste evento passam a ser rejeitadas
+            for (int id : particao.copiarIds()) {
+                armazem.remover(id);
+            }
+        }
+    }
+
+    // Próximo ID a atribuir (usado pela persistência)
+    public int getNextInscricaoId() {
+        return nextInscricaoId.get();
+    }
+
+    /*
+     * Métodos de restauro (usados ao recuperar o estado a partir do disco).
+     * Não validam lotação nem fases e não geram operações no registo.
+     * Restaurar uma inscrição que já existe não tem efeito.
+     */
+    public void restaurarInscricao(Inscricao inscricao) {
+        restaurarInscricao(inscricao, null);
+    }
+
+    // 'evento' (ou null) serve para saber em que fase a inscrição foi criada, pela data de criação
+    public void restaurarInscricao(Inscricao inscricao, Event evento) {
+        if (armazem.contem(inscricao.getId())) {
+            return;
+        }
+        TipoFase tipoFase = null;
+        if (evento != null) {
+            TabelaPrecos tabela = evento.getTabelaPrecos();
+            int fase = tabela.faseAtiva(inscricao.getDataCriacao().toLocalDate());
+            tipoFase = (fase >= 0) ? tabela.getTipoFase(fase) : null;
+        }
+        InscricoesEvento particao = particao(inscricao.getIdEvento());
+        synchronized (particao) {
+            if (inscricao.getEstado() != EstadoInscricao.CANCELADA) {
+                particao.reservarLugar(Integer.MAX_VALUE); // As canceladas não ocupam lugar
+            }
+            particao.getContadores().adicionar(inscricao, tipoFase);
+            armazem.guardar(inscricao);
+            particao.adicionar(inscricao);
+        }
+        nextInscricaoId.accumulateAndGet(inscricao.getId() + 1, Math::max);
+    }
+
+    // Cancela uma inscrição restaurada (o lugar volta ao evento: ao recuperar não há listas de espera)
+    public void restaurarCancelamento(int idInscricao) {
+        Inscricao inscricao = armazem.obter(idInscricao);
+        InscricoesEvento particao = (inscricao != null) ? inscricoesPorEvento.get(inscricao.getIdEvento()) : null;
+        if (particao == null) {
+            return; // Inscrição de um evento entretanto removido
+        }
+        synchronized (particao) {
+            if (marcarCancelada(idInscricao, particao)) {
+                particao.cancelar(idInscricao, inscricao.getEmail());
+                particao.libertarLugar();
+            }
+        }
+    }
+
+    public void restaurarNextInscricaoId(int nextInscricaoId) {
+        this.nextInscricaoId.accumulateAndGet(nextInscricaoId, Math::max);
     }
 }
@@ -0,0 +1,305 @@
+package com.eventastic.service;
+
+import com.eventastic.enums.EstadoInscricao;
+import com.eventastic.model.Event;
+import com.eventastic.model.Inscricao;
+import com.eventastic.model.Pagina;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Partição com as inscrições de um único evento (usada internamente pelo InscricaoService).
+ * Cada partição tem o seu próprio lock (lock striping por evento): a lista de IDs e o índice de e-mails
+ * só são alterados dentro de blocos synchronized sobre a partição. Os lugares ocupados são
+ * reservados por CAS, para que a lotação nunca seja ultrapassada.
+ * A partição guarda só os IDs (por ordem crescente); os dados de cada inscrição estão no armazém.
+ * As inscrições canceladas continuam na lista de IDs (com o estado CANCELADA), mas saem do índice
+ * de e-mails e deixam de contar como participantes.
+ */
+final class InscricoesEvento {
+
+    private final int idEvento;
+    private final ArmazemInscricoes armazem;
+    private final IntLista ids = new IntLista(8); // Os IDs são atribuídos dentro do lock, por isso ficam ordenados
+    /*
+     * Índice (idEvento, email) para garantir unicidade: tabela de dispersão aberta só com os IDs
+     * (4 bytes por posição); os e-mails são comparados no armazém. Ao crescer, os hashes são
+     * recalculados a partir dos e-mails guardados (custo amortizado pelas inscrições seguintes).
+     */
+    private int[] idsPorEmail = new int[16]; // 0 = posição livre (os IDs começam em 1)
+    private int numEmails;
+    private int numCanceladas;
+    private final AtomicInteger lugaresOcupados = new AtomicInteger();
+    private volatile int numParticipantes; // Contador mantido a cada inscrição (leitura sem lock)
+    private volatile boolean fechada; // true depois de as inscrições do evento serem removidas (lido sem lock pelas reservas)
+    private IndicePesquisa indice; // Criado na primeira pesquisa e depois mantido a cada inscrição
+    private ListaEspera listaEspera; // Criada quando alguém entra na lista de espera do evento
+    private final ContadoresEvento contadores; // Totais de inscrições e pagamentos do evento
+
+    // Construtor
+    InscricoesEvento(int idEvento, ArmazemInscricoes armazem) {
+        this.idEvento = idEvento;
+        this.armazem = armazem;
+        this.contadores = new ContadoresEvento(idEvento);
+    }
+
+    int getIdEvento() { return idEvento; }
+    ContadoresEvento getContadores() { return contadores; }
+    int getNumParticipantes() { return numParticipantes; }
+    int getLugaresOcupados() { return lugaresOcupados.get(); } // Inscrições + reservas ativas
+
+    boolean isFechada() {
+        return fechada;
+    }
+
+    synchronized void fechar() {
+        fechada = true;
+    }
+
+    synchronized boolean contemEmail(String email) {
+        return posicaoEmail(email) >= 0;
+    }
+
+    // true se a partição não tiver inscrições (nem canceladas) nem ninguém na lista de espera
+    synchronized boolean isVazia() {
+        return ids.tamanho() == 0 && (listaEspera == null || listaEspera.tamanho() == 0);
+    }
+
+    // Lista de espera do evento (null se ninguém entrou nela); só deve ser usada com o lock da partição
+    ListaEspera getListaEspera() {
+        return listaEspera;
+    }
+
+    // Lista de espera do evento, criada se ainda não existir (com o lock da partição)
+    ListaEspera listaEspera(Event evento) {
+        if (listaEspera == null) {
+            listaEspera = new ListaEspera(evento);
+        }
+        return listaEspera;
+    }
+
+    // Tenta reservar um lugar sem ultrapassar a lotação máxima
+    boolean reservarLugar(int maxParticipantes) {
+        while (true) {
+            int ocupados = lugaresOcupados.get();
+            if (ocupados >= maxParticipantes) {
+                return false;
+            }
+            if (lugaresOcupados.compareAndSet(ocupados, ocupados + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /*
+     * Reserva até 'quantidade' lugares de uma vez (um único CAS para o lote).
+     * Com 'todos' a true reserva todos ou nenhum; retorna o número de lugares reservados.
+     */
+    int reservarLugares(int quantidade, int maxParticipantes, boolean todos) {
+        while (true) {
+            int ocupados = lugaresOcupados.get();
+            int reservar = Math.min(quantidade, Math.max(0, maxParticipantes - ocupados));
+            if (reservar == 0 || (todos && reservar < quantidade)) {
+                return 0;
+            }
+            if (lugaresOcupados.compareAndSet(ocupados, ocupados + reservar)) {
+                return reservar;
+            }
+        }
+    }
+
+    // Liberta um lugar reservado que não chegou a ser usado
+    void libertarLugar() {
+        lugaresOcupados.decrementAndGet();
+    }
+
+    void libertarLugares(int quantidade) {
+        lugaresOcupados.addAndGet(-quantidade);
+    }
+
+    /*
+     * Adiciona uma inscrição à partição e atualiza os índices (o lugar já deve estar reservado
+     * e a inscrição já deve estar no armazém).
+     */
+    synchronized void adicionar(Inscricao inscricao) {
+        ids.adicionar(inscricao.getId());
+        if (inscricao.getEstado() == EstadoInscricao.CANCELADA) {
+            numCanceladas++; // Restaurada do disco: não ocupa o e-mail
+        } else {
+            indexarEmail(inscricao.getId(), inscricao.getEmail());
+        }
+        numParticipantes = ids.tamanho() - numCanceladas;
+        if (indice != null) {
+            indice.adicionar(inscricao);
+        }
+    }
+
+    /*
+     * Marca como cancelada uma inscrição da partição (o estado já deve ter sido alterado no armazém):
+     * o e-mail fica livre para uma nova inscrição e a inscrição deixa de contar como participante.
+     * O lugar não é libertado aqui (ver InscricaoService.cancelarInscricao).
+     */
+    synchronized void cancelar(int id, String email) {
+        int posicao = posicaoEmail(email);
+        if (posicao >= 0 && idsPorEmail[posicao] == id) {
+            removerEmail(posicao);
+            numCanceladas++;
+            numParticipantes = ids.tamanho() - numCanceladas;
+        }
+    }
+
+    // Cópia dos IDs das inscrições (por ordem crescente)
+    synchronized int[] copiarIds() {
+        return ids.copiar();
+    }
+
+    // Cópia das inscrições, segura para ser percorrida fora do lock (obtidas do armazém fora do lock)
+    List<Inscricao> copiarInscricoes() {
+        int[] valores;
+        int tamanho;
+        synchronized (this) {
+            valores = ids.valores();
+            tamanho = ids.tamanho();
+        }
+        return obterDoArmazem(valores, tamanho);
+    }
+
+    // Página com as inscrições de ID superior a 'aposId' que passam o filtro (os IDs estão ordenados)
+    Pagina<Inscricao> pagina(int aposId, int tamanho, Predicate<Inscricao> filtro) {
+        int[] valores;
+        int numIds;
+        synchronized (this) {
+            valores = ids.valores();
+            numIds = ids.tamanho();
+        }
+        List<Inscricao> itens = new ArrayList<>();
+        for (int i = primeiraPosicaoApos(valores, numIds, aposId); i < numIds; i++) {
+            Inscricao inscricao = armazem.obter(valores[i]);
+            if (inscricao != null && filtro.test(inscricao)) {
+                itens.add(inscricao);
+                if (itens.size() == tamanho) {
+                    return new Pagina<>(itens, (i < numIds - 1) ? inscricao.getId() : null);
+                }
+            }
+        }
+        return new Pagina<>(itens, null);
+    }
+
+    // Pesquisa binária da primeira posição com ID superior a 'aposId'
+    private static int primeiraPosicaoApos(int[] valores, int numIds, int aposId) {
+        int inicio = 0;
+        int fim = numIds;
+        while (inicio < fim) {
+            int meio = (inicio + fim) >>> 1;
+            if (valores[meio] <= aposId) {
+                inicio = meio + 1;
+            } else {
+                fim = meio;
+            }
+        }
+        return inicio;
+    }
+
+    // Inscrições que podem ter o nome/e-mail dados (pelo índice; o chamador aplica o filtro exato)
+    List<Inscricao> candidatos(String nome, String email) {
+        int[] encontrados;
+        synchronized (this) {
+            encontrados = (email != null) ? indice().candidatosEmail(email) : indice().candidatosNome(nome);
+        }
+        return obterDoArmazem(encontrados, encontrados.length);
+    }
+
+    // Pesquisa por prefixo do nome ou e-mail (ver IndicePesquisa)
+    List<Inscricao> pesquisar(String texto, int limite) {
+        int[] encontrados;
+        synchronized (this) {
+            encontrados = indice().pesquisar(texto, limite);
+        }
+        return obterDoArmazem(encontrados, encontrados.length);
+    }
+
+    private IndicePesquisa indice() {
+        if (indice == null) {
+            indice = new IndicePesquisa(ids, armazem);
+        }
+        return indice;
+    }
+
+    // Inscrições com os IDs dados (as que entretanto foram removidas são ignoradas)
+    private List<Inscricao> obterDoArmazem(int[] valores, int tamanho) {
+        List<Inscricao> resultado = new ArrayList<>(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            Inscricao inscricao = armazem.obter(valores[i]);
+            if (inscricao != null) {
+                resultado.add(inscricao);
+            }
+        }
+        return Collections.unmodifiableList(resultado);
+    }
+
+    // Insere o ID na tabela de e-mails (sondagem linear; a tabela nunca passa de metade da ocupação)
+    private void indexarEmail(int id, String email) {
+        if ((numEmails + 1) * 2 > idsPorEmail.length) {
+            int[] idsAntigos = idsPorEmail;
+            idsPorEmail = new int[idsAntigos.length * 2];
+            for (int idAntigo : idsAntigos) {
+                String emailAntigo = (idAntigo != 0) ? armazem.obterEmail(idAntigo) : null;
+                if (emailAntigo != null) {
+                    inserirEmail(idAntigo, emailAntigo.hashCode());
+                }
+            }
+        }
+        inserirEmail(id, email.hashCode());
+        numEmails++;
+    }
+
+    // Posição do e-mail na tabela, ou -1 se não estiver indexado (um e-mail null nunca está: é rejeitado pela validação)
+    private int posicaoEmail(String email) {
+        if (email == null) {
+            return -1;
+        }
+        int mascara = idsPorEmail.length - 1;
+        for (int i = espalhar(email.hashCode()) & mascara; idsPorEmail[i] != 0; i = (i + 1) & mascara) {
+            if (armazem.temEmail(idsPorEmail[i], email)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /*
+     * Retira a posição dada da tabela sem deixar marcas de apagado: as posições seguintes do mesmo
+     * grupo que deixariam de ser encontradas pela sondagem linear são puxadas para trás.
+     */
+    private void removerEmail(int posicao) {
+        int mascara = idsPorEmail.length - 1;
+        int livre = posicao;
+        for (int i = (posicao + 1) & mascara; idsPorEmail[i] != 0; i = (i + 1) & mascara) {
+            int inicial = espalhar(armazem.obterEmail(idsPorEmail[i]).hashCode()) & mascara;
+            // Só pode ocupar 'livre' se a sua posição inicial não estiver entre 'livre' e 'i' (circularmente)
+            if (((i - inicial) & mascara) >= ((i - livre) & mascara)) {
+                idsPorEmail[livre] = idsPorEmail[i];
+                livre = i;
+            }
+        }
+        idsPorEmail[livre] = 0;
+        numEmails--;
+    }
+
+    private void inserirEmail(int id, int hash) {
+        int mascara = idsPorEmail.length - 1;
+        int i = espalhar(hash) & mascara;
+        while (idsPorEmail[i] != 0) {
+            i = (i + 1) & mascara;
+        }
+        idsPorEmail[i] = id;
+    }
+
+    private static int espalhar(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
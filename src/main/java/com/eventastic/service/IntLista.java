@@ -0,0 +1,36 @@
+package com.eventastic.service;
+
+import java.util.Arrays;
+
+/*
+ * Lista de int sem boxing, só com acrescento no fim (usada pelas partições e pelo índice de pesquisa).
+ * Não é thread-safe. Como as posições já preenchidas nunca mudam, quem obtiver o array e o tamanho
+ * dentro de um lock pode depois percorrê-los fora dele.
+ */
+final class IntLista {
+
+    private int[] valores;
+    private int tamanho;
+
+    // Construtor
+    IntLista(int capacidade) {
+        this.valores = new int[Math.max(capacidade, 1)];
+    }
+
+    void adicionar(int valor) {
+        if (tamanho == valores.length) {
+            valores = Arrays.copyOf(valores, tamanho + (tamanho >> 1) + 1);
+        }
+        valores[tamanho++] = valor;
+    }
+
+    int get(int posicao) { return valores[posicao]; }
+    int tamanho() { return tamanho; }
+
+    // Array interno (só as primeiras tamanho() posições são válidas)
+    int[] valores() { return valores; }
+
+    int[] copiar() {
+        return Arrays.copyOf(valores, tamanho);
+    }
+}
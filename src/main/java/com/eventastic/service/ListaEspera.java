@@ -0,0 +1,59 @@
+package com.eventastic.service;
+
+import com.eventastic.model.Event;
+import com.eventastic.model.PedidoInscricao;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * Lista de espera de um evento (usada internamente pelo InscricaoService), guardada na partição
+ * do evento e só alterada com o lock da partição.
+ *
+ * Os pedidos ficam num LinkedHashMap por e-mail: a ordem de inserção é a ordem de chegada (FIFO),
+ * e entrar, sair (por e-mail), verificar se um e-mail está à espera e obter o primeiro são O(1),
+ * sem percorrer a lista, qualquer que seja o seu tamanho.
+ */
+final class ListaEspera {
+
+    private final Event evento; // Para promover (fase e preço atuais) quando um lugar fica livre
+    private final Map<String, PedidoInscricao> pedidos = new LinkedHashMap<>();
+
+    // Construtor
+    ListaEspera(Event evento) {
+        this.evento = evento;
+    }
+
+    Event getEvento() { return evento; }
+
+    int tamanho() {
+        return pedidos.size();
+    }
+
+    boolean contem(String email) {
+        return pedidos.containsKey(email);
+    }
+
+    // Acrescenta um pedido no fim da lista e retorna a sua posição (1 = o próximo a ser promovido)
+    int adicionar(PedidoInscricao pedido) {
+        pedidos.put(pedido.getEmail(), pedido);
+        return pedidos.size();
+    }
+
+    // Retira o pedido com o e-mail dado; false se não estava na lista
+    boolean remover(String email) {
+        return pedidos.remove(email) != null;
+    }
+
+    // Retira e retorna o primeiro pedido da lista (null se estiver vazia)
+    PedidoInscricao retirarPrimeiro() {
+        Iterator<PedidoInscricao> iterador = pedidos.values().iterator();
+        if (!iterador.hasNext()) {
+            return null;
+        }
+        PedidoInscricao primeiro = iterador.next();
+        iterador.remove();
+        return primeiro;
+    }
+}
@@ -0,0 +1,29 @@
+package com.eventastic.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Evento JFR de PagamentoService.registarPagamento (estado resultante ou motivo da rejeição)
+@Name("com.eventastic.Pagamento")
+@Label("Registo de pagamento")
+@Category({ "Eventastic", "Pagamentos" })
+@Description("Registo ou atualização do pagamento de uma inscrição")
+@StackTrace(false)
+final class PagamentoJfr extends Event {
+
+    @Label("ID da inscrição")
+    int idInscricao;
+
+    @Label("Valor transferido")
+    float valorTransferido;
+
+    @Label("Estado do pagamento")
+    String estado;
+
+    @Label("Motivo da rejeição")
+    String motivoRejeicao;
+}
@@ -1,63 +1,461 @@
 package com.eventastic.service;
 
+import com.eventastic.enums.EstadoPagamento;
+import com.eventastic.metricas.Medidas;
+import com.eventastic.metricas.Metricas;
+import com.eventastic.model.DetalhesPagamento;
 import com.eventastic.model.Inscricao;
 import com.eventastic.model.Pagamento;
+import com.eventastic.model.RelatorioReconciliacao;
+import com.eventastic.model.TabelaPrecos;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
 
 // Serviço responsável pela gestão de pagamentos
 public class PagamentoService {
 
-    private final InscricaoService inscricaoService;
-    
-    // Construtor
+    // Número de linhas do extrato processadas em paralelo de cada vez
+    private static final int TAMANHO_LOTE_EXTRATO = 16 * 1024;
+
+    // Extrai o ID da inscrição (e do evento, se existir) da descrição gerada em Inscricao
+    private static final Pattern PADRAO_DESCRICAO =
+        Pattern.compile("inscri[cç][aã]o:\\s*(\\d+)(?:.*?evento:\\s*(\\d+))?", Pattern.CASE_INSENSITIVE);
+
+    // Separadores de milhares aceites nos valores do extrato (o último é o espaço não separável)
+    private static final String SEPARADORES_MILHARES = ".,' \u00a0";
+    // Maior parte inteira de um valor cujo valor em cêntimos cabe num long
+    private static final long MAXIMO_INTEIROS = Long.MAX_VALUE / 1000;
+
+    private final InscricaoService inscricaoService; // Também regista os pagamentos alterados (ver atualizarPagamento)
+    private final Medidas<OperacaoPagamentos> medidas;
+
+    // Operações medidas (nome usado nas métricas, com o serviço "pagamentos")
+    private enum OperacaoPagamentos {
+        CONSULTAR_PAGAMENTO("consultarPagamento"),
+        REGISTAR_PAGAMENTO("registarPagamento"),
+        RECONCILIAR_EXTRATO("reconciliarExtrato");
+
+        private final String nome;
+
+        OperacaoPagamentos(String nome) {
+            this.nome = nome;
+        }
+    }
+
+    // Construtor (as métricas das operações ficam num registo próprio)
     public PagamentoService(InscricaoService inscricaoService) {
+        this(inscricaoService, new Metricas());
+    }
+
+    // Construtor que regista as métricas das operações em 'metricas' (ex: o registo da EventasticAPI)
+    public PagamentoService(InscricaoService inscricaoService, Metricas metricas) {
         this.inscricaoService = inscricaoService;
+        this.medidas = new Medidas<>(metricas, "pagamentos", OperacaoPagamentos.class, operacao -> operacao.nome);
     }
 
     // Consulta o estado do pagamento de uma inscrição
-    public void consultarPagamento(int idInscricao) {
-        Inscricao inscricao = localizarInscricao(idInscricao);
-        Pagamento pagamento = inscricao.getPagamento();
-
-        System.out.println("========== PAGAMENTO ==========");
-        System.out.println("ID Inscrição: " + inscricao.getId());
-        System.out.println("Participante: " + inscricao.getNome());
-        System.out.println("E-mail: " + inscricao.getEmail());
-        System.out.println("Valor Total a Pagar: " + inscricao.getValorTotal() + "€");
-        System.out.println("\n--- Estado do Pagamento ---");
-        System.out.println("Valor Transferido: " + pagamento.getValorTransferido() + "€");
-        System.out.println("Data da Transferência: " +
-            (pagamento.getDataTransferencia() != null ? pagamento.getDataTransferencia() : "Não registada"));
-        System.out.println("Estado: " + pagamento.getEstado());
-        System.out.println("Notas Internas: " +
-            (pagamento.getNotasInternas() != null ? pagamento.getNotasInternas() : "Sem notas"));
-        System.out.println("================================\n");
-    }
-
-    // Regista ou atualiza o pagamento de uma inscrição
+    public DetalhesPagamento consultarPagamento(int idInscricao) {
+        return medidas.medir(OperacaoPagamentos.CONSULTAR_PAGAMENTO, () -> {
+            Inscricao inscricao = localizarInscricao(idInscricao);
+            Pagamento pagamento = inscricao.getPagamento();
+            synchronized (pagamento) { // As alterações ao pagamento em memória são feitas com este lock
+                return new DetalhesPagamento(inscricao, pagamento);
+            }
+        });
+    }
+
+    // Regista ou atualiza o pagamento de uma inscrição (emite um evento JFR com o estado resultante)
     public void registarPagamento(int idInscricao, float valorTransferido, LocalDateTime dataTransferencia, String notasInternas) {
+        medidas.executar(OperacaoPagamentos.REGISTAR_PAGAMENTO, () -> {
+            PagamentoJfr jfr = new PagamentoJfr();
+            jfr.begin();
+            try {
+                Pagamento pagamento = atualizarPagamento(idInscricao, valorTransferido, dataTransferencia, notasInternas);
+                if (jfr.isEnabled()) {
+                    jfr.idInscricao = idInscricao;
+                    jfr.valorTransferido = valorTransferido;
+                    jfr.estado = pagamento.getEstado().name();
+                }
+            } catch (RuntimeException e) {
+                if (jfr.isEnabled()) {
+                    jfr.idInscricao = idInscricao;
+                    jfr.valorTransferido = valorTransferido;
+                    jfr.motivoRejeicao = e.getMessage();
+                }
+                throw e;
+            } finally {
+                jfr.commit();
+            }
+        });
+    }
+
+    // Altera o pagamento e retorna-o; o estado fica CONFIRMADO se o valor transferido cobrir o valor total
+    private Pagamento atualizarPagamento(int idInscricao, float valorTransferido, LocalDateTime dataTransferencia,
+                                         String notasInternas) {
         if (dataTransferencia == null) {
             throw new IllegalArgumentException("dataTransferencia não pode ser nula");
         }
 
-        Inscricao inscricao = localizarInscricao(idInscricao);
-        Pagamento pagamento = inscricao.getPagamento();
+        long valorTotalCentimos = localizarInscricao(idInscricao).getValorTotalCentimos();
+
+        // Alteração atómica no armazém de inscrições (em modo colunar é escrita de volta nas colunas)
+        Pagamento pagamento = inscricaoService.atualizarPagamento(idInscricao, p -> {
+            p.setValorTransferido(valorTransferido);
+            p.setDataTransferencia(dataTransferencia);
+            p.setNotasInternas(notasInternas);
+            p.setEstado(TabelaPrecos.paraCentimos(valorTransferido) >= valorTotalCentimos
+                    ? EstadoPagamento.CONFIRMADO : EstadoPagamento.PENDENTE);
+            return p;
+        });
+        if (pagamento == null) {
+            throw new IllegalArgumentException("Inscrição não encontrada");
+        }
+        return pagamento;
+    }
+
+    /*
+     * Reconcilia um extrato bancário com as inscrições, sem escrever na consola por pagamento.
+     * Formato (CSV com ';', cabeçalho opcional): data;valor;descrição
+     *   - data: yyyy-MM-dd ou yyyy-MM-ddTHH:mm[:ss]
+     *   - valor: com ',' ou '.' decimal e, opcionalmente, separador de milhares (ex: 1.234,56 ou 1,234.56)
+     *   - descrição: a descrição de transferência da inscrição ou apenas o ID da inscrição
+     * O ficheiro é lido em streaming e processado em lotes paralelos. As transferências de cada
+     * inscrição são somadas ao valor já transferido; se cobrirem o valor total, o pagamento passa
+     * a CONFIRMADO. Cada linha somada fica registada no pagamento (pela data, valor e descrição, e
+     * pelo número de linhas iguais que a precedem no extrato): reconciliar o mesmo extrato outra vez,
+     * ou um extrato que repete linhas de outro, não volta a somar essas linhas (contadas à parte).
+     */
+    public RelatorioReconciliacao reconciliarExtrato(String caminhoFicheiro) throws IOException {
+        return medidas.medir(OperacaoPagamentos.RECONCILIAR_EXTRATO, () -> {
+            Map<Integer, TransferenciasAcumuladas> porInscricao = new ConcurrentHashMap<>();
+            Queue<String> naoAssociadas = new ConcurrentLinkedQueue<>();
+            int linhasProcessadas = 0;
+
+            try (BufferedReader leitor = Files.newBufferedReader(Path.of(caminhoFicheiro), StandardCharsets.UTF_8)) {
+                List<String> lote = new ArrayList<>(TAMANHO_LOTE_EXTRATO);
+                int numeroLinha = 0;
+                int primeiraLinhaLote = 1;
+                String linha;
+                while ((linha = leitor.readLine()) != null) {
+                    numeroLinha++;
+                    if (numeroLinha == 1 && linha.toLowerCase().startsWith("data")) {
+                        primeiraLinhaLote = 2; // Ignorar cabeçalho
+                        continue;
+                    }
+                    lote.add(linha);
+                    if (lote.size() == TAMANHO_LOTE_EXTRATO) {
+                        processarLoteExtrato(lote, primeiraLinhaLote, porInscricao, naoAssociadas);
+                        linhasProcessadas += lote.size();
+                        primeiraLinhaLote = numeroLinha + 1;
+                        lote = new ArrayList<>(TAMANHO_LOTE_EXTRATO);
+                    }
+                }
+                processarLoteExtrato(lote, primeiraLinhaLote, porInscricao, naoAssociadas);
+                linhasProcessadas += lote.size();
+            }
+
+            // Aplicar os totais acumulados (cada pagamento é atualizado uma única vez)
+            Queue<Integer> pagas = new ConcurrentLinkedQueue<>();
+            Queue<Integer> parciais = new ConcurrentLinkedQueue<>();
+            LongAdder linhasRepetidas = new LongAdder();
+            porInscricao.entrySet().parallelStream().forEach(entrada -> {
+                switch (aplicarTransferencias(entrada.getKey(), entrada.getValue(), linhasRepetidas)) {
+                    case PAGA -> pagas.add(entrada.getKey());
+                    case PARCIAL -> parciais.add(entrada.getKey());
+                    case SEM_ALTERACAO -> { } // Só linhas já reconciliadas (ou inscrição removida entretanto)
+                }
+            });
+
+            return new RelatorioReconciliacao(linhasProcessadas,
+                pagas.stream().sorted().toList(),
+                parciais.stream().sorted().toList(),
+                List.copyOf(naoAssociadas),
+                linhasRepetidas.intValue());
+        });
+    }
+
+    // Processa um lote de linhas do extrato em paralelo, acumulando os valores por inscrição
+    private void processarLoteExtrato(List<String> lote, int primeiraLinha,
+                                      Map<Integer, TransferenciasAcumuladas> porInscricao,
+                                      Queue<String> naoAssociadas) {
+        IntStream.range(0, lote.size()).parallel().forEach(i -> {
+            String linha = lote.get(i);
+            if (linha.isBlank()) {
+                return;
+            }
+            String erro = associarLinha(linha, porInscricao);
+            if (erro != null) {
+                naoAssociadas.add("Linha " + (primeiraLinha + i) + " (" + erro + "): " + linha);
+            }
+        });
+    }
+
+    // Associa uma linha do extrato a uma inscrição; retorna o motivo se não for possível
+    private String associarLinha(String linha, Map<Integer, TransferenciasAcumuladas> porInscricao) {
+        int fimData = linha.indexOf(';');
+        int fimValor = (fimData < 0) ? -1 : linha.indexOf(';', fimData + 1);
+        if (fimValor < 0) {
+            return "formato inválido";
+        }
+
+        LocalDateTime data;
+        long centimos;
+        try {
+            data = lerData(linha.substring(0, fimData).trim());
+        } catch (DateTimeException | NumberFormatException e) {
+            return "data inválida"; // Inclui datas inexistentes (ex: 2024-02-30), rejeitadas por LocalDate.of
+        }
+        try {
+            centimos = lerCentimos(linha.substring(fimData + 1, fimValor).trim());
+        } catch (NumberFormatException e) {
+            return "valor inválido";
+        }
+        if (centimos <= 0) {
+            return "valor não positivo";
+        }
+
+        String descricao = linha.substring(fimValor + 1).trim();
+        int idInscricao;
+        Integer idEvento = null;
+        try {
+            if (!descricao.isEmpty() && Character.isDigit(descricao.charAt(0))) {
+                idInscricao = Integer.parseInt(descricao);
+            } else {
+                Matcher matcher = PADRAO_DESCRICAO.matcher(descricao);
+                if (!matcher.find()) {
+                    return "descrição sem ID de inscrição";
+                }
+                idInscricao = Integer.parseInt(matcher.group(1));
+                if (matcher.group(2) != null) {
+                    idEvento = Integer.parseInt(matcher.group(2));
+                }
+            }
+        } catch (NumberFormatException e) {
+            return "descrição sem ID de inscrição";
+        }
+
+        Inscricao inscricao = inscricaoService.procurarInscricaoPorId(idInscricao);
+        if (inscricao == null) {
+            return "inscrição " + idInscricao + " não encontrada";
+        }
+        if (idEvento != null && idEvento != inscricao.getIdEvento()) {
+            return "evento não corresponde à inscrição " + idInscricao;
+        }
+
+        porInscricao.computeIfAbsent(idInscricao, id -> new TransferenciasAcumuladas(inscricao.getValorTotalCentimos()))
+            .adicionar(chaveLinha(data, centimos, descricao), centimos, data);
+        return null;
+    }
+
+    // Resultado de aplicar as transferências de um extrato ao pagamento de uma inscrição
+    private enum Aplicacao { PAGA, PARCIAL, SEM_ALTERACAO }
+
+    /*
+     * Soma ao pagamento as transferências acumuladas que ainda não tinham sido reconciliadas (a
+     * verificação é feita com o lock do pagamento, por isso duas reconciliações do mesmo extrato em
+     * simultâneo também só o somam uma vez) e conta as restantes em 'linhasRepetidas'
+     */
+    private Aplicacao aplicarTransferencias(int idInscricao, TransferenciasAcumuladas transferencias,
+                                            LongAdder linhasRepetidas) {
+        Aplicacao aplicacao = inscricaoService.atualizarPagamento(idInscricao, pagamento -> {
+            long[] novas = new long[transferencias.numLinhas()];
+            int numNovas = 0;
+            long centimosNovos = 0;
+            LocalDateTime ultimaData = null;
+            for (Map.Entry<Long, LinhasIguais> entrada : transferencias.linhas.entrySet()) {
+                LinhasIguais linhas = entrada.getValue();
+                for (int ocorrencia = 0; ocorrencia < linhas.ocorrencias; ocorrencia++) {
+                    long chave = chaveOcorrencia(entrada.getKey(), ocorrencia);
+                    if (pagamento.isTransferenciaReconciliada(chave)) {
+                        linhasRepetidas.increment();
+                        continue;
+                    }
+                    novas[numNovas++] = chave;
+                    centimosNovos += linhas.centimos;
+                    if (ultimaData == null || linhas.data.isAfter(ultimaData)) {
+                        ultimaData = linhas.data;
+                    }
+                }
+            }
+            if (numNovas == 0) {
+                return Aplicacao.SEM_ALTERACAO;
+            }
+
+            long[] anteriores = pagamento.getTransferenciasReconciliadas();
+            long[] todas = Arrays.copyOf(anteriores, anteriores.length + numNovas);
+            System.arraycopy(novas, 0, todas, anteriores.length, numNovas);
+            pagamento.setTransferenciasReconciliadas(todas);
+            long totalCentimos = Math.round((double) pagamento.getValorTransferido() * 100) + centimosNovos;
+            pagamento.setValorTransferido(totalCentimos / 100f);
+            if (pagamento.getDataTransferencia() == null || ultimaData.isAfter(pagamento.getDataTransferencia())) {
+                pagamento.setDataTransferencia(ultimaData);
+            }
+            if (pagamento.getNotasInternas() == null) {
+                pagamento.setNotasInternas("Reconciliado por extrato bancário");
+            }
+            boolean totalmentePago = totalCentimos >= transferencias.valorTotalCentimos;
+            if (totalmentePago) {
+                pagamento.setEstado(EstadoPagamento.CONFIRMADO);
+            }
+            return totalmentePago ? Aplicacao.PAGA : Aplicacao.PARCIAL;
+        });
+        return (aplicacao != null) ? aplicacao : Aplicacao.SEM_ALTERACAO;
+    }
+
+    // Chave (FNV-1a de 64 bits) de uma linha do extrato: data, valor em cêntimos e descrição
+    private static long chaveLinha(LocalDateTime data, long centimos, String descricao) {
+        long chave = 0xcbf29ce484222325L;
+        String texto = data + ";" + centimos + ";" + descricao;
+        for (int i = 0; i < texto.length(); i++) {
+            chave = (chave ^ texto.charAt(i)) * 0x100000001b3L;
+        }
+        return chave;
+    }
+
+    // Chave da n-ésima linha igual do mesmo extrato (linhas iguais são transferências diferentes)
+    private static long chaveOcorrencia(long chaveLinha, int ocorrencia) {
+        long chave = chaveLinha + ocorrencia * 0x9e3779b97f4a7c15L;
+        chave = (chave ^ (chave >>> 30)) * 0xbf58476d1ce4e5b9L;
+        chave = (chave ^ (chave >>> 27)) * 0x94d049bb133111ebL;
+        return chave ^ (chave >>> 31);
+    }
+
+    // Lê datas yyyy-MM-dd e yyyy-MM-ddTHH:mm sem passar pelo DateTimeFormatter (restantes formatos ISO via parse)
+    private static LocalDateTime lerData(String texto) {
+        if (texto.length() == 10 && texto.charAt(4) == '-' && texto.charAt(7) == '-') {
+            return LocalDate.of(lerInteiro(texto, 0, 4), lerInteiro(texto, 5, 7), lerInteiro(texto, 8, 10)).atStartOfDay();
+        }
+        if (texto.length() == 16 && texto.charAt(10) == 'T' && texto.charAt(13) == ':') {
+            return LocalDateTime.of(lerInteiro(texto, 0, 4), lerInteiro(texto, 5, 7), lerInteiro(texto, 8, 10),
+                lerInteiro(texto, 11, 13), lerInteiro(texto, 14, 16));
+        }
+        return (texto.length() <= 10) ? LocalDate.parse(texto).atStartOfDay() : LocalDateTime.parse(texto);
+    }
+
+    private static int lerInteiro(String texto, int inicio, int fim) {
+        int valor = 0;
+        for (int i = inicio; i < fim; i++) {
+            int digito = texto.charAt(i) - '0';
+            if (digito < 0 || digito > 9) {
+                throw new NumberFormatException(texto);
+            }
+            valor = valor * 10 + digito;
+        }
+        return valor;
+    }
+
+    /*
+     * Lê um valor monetário diretamente em cêntimos. O último ',' ou '.' seguido de 1 ou 2 dígitos
+     * é o separador decimal; antes dele, os dígitos podem estar agrupados de 3 em 3 por um único tipo
+     * de separador de milhares ('.', ',', espaço ou apóstrofo). Seguido de exatamente 3 dígitos, o
+     * último separador é de milhares ("1.234" são 1234 euros).
+     */
+    private static long lerCentimos(String texto) {
+        boolean negativo = texto.startsWith("-");
+        String numero = negativo ? texto.substring(1) : texto;
+        if (numero.isEmpty()) {
+            throw new NumberFormatException(texto);
+        }
+        int separador = Math.max(numero.lastIndexOf(','), numero.lastIndexOf('.'));
+        int casas = numero.length() - separador - 1;
+        long centimos;
+        if (separador < 0 || casas == 3) {
+            centimos = lerInteiros(numero, texto) * 100;
+        } else if (casas == 1 || casas == 2) {
+            long fracao = lerInteiro(numero, separador + 1, numero.length()) * ((casas == 1) ? 10 : 1);
+            centimos = lerInteiros(numero.substring(0, separador), texto) * 100 + fracao;
+        } else {
+            throw new NumberFormatException(texto);
+        }
+        return negativo ? -centimos : centimos;
+    }
+
+    // Parte inteira de um valor, sem separadores ou com um separador de milhares entre grupos de 3 dígitos
+    private static long lerInteiros(String inteiros, String texto) {
+        char agrupamento = 0;
+        int digitosGrupo = 0; // Dígitos desde o último separador
+        long valor = 0;
+        for (int i = 0; i < inteiros.length(); i++) {
+            char c = inteiros.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (valor > MAXIMO_INTEIROS) {
+                    throw new NumberFormatException(texto);
+                }
+                valor = valor * 10 + (c - '0');
+                digitosGrupo++;
+                continue;
+            }
+            boolean grupoValido = (agrupamento == 0) ? digitosGrupo > 0 && digitosGrupo <= 3
+                    : c == agrupamento && digitosGrupo == 3;
+            if (SEPARADORES_MILHARES.indexOf(c) < 0 || !grupoValido) {
+                throw new NumberFormatException(texto);
+            }
+            agrupamento = c;
+            digitosGrupo = 0;
+        }
+        if (agrupamento != 0 && digitosGrupo != 3) {
+            throw new NumberFormatException(texto);
+        }
+        return valor;
+    }
+
+    // Linhas iguais (mesma data, valor e descrição) de uma inscrição no extrato
+    private static final class LinhasIguais {
+        private final long centimos;
+        private final LocalDateTime data;
+        private int ocorrencias;
 
-        pagamento.setValorTransferido(valorTransferido);
-        pagamento.setDataTransferencia(dataTransferencia);
-        pagamento.setNotasInternas(notasInternas);
+        LinhasIguais(long centimos, LocalDateTime data) {
+            this.centimos = centimos;
+            this.data = data;
+        }
+    }
+
+    // Transferências de uma inscrição encontradas no extrato, agrupadas pela chave da linha
+    private static final class TransferenciasAcumuladas {
+        private final long valorTotalCentimos; // Valor total da inscrição
+        private final Map<Long, LinhasIguais> linhas = new HashMap<>();
+        private int numLinhas;
+
+        TransferenciasAcumuladas(long valorTotalCentimos) {
+            this.valorTotalCentimos = valorTotalCentimos;
+        }
 
-        System.out.println("\n✓ Pagamento registado/atualizado com sucesso!");
-        System.out.println("Estado: " + pagamento.getEstado());
-        System.out.println("Valor: " + pagamento.getValorTransferido() + "€");
+        synchronized void adicionar(long chaveLinha, long valorCentimos, LocalDateTime data) {
+            linhas.computeIfAbsent(chaveLinha, chave -> new LinhasIguais(valorCentimos, data)).ocorrencias++;
+            numLinhas++;
+        }
+
+        synchronized int numLinhas() {
+            return numLinhas;
+        }
     }
 
-    // Método auxiliar para localizar uma inscrição pelo seu ID
+    // Método auxiliar para localizar uma inscrição pelo seu ID (acesso direto ao índice, sem cópias)
     private Inscricao localizarInscricao(int idInscricao) {
-        return inscricaoService.listarInscricoes().stream()
-            .filter(i -> i.getId() == idInscricao)
-            .findFirst()
-            .orElseThrow(() -> new IllegalArgumentException("Inscrição não encontrada"));
+        Inscricao inscricao = inscricaoService.procurarInscricaoPorId(idInscricao);
+        if (inscricao == null) {
+            throw new IllegalArgumentException("Inscrição não encontrada");
+        }
+        return inscricao;
     }
 }
@@ -0,0 +1,40 @@
+package com.eventastic.service;
+
+import com.eventastic.model.Event;
+import com.eventastic.model.Inscricao;
+import com.eventastic.model.Pagamento;
+
+import java.util.List;
+
+/*
+ * Recebe as operações que alteram o estado dos serviços (ex: para as guardar num journal).
+ * Os métodos são chamados depois de a alteração ser aplicada em memória (as inscrições novas já
+ * estão no armazém, mas a criação é desfeita se o registo lançar uma exceção); por omissão não
+ * fazem nada.
+ */
+public interface RegistoOperacoes {
+
+    // Registo que ignora todas as operações (usado quando não há persistência)
+    RegistoOperacoes NENHUM = new RegistoOperacoes() { };
+
+    default void eventoCriado(Event evento) { }
+
+    default void eventoEditado(Event evento) { }
+
+    // Evento inativado/expirado: o evento e as suas inscrições foram removidos
+    default void eventoRemovido(int idEvento) { }
+
+    default void inscricaoCriada(Inscricao inscricao) { }
+
+    // Inscrições criadas por um lote (por omissão, uma operação por inscrição)
+    default void inscricoesCriadas(List<Inscricao> inscricoes) {
+        for (Inscricao inscricao : inscricoes) {
+            inscricaoCriada(inscricao);
+        }
+    }
+
+    // Inscrição cancelada (o lugar passou à lista de espera ou voltou ao evento)
+    default void inscricaoCancelada(int idInscricao) { }
+
+    default void pagamentoAtualizado(Pagamento pagamento) { }
+}
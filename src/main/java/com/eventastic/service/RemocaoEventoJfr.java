@@ -0,0 +1,40 @@
+package com.eventastic.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/*
+ * Evento JFR da remoção de um evento e das suas inscrições (EventService.tratarEventoSeInativo e
+ * expiração em segundo plano): quantas inscrições foram removidas e quanto tempo demorou a cascata.
+ */
+@Name("com.eventastic.RemocaoEvento")
+@Label("Remoção de evento")
+@Category({ "Eventastic", "Eventos" })
+@Description("Remoção de um evento inativado ou expirado e das suas inscrições")
+@StackTrace(false)
+final class RemocaoEventoJfr extends Event {
+
+    @Label("ID do evento")
+    int idEvento;
+
+    @Label("Motivo")
+    @Description("inativado (pelo administrador) ou expirado")
+    String motivo;
+
+    @Label("Inscrições removidas")
+    int inscricoesRemovidas;
+
+    // Cria e inicia o evento
+    static RemocaoEventoJfr iniciar(int idEvento, String motivo, int inscricoesRemovidas) {
+        RemocaoEventoJfr jfr = new RemocaoEventoJfr();
+        jfr.begin();
+        jfr.idEvento = idEvento;
+        jfr.motivo = motivo;
+        jfr.inscricoesRemovidas = inscricoesRemovidas;
+        return jfr;
+    }
+}
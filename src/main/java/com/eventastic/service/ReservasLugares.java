@@ -0,0 +1,201 @@
+package com.eventastic.service;
+
+import com.eventastic.model.Event;
+import com.eventastic.model.ReservaLugar;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/*
+ * Reservas de lugares com prazo (usadas internamente pelo InscricaoService).
+ *
+ * Reservar ocupa um lugar no mesmo contador por CAS das inscrições (InscricoesEvento), sem o lock
+ * da partição, e agenda a expiração numa RodaTemporizacao partilhada por todos os eventos (sem
+ * locks, sem um temporizador por reserva). Cada reserva termina uma única vez, pelo primeiro CAS
+ * do seu estado: confirmada (o lugar passa para a inscrição), libertada ou expirada (o lugar
+ * é devolvido através de 'aoLibertarLugar', que o pode passar à lista de espera). As reservas não são persistidas: ao recuperar do disco não há reservas ativas.
+ *
+ * Devolver um lugar pode promover alguém da lista de espera, com o lock da partição e a escrita no
+ * journal. Por isso a thread da roda só marca a reserva como expirada e passa a devolução a uma
+ * thread própria ('eventastic-reservas-libertacao'): uma partição ocupada ou um disco lento não
+ * atrasam a expiração das outras reservas. A fila dessa thread não precisa de limite, porque cada
+ * reserva expira no máximo uma vez (tem no máximo uma entrada por reserva ativa). As reservas
+ * libertadas por quem as pediu devolvem o lugar na própria thread.
+ */
+final class ReservasLugares implements AutoCloseable {
+
+    static final Duration DURACAO_MAXIMA = Duration.ofHours(1);
+
+    // 100 ms por tick e 1024 baldes: uma volta da roda cobre ~102 s (reservas mais longas dão voltas)
+    private static final Duration DURACAO_TICK = Duration.ofMillis(100);
+    private static final int NUM_BALDES = 1024;
+
+    private static final int ATIVA = 0;
+    private static final int CONFIRMADA = 1;
+    private static final int LIBERTADA = 2;
+    private static final int EXPIRADA = 3;
+
+    private final Map<Long, Reserva> ativas = new ConcurrentHashMap<>();
+    private final AtomicLong nextIdReserva = new AtomicLong(1);
+    private final LongAdder expiradas = new LongAdder();
+    private final Consumer<InscricoesEvento> aoLibertarLugar; // Devolve o lugar de uma reserva terminada
+    private volatile RodaTemporizacao roda; // Criada na primeira reserva
+    private ThreadPoolExecutor libertacoes; // Devolve os lugares das reservas expiradas (criado com a roda)
+    private volatile boolean fechada;
+
+    // Construtor
+    ReservasLugares(Consumer<InscricoesEvento> aoLibertarLugar) {
+        this.aoLibertarLugar = Objects.requireNonNull(aoLibertarLugar, "aoLibertarLugar");
+    }
+
+    // Reserva em curso (entrada da roda de temporização)
+    final class Reserva extends RodaTemporizacao.Entrada {
+        private final long id;
+        private final Event evento;
+        private final InscricoesEvento particao;
+        private final AtomicInteger estado = new AtomicInteger(ATIVA);
+
+        private Reserva(long id, Event evento, InscricoesEvento particao, long prazoNanos) {
+            super(prazoNanos);
+            this.id = id;
+            this.evento = evento;
+            this.particao = particao;
+        }
+
+        long getId() { return id; }
+        Event getEvento() { return evento; }
+        InscricoesEvento getParticao() { return particao; }
+
+        @Override
+        boolean isPendente() {
+            return estado.get() == ATIVA;
+        }
+
+        @Override
+        void expirar() {
+            if (terminar(EXPIRADA)) {
+                expiradas.increment();
+                libertacoes.execute(() -> aoLibertarLugar.accept(particao)); // Fora da thread da roda
+            }
+        }
+
+        // Passa de ATIVA para 'estadoFinal'; false se a reserva já tinha terminado
+        private boolean terminar(int estadoFinal) {
+            if (!estado.compareAndSet(ATIVA, estadoFinal)) {
+                return false;
+            }
+            ativas.remove(id, this);
+            return true;
+        }
+    }
+
+    /*
+     * Ocupa um lugar do evento durante 'duracao' (sem locks). Lança IllegalArgumentException se o
+     * evento estiver com a lotação completa (os lugares reservados contam como ocupados).
+     */
+    ReservaLugar reservar(Event evento, InscricoesEvento particao, Duration duracao) {
+        RodaTemporizacao rodaAtual = roda();
+        if (!particao.reservarLugar(evento.getMaxParticipantes())) {
+            throw new IllegalArgumentException("Evento com lotação completa");
+        }
+        long id = nextIdReserva.getAndIncrement();
+        long duracaoNanos = duracao.toNanos();
+        Reserva reserva = new Reserva(id, evento, particao, System.nanoTime() + duracaoNanos);
+        ativas.put(id, reserva);
+        rodaAtual.agendar(reserva);
+        return new ReservaLugar(id, evento.getIdEvento(), LocalDateTime.now().plusNanos(duracaoNanos));
+    }
+
+    // Reserva ativa com o ID dado (null se não existir, já tiver expirado ou terminado)
+    Reserva obter(long idReserva) {
+        return ativas.get(idReserva);
+    }
+
+    // Marca a reserva como confirmada (o lugar fica com a inscrição); false se já tinha terminado
+    boolean confirmar(Reserva reserva) {
+        if (!reserva.terminar(CONFIRMADA)) {
+            return false;
+        }
+        roda.cancelar(reserva);
+        return true;
+    }
+
+    // Devolve o lugar de uma reserva ativa ao evento; false se não existir ou já tiver terminado
+    boolean libertar(long idReserva) {
+        Reserva reserva = ativas.get(idReserva);
+        if (reserva == null || !reserva.terminar(LIBERTADA)) {
+            return false;
+        }
+        roda.cancelar(reserva);
+        aoLibertarLugar.accept(reserva.particao);
+        return true;
+    }
+
+    // Número de reservas ativas (em todos os eventos)
+    int contarAtivas() {
+        return ativas.size();
+    }
+
+    // Número de reservas que expiraram sem serem confirmadas nem libertadas
+    long contarExpiradas() {
+        return expiradas.sum();
+    }
+
+    // Para a roda de temporização (as reservas ativas deixam de expirar) e espera pelas devoluções pendentes
+    @Override
+    public synchronized void close() {
+        fechada = true;
+        if (roda != null) {
+            roda.close();
+            libertacoes.shutdown();
+            try {
+                libertacoes.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private RodaTemporizacao roda() {
+        RodaTemporizacao atual = roda;
+        if (atual == null || fechada) {
+            synchronized (this) {
+                if (fechada) {
+                    throw new IllegalStateException("Reservas de lugares encerradas");
+                }
+                if (roda == null) {
+                    libertacoes = criarLibertacoes();
+                    roda = new RodaTemporizacao(DURACAO_TICK, NUM_BALDES, "eventastic-reservas");
+                }
+                atual = roda;
+            }
+        }
+        return atual;
+    }
+
+    /*
+     * Uma thread daemon (criada quando há lugares a devolver e terminada quando fica inativa). Se
+     * recusar uma devolução, a thread da roda fá-la ela própria: o lugar nunca fica por devolver.
+     */
+    private static ThreadPoolExecutor criarLibertacoes() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread thread = new Thread(r, "eventastic-reservas-libertacao");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (tarefa, pool) -> tarefa.run());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
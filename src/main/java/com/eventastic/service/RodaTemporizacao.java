@@ -0,0 +1,193 @@
+package com.eventastic.service;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * Roda de temporização ("hashed timing wheel") para expirar muitas entradas com prazo sem um
+ * temporizador por entrada (usada internamente pelas reservas de lugares).
+ *
+ * A roda tem um número fixo de baldes; cada balde cobre um tick e uma volta completa cobre
+ * tantos ticks como baldes. Uma entrada vai para o balde do tick do seu prazo, com o número de voltas que
+ * faltam. A cada tick a thread da roda percorre só o balde atual: expira as entradas sem voltas em
+ * falta e desconta uma volta às restantes. Agendar e cancelar são O(1), e o prazo é cumprido com
+ * um atraso de no máximo um tick.
+ *
+ * Só a thread da roda mexe nos baldes: quem agenda ou cancela põe a entrada numa fila sem locks,
+ * que a thread esvazia no início de cada tick. Uma entrada cancelada antes de chegar a um balde
+ * nunca lá entra; depois disso é retirada da lista do balde (duplamente ligada) em O(1).
+ */
+final class RodaTemporizacao implements AutoCloseable {
+
+    // Entrada da roda; os campos de ligação só são usados pela thread da roda
+    abstract static class Entrada {
+        private final long prazoNanos; // Em System.nanoTime()
+        private long voltas;
+        private int balde = -1; // -1 enquanto não está num balde
+        private Entrada anterior;
+        private Entrada seguinte;
+
+        Entrada(long prazoNanos) {
+            this.prazoNanos = prazoNanos;
+        }
+
+        long getPrazoNanos() { return prazoNanos; }
+
+        // false se a entrada já não deve expirar (ex: foi confirmada ou libertada)
+        abstract boolean isPendente();
+
+        // Chamado pela thread da roda quando o prazo passa (deve ser curto: atrasa as outras entradas)
+        abstract void expirar();
+    }
+
+    private final long duracaoTick;
+    private final int mascara;
+    private final Entrada[] cabecas;
+    private final Entrada[] caudas;
+    private final Queue<Entrada> novas = new ConcurrentLinkedQueue<>();
+    private final Queue<Entrada> canceladas = new ConcurrentLinkedQueue<>();
+    private final Thread thread;
+    private final long inicio;
+    private long tick; // Só lido/escrito pela thread da roda
+    private volatile boolean fechada;
+
+    // Construtor ('numBaldes' é arredondado para uma potência de 2); a thread começa de imediato
+    RodaTemporizacao(Duration duracaoTick, int numBaldes, String nomeThread) {
+        if (duracaoTick.isNegative() || duracaoTick.isZero()) {
+            throw new IllegalArgumentException("Duração do tick deve ser positiva");
+        }
+        if (numBaldes <= 0 || numBaldes > (1 << 20)) {
+            throw new IllegalArgumentException("Número de baldes deve estar entre 1 e " + (1 << 20));
+        }
+        int baldes = Math.max(1, Integer.highestOneBit(numBaldes - 1) << 1);
+        this.duracaoTick = duracaoTick.toNanos();
+        this.mascara = baldes - 1;
+        this.cabecas = new Entrada[baldes];
+        this.caudas = new Entrada[baldes];
+        this.inicio = System.nanoTime();
+        this.thread = new Thread(this::executar, Objects.requireNonNull(nomeThread, "nomeThread"));
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    // Agenda a expiração de uma entrada (sem locks; pode ser chamado por qualquer thread)
+    void agendar(Entrada entrada) {
+        novas.offer(entrada);
+    }
+
+    // Pede que uma entrada que deixou de estar pendente seja retirada do seu balde (sem locks)
+    void cancelar(Entrada entrada) {
+        canceladas.offer(entrada);
+    }
+
+    // Para a thread da roda (as entradas por expirar são descartadas)
+    @Override
+    public void close() {
+        fechada = true;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.MINUTES.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Ciclo da thread da roda: espera pelo fim de cada tick e trata o balde correspondente
+    private void executar() {
+        while (!fechada) {
+            long fimTick = inicio + (tick + 1) * duracaoTick;
+            long espera;
+            while (!fechada && (espera = fimTick - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, espera);
+            }
+            if (fechada) {
+                return;
+            }
+            try {
+                transferirNovas();
+                retirarCanceladas();
+                expirarBalde((int) (tick & mascara));
+            } catch (RuntimeException e) {
+                System.err.println("Falha na roda de temporização: " + e.getMessage());
+            }
+            tick++;
+        }
+    }
+
+    // Coloca as entradas agendadas desde o último tick nos seus baldes
+    private void transferirNovas() {
+        Entrada entrada;
+        while ((entrada = novas.poll()) != null) {
+            if (!entrada.isPendente()) {
+                continue; // Cancelada antes de chegar à roda
+            }
+            long tickPrazo = Math.max(0, entrada.prazoNanos - inicio) / duracaoTick;
+            entrada.voltas = Math.max(0, (tickPrazo - tick) / cabecas.length);
+            int balde = (int) (Math.max(tickPrazo, tick) & mascara); // Prazos já passados: balde atual
+            ligar(entrada, balde);
+        }
+    }
+
+    private void retirarCanceladas() {
+        Entrada entrada;
+        while ((entrada = canceladas.poll()) != null) {
+            if (entrada.balde >= 0) {
+                desligar(entrada);
+            }
+        }
+    }
+
+    // Expira as entradas do balde sem voltas em falta e desconta uma volta às outras
+    private void expirarBalde(int balde) {
+        Entrada entrada = cabecas[balde];
+        while (entrada != null) {
+            Entrada seguinte = entrada.seguinte;
+            if (entrada.voltas <= 0) {
+                desligar(entrada);
+                if (entrada.isPendente()) {
+                    try {
+                        entrada.expirar();
+                    } catch (RuntimeException e) { // Não impede as outras entradas do balde de expirar
+                        System.err.println("Falha ao expirar entrada da roda de temporização: " + e.getMessage());
+                    }
+                }
+            } else {
+                entrada.voltas--;
+            }
+            entrada = seguinte;
+        }
+    }
+
+    private void ligar(Entrada entrada, int balde) {
+        entrada.balde = balde;
+        entrada.anterior = caudas[balde];
+        entrada.seguinte = null;
+        if (caudas[balde] == null) {
+            cabecas[balde] = entrada;
+        } else {
+            caudas[balde].seguinte = entrada;
+        }
+        caudas[balde] = entrada;
+    }
+
+    private void desligar(Entrada entrada) {
+        int balde = entrada.balde;
+        if (entrada.anterior == null) {
+            cabecas[balde] = entrada.seguinte;
+        } else {
+            entrada.anterior.seguinte = entrada.seguinte;
+        }
+        if (entrada.seguinte == null) {
+            caudas[balde] = entrada.anterior;
+        } else {
+            entrada.seguinte.anterior = entrada.anterior;
+        }
+        entrada.balde = -1;
+        entrada.anterior = null;
+        entrada.seguinte = null;
+    }
+}
@@ -0,0 +1,154 @@
+package com.eventastic.api;
+
+import com.eventastic.enums.ModoArmazenamento;
+import com.eventastic.enums.TipoFase;
+import com.eventastic.enums.TipoInscricao;
+import com.eventastic.model.ConfiguracaoPreco;
+import com.eventastic.model.Event;
+import com.eventastic.model.FaseInscricao;
+import com.eventastic.model.Inscricao;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * Inscrições concorrentes num mesmo evento: várias threads disputam os lugares ao mesmo tempo,
+ * com e-mails repetidos entre threads. A lotação nunca pode ser excedida nem ficar por preencher,
+ * e cada e-mail (e cada ID) só pode aparecer uma vez.
+ */
+class InscricoesConcorrentesTest {
+
+    private static final int NUM_THREADS = 64;
+    private static final int LOTACAO = 500;
+
+    // Mais tentativas do que lugares, com pares de threads a partilhar e-mails
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    @Timeout(value = 2, unit = TimeUnit.MINUTES)
+    void naoExcedeLotacaoNemRepeteEmails(ModoArmazenamento modo) throws Exception {
+        try (EventasticAPI api = new EventasticAPI(modo)) {
+            Event evento = criarEvento(api, LOTACAO);
+            int tentativasPorThread = LOTACAO / 4;
+
+            AtomicInteger sucessos = new AtomicInteger();
+            AtomicInteger rejeitadas = new AtomicInteger();
+            executarEmSimultaneo(NUM_THREADS, thread -> {
+                for (int i = 0; i < tentativasPorThread; i++) {
+                    String email = "participante" + (thread / 2) + "_" + i + "@exemplo.com";
+                    try {
+                        api.inscrever(evento, "Participante " + thread + "-" + i, email, null,
+                                TipoInscricao.NAO_ESTUDANTE, null, List.of());
+                        sucessos.incrementAndGet();
+                    } catch (IllegalArgumentException ex) {
+                        rejeitadas.incrementAndGet();
+                    }
+                }
+            });
+
+            assertEquals(NUM_THREADS * tentativasPorThread, sucessos.get() + rejeitadas.get());
+            assertEquals(LOTACAO, sucessos.get(), "inscrições aceites");
+            assertEquals(0, api.consultarVagasDisponiveis(evento.getIdEvento()));
+            verificarInscritos(api.obterListaParticipantes(evento.getIdEvento()), LOTACAO);
+        }
+    }
+
+    // Todas as threads tentam o mesmo e-mail: só uma inscrição pode ser aceite
+    @Test
+    @Timeout(value = 1, unit = TimeUnit.MINUTES)
+    void mesmoEmailSoEntraUmaVez() throws Exception {
+        try (EventasticAPI api = new EventasticAPI()) {
+            Event evento = criarEvento(api, LOTACAO);
+
+            AtomicInteger sucessos = new AtomicInteger();
+            executarEmSimultaneo(NUM_THREADS, thread -> {
+                try {
+                    api.inscrever(evento, "Participante " + thread, "repetido@exemplo.com", null,
+                            TipoInscricao.NAO_ESTUDANTE, null, List.of());
+                    sucessos.incrementAndGet();
+                } catch (IllegalArgumentException ex) {
+                    // E-mail já inscrito
+                }
+            });
+
+            assertEquals(1, sucessos.get());
+            verificarInscritos(api.obterListaParticipantes(evento.getIdEvento()), 1);
+            assertEquals(LOTACAO - 1, api.consultarVagasDisponiveis(evento.getIdEvento()));
+        }
+    }
+
+    // Os inscritos são exatamente os esperados, sem e-mails nem IDs repetidos
+    private static void verificarInscritos(List<Inscricao> inscritos, int esperados) {
+        assertEquals(esperados, inscritos.size(), "inscritos no evento");
+        Set<String> emails = new HashSet<>();
+        Set<Integer> ids = new HashSet<>();
+        for (Inscricao inscricao : inscritos) {
+            assertTrue(emails.add(inscricao.getEmail()), "e-mail repetido: " + inscricao.getEmail());
+            assertTrue(ids.add(inscricao.getId()), "ID repetido: " + inscricao.getId());
+        }
+    }
+
+    // Arranca todas as threads ao mesmo tempo e espera que terminem (as falhas são relançadas)
+    private static void executarEmSimultaneo(int numThreads, TarefaThread tarefa) throws Exception {
+        CountDownLatch partida = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            List<Future<?>> resultados = new ArrayList<>();
+            for (int t = 0; t < numThreads; t++) {
+                final int thread = t;
+                resultados.add(executor.submit(() -> {
+                    partida.await();
+                    tarefa.executar(thread);
+                    return null;
+                }));
+            }
+            partida.countDown();
+            for (Future<?> resultado : resultados) {
+                resultado.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Evento futuro com inscrições abertas hoje
+    private static Event criarEvento(EventasticAPI api, int lotacao) {
+        LocalDate hoje = LocalDate.now();
+        FaseInscricao fase = new FaseInscricao(TipoFase.EARLY, hoje.minusDays(1), hoje.plusDays(10), Map.of(
+                TipoInscricao.ESTUDANTE, new ConfiguracaoPreco(TipoInscricao.ESTUDANTE, 10f),
+                TipoInscricao.NAO_ESTUDANTE, new ConfiguracaoPreco(TipoInscricao.NAO_ESTUDANTE, 20f)));
+        return api.criarEvento(
+                "Abertura de Bilheteira",
+                "Evento para teste de concorrência",
+                "Évora",
+                hoje.plusDays(30), hoje.plusDays(31),
+                LocalTime.of(9, 0), LocalTime.of(18, 0),
+                lotacao,
+                List.of(fase),
+                List.of()
+        );
+    }
+
+    @FunctionalInterface
+    private interface TarefaThread {
+        void executar(int thread) throws Exception;
+    }
+}
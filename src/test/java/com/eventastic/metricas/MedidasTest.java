@@ -0,0 +1,70 @@
+package com.eventastic.metricas;
+
+import com.eventastic.api.EventasticAPI;
+import com.eventastic.model.EstatisticasOperacao;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * Medição das operações: cada chamada (com ou sem exceção) conta uma vez na operação certa, e as
+ * operações dos serviços chamadas através da API ficam no registo de métricas da API.
+ */
+class MedidasTest {
+
+    private enum OperacaoTeste { LER, ESCREVER }
+
+    // Chamadas e exceções por tipo ficam na operação da constante usada
+    @Test
+    void contaChamadasEExcecoesPorOperacao() throws IOException {
+        Metricas metricas = new Metricas();
+        Medidas<OperacaoTeste> medidas = new Medidas<>(metricas, "teste", OperacaoTeste.class,
+                operacao -> operacao.name().toLowerCase());
+
+        assertEquals(7, medidas.medir(OperacaoTeste.LER, () -> 7));
+        assertThrows(IllegalArgumentException.class, () -> medidas.medir(OperacaoTeste.LER, () -> {
+            throw new IllegalArgumentException("inválido");
+        }));
+        assertThrows(IOException.class, () -> medidas.executar(OperacaoTeste.ESCREVER, () -> {
+            throw new IOException("disco");
+        }));
+        medidas.executar(OperacaoTeste.ESCREVER, () -> { });
+
+        List<EstatisticasOperacao> estatisticas = metricas.obterEstatisticas();
+        assertEquals(List.of("ler", "escrever"), estatisticas.stream().map(EstatisticasOperacao::getOperacao).toList());
+        EstatisticasOperacao ler = estatisticas.get(0);
+        assertEquals("teste", ler.getServico());
+        assertEquals(2, ler.getChamadas());
+        assertEquals(Map.of("IllegalArgumentException", 1L), ler.getErros());
+        EstatisticasOperacao escrever = estatisticas.get(1);
+        assertEquals(2, escrever.getChamadas());
+        assertEquals(Map.of("IOException", 1L), escrever.getErros());
+    }
+
+    // As operações dos serviços chamadas pela API são medidas uma vez, com o serviço como etiqueta
+    @Test
+    void apiRegistaAsOperacoesDosServicos() throws IOException {
+        try (EventasticAPI api = new EventasticAPI()) {
+            api.contarListaEspera(1);
+            assertThrows(IllegalArgumentException.class, () -> api.consultarPagamento(99));
+
+            Map<String, EstatisticasOperacao> porOperacao = new HashMap<>();
+            for (EstatisticasOperacao e : api.obterMetricas()) {
+                porOperacao.put(e.getServico() + "/" + e.getOperacao(), e);
+            }
+            assertEquals(1, porOperacao.get("inscricoes/contarListaEspera").getChamadas());
+            assertEquals(Map.of("IllegalArgumentException", 1L), porOperacao.get("pagamentos/consultarPagamento").getErros());
+            assertEquals(0, porOperacao.get("eventos/criarEvento").getChamadas());
+            assertTrue(api.obterMetricasPrometheus().contains(
+                    "eventastic_operacao_duracao_segundos_count{servico=\"inscricoes\",operacao=\"contarListaEspera\"} 1"));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.eventastic.notificacao;
+
+import com.eventastic.enums.EstadoInscricao;
+import com.eventastic.enums.TipoInscricao;
+import com.eventastic.model.Inscricao;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * Avisos de promoção: com um destino parado, agendar() continua a retornar de imediato e, com a
+ * fila cheia, os avisos a mais são descartados e contados; os que estavam na fila são entregues.
+ */
+class AvisosPromocaoTest {
+
+    private static final int CAPACIDADE_FILA = 10_000;
+
+    // Com o destino parado no primeiro aviso, cabem CAPACIDADE_FILA na fila e os seguintes são descartados
+    @Test
+    void filaCheiaDescartaAvisos() throws InterruptedException {
+        CountDownLatch primeiroEmCurso = new CountDownLatch(1);
+        CountDownLatch destinoLiberto = new CountDownLatch(1);
+        AvisosPromocao avisos = new AvisosPromocao(inscricao -> {
+            primeiroEmCurso.countDown();
+            try {
+                destinoLiberto.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Inscricao inscricao = new Inscricao(1, 1, "Participante", "a@exemplo.com", null, TipoInscricao.NAO_ESTUDANTE,
+                null, List.of(), 20f, EstadoInscricao.PENDENTE_PAGAMENTO, LocalDateTime.now());
+
+        avisos.agendar(inscricao);
+        assertTrue(primeiroEmCurso.await(10, TimeUnit.SECONDS)); // A thread está presa no primeiro aviso
+        long inicio = System.nanoTime();
+        for (int i = 0; i < CAPACIDADE_FILA + 5; i++) {
+            avisos.agendar(inscricao);
+        }
+        assertTrue(System.nanoTime() - inicio < TimeUnit.SECONDS.toNanos(5), "agendar() não deve bloquear");
+        assertEquals(5, avisos.getDescartados());
+        assertEquals(5, avisos.getNaoEntregues());
+
+        destinoLiberto.countDown();
+        avisos.close();
+        assertEquals(CAPACIDADE_FILA + 1, avisos.getEntregues());
+        assertEquals(5, avisos.getNaoEntregues());
+        assertEquals(0, avisos.getPendentes());
+    }
+
+    // Depois de close(), os avisos não são enviados nem contados como descartados
+    @Test
+    void avisoDepoisDeEncerrarNaoEntregue() {
+        AvisosPromocao avisos = new AvisosPromocao(inscricao -> { });
+        avisos.close();
+
+        avisos.agendar(new Inscricao(1, 1, "Participante", "a@exemplo.com", null, TipoInscricao.NAO_ESTUDANTE,
+                null, List.of(), 20f, EstadoInscricao.PENDENTE_PAGAMENTO, LocalDateTime.now()));
+
+        assertEquals(1, avisos.getNaoEntregues());
+        assertEquals(0, avisos.getDescartados());
+    }
+}
@@ -0,0 +1,295 @@
+package com.eventastic.persistencia;
+
+import com.eventastic.enums.EstadoInscricao;
+import com.eventastic.enums.EstadoPagamento;
+import com.eventastic.enums.TipoFase;
+import com.eventastic.enums.TipoInscricao;
+import com.eventastic.model.AgregadosEvento;
+import com.eventastic.model.ConfiguracaoPreco;
+import com.eventastic.model.Event;
+import com.eventastic.model.FaseInscricao;
+import com.eventastic.model.Inscricao;
+import com.eventastic.model.Pagamento;
+import com.eventastic.service.EventService;
+import com.eventastic.service.InscricaoService;
+import com.eventastic.service.PagamentoService;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * Recuperação do estado a partir do snapshot e do journal: replay, continuidade dos IDs,
+ * compactação, registos danificados e a ordem entre inscrições e pagamentos no journal.
+ */
+class PersistenciaTest {
+
+    @TempDir
+    Path diretorio;
+
+    // Serviços ligados a uma Persistencia aberta sobre um diretório
+    private static final class Servicos implements AutoCloseable {
+        final EventService eventService = new EventService();
+        final InscricaoService inscricaoService = new InscricaoService();
+        final PagamentoService pagamentoService = new PagamentoService(inscricaoService);
+        final Persistencia persistencia;
+
+        Servicos(Path diretorio) throws IOException {
+            persistencia = Persistencia.abrir(diretorio, eventService, inscricaoService, Duration.ofHours(1));
+        }
+
+        Inscricao inscrever(Event evento, String email) {
+            return inscricaoService.inscrever(evento, "Participante", email, null,
+                    TipoInscricao.NAO_ESTUDANTE, null, List.of());
+        }
+
+        @Override
+        public void close() throws IOException {
+            inscricaoService.encerrarReservas();
+            inscricaoService.encerrarAvisosPromocao();
+            eventService.encerrarNotificacoes();
+            persistencia.close();
+        }
+    }
+
+    // Estado antes e depois da compactação é recuperado do snapshot e do segmento seguinte
+    @Test
+    void recuperaSnapshotMaisJournal() throws IOException {
+        int idEvento;
+        try (Servicos servicos = new Servicos(diretorio)) {
+            Event evento = criarEvento(servicos.eventService);
+            idEvento = evento.getIdEvento();
+            Inscricao paga = servicos.inscrever(evento, "antes1@exemplo.com");
+            servicos.inscrever(evento, "antes2@exemplo.com");
+            servicos.pagamentoService.registarPagamento(paga.getId(), 20f, LocalDateTime.now(), null);
+
+            servicos.persistencia.compactar();
+
+            Inscricao depois = servicos.inscrever(evento, "depois@exemplo.com");
+            servicos.inscricaoService.cancelarInscricao(depois.getId(), "depois@exemplo.com");
+            servicos.inscrever(evento, "ultimo@exemplo.com");
+        }
+
+        try (Servicos recuperados = new Servicos(diretorio)) {
+            List<Inscricao> inscritos = recuperados.inscricaoService.obterListaParticipantes(idEvento);
+            assertEquals(List.of("antes1@exemplo.com", "antes2@exemplo.com", "depois@exemplo.com", "ultimo@exemplo.com"),
+                    inscritos.stream().map(Inscricao::getEmail).toList());
+            assertEquals(EstadoInscricao.CANCELADA, inscritos.get(2).getEstado());
+            assertEquals(3, recuperados.inscricaoService.contarLugaresOcupados(idEvento));
+            AgregadosEvento agregados = recuperados.inscricaoService.obterAgregados(idEvento);
+            assertEquals(2000, agregados.getValorTransferidoCentimos());
+            assertEquals(1, agregados.getPorEstadoPagamento().get(EstadoPagamento.CONFIRMADO));
+            assertEquals(1, agregados.getPorEstadoInscricao().get(EstadoInscricao.CANCELADA));
+        }
+    }
+
+    // Os IDs de eventos e inscrições continuam a partir dos últimos atribuídos, com e sem snapshot
+    @Test
+    void idsContinuamDepoisDeRecuperar() throws IOException {
+        int ultimoId;
+        try (Servicos servicos = new Servicos(diretorio)) {
+            Event evento = criarEvento(servicos.eventService);
+            servicos.inscrever(evento, "a@exemplo.com");
+            servicos.persistencia.compactar();
+            ultimoId = servicos.inscrever(evento, "b@exemplo.com").getId();
+        }
+        try (Servicos recuperados = new Servicos(diretorio)) {
+            Event evento = criarEvento(recuperados.eventService);
+            assertEquals(2, evento.getIdEvento());
+            assertEquals(ultimoId + 1, recuperados.inscrever(evento, "c@exemplo.com").getId());
+        }
+        try (Servicos recuperados = new Servicos(diretorio)) {
+            assertEquals(3, recuperados.eventService.getNextEventId());
+            assertEquals(ultimoId + 2, recuperados.inscricaoService.getNextInscricaoId());
+        }
+    }
+
+    // Compactar apaga os segmentos cobertos pelo snapshot e o replay começa no segmento seguinte
+    @Test
+    void compactacaoApagaSegmentosAntigos() throws IOException {
+        int idEvento;
+        try (Servicos servicos = new Servicos(diretorio)) {
+            Event evento = criarEvento(servicos.eventService);
+            idEvento = evento.getIdEvento();
+            for (int i = 0; i < 50; i++) {
+                servicos.inscrever(evento, "p" + i + "@exemplo.com");
+            }
+            servicos.persistencia.compactar();
+            assertTrue(Files.exists(diretorio.resolve(Persistencia.FICHEIRO_SNAPSHOT)));
+            assertEquals(List.of(2), Journal.listarSegmentos(diretorio));
+
+            servicos.persistencia.compactar();
+            assertEquals(List.of(3), Journal.listarSegmentos(diretorio));
+        }
+        try (Servicos recuperados = new Servicos(diretorio)) {
+            assertEquals(50, recuperados.inscricaoService.contarParticipantes(idEvento));
+        }
+    }
+
+    // Um registo escrito só em parte no fim do último segmento é descartado e o ficheiro truncado
+    @Test
+    void truncaRegistoIncompletoNoFim() throws IOException {
+        try (Servicos servicos = new Servicos(diretorio)) {
+            Event evento = criarEvento(servicos.eventService);
+            servicos.inscrever(evento, "a@exemplo.com");
+        }
+        Path segmento = Journal.caminhoSegmento(diretorio, 1);
+        long tamanhoValido = Files.size(segmento);
+        try (FileChannel canal = FileChannel.open(segmento, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            canal.write(ByteBuffer.wrap(new byte[] { 0, 0, 0, 100, 1, 2, 3, 4, 3, 9, 9 })); // Cabeçalho + 2 de 100 bytes
+        }
+
+        try (Servicos recuperados = new Servicos(diretorio)) {
+            assertEquals(1, recuperados.inscricaoService.contarParticipantes(1));
+        }
+        assertEquals(tamanhoValido, Files.size(segmento));
+    }
+
+    // Um registo corrompido a meio do journal impede a recuperação (não perde os seguintes em silêncio)
+    @Test
+    void registoCorrompidoAMeioFalha() throws IOException {
+        try (Servicos servicos = new Servicos(diretorio)) {
+            Event evento = criarEvento(servicos.eventService);
+            servicos.inscrever(evento, "a@exemplo.com");
+            servicos.inscrever(evento, "b@exemplo.com");
+        }
+        Path segmento = Journal.caminhoSegmento(diretorio, 1);
+        byte[] conteudo = Files.readAllBytes(segmento);
+        conteudo[20] ^= 0x5A; // Dentro do primeiro registo (o evento)
+        Files.write(segmento, conteudo);
+
+        IOException erro = assertThrows(IOException.class, () -> new Servicos(diretorio).close());
+        assertTrue(erro.getMessage().contains("CRC"), erro.getMessage());
+        assertEquals(conteudo.length, Files.size(segmento), "o segmento não deve ser truncado");
+    }
+
+    /*
+     * A inscrição fica visível antes de o seu INSCREVER ser registado, por isso um pagamento
+     * concorrente pode chegar primeiro ao journal: o replay não o pode perder.
+     */
+    @Test
+    void pagamentoRegistadoAntesDaInscricao() throws IOException {
+        int idEvento;
+        try (Servicos servicos = new Servicos(diretorio)) {
+            idEvento = criarEvento(servicos.eventService).getIdEvento();
+        }
+
+        Inscricao inscricao = new Inscricao(1, idEvento, "Participante", "pago@exemplo.com", null,
+                TipoInscricao.NAO_ESTUDANTE, null, List.of(), 20f, EstadoInscricao.PAGA, LocalDateTime.now());
+        Pagamento pagamento = new Pagamento(1);
+        pagamento.setValorTransferido(20f);
+        pagamento.setDataTransferencia(LocalDateTime.now());
+        pagamento.setEstado(EstadoPagamento.CONFIRMADO);
+        try (Journal journal = new Journal(diretorio, 2)) {
+            BufferRegisto buffer = new BufferRegisto(256);
+            CodecRegistos.escreverPagamento(buffer.dados, pagamento);
+            journal.registar(TipoOperacao.REGISTAR_PAGAMENTO, buffer.bytes(), buffer.size());
+            buffer.limpar();
+            CodecRegistos.escreverInscricao(buffer.dados, inscricao);
+            journal.registar(TipoOperacao.INSCREVER, buffer.bytes(), buffer.size());
+        }
+
+        try (Servicos recuperados = new Servicos(diretorio)) {
+            Inscricao recuperada = recuperados.inscricaoService.procurarInscricaoPorId(1);
+            assertEquals(EstadoPagamento.CONFIRMADO, recuperada.getPagamento().getEstado());
+            assertEquals(20f, recuperada.getPagamento().getValorTransferido());
+            assertEquals(EstadoInscricao.PAGA, recuperada.getEstado());
+            AgregadosEvento agregados = recuperados.inscricaoService.obterAgregados(idEvento);
+            assertEquals(2000, agregados.getValorTransferidoCentimos());
+            assertEquals(1, agregados.getPorEstadoPagamento().get(EstadoPagamento.CONFIRMADO));
+            assertEquals(0, agregados.getPorEstadoPagamento().getOrDefault(EstadoPagamento.PENDENTE, 0));
+        }
+    }
+
+    // Uma operação confirmada com aguardarOperacoes() já está no ficheiro, sem fechar o journal
+    @Test
+    void operacaoConfirmadaFicaEmDisco() throws IOException {
+        Path copia = Files.createDirectory(diretorio.resolve("copia"));
+        try (Servicos servicos = new Servicos(diretorio.resolve("dados"))) {
+            Event evento = criarEvento(servicos.eventService);
+            servicos.inscrever(evento, "a@exemplo.com");
+            servicos.persistencia.aguardarOperacoes();
+            Files.copy(Journal.caminhoSegmento(diretorio.resolve("dados"), 1), Journal.caminhoSegmento(copia, 1));
+        }
+        try (Servicos recuperados = new Servicos(copia)) {
+            assertEquals(1, recuperados.inscricaoService.contarParticipantes(1));
+        }
+    }
+
+    // Interromper a thread de escrita fecha o journal com erro (não a mata em silêncio)
+    @Test
+    void interrupcaoDaThreadDeEscritaFechaOJournal() throws Exception {
+        Journal journal = new Journal(diretorio, 1);
+        byte[] payload = { 1, 2, 3 };
+        journal.aguardar(journal.registar(TipoOperacao.CANCELAR_INSCRICAO, payload, payload.length));
+
+        Thread escritor = Thread.getAllStackTraces().keySet().stream()
+                .filter(t -> t.getName().equals("eventastic-journal") && t.isAlive())
+                .findFirst().orElseThrow();
+        escritor.interrupt();
+        escritor.join(5_000);
+        assertFalse(escritor.isAlive());
+
+        assertThrows(IllegalStateException.class,
+                () -> journal.registar(TipoOperacao.CANCELAR_INSCRICAO, payload, payload.length));
+        assertThrows(InterruptedIOException.class, journal::close);
+        assertEquals(1, Journal.lerSegmento(Journal.caminhoSegmento(diretorio, 1), (tipo, in) -> { }, true));
+    }
+
+    // As linhas de extrato já reconciliadas continuam a ser ignoradas depois de recuperar (journal e snapshot)
+    @Test
+    void reconciliacaoNaoRepeteLinhasDepoisDeRecuperar() throws IOException {
+        Path extrato = diretorio.resolve("extrato.csv");
+        int idJournal;
+        int idSnapshot;
+        try (Servicos servicos = new Servicos(diretorio)) {
+            Event evento = criarEvento(servicos.eventService);
+            idSnapshot = servicos.inscrever(evento, "snapshot@exemplo.com").getId();
+            Files.writeString(extrato, "2026-01-10;5,00;" + idSnapshot + "\n");
+            servicos.pagamentoService.reconciliarExtrato(extrato.toString());
+            servicos.persistencia.compactar();
+
+            idJournal = servicos.inscrever(evento, "journal@exemplo.com").getId();
+            Files.writeString(extrato, "2026-01-10;5,00;" + idSnapshot + "\n2026-01-11;5,00;" + idJournal + "\n");
+            assertEquals(1, servicos.pagamentoService.reconciliarExtrato(extrato.toString()).getLinhasRepetidas());
+        }
+
+        try (Servicos recuperados = new Servicos(diretorio)) {
+            assertEquals(2, recuperados.pagamentoService.reconciliarExtrato(extrato.toString()).getLinhasRepetidas());
+            assertEquals(5f, recuperados.inscricaoService.procurarInscricaoPorId(idSnapshot).getPagamento().getValorTransferido());
+            assertEquals(5f, recuperados.inscricaoService.procurarInscricaoPorId(idJournal).getPagamento().getValorTransferido());
+        }
+    }
+
+    // Evento futuro com inscrições abertas hoje (20€ para não estudantes)
+    private static Event criarEvento(EventService eventService) {
+        LocalDate hoje = LocalDate.now();
+        FaseInscricao fase = new FaseInscricao(TipoFase.EARLY, hoje.minusDays(1), hoje.plusDays(10), Map.of(
+                TipoInscricao.ESTUDANTE, new ConfiguracaoPreco(TipoInscricao.ESTUDANTE, 10f),
+                TipoInscricao.NAO_ESTUDANTE, new ConfiguracaoPreco(TipoInscricao.NAO_ESTUDANTE, 20f)));
+        Event evento = eventService.criarEvento("Conferência", "Evento para teste de persistência", "Évora",
+                hoje.plusDays(30), hoje.plusDays(31), LocalTime.of(9, 0), LocalTime.of(18, 0),
+                100, List.of(fase), List.of());
+        assertNotNull(evento);
+        return evento;
+    }
+}
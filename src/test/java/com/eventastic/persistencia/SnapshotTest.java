@@ -0,0 +1,299 @@
+package com.eventastic.persistencia;
+
+import com.eventastic.enums.EstadoInscricao;
+import com.eventastic.enums.EstadoPagamento;
+import com.eventastic.enums.ModoArmazenamento;
+import com.eventastic.enums.TipoFase;
+import com.eventastic.enums.TipoInscricao;
+import com.eventastic.model.AgregadosEvento;
+import com.eventastic.model.ConfiguracaoPreco;
+import com.eventastic.model.Event;
+import com.eventastic.model.FaseInscricao;
+import com.eventastic.model.Inscricao;
+import com.eventastic.model.OpcaoAdicional;
+import com.eventastic.model.Pagamento;
+import com.eventastic.service.EventService;
+import com.eventastic.service.InscricaoService;
+import com.eventastic.service.PagamentoService;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * Formato dos snapshots: várias secções de inscrições descodificadas em paralelo e instaladas pela
+ * ordem dos IDs, pagamentos e linhas de extrato reconciliadas, espaço reservado no cabeçalho que
+ * fica por usar, listas de opções partilhadas, checksums, ficheiros truncados e a versão 1.
+ */
+class SnapshotTest {
+
+    private static final int TAMANHO_BLOCO = 16_384; // Inscrições por bloco do snapshot
+    private static final OpcaoAdicional ALMOCO = new OpcaoAdicional("Almoço", "Almoço no local", 3.5f, false);
+
+    @TempDir
+    Path diretorio;
+
+    private final List<EventService> servicosEventos = new ArrayList<>();
+    private final List<InscricaoService> servicosInscricoes = new ArrayList<>();
+
+    @AfterEach
+    void encerrar() {
+        servicosEventos.forEach(EventService::encerrarNotificacoes);
+        for (InscricaoService inscricaoService : servicosInscricoes) {
+            inscricaoService.encerrarReservas();
+            inscricaoService.encerrarAvisosPromocao();
+        }
+    }
+
+    /*
+     * Mais de dois blocos de IDs, dos quais o último evento (removido) deixa espaço por usar no
+     * cabeçalho: as inscrições, os pagamentos e os totais são iguais depois de ler o snapshot
+     */
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void escreveELeVariosBlocos(ModoArmazenamento modo) throws IOException, InterruptedException {
+        EventService eventService = novoEventService();
+        eventService.setDestinoCancelamentos(lote -> { });
+        InscricaoService inscricaoService = novoInscricaoService(modo);
+        PagamentoService pagamentoService = new PagamentoService(inscricaoService);
+        Event evento = criarEvento(eventService, 2 * TAMANHO_BLOCO);
+        Event removido = criarEvento(eventService, TAMANHO_BLOCO);
+        int numInscricoes = TAMANHO_BLOCO + 100;
+        for (int i = 0; i < numInscricoes; i++) {
+            inscrever(inscricaoService, evento, i, (i % 3 == 0) ? List.of(ALMOCO) : List.of());
+        }
+        for (int i = 0; i < TAMANHO_BLOCO; i++) {
+            inscrever(inscricaoService, removido, i, List.of());
+        }
+        pagamentoService.registarPagamento(1, 23.5f, LocalDateTime.of(2026, 1, 10, 9, 30), "pago");
+        pagamentoService.registarPagamento(2, 5f, LocalDateTime.of(2026, 1, 11, 10, 0), null);
+        Path extrato = diretorio.resolve("extrato.csv");
+        Files.writeString(extrato, "2026-01-12;20,00;" + numInscricoes + "\n");
+        pagamentoService.reconciliarExtrato(extrato.toString());
+        inscricaoService.cancelarInscricao(3, "p2@exemplo.com");
+        eventService.inativarEvento(removido.getIdEvento(), inscricaoService).aguardar();
+        Path ficheiro = diretorio.resolve(Persistencia.FICHEIRO_SNAPSHOT);
+
+        Snapshot.escrever(ficheiro, 7, eventService, inscricaoService);
+        EventService lidoEventos = novoEventService();
+        InscricaoService lidoInscricoes = novoInscricaoService(modo);
+        assertEquals(7, Snapshot.ler(ficheiro, lidoEventos, lidoInscricoes));
+
+        assertEquals(eventService.getNextEventId(), lidoEventos.getNextEventId());
+        assertEquals(inscricaoService.getNextInscricaoId(), lidoInscricoes.getNextInscricaoId());
+        assertEquals(List.of(evento.getIdEvento()),
+                lidoEventos.listarTodosEventos().stream().map(Event::getIdEvento).toList());
+        List<Inscricao> originais = inscricaoService.obterListaParticipantes(evento.getIdEvento());
+        List<Inscricao> lidas = lidoInscricoes.obterListaParticipantes(evento.getIdEvento());
+        assertEquals(numInscricoes, lidas.size());
+        for (int i = 0; i < numInscricoes; i++) {
+            assertMesmaInscricao(originais.get(i), lidas.get(i));
+        }
+        assertEquals(EstadoInscricao.CANCELADA, lidas.get(2).getEstado());
+        assertEquals(EstadoPagamento.CONFIRMADO, lidas.get(numInscricoes - 1).getPagamento().getEstado());
+        assertEquals(1, lidas.get(numInscricoes - 1).getPagamento().getTransferenciasReconciliadas().length);
+        assertMesmosTotais(inscricaoService.obterAgregados(evento.getIdEvento()),
+                lidoInscricoes.obterAgregados(evento.getIdEvento()));
+        assertEquals(0, lidoInscricoes.contarParticipantes(removido.getIdEvento()));
+    }
+
+    // Inscrições com as mesmas opções partilham a mesma lista depois de ler (modo de objetos)
+    @Test
+    void listasDeOpcoesIguaisPartilhadas() throws IOException {
+        EventService eventService = novoEventService();
+        InscricaoService inscricaoService = novoInscricaoService(ModoArmazenamento.OBJETOS);
+        Event evento = criarEvento(eventService, 10);
+        for (int i = 0; i < 4; i++) {
+            inscrever(inscricaoService, evento, i, (i < 3) ? List.of(ALMOCO) : List.of());
+        }
+        Path ficheiro = diretorio.resolve(Persistencia.FICHEIRO_SNAPSHOT);
+        Snapshot.escrever(ficheiro, 1, eventService, inscricaoService);
+
+        InscricaoService lidoInscricoes = novoInscricaoService(ModoArmazenamento.OBJETOS);
+        Snapshot.ler(ficheiro, novoEventService(), lidoInscricoes);
+
+        List<Inscricao> lidas = lidoInscricoes.obterListaParticipantes(evento.getIdEvento());
+        assertSame(lidas.get(0).getOpcoesEscolhidas(), lidas.get(1).getOpcoesEscolhidas());
+        assertSame(lidas.get(0).getOpcoesEscolhidas(), lidas.get(2).getOpcoesEscolhidas());
+        assertEquals(List.of(), lidas.get(3).getOpcoesEscolhidas());
+    }
+
+    // Um byte alterado numa secção é detetado pelo checksum
+    @Test
+    void checksumErradoRejeitado() throws IOException {
+        Path ficheiro = escreverSnapshotPequeno();
+        try (FileChannel canal = FileChannel.open(ficheiro, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long ultimo = canal.size() - 1;
+            ByteBuffer byteFinal = ByteBuffer.allocate(1);
+            canal.read(byteFinal, ultimo);
+            byteFinal.put(0, (byte) (byteFinal.get(0) ^ 0x5a)).rewind();
+            canal.write(byteFinal, ultimo);
+        }
+
+        IOException erro = assertThrows(IOException.class, () -> Snapshot.ler(ficheiro, novoEventService(),
+                novoInscricaoService(ModoArmazenamento.OBJETOS)));
+        assertTrue(erro.getMessage().contains("corrompido"), erro.getMessage());
+    }
+
+    // Um ficheiro cortado a meio de uma secção é rejeitado
+    @Test
+    void snapshotTruncadoRejeitado() throws IOException {
+        Path ficheiro = escreverSnapshotPequeno();
+        try (FileChannel canal = FileChannel.open(ficheiro, StandardOpenOption.WRITE)) {
+            canal.truncate(canal.size() - 10);
+        }
+
+        assertThrows(EOFException.class, () -> Snapshot.ler(ficheiro, novoEventService(),
+                novoInscricaoService(ModoArmazenamento.OBJETOS)));
+    }
+
+    // Outro magic ou uma versão desconhecida são rejeitados
+    @Test
+    void magicOuVersaoDesconhecidosRejeitados() throws IOException {
+        Path ficheiro = diretorio.resolve(Persistencia.FICHEIRO_SNAPSHOT);
+        Files.write(ficheiro, ByteBuffer.allocate(8).putInt(0x45565453).putInt(99).array());
+        IOException erro = assertThrows(IOException.class, () -> Snapshot.ler(ficheiro, novoEventService(),
+                novoInscricaoService(ModoArmazenamento.OBJETOS)));
+        assertTrue(erro.getMessage().contains("99"), erro.getMessage());
+
+        Files.write(ficheiro, ByteBuffer.allocate(8).putInt(0x12345678).putInt(3).array());
+        assertThrows(IOException.class, () -> Snapshot.ler(ficheiro, novoEventService(),
+                novoInscricaoService(ModoArmazenamento.OBJETOS)));
+    }
+
+    // O formato sequencial (versão 1) continua a ser lido, com os pagamentos aplicados às inscrições
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void leVersaoSequencial(ModoArmazenamento modo) throws IOException {
+        EventService eventService = novoEventService();
+        InscricaoService inscricaoService = novoInscricaoService(modo);
+        PagamentoService pagamentoService = new PagamentoService(inscricaoService);
+        Event evento = criarEvento(eventService, 10);
+        for (int i = 0; i < 3; i++) {
+            inscrever(inscricaoService, evento, i, List.of());
+        }
+        pagamentoService.registarPagamento(2, 20f, LocalDateTime.of(2026, 1, 10, 9, 30), "pago");
+        List<Inscricao> originais = inscricaoService.obterListaParticipantes(evento.getIdEvento());
+        Path ficheiro = diretorio.resolve(Persistencia.FICHEIRO_SNAPSHOT);
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(ficheiro))) {
+            out.writeInt(0x45565453);
+            out.writeInt(1);
+            out.writeInt(4); // Segmento inicial
+            out.writeInt(eventService.getNextEventId());
+            out.writeInt(inscricaoService.getNextInscricaoId());
+            out.writeInt(1);
+            CodecRegistos.escreverEvento(out, evento);
+            out.writeInt(originais.size());
+            for (Inscricao inscricao : originais) {
+                CodecRegistos.escreverInscricao(out, inscricao);
+                CodecRegistos.escreverPagamento(out, inscricao.getPagamento());
+            }
+        }
+
+        EventService lidoEventos = novoEventService();
+        InscricaoService lidoInscricoes = novoInscricaoService(modo);
+        assertEquals(4, Snapshot.ler(ficheiro, lidoEventos, lidoInscricoes));
+
+        assertEquals(inscricaoService.getNextInscricaoId(), lidoInscricoes.getNextInscricaoId());
+        List<Inscricao> lidas = lidoInscricoes.obterListaParticipantes(evento.getIdEvento());
+        assertEquals(3, lidas.size());
+        for (int i = 0; i < 3; i++) {
+            assertMesmaInscricao(originais.get(i), lidas.get(i));
+        }
+        assertEquals(EstadoInscricao.PAGA, lidas.get(1).getEstado());
+        assertMesmosTotais(inscricaoService.obterAgregados(evento.getIdEvento()),
+                lidoInscricoes.obterAgregados(evento.getIdEvento()));
+    }
+
+    private Path escreverSnapshotPequeno() throws IOException {
+        EventService eventService = novoEventService();
+        InscricaoService inscricaoService = novoInscricaoService(ModoArmazenamento.OBJETOS);
+        Event evento = criarEvento(eventService, 10);
+        for (int i = 0; i < 5; i++) {
+            inscrever(inscricaoService, evento, i, List.of());
+        }
+        Path ficheiro = diretorio.resolve(Persistencia.FICHEIRO_SNAPSHOT);
+        Snapshot.escrever(ficheiro, 1, eventService, inscricaoService);
+        return ficheiro;
+    }
+
+    private EventService novoEventService() {
+        EventService eventService = new EventService();
+        servicosEventos.add(eventService);
+        return eventService;
+    }
+
+    private InscricaoService novoInscricaoService(ModoArmazenamento modo) {
+        InscricaoService inscricaoService = new InscricaoService(modo);
+        servicosInscricoes.add(inscricaoService);
+        return inscricaoService;
+    }
+
+    private static void inscrever(InscricaoService inscricaoService, Event evento, int i, List<OpcaoAdicional> opcoes) {
+        inscricaoService.inscrever(evento, "Participante " + i, "p" + i + "@exemplo.com",
+                (i % 2 == 0) ? 100_000_000 + i : null, TipoInscricao.NAO_ESTUDANTE, null, opcoes);
+    }
+
+    private static void assertMesmaInscricao(Inscricao esperada, Inscricao lida) {
+        assertEquals(esperada.getId(), lida.getId());
+        assertEquals(esperada.getIdEvento(), lida.getIdEvento());
+        assertEquals(esperada.getNome(), lida.getNome());
+        assertEquals(esperada.getEmail(), lida.getEmail());
+        assertEquals(esperada.getNif(), lida.getNif());
+        assertEquals(esperada.getTipoInscricao(), lida.getTipoInscricao());
+        assertEquals(esperada.getValorTotalCentimos(), lida.getValorTotalCentimos());
+        assertEquals(esperada.getEstado(), lida.getEstado());
+        assertEquals(esperada.getDataCriacao(), lida.getDataCriacao());
+        assertEquals(esperada.getOpcoesEscolhidas().size(), lida.getOpcoesEscolhidas().size());
+        Pagamento pagamento = esperada.getPagamento();
+        Pagamento pagamentoLido = lida.getPagamento();
+        assertEquals(pagamento.getValorTransferido(), pagamentoLido.getValorTransferido());
+        assertEquals(pagamento.getDataTransferencia(), pagamentoLido.getDataTransferencia());
+        assertEquals(pagamento.getNotasInternas(), pagamentoLido.getNotasInternas());
+        assertEquals(pagamento.getEstado(), pagamentoLido.getEstado());
+        assertArrayEquals(pagamento.getTransferenciasReconciliadas(), pagamentoLido.getTransferenciasReconciliadas());
+    }
+
+    private static void assertMesmosTotais(AgregadosEvento esperados, AgregadosEvento lidos) {
+        assertEquals(esperados.getNumInscricoes(), lidos.getNumInscricoes());
+        assertEquals(esperados.getValorEsperadoCentimos(), lidos.getValorEsperadoCentimos());
+        assertEquals(esperados.getValorTransferidoCentimos(), lidos.getValorTransferidoCentimos());
+        assertEquals(esperados.getPorEstadoInscricao(), lidos.getPorEstadoInscricao());
+        assertEquals(esperados.getPorEstadoPagamento(), lidos.getPorEstadoPagamento());
+        assertEquals(esperados.getPorTipoInscricao(), lidos.getPorTipoInscricao());
+    }
+
+    // Evento futuro com inscrições abertas hoje (20€ para não estudantes, almoço opcional de 3,50€)
+    private static Event criarEvento(EventService eventService, int maxParticipantes) {
+        LocalDate hoje = LocalDate.now();
+        FaseInscricao fase = new FaseInscricao(TipoFase.EARLY, hoje.minusDays(1), hoje.plusDays(10), Map.of(
+                TipoInscricao.ESTUDANTE, new ConfiguracaoPreco(TipoInscricao.ESTUDANTE, 10f),
+                TipoInscricao.NAO_ESTUDANTE, new ConfiguracaoPreco(TipoInscricao.NAO_ESTUDANTE, 20f)));
+        return eventService.criarEvento("Conferência", "Evento para teste do snapshot", "Coimbra",
+                hoje.plusDays(30), hoje.plusDays(31), LocalTime.of(9, 0), LocalTime.of(18, 0),
+                maxParticipantes, List.of(fase), List.of(ALMOCO));
+    }
+}
@@ -0,0 +1,209 @@
+package com.eventastic.service;
+
+import com.eventastic.enums.EstadoInscricao;
+import com.eventastic.enums.EstadoPagamento;
+import com.eventastic.enums.ModoArmazenamento;
+import com.eventastic.enums.TipoFase;
+import com.eventastic.enums.TipoInscricao;
+import com.eventastic.model.AgregadosEvento;
+import com.eventastic.model.ConfiguracaoPreco;
+import com.eventastic.model.Event;
+import com.eventastic.model.FaseInscricao;
+import com.eventastic.model.Inscricao;
+import com.eventastic.model.Pagamento;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/*
+ * Totais por evento mantidos a cada pagamento: a transição do EstadoPagamento (e do estado da
+ * inscrição) conforme o valor transferido cobre ou não o total, a reconciliação de extratos, o
+ * cancelamento e a reposição quando o registo do pagamento falha. Corre nos dois modos de armazenamento.
+ */
+class AgregadosEventoTest {
+
+    @TempDir
+    Path diretorio;
+
+    private InscricaoService inscricaoService;
+    private PagamentoService pagamentoService;
+    private Event evento;
+
+    private void iniciar(ModoArmazenamento modo) {
+        inscricaoService = new InscricaoService(modo);
+        pagamentoService = new PagamentoService(inscricaoService);
+        evento = criarEvento(new EventService());
+    }
+
+    @AfterEach
+    void encerrar() {
+        inscricaoService.encerrarReservas();
+        inscricaoService.encerrarAvisosPromocao();
+    }
+
+    // Um pagamento parcial fica PENDENTE; o valor completo passa a CONFIRMADO e a inscrição a PAGA
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void pagamentoCompletoConfirma(ModoArmazenamento modo) {
+        iniciar(modo);
+        Inscricao inscricao = inscrever("a@exemplo.com");
+        inscrever("b@exemplo.com");
+
+        pagamentoService.registarPagamento(inscricao.getId(), 12.5f, LocalDateTime.now(), null);
+        assertEstados(inscricao.getId(), EstadoPagamento.PENDENTE, EstadoInscricao.PENDENTE_PAGAMENTO);
+        AgregadosEvento agregados = inscricaoService.obterAgregados(evento.getIdEvento());
+        assertEquals(4000, agregados.getValorEsperadoCentimos());
+        assertEquals(1250, agregados.getValorTransferidoCentimos());
+        assertEquals(2, contar(agregados.getPorEstadoPagamento(), EstadoPagamento.PENDENTE));
+
+        pagamentoService.registarPagamento(inscricao.getId(), 20f, LocalDateTime.now(), "transferência completa");
+        assertEstados(inscricao.getId(), EstadoPagamento.CONFIRMADO, EstadoInscricao.PAGA);
+        agregados = inscricaoService.obterAgregados(evento.getIdEvento());
+        assertEquals(2000, agregados.getValorTransferidoCentimos());
+        assertEquals(1, contar(agregados.getPorEstadoPagamento(), EstadoPagamento.CONFIRMADO));
+        assertEquals(1, contar(agregados.getPorEstadoPagamento(), EstadoPagamento.PENDENTE));
+        assertEquals(1, contar(agregados.getPorEstadoInscricao(), EstadoInscricao.PAGA));
+        assertEquals(1, contar(agregados.getPorEstadoInscricao(), EstadoInscricao.PENDENTE_PAGAMENTO));
+    }
+
+    // Corrigir o valor para baixo do total volta a PENDENTE / PENDENTE_PAGAMENTO e move as contagens
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void valorCorrigidoParaBaixoVoltaAPendente(ModoArmazenamento modo) {
+        iniciar(modo);
+        Inscricao inscricao = inscrever("a@exemplo.com");
+        pagamentoService.registarPagamento(inscricao.getId(), 20f, LocalDateTime.now(), null);
+        pagamentoService.registarPagamento(inscricao.getId(), 19.99f, LocalDateTime.now(), null);
+
+        assertEstados(inscricao.getId(), EstadoPagamento.PENDENTE, EstadoInscricao.PENDENTE_PAGAMENTO);
+        AgregadosEvento agregados = inscricaoService.obterAgregados(evento.getIdEvento());
+        assertEquals(1999, agregados.getValorTransferidoCentimos());
+        assertEquals(0, contar(agregados.getPorEstadoPagamento(), EstadoPagamento.CONFIRMADO));
+        assertEquals(1, contar(agregados.getPorEstadoPagamento(), EstadoPagamento.PENDENTE));
+        assertEquals(0, contar(agregados.getPorEstadoInscricao(), EstadoInscricao.PAGA));
+    }
+
+    // As transferências do extrato somam-se ao valor já transferido e atualizam os totais
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void reconciliacaoAtualizaTotais(ModoArmazenamento modo) throws IOException {
+        iniciar(modo);
+        Inscricao parcial = inscrever("a@exemplo.com");
+        Inscricao paga = inscrever("b@exemplo.com");
+        pagamentoService.registarPagamento(paga.getId(), 5f, LocalDateTime.now(), null);
+        Path extrato = diretorio.resolve("extrato.csv");
+        Files.writeString(extrato, "data;valor;descricao\n"
+                + "2026-01-10;10,00;" + parcial.getId() + "\n"
+                + "2026-01-11;15.00;" + paga.getDescricaoTransferencia() + "\n");
+
+        pagamentoService.reconciliarExtrato(extrato.toString());
+
+        assertEstados(parcial.getId(), EstadoPagamento.PENDENTE, EstadoInscricao.PENDENTE_PAGAMENTO);
+        assertEstados(paga.getId(), EstadoPagamento.CONFIRMADO, EstadoInscricao.PAGA);
+        AgregadosEvento agregados = inscricaoService.obterAgregados(evento.getIdEvento());
+        assertEquals(3000, agregados.getValorTransferidoCentimos());
+        assertEquals(1, contar(agregados.getPorEstadoPagamento(), EstadoPagamento.CONFIRMADO));
+        assertEquals(1, contar(agregados.getPorEstadoPagamento(), EstadoPagamento.PENDENTE));
+    }
+
+    // Um pagamento de uma inscrição cancelada não a torna PAGA; o cancelamento tira-a dos totais esperados
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void cancelamentoDepoisDoPagamento(ModoArmazenamento modo) {
+        iniciar(modo);
+        Inscricao inscricao = inscrever("a@exemplo.com");
+        pagamentoService.registarPagamento(inscricao.getId(), 20f, LocalDateTime.now(), null);
+        inscricaoService.cancelarInscricao(inscricao.getId(), "a@exemplo.com");
+        pagamentoService.registarPagamento(inscricao.getId(), 25f, LocalDateTime.now(), "reembolso pendente");
+
+        assertEstados(inscricao.getId(), EstadoPagamento.CONFIRMADO, EstadoInscricao.CANCELADA);
+        AgregadosEvento agregados = inscricaoService.obterAgregados(evento.getIdEvento());
+        assertEquals(1, contar(agregados.getPorEstadoInscricao(), EstadoInscricao.CANCELADA));
+        assertEquals(0, contar(agregados.getPorEstadoInscricao(), EstadoInscricao.PAGA));
+        assertEquals(2500, agregados.getValorTransferidoCentimos());
+    }
+
+    // Se o registo do pagamento falhar, o pagamento, o estado e os totais ficam como estavam
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void registoFalhadoRepoeEstado(ModoArmazenamento modo) {
+        iniciar(modo);
+        Inscricao inscricao = inscrever("a@exemplo.com");
+        pagamentoService.registarPagamento(inscricao.getId(), 5f, LocalDateTime.now(), "primeira");
+        AgregadosEvento antes = inscricaoService.obterAgregados(evento.getIdEvento());
+        inscricaoService.setRegistoOperacoes(new RegistoOperacoes() {
+            @Override
+            public void pagamentoAtualizado(Pagamento pagamento) {
+                throw new IllegalStateException("Journal fechado");
+            }
+        });
+
+        assertThrows(IllegalStateException.class,
+                () -> pagamentoService.registarPagamento(inscricao.getId(), 20f, LocalDateTime.now(), "segunda"));
+
+        assertEstados(inscricao.getId(), EstadoPagamento.PENDENTE, EstadoInscricao.PENDENTE_PAGAMENTO);
+        Pagamento pagamento = inscricaoService.procurarInscricaoPorId(inscricao.getId()).getPagamento();
+        assertEquals(5f, pagamento.getValorTransferido());
+        assertEquals("primeira", pagamento.getNotasInternas());
+        AgregadosEvento depois = inscricaoService.obterAgregados(evento.getIdEvento());
+        assertEquals(antes.getValorTransferidoCentimos(), depois.getValorTransferidoCentimos());
+        assertEquals(antes.getPorEstadoPagamento(), depois.getPorEstadoPagamento());
+        assertEquals(antes.getPorEstadoInscricao(), depois.getPorEstadoInscricao());
+    }
+
+    // Um pagamento sem data é rejeitado antes de alterar o que quer que seja
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void pagamentoSemDataRejeitado(ModoArmazenamento modo) {
+        iniciar(modo);
+        Inscricao inscricao = inscrever("a@exemplo.com");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> pagamentoService.registarPagamento(inscricao.getId(), 20f, null, null));
+        assertNull(inscricaoService.procurarInscricaoPorId(inscricao.getId()).getPagamento().getDataTransferencia());
+        assertEquals(0, inscricaoService.obterAgregados(evento.getIdEvento()).getValorTransferidoCentimos());
+    }
+
+    private Inscricao inscrever(String email) {
+        return inscricaoService.inscrever(evento, "Participante", email, null,
+                TipoInscricao.NAO_ESTUDANTE, null, List.of());
+    }
+
+    private void assertEstados(int idInscricao, EstadoPagamento estadoPagamento, EstadoInscricao estadoInscricao) {
+        Inscricao inscricao = inscricaoService.procurarInscricaoPorId(idInscricao);
+        assertEquals(estadoPagamento, inscricao.getPagamento().getEstado());
+        assertEquals(estadoInscricao, inscricao.getEstado());
+    }
+
+    private static <K> int contar(Map<K, Integer> contagens, K chave) {
+        return contagens.getOrDefault(chave, 0);
+    }
+
+    // Evento futuro com inscrições abertas hoje (20€ para não estudantes)
+    private static Event criarEvento(EventService eventService) {
+        LocalDate hoje = LocalDate.now();
+        FaseInscricao fase = new FaseInscricao(TipoFase.EARLY, hoje.minusDays(1), hoje.plusDays(10), Map.of(
+                TipoInscricao.ESTUDANTE, new ConfiguracaoPreco(TipoInscricao.ESTUDANTE, 10f),
+                TipoInscricao.NAO_ESTUDANTE, new ConfiguracaoPreco(TipoInscricao.NAO_ESTUDANTE, 20f)));
+        Event evento = eventService.criarEvento("Conferência", "Evento para teste dos totais", "Porto",
+                hoje.plusDays(30), hoje.plusDays(31), LocalTime.of(9, 0), LocalTime.of(18, 0),
+                100, List.of(fase), List.of());
+        eventService.encerrarNotificacoes();
+        return evento;
+    }
+}
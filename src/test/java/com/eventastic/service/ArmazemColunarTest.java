@@ -0,0 +1,212 @@
+package com.eventastic.service;
+
+import com.eventastic.enums.EstadoInscricao;
+import com.eventastic.enums.EstadoPagamento;
+import com.eventastic.enums.TipoInscricao;
+import com.eventastic.model.Inscricao;
+import com.eventastic.model.OpcaoAdicional;
+import com.eventastic.model.Pagamento;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * Armazém colunar: cada campo guardado é lido de volta igual (textos UTF-8, e-mails com e sem
+ * domínio, datas com nanossegundos e antes de 1970, perfis e pagamentos), as alterações só ficam
+ * guardadas através de atualizar(), os IDs de blocos diferentes não se misturam e um bloco cheio
+ * é libertado quando todas as suas inscrições são removidas.
+ */
+class ArmazemColunarTest {
+
+    private static final int TAMANHO_BLOCO = 4096;
+    private static final OpcaoAdicional ALMOCO = new OpcaoAdicional("Almoço", "Almoço no local", 3.5f, false);
+    private static final OpcaoAdicional JANTAR = new OpcaoAdicional("Jantar", "Jantar de gala", 25f, false);
+
+    // Todos os campos da inscrição são lidos de volta iguais
+    @Test
+    void guardaELeTodosOsCampos() {
+        ArmazemColunar armazem = new ArmazemColunar();
+        LocalDateTime data = LocalDateTime.of(2024, 5, 17, 9, 30, 15, 123_456_789);
+        Inscricao estudante = new Inscricao(1, 7, "José Conceição 日本", "jose.conceicao@universidade.pt", 123456789,
+                TipoInscricao.ESTUDANTE, 58123, List.of(ALMOCO, JANTAR), 10f, EstadoInscricao.PENDENTE_PAGAMENTO, data);
+        Inscricao semDominio = new Inscricao(2, 7, "Ana", "ana-sem-dominio", null, TipoInscricao.NAO_ESTUDANTE,
+                null, List.of(), 20f, EstadoInscricao.CANCELADA, LocalDateTime.of(1950, 1, 1, 10, 0, 0, 1));
+        Inscricao doisArrobas = new Inscricao(3, 8, "Rui", "rui@interno@exemplo.com", null, TipoInscricao.NAO_ESTUDANTE,
+                null, List.of(ALMOCO), 20f, EstadoInscricao.PENDENTE_PAGAMENTO, data);
+
+        armazem.guardar(estudante);
+        armazem.guardar(semDominio);
+        armazem.guardar(doisArrobas);
+
+        assertMesmaInscricao(estudante, armazem.obter(1));
+        assertMesmaInscricao(semDominio, armazem.obter(2));
+        assertMesmaInscricao(doisArrobas, armazem.obter(3));
+        assertEquals("ana-sem-dominio", armazem.obterEmail(2));
+        assertEquals("rui@interno@exemplo.com", armazem.obterEmail(3));
+        assertTrue(armazem.temEmail(1, "jose.conceicao@universidade.pt"));
+        assertFalse(armazem.temEmail(1, "JOSE.CONCEICAO@universidade.pt"));
+        assertNull(armazem.obter(4));
+        assertNull(armazem.obterEmail(4));
+        assertFalse(armazem.contem(4));
+    }
+
+    // O pagamento guardado com a inscrição (restaurada do disco) é lido de volta
+    @Test
+    void guardaPagamentoJaRegistado() {
+        ArmazemColunar armazem = new ArmazemColunar();
+        Inscricao paga = inscricao(1, "paga@exemplo.com");
+        LocalDateTime dataTransferencia = LocalDateTime.of(2024, 6, 1, 14, 0);
+        paga.getPagamento().setValorTransferido(20f);
+        paga.getPagamento().setDataTransferencia(dataTransferencia);
+        paga.getPagamento().setNotasInternas("Pago por extrato");
+        paga.getPagamento().setEstado(EstadoPagamento.CONFIRMADO);
+        paga.getPagamento().setTransferenciasReconciliadas(new long[] {42L, -7L});
+        paga.setEstado(EstadoInscricao.PAGA);
+
+        armazem.guardar(paga);
+        armazem.guardar(inscricao(2, "pendente@exemplo.com"));
+
+        Pagamento lido = armazem.obter(1).getPagamento();
+        assertEquals(20f, lido.getValorTransferido());
+        assertEquals(dataTransferencia, lido.getDataTransferencia());
+        assertEquals("Pago por extrato", lido.getNotasInternas());
+        assertEquals(EstadoPagamento.CONFIRMADO, lido.getEstado());
+        assertArrayEquals(new long[] {-7L, 42L}, lido.getTransferenciasReconciliadas());
+        assertEquals(EstadoInscricao.PAGA, armazem.obter(1).getEstado());
+        Pagamento pendente = armazem.obter(2).getPagamento();
+        assertEquals(0f, pendente.getValorTransferido());
+        assertNull(pendente.getDataTransferencia());
+        assertNull(pendente.getNotasInternas());
+        assertFalse(pendente.temTransferenciasReconciliadas());
+    }
+
+    // obter() devolve uma vista: só as alterações feitas em atualizar() ficam guardadas
+    @Test
+    void alteracoesSoPorAtualizar() {
+        ArmazemColunar armazem = new ArmazemColunar();
+        armazem.guardar(inscricao(1, "a@exemplo.com"));
+
+        Inscricao vista = armazem.obter(1);
+        vista.setEstado(EstadoInscricao.PAGA);
+        vista.getPagamento().setValorTransferido(5f);
+        assertEquals(EstadoInscricao.PENDENTE_PAGAMENTO, armazem.obter(1).getEstado());
+        assertEquals(0f, armazem.obter(1).getPagamento().getValorTransferido());
+
+        String resultado = armazem.atualizar(1, inscricao -> {
+            inscricao.getPagamento().setValorTransferido(20f);
+            inscricao.getPagamento().setEstado(EstadoPagamento.CONFIRMADO);
+            inscricao.getPagamento().setTransferenciasReconciliadas(new long[] {3L});
+            inscricao.setEstado(EstadoInscricao.PAGA);
+            return "alterada";
+        });
+        assertEquals("alterada", resultado);
+        Inscricao lida = armazem.obter(1);
+        assertEquals(EstadoInscricao.PAGA, lida.getEstado());
+        assertEquals(EstadoPagamento.CONFIRMADO, lida.getPagamento().getEstado());
+        assertEquals(20f, lida.getPagamento().getValorTransferido());
+        assertTrue(lida.getPagamento().isTransferenciaReconciliada(3L));
+        assertEquals(TipoInscricao.NAO_ESTUDANTE, lida.getTipoInscricao()); // Os restantes bits do estado mantêm-se
+
+        armazem.atualizar(1, inscricao -> {
+            inscricao.getPagamento().setTransferenciasReconciliadas(new long[0]);
+            return null;
+        });
+        assertFalse(armazem.obter(1).getPagamento().temTransferenciasReconciliadas());
+        assertNull(armazem.atualizar(2, inscricao -> "inexistente"));
+    }
+
+    // IDs nas fronteiras dos blocos ficam cada um na sua posição
+    @Test
+    void idsEmBlocosDiferentes() {
+        ArmazemColunar armazem = new ArmazemColunar();
+        int[] ids = {1, TAMANHO_BLOCO - 1, TAMANHO_BLOCO, TAMANHO_BLOCO + 1, 3 * TAMANHO_BLOCO + 17, Integer.MAX_VALUE};
+        for (int id : ids) {
+            armazem.guardar(inscricao(id, "p" + id + "@exemplo.com"));
+        }
+
+        for (int id : ids) {
+            assertTrue(armazem.contem(id));
+            assertEquals(id, armazem.obter(id).getId());
+            assertEquals("p" + id + "@exemplo.com", armazem.obterEmail(id));
+        }
+        assertFalse(armazem.contem(2 * TAMANHO_BLOCO));
+        assertFalse(armazem.contem(-1));
+        assertNull(armazem.obter(TAMANHO_BLOCO + 2));
+        assertThrows(IllegalArgumentException.class, () -> armazem.guardar(inscricao(0, "zero@exemplo.com")));
+    }
+
+    // Um bloco cheio é libertado quando fica vazio; os IDs seguintes voltam a criar o bloco
+    @Test
+    void blocoCheioLibertadoAoFicarVazio() {
+        ArmazemColunar armazem = new ArmazemColunar();
+        for (int id = TAMANHO_BLOCO; id < 2 * TAMANHO_BLOCO; id++) {
+            armazem.guardar(inscricao(id, "p" + id + "@exemplo.com"));
+        }
+        armazem.guardar(inscricao(2 * TAMANHO_BLOCO, "seguinte@exemplo.com"));
+
+        for (int id = TAMANHO_BLOCO; id < 2 * TAMANHO_BLOCO - 1; id++) {
+            armazem.remover(id);
+        }
+        assertTrue(armazem.contem(2 * TAMANHO_BLOCO - 1));
+        assertEquals("p" + (2 * TAMANHO_BLOCO - 1) + "@exemplo.com", armazem.obterEmail(2 * TAMANHO_BLOCO - 1));
+        armazem.remover(2 * TAMANHO_BLOCO - 1);
+        armazem.remover(2 * TAMANHO_BLOCO - 1); // Remover duas vezes não altera a contagem
+
+        assertFalse(armazem.contem(TAMANHO_BLOCO));
+        assertNull(armazem.obter(2 * TAMANHO_BLOCO - 1));
+        assertNull(armazem.atualizar(TAMANHO_BLOCO, inscricao -> "removida"));
+        assertTrue(armazem.contem(2 * TAMANHO_BLOCO));
+        armazem.guardar(inscricao(TAMANHO_BLOCO, "de.novo@exemplo.com"));
+        assertEquals("de.novo@exemplo.com", armazem.obterEmail(TAMANHO_BLOCO));
+    }
+
+    // Inscrições com o mesmo evento, preço e opções partilham as opções descodificadas
+    @Test
+    void perfisPartilhados() {
+        ArmazemColunar armazem = new ArmazemColunar();
+        LocalDateTime data = LocalDateTime.of(2024, 5, 17, 9, 30);
+        armazem.guardar(new Inscricao(1, 7, "A", "a@exemplo.com", null, TipoInscricao.NAO_ESTUDANTE, null,
+                List.of(ALMOCO), 20f, EstadoInscricao.PENDENTE_PAGAMENTO, data));
+        armazem.guardar(new Inscricao(2, 7, "B", "b@exemplo.com", null, TipoInscricao.NAO_ESTUDANTE, null,
+                List.of(new OpcaoAdicional("Almoço", "Almoço no local", 3.5f, false)), 20f,
+                EstadoInscricao.PENDENTE_PAGAMENTO, data));
+        armazem.guardar(new Inscricao(3, 8, "C", "c@exemplo.com", null, TipoInscricao.NAO_ESTUDANTE, null,
+                List.of(ALMOCO), 20f, EstadoInscricao.PENDENTE_PAGAMENTO, data));
+
+        assertSame(armazem.obter(1).getOpcoesEscolhidas(), armazem.obter(2).getOpcoesEscolhidas());
+        assertEquals(8, armazem.obter(3).getIdEvento());
+        assertEquals(2350, armazem.obter(3).getValorTotalCentimos());
+    }
+
+    private static Inscricao inscricao(int id, String email) {
+        return new Inscricao(id, 1, "Participante " + id, email, null, TipoInscricao.NAO_ESTUDANTE, null,
+                List.of(), 20f, EstadoInscricao.PENDENTE_PAGAMENTO, LocalDateTime.of(2024, 5, 17, 9, 30));
+    }
+
+    private static void assertMesmaInscricao(Inscricao esperada, Inscricao lida) {
+        assertEquals(esperada.getId(), lida.getId());
+        assertEquals(esperada.getIdEvento(), lida.getIdEvento());
+        assertEquals(esperada.getNome(), lida.getNome());
+        assertEquals(esperada.getEmail(), lida.getEmail());
+        assertEquals(esperada.getNif(), lida.getNif());
+        assertEquals(esperada.getTipoInscricao(), lida.getTipoInscricao());
+        assertEquals(esperada.getNumAluno(), lida.getNumAluno());
+        assertEquals(esperada.getPrecoFase(), lida.getPrecoFase());
+        assertEquals(esperada.getValorTotalCentimos(), lida.getValorTotalCentimos());
+        assertEquals(esperada.getOpcoesEscolhidas().stream().map(OpcaoAdicional::getNome).toList(),
+                lida.getOpcoesEscolhidas().stream().map(OpcaoAdicional::getNome).toList());
+        assertEquals(esperada.getEstado(), lida.getEstado());
+        assertEquals(esperada.getDataCriacao(), lida.getDataCriacao());
+        assertEquals(EstadoPagamento.PENDENTE, lida.getPagamento().getEstado());
+    }
+}
@@ -0,0 +1,211 @@
+package com.eventastic.service;
+
+import com.eventastic.enums.ModoArmazenamento;
+import com.eventastic.enums.TipoFase;
+import com.eventastic.enums.TipoInscricao;
+import com.eventastic.model.ConfiguracaoPreco;
+import com.eventastic.model.Event;
+import com.eventastic.model.FaseInscricao;
+import com.eventastic.model.Inscricao;
+import com.eventastic.model.ReservaLugar;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * Vista dos eventos disponíveis: entre alterações a mesma lista é reutilizada, e cada alteração que
+ * muda a disponibilidade (criar, editar ou inativar um evento, esgotar com inscrições ou reservas,
+ * cancelar, libertar ou deixar expirar uma reserva) aparece na consulta seguinte. O resultado é
+ * sempre igual ao de recalcular a vista do zero.
+ */
+class EventosDisponiveisTest {
+
+    private final List<EventService> servicosEventos = new ArrayList<>();
+    private final List<InscricaoService> servicosInscricoes = new ArrayList<>();
+    private EventService eventService;
+    private InscricaoService inscricaoService;
+
+    private void iniciar(ModoArmazenamento modo) {
+        eventService = novoEventService();
+        inscricaoService = novoInscricaoService(modo);
+    }
+
+    @AfterEach
+    void encerrar() {
+        servicosEventos.forEach(EventService::encerrarNotificacoes);
+        for (InscricaoService servico : servicosInscricoes) {
+            servico.encerrarReservas();
+            servico.encerrarAvisosPromocao();
+        }
+    }
+
+    // Sem alterações a consulta devolve a mesma lista; criar um evento invalida a vista
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void listaReutilizadaAteHaverAlteracoes(ModoArmazenamento modo) {
+        iniciar(modo);
+        Event primeiro = criarEvento(eventService, 5);
+
+        List<Event> inicial = disponiveis();
+        assertSame(inicial, disponiveis());
+        assertEquals(List.of(primeiro.getIdEvento()), ids(inicial));
+
+        Event segundo = criarEvento(eventService, 5);
+        assertEquals(List.of(primeiro.getIdEvento(), segundo.getIdEvento()), ids(disponiveis()));
+    }
+
+    // Esgotar com inscrições tira o evento da vista; cancelar uma inscrição volta a pô-lo
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void esgotarECancelar(ModoArmazenamento modo) {
+        iniciar(modo);
+        Event evento = criarEvento(eventService, 2);
+        Event outro = criarEvento(eventService, 2);
+        disponiveis();
+
+        inscrever(evento, "ana@exemplo.com");
+        assertEquals(List.of(evento.getIdEvento(), outro.getIdEvento()), ids(disponiveis()));
+        Inscricao ultima = inscrever(evento, "rui@exemplo.com");
+        assertEquals(List.of(outro.getIdEvento()), ids(disponiveis()));
+
+        inscricaoService.cancelarInscricao(ultima.getId(), "rui@exemplo.com");
+        assertEquals(List.of(evento.getIdEvento(), outro.getIdEvento()), ids(disponiveis()));
+    }
+
+    // As reservas ocupam vagas: o evento esgotado por reservas volta quando uma é libertada ou expira
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void reservasOcupamVagas(ModoArmazenamento modo) throws InterruptedException {
+        iniciar(modo);
+        Event evento = criarEvento(eventService, 2);
+        disponiveis();
+
+        ReservaLugar longa = inscricaoService.reservarLugar(evento, Duration.ofMinutes(10));
+        inscricaoService.reservarLugar(evento, Duration.ofMillis(150));
+        assertEquals(List.of(), disponiveis());
+
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (disponiveis().isEmpty()) { // A reserva curta expira na thread da roda
+            assertTrue(System.nanoTime() < limite, "Evento não voltou aos disponíveis depois de a reserva expirar");
+            Thread.sleep(20);
+        }
+        assertEquals(List.of(evento.getIdEvento()), ids(disponiveis()));
+
+        inscrever(evento, "ana@exemplo.com");
+        assertEquals(List.of(), disponiveis());
+        inscricaoService.libertarReserva(longa.getIdReserva());
+        assertEquals(List.of(evento.getIdEvento()), ids(disponiveis()));
+    }
+
+    // Editar a lotação e inativar um evento também mudam a vista
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void editarEInativar(ModoArmazenamento modo) throws InterruptedException {
+        iniciar(modo);
+        Event evento = criarEvento(eventService, 1);
+        Event outro = criarEvento(eventService, 1);
+        inscrever(evento, "ana@exemplo.com");
+        assertEquals(List.of(outro.getIdEvento()), ids(disponiveis()));
+
+        eventService.editarEvento(evento.getIdEvento(), evento.getNome(), evento.getDescricao(), evento.getLocal(),
+                evento.getDataInicioEvento(), evento.getDataFimEvento(), evento.getHoraInicioEvento(),
+                evento.getHoraFimEvento(), 2, evento.getFases(), evento.getOpcoes());
+        assertEquals(List.of(evento.getIdEvento(), outro.getIdEvento()), ids(disponiveis()));
+
+        eventService.inativarEvento(outro.getIdEvento(), inscricaoService).aguardar();
+        assertEquals(List.of(evento.getIdEvento()), ids(disponiveis()));
+    }
+
+    // A vista pertence a um InscricaoService: consultar com outro recalcula com as vagas desse serviço
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void outroServicoDeInscricoesRecalcula(ModoArmazenamento modo) {
+        iniciar(modo);
+        Event evento = criarEvento(eventService, 1);
+        inscrever(evento, "ana@exemplo.com");
+        assertEquals(List.of(), disponiveis());
+
+        InscricaoService outroServico = novoInscricaoService(modo);
+        assertEquals(List.of(evento.getIdEvento()), ids(eventService.consultarEventosDisponiveis(outroServico)));
+
+        outroServico.inscrever(evento, "Rui", "rui@exemplo.com", null, TipoInscricao.NAO_ESTUDANTE, null, List.of());
+        assertEquals(List.of(), eventService.consultarEventosDisponiveis(outroServico));
+        assertEquals(List.of(), disponiveis());
+    }
+
+    // Depois de cada alteração a vista tem exatamente os eventos com vagas, pela ordem dos IDs
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void vistaIgualAoRecalculo(ModoArmazenamento modo) {
+        iniciar(modo);
+        List<Event> eventos = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            eventos.add(criarEvento(eventService, 1 + i % 3));
+        }
+        List<Inscricao> inscricoes = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            disponiveis();
+            Event evento = eventos.get((i * 7) % eventos.size());
+            if (inscricaoService.contarLugaresOcupados(evento.getIdEvento()) < evento.getMaxParticipantes()) {
+                inscricoes.add(inscrever(evento, "p" + i + "@exemplo.com"));
+            } else if (!inscricoes.isEmpty()) {
+                Inscricao cancelada = inscricoes.remove(0);
+                inscricaoService.cancelarInscricao(cancelada.getId(), cancelada.getEmail());
+            }
+
+            List<Integer> esperados = eventos.stream()
+                    .filter(e -> inscricaoService.contarLugaresOcupados(e.getIdEvento()) < e.getMaxParticipantes())
+                    .map(Event::getIdEvento)
+                    .toList();
+            assertEquals(esperados, ids(disponiveis()), "alteração " + i);
+        }
+    }
+
+    private List<Event> disponiveis() {
+        return eventService.consultarEventosDisponiveis(inscricaoService);
+    }
+
+    private Inscricao inscrever(Event evento, String email) {
+        return inscricaoService.inscrever(evento, "Participante", email, null, TipoInscricao.NAO_ESTUDANTE, null, List.of());
+    }
+
+    private static List<Integer> ids(List<Event> eventos) {
+        return eventos.stream().map(Event::getIdEvento).toList();
+    }
+
+    private EventService novoEventService() {
+        EventService servico = new EventService();
+        servicosEventos.add(servico);
+        return servico;
+    }
+
+    private InscricaoService novoInscricaoService(ModoArmazenamento modo) {
+        InscricaoService servico = new InscricaoService(modo);
+        servicosInscricoes.add(servico);
+        return servico;
+    }
+
+    // Evento futuro com inscrições abertas hoje e 'maxParticipantes' lugares
+    private static Event criarEvento(EventService eventService, int maxParticipantes) {
+        LocalDate hoje = LocalDate.now();
+        FaseInscricao fase = new FaseInscricao(TipoFase.EARLY, hoje.minusDays(1), hoje.plusDays(10), Map.of(
+                TipoInscricao.ESTUDANTE, new ConfiguracaoPreco(TipoInscricao.ESTUDANTE, 10f),
+                TipoInscricao.NAO_ESTUDANTE, new ConfiguracaoPreco(TipoInscricao.NAO_ESTUDANTE, 20f)));
+        return eventService.criarEvento("Seminário", "Evento para teste dos eventos disponíveis", "Faro",
+                hoje.plusDays(30), hoje.plusDays(31), LocalTime.of(9, 0), LocalTime.of(18, 0),
+                maxParticipantes, List.of(fase), List.of());
+    }
+}
@@ -0,0 +1,175 @@
+package com.eventastic.service;
+
+import com.eventastic.enums.ModoArmazenamento;
+import com.eventastic.enums.TipoFase;
+import com.eventastic.enums.TipoInscricao;
+import com.eventastic.model.ConfiguracaoPreco;
+import com.eventastic.model.Event;
+import com.eventastic.model.FaseInscricao;
+import com.eventastic.model.Inscricao;
+import com.eventastic.model.OpcaoAdicional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/*
+ * Exportação de participantes para CSV: cabeçalho, campos entre aspas (RFC 4180), UTF-8, valores
+ * em cêntimos com ponto decimal, ficheiros maiores que o buffer e a versão comprimida em gzip.
+ * Corre nos dois modos de armazenamento.
+ */
+class ExportacaoCSVTest {
+
+    private static final OpcaoAdicional ALMOCO = new OpcaoAdicional("Almoço", "Almoço no local", 3.5f, false);
+
+    @TempDir
+    Path diretorio;
+
+    private EventService eventService;
+    private InscricaoService inscricaoService;
+    private Event evento;
+
+    private void iniciar(ModoArmazenamento modo) {
+        eventService = new EventService();
+        inscricaoService = new InscricaoService(modo);
+        evento = criarEvento(eventService);
+    }
+
+    @AfterEach
+    void encerrar() {
+        inscricaoService.encerrarReservas();
+        inscricaoService.encerrarAvisosPromocao();
+    }
+
+    // Uma linha por participante, pela ordem de inscrição, com os campos especiais entre aspas
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void exportaCamposComAspasEUtf8(ModoArmazenamento modo) throws IOException {
+        iniciar(modo);
+        Inscricao simples = inscrever("Ana Silva", "ana@exemplo.com", 123456789, List.of());
+        Inscricao virgula = inscrever("Gonçalves, João", "joao@exemplo.com", null, List.of(ALMOCO));
+        Inscricao aspas = inscrever("Maria \"Mimi\" Costa", "maria@exemplo.com", null, List.of());
+        Inscricao quebra = inscrever("Linha\nDupla", "linha@exemplo.com", null, List.of());
+        Path ficheiro = diretorio.resolve("participantes.csv");
+
+        inscricaoService.exportarParticipantesParaCSV(evento.getIdEvento(), ficheiro.toString());
+
+        String esperado = ExportadorCSV.CABECALHO + "\n"
+                + "Ana Silva,ana@exemplo.com,123456789,NAO_ESTUDANTE,20.00,PENDENTE_PAGAMENTO," + simples.getDataCriacao() + "\n"
+                + "\"Gonçalves, João\",joao@exemplo.com,,NAO_ESTUDANTE,23.50,PENDENTE_PAGAMENTO," + virgula.getDataCriacao() + "\n"
+                + "\"Maria \"\"Mimi\"\" Costa\",maria@exemplo.com,,NAO_ESTUDANTE,20.00,PENDENTE_PAGAMENTO,"
+                + aspas.getDataCriacao() + "\n"
+                + "\"Linha\nDupla\",linha@exemplo.com,,NAO_ESTUDANTE,20.00,PENDENTE_PAGAMENTO," + quebra.getDataCriacao() + "\n";
+        assertEquals(esperado, Files.readString(ficheiro, StandardCharsets.UTF_8));
+    }
+
+    // Inscrições canceladas continuam na lista, com o estado CANCELADA
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void inscricaoCanceladaExportadaComEstado(ModoArmazenamento modo) throws IOException {
+        iniciar(modo);
+        inscrever("Ana", "ana@exemplo.com", null, List.of());
+        Inscricao cancelada = inscrever("Rui", "rui@exemplo.com", null, List.of());
+        inscricaoService.cancelarInscricao(cancelada.getId(), "rui@exemplo.com");
+        Path ficheiro = diretorio.resolve("participantes.csv");
+
+        inscricaoService.exportarParticipantesParaCSV(evento.getIdEvento(), ficheiro.toString());
+
+        List<String> linhas = Files.readAllLines(ficheiro, StandardCharsets.UTF_8);
+        assertEquals(3, linhas.size());
+        assertEquals("Rui,rui@exemplo.com,,NAO_ESTUDANTE,20.00,CANCELADA," + cancelada.getDataCriacao(), linhas.get(2));
+    }
+
+    // Milhares de linhas (várias vezes o buffer de 64 KiB) e nomes maiores que o buffer de caracteres inicial
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void ficheiroMaiorQueOBuffer(ModoArmazenamento modo) throws IOException {
+        iniciar(modo);
+        String nomeLongo = "Participante Com Um Nome Muito Comprido Çãé ".repeat(20).trim();
+        int numInscricoes = 3_000;
+        for (int i = 0; i < numInscricoes; i++) {
+            inscrever(nomeLongo + " " + i, "p" + i + "@exemplo.com", null, List.of());
+        }
+        Path ficheiro = diretorio.resolve("participantes.csv");
+
+        inscricaoService.exportarParticipantesParaCSV(evento.getIdEvento(), ficheiro.toString());
+
+        List<String> linhas = Files.readAllLines(ficheiro, StandardCharsets.UTF_8);
+        assertEquals(numInscricoes + 1, linhas.size());
+        for (int i = 0; i < numInscricoes; i++) {
+            String linha = linhas.get(i + 1);
+            assertEquals(nomeLongo + " " + i + ",p" + i + "@exemplo.com", linha.substring(0, linha.indexOf(",,")));
+        }
+    }
+
+    // O ficheiro gzip descomprimido é igual ao CSV sem compressão; exportar de novo substitui o ficheiro
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void gzipIgualAoCsv(ModoArmazenamento modo) throws IOException {
+        iniciar(modo);
+        for (int i = 0; i < 500; i++) {
+            inscrever("Participante " + i, "p" + i + "@exemplo.com", null, (i % 2 == 0) ? List.of(ALMOCO) : List.of());
+        }
+        Path csv = diretorio.resolve("participantes.csv");
+        Path gzip = diretorio.resolve("participantes.csv.gz");
+        Files.writeString(csv, "conteúdo antigo, mais comprido do que o novo ficheiro?".repeat(10_000));
+
+        inscricaoService.exportarParticipantesParaCSV(evento.getIdEvento(), csv.toString());
+        inscricaoService.exportarParticipantesParaCSV(evento.getIdEvento(), gzip.toString(), true);
+
+        byte[] descomprimido;
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(gzip))) {
+            descomprimido = in.readAllBytes();
+        }
+        assertArrayEquals(Files.readAllBytes(csv), descomprimido);
+        assertEquals(501, Files.readAllLines(csv, StandardCharsets.UTF_8).size());
+    }
+
+    // Um evento sem participantes não gera ficheiro
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void eventoSemParticipantesRejeitado(ModoArmazenamento modo) {
+        iniciar(modo);
+        Path ficheiro = diretorio.resolve("participantes.csv");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> inscricaoService.exportarParticipantesParaCSV(evento.getIdEvento(), ficheiro.toString()));
+        assertThrows(IllegalArgumentException.class,
+                () -> inscricaoService.exportarParticipantesParaCSV(999, ficheiro.toString()));
+        assertFalse(Files.exists(ficheiro));
+    }
+
+    private Inscricao inscrever(String nome, String email, Integer nif, List<OpcaoAdicional> opcoes) {
+        return inscricaoService.inscrever(evento, nome, email, nif, TipoInscricao.NAO_ESTUDANTE, null, opcoes);
+    }
+
+    // Evento futuro com inscrições abertas hoje (20€ para não estudantes, almoço opcional de 3,50€)
+    private static Event criarEvento(EventService eventService) {
+        LocalDate hoje = LocalDate.now();
+        FaseInscricao fase = new FaseInscricao(TipoFase.EARLY, hoje.minusDays(1), hoje.plusDays(10), Map.of(
+                TipoInscricao.ESTUDANTE, new ConfiguracaoPreco(TipoInscricao.ESTUDANTE, 10f),
+                TipoInscricao.NAO_ESTUDANTE, new ConfiguracaoPreco(TipoInscricao.NAO_ESTUDANTE, 20f)));
+        Event evento = eventService.criarEvento("Conferência", "Evento para teste da exportação", "Braga",
+                hoje.plusDays(30), hoje.plusDays(31), LocalTime.of(9, 0), LocalTime.of(18, 0),
+                10_000, List.of(fase), List.of(ALMOCO));
+        eventService.encerrarNotificacoes();
+        return evento;
+    }
+}
@@ -0,0 +1,131 @@
+package com.eventastic.service;
+
+import com.eventastic.enums.EstadoInscricao;
+import com.eventastic.enums.ModoArmazenamento;
+import com.eventastic.enums.TipoInscricao;
+import com.eventastic.model.Inscricao;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * Índice de e-mails de uma partição (tabela de dispersão aberta só com IDs): os e-mails continuam
+ * a ser encontrados depois de a tabela crescer e depois de cancelamentos no meio de grupos de
+ * colisões, e um e-mail cancelado fica livre para uma nova inscrição. Os e-mails com blocos "Aa"
+ * e "BB" têm todos o mesmo hashCode, por isso ficam no mesmo grupo da sondagem linear.
+ */
+class IndiceEmailsTest {
+
+    // Com muitos e-mails a tabela cresce e todos continuam indexados; cancelar retira só o e-mail certo
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void cresceECancela(ModoArmazenamento modo) {
+        ArmazemInscricoes armazem = armazem(modo);
+        InscricoesEvento particao = new InscricoesEvento(1, armazem);
+        for (int id = 1; id <= 500; id++) {
+            adicionar(armazem, particao, id, "p" + id + "@exemplo.com");
+        }
+        for (int id = 1; id <= 500; id += 3) {
+            particao.cancelar(id, "p" + id + "@exemplo.com");
+        }
+
+        for (int id = 1; id <= 500; id++) {
+            assertEquals(id % 3 != 1, particao.contemEmail("p" + id + "@exemplo.com"), "p" + id);
+        }
+        assertFalse(particao.contemEmail("P2@exemplo.com")); // A comparação é exata
+        assertFalse(particao.contemEmail(null));
+        assertEquals(500 - 167, particao.getNumParticipantes());
+    }
+
+    // Cancelar no meio de um grupo de colisões não esconde os e-mails que vêm a seguir no grupo
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void cancelarNoMeioDeColisoes(ModoArmazenamento modo) {
+        ArmazemInscricoes armazem = armazem(modo);
+        InscricoesEvento particao = new InscricoesEvento(1, armazem);
+        List<String> emails = emailsComOMesmoHash(4); // 16 e-mails: a tabela cresce durante o grupo
+        for (int i = 0; i < emails.size(); i++) {
+            adicionar(armazem, particao, i + 1, emails.get(i));
+        }
+        adicionar(armazem, particao, 100, "outro@exemplo.com");
+
+        for (int i = 0; i < emails.size(); i += 2) {
+            particao.cancelar(i + 1, emails.get(i));
+        }
+
+        for (int i = 0; i < emails.size(); i++) {
+            assertEquals(i % 2 == 1, particao.contemEmail(emails.get(i)), emails.get(i));
+        }
+        assertTrue(particao.contemEmail("outro@exemplo.com"));
+        for (int i = 0; i < emails.size(); i += 2) {
+            adicionar(armazem, particao, 200 + i, emails.get(i));
+        }
+        for (String email : emails) {
+            assertTrue(particao.contemEmail(email), email);
+        }
+    }
+
+    // Só a inscrição indexada retira o e-mail: cancelar uma inscrição antiga com o mesmo e-mail não o liberta
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void cancelarInscricaoAntigaNaoLibertaEmail(ModoArmazenamento modo) {
+        ArmazemInscricoes armazem = armazem(modo);
+        InscricoesEvento particao = new InscricoesEvento(1, armazem);
+        adicionar(armazem, particao, 1, "ana@exemplo.com");
+        particao.cancelar(1, "ana@exemplo.com");
+        adicionar(armazem, particao, 2, "ana@exemplo.com");
+
+        particao.cancelar(1, "ana@exemplo.com");
+
+        assertTrue(particao.contemEmail("ana@exemplo.com"));
+        assertEquals(1, particao.getNumParticipantes());
+    }
+
+    // Inscrições canceladas restauradas do disco não ocupam o e-mail
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void canceladaRestauradaNaoIndexada(ModoArmazenamento modo) {
+        ArmazemInscricoes armazem = armazem(modo);
+        InscricoesEvento particao = new InscricoesEvento(1, armazem);
+        Inscricao cancelada = new Inscricao(1, 1, "Ana", "ana@exemplo.com", null, TipoInscricao.NAO_ESTUDANTE,
+                null, List.of(), 20f, EstadoInscricao.CANCELADA, LocalDateTime.of(2024, 5, 17, 9, 30));
+        armazem.guardar(cancelada);
+        particao.adicionar(cancelada);
+
+        assertFalse(particao.contemEmail("ana@exemplo.com"));
+        assertEquals(0, particao.getNumParticipantes());
+    }
+
+    private static ArmazemInscricoes armazem(ModoArmazenamento modo) {
+        return (modo == ModoArmazenamento.COLUNAR) ? new ArmazemColunar() : new ArmazemObjetos();
+    }
+
+    private static void adicionar(ArmazemInscricoes armazem, InscricoesEvento particao, int id, String email) {
+        Inscricao inscricao = new Inscricao(id, 1, "Participante " + id, email, null, TipoInscricao.NAO_ESTUDANTE,
+                null, List.of(), 20f, EstadoInscricao.PENDENTE_PAGAMENTO, LocalDateTime.of(2024, 5, 17, 9, 30));
+        armazem.guardar(inscricao);
+        particao.adicionar(inscricao);
+    }
+
+    // 2^blocos e-mails diferentes com o mesmo hashCode ("Aa" e "BB" têm o mesmo hashCode)
+    private static List<String> emailsComOMesmoHash(int blocos) {
+        List<String> emails = new ArrayList<>();
+        for (int i = 0; i < (1 << blocos); i++) {
+            StringBuilder local = new StringBuilder();
+            for (int b = 0; b < blocos; b++) {
+                local.append(((i >> b) & 1) == 0 ? "Aa" : "BB");
+            }
+            emails.add(local + "@exemplo.com");
+        }
+        assertEquals(1, emails.stream().map(String::hashCode).distinct().count());
+        return emails;
+    }
+}
@@ -0,0 +1,244 @@
+package com.eventastic.service;
+
+import com.eventastic.enums.EstadoInscricao;
+import com.eventastic.enums.ModoArmazenamento;
+import com.eventastic.enums.TipoFase;
+import com.eventastic.enums.TipoInscricao;
+import com.eventastic.model.ConfiguracaoPreco;
+import com.eventastic.model.Event;
+import com.eventastic.model.FaseInscricao;
+import com.eventastic.model.Inscricao;
+import com.eventastic.model.OpcaoAdicional;
+import com.eventastic.model.ReservaLugar;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * Lista de espera: um lugar libertado (cancelamento, reserva libertada ou expirada, lotação
+ * aumentada) passa ao primeiro da lista, que é inscrito com o preço da fase atual e avisado em
+ * segundo plano; os pedidos que deixaram de ser válidos são saltados. As promoções de reservas
+ * expiradas são feitas pela thread de libertação das reservas, não pela thread da roda.
+ */
+class ListaEsperaTest {
+
+    private static final OpcaoAdicional ALMOCO = new OpcaoAdicional("Almoço", "Almoço no local", 3.5f, false);
+
+    private EventService eventService;
+    private InscricaoService inscricaoService;
+    private final List<String> avisados = new CopyOnWriteArrayList<>();
+    private final Map<String, String> threadsDasInscricoes = new ConcurrentHashMap<>();
+
+    private void iniciar(ModoArmazenamento modo) {
+        eventService = new EventService();
+        inscricaoService = new InscricaoService(modo);
+        inscricaoService.setDestinoPromocoes(inscricao -> avisados.add(inscricao.getEmail()));
+        inscricaoService.setRegistoOperacoes(new RegistoOperacoes() {
+            @Override
+            public void inscricaoCriada(Inscricao inscricao) {
+                threadsDasInscricoes.put(inscricao.getEmail(), Thread.currentThread().getName());
+            }
+        });
+    }
+
+    @AfterEach
+    void encerrar() {
+        inscricaoService.encerrarReservas();
+        inscricaoService.encerrarAvisosPromocao();
+        eventService.encerrarNotificacoes();
+    }
+
+    // Cancelar passa o lugar ao primeiro da lista, pela ordem de chegada, e avisa-o
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void cancelarPromoveOPrimeiro(ModoArmazenamento modo) {
+        iniciar(modo);
+        Event evento = criarEvento(1);
+        Inscricao ana = inscrever(evento, "ana@exemplo.com");
+        assertEquals(1, esperar(evento, "rui@exemplo.com", List.of(ALMOCO)));
+        assertEquals(2, esperar(evento, "maria@exemplo.com", List.of()));
+
+        Inscricao promovida = inscricaoService.cancelarInscricao(ana.getId(), "ana@exemplo.com");
+
+        assertNotNull(promovida);
+        assertEquals("rui@exemplo.com", promovida.getEmail());
+        assertEquals(EstadoInscricao.PENDENTE_PAGAMENTO, promovida.getEstado());
+        assertEquals(2350, promovida.getValorTotalCentimos());
+        assertEquals(EstadoInscricao.CANCELADA, inscricaoService.procurarInscricaoPorId(ana.getId()).getEstado());
+        assertEquals(1, inscricaoService.contarListaEspera(evento.getIdEvento()));
+        assertEquals(1, inscricaoService.contarLugaresOcupados(evento.getIdEvento()));
+        assertEquals(1, inscricaoService.contarParticipantes(evento.getIdEvento()));
+        assertEquals(2, esperar(evento, "ana@exemplo.com", List.of())); // O e-mail cancelado ficou livre (atrás da Maria)
+        assertThrows(IllegalStateException.class,
+                () -> inscricaoService.cancelarInscricao(ana.getId(), "ana@exemplo.com"));
+
+        inscricaoService.encerrarAvisosPromocao();
+        assertEquals(List.of("rui@exemplo.com"), avisados);
+    }
+
+    // Sem ninguém à espera o lugar volta ao evento; quem sai da lista deixa de ser promovido
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void sairDaListaEListaVazia(ModoArmazenamento modo) {
+        iniciar(modo);
+        Event evento = criarEvento(1);
+        Inscricao ana = inscrever(evento, "ana@exemplo.com");
+        esperar(evento, "rui@exemplo.com", List.of());
+
+        assertTrue(inscricaoService.sairListaEspera(evento.getIdEvento(), "rui@exemplo.com"));
+        assertFalse(inscricaoService.sairListaEspera(evento.getIdEvento(), "rui@exemplo.com"));
+        assertFalse(inscricaoService.sairListaEspera(999, "rui@exemplo.com"));
+
+        assertNull(inscricaoService.cancelarInscricao(ana.getId(), "ana@exemplo.com"));
+        assertEquals(0, inscricaoService.contarLugaresOcupados(evento.getIdEvento()));
+        assertEquals(1, eventService.consultarVagasDisponiveis(evento.getIdEvento(), inscricaoService));
+        inscricaoService.encerrarAvisosPromocao();
+        assertEquals(List.of(), avisados);
+    }
+
+    // Entrar na lista só com o evento cheio, com dados válidos e sem e-mails repetidos
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void entrarNaListaValidado(ModoArmazenamento modo) {
+        iniciar(modo);
+        Event evento = criarEvento(1);
+        assertThrows(IllegalStateException.class, () -> esperar(evento, "rui@exemplo.com", List.of()));
+        inscrever(evento, "ana@exemplo.com");
+        esperar(evento, "rui@exemplo.com", List.of());
+
+        assertThrows(IllegalArgumentException.class, () -> esperar(evento, "rui@exemplo.com", List.of()));
+        assertThrows(IllegalArgumentException.class, () -> esperar(evento, "ana@exemplo.com", List.of()));
+        assertThrows(IllegalArgumentException.class, () -> inscricaoService.entrarListaEspera(evento, "Estudante",
+                "e@exemplo.com", null, TipoInscricao.ESTUDANTE, null, List.of()));
+        assertThrows(IllegalArgumentException.class, () -> esperar(evento, "jantar@exemplo.com",
+                List.of(new OpcaoAdicional("Jantar", "Não existe no evento", 25f, false))));
+        assertEquals(1, inscricaoService.contarListaEspera(evento.getIdEvento()));
+    }
+
+    // Com a lotação aumentada, promoverListaEspera ocupa os lugares novos e salta quem já se inscreveu
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void promoverDepoisDeAumentarALotacao(ModoArmazenamento modo) {
+        iniciar(modo);
+        Event evento = criarEvento(1);
+        inscrever(evento, "ana@exemplo.com");
+        esperar(evento, "rui@exemplo.com", List.of());
+        esperar(evento, "maria@exemplo.com", List.of());
+        esperar(evento, "joao@exemplo.com", List.of());
+        esperar(evento, "ines@exemplo.com", List.of());
+
+        editarLotacao(evento, 3);
+        inscrever(evento, "rui@exemplo.com"); // Inscreveu-se diretamente enquanto ainda estava à espera
+
+        assertEquals(1, inscricaoService.promoverListaEspera(evento.getIdEvento()));
+        assertEquals(3, inscricaoService.contarParticipantes(evento.getIdEvento()));
+        assertEquals(2, inscricaoService.contarListaEspera(evento.getIdEvento()));
+        assertEquals(0, inscricaoService.promoverListaEspera(evento.getIdEvento()));
+        assertEquals(0, inscricaoService.promoverListaEspera(999));
+
+        editarLotacao(evento, 10);
+        assertEquals(2, inscricaoService.promoverListaEspera(evento.getIdEvento()));
+        assertEquals(0, inscricaoService.contarListaEspera(evento.getIdEvento()));
+        inscricaoService.encerrarAvisosPromocao();
+        assertEquals(List.of("maria@exemplo.com", "joao@exemplo.com", "ines@exemplo.com"), avisados);
+    }
+
+    // Uma reserva libertada por quem a pediu promove o primeiro da lista na própria thread
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void reservaLibertadaPromove(ModoArmazenamento modo) {
+        iniciar(modo);
+        Event evento = criarEvento(1);
+        ReservaLugar reserva = inscricaoService.reservarLugar(evento, Duration.ofMinutes(10));
+        esperar(evento, "rui@exemplo.com", List.of());
+
+        assertTrue(inscricaoService.libertarReserva(reserva.getIdReserva()));
+
+        assertEquals(0, inscricaoService.contarListaEspera(evento.getIdEvento()));
+        assertEquals(1, inscricaoService.contarParticipantes(evento.getIdEvento()));
+        assertEquals(Thread.currentThread().getName(), threadsDasInscricoes.get("rui@exemplo.com"));
+    }
+
+    // Uma reserva expirada promove o primeiro da lista na thread de libertação, não na da roda
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void reservaExpiradaPromoveForaDaRoda(ModoArmazenamento modo) throws InterruptedException {
+        iniciar(modo);
+        Event evento = criarEvento(1);
+        inscricaoService.reservarLugar(evento, Duration.ofMillis(150));
+        esperar(evento, "rui@exemplo.com", List.of());
+
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (inscricaoService.contarParticipantes(evento.getIdEvento()) == 0) {
+            assertTrue(System.nanoTime() < limite, "Reserva não expirou em 5 s");
+            Thread.sleep(20);
+        }
+
+        assertEquals("eventastic-reservas-libertacao", threadsDasInscricoes.get("rui@exemplo.com"));
+        assertEquals(0, inscricaoService.contarListaEspera(evento.getIdEvento()));
+        assertEquals(1, inscricaoService.contarLugaresOcupados(evento.getIdEvento()));
+        assertEquals(0, inscricaoService.contarReservasAtivas());
+        inscricaoService.encerrarAvisosPromocao();
+        assertEquals(List.of("rui@exemplo.com"), avisados);
+    }
+
+    // Com o evento inativado a lista de espera não é promovida
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void eventoInativadoNaoPromove(ModoArmazenamento modo) throws InterruptedException {
+        iniciar(modo);
+        Event evento = criarEvento(1);
+        Inscricao ana = inscrever(evento, "ana@exemplo.com");
+        esperar(evento, "rui@exemplo.com", List.of());
+
+        eventService.inativarEvento(evento.getIdEvento(), inscricaoService).aguardar();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> inscricaoService.cancelarInscricao(ana.getId(), "ana@exemplo.com"));
+        assertEquals(0, inscricaoService.promoverListaEspera(evento.getIdEvento()));
+        assertNull(threadsDasInscricoes.get("rui@exemplo.com"));
+    }
+
+    private int esperar(Event evento, String email, List<OpcaoAdicional> opcoes) {
+        return inscricaoService.entrarListaEspera(evento, "À espera", email, null, TipoInscricao.NAO_ESTUDANTE,
+                null, opcoes);
+    }
+
+    private Inscricao inscrever(Event evento, String email) {
+        return inscricaoService.inscrever(evento, "Participante", email, null, TipoInscricao.NAO_ESTUDANTE, null, List.of());
+    }
+
+    private void editarLotacao(Event evento, int maxParticipantes) {
+        eventService.editarEvento(evento.getIdEvento(), evento.getNome(), evento.getDescricao(), evento.getLocal(),
+                evento.getDataInicioEvento(), evento.getDataFimEvento(), evento.getHoraInicioEvento(),
+                evento.getHoraFimEvento(), maxParticipantes, evento.getFases(), evento.getOpcoes());
+    }
+
+    // Evento futuro com inscrições abertas hoje (20€ para não estudantes, almoço opcional de 3,50€)
+    private Event criarEvento(int maxParticipantes) {
+        LocalDate hoje = LocalDate.now();
+        FaseInscricao fase = new FaseInscricao(TipoFase.EARLY, hoje.minusDays(1), hoje.plusDays(10), Map.of(
+                TipoInscricao.ESTUDANTE, new ConfiguracaoPreco(TipoInscricao.ESTUDANTE, 10f),
+                TipoInscricao.NAO_ESTUDANTE, new ConfiguracaoPreco(TipoInscricao.NAO_ESTUDANTE, 20f)));
+        return eventService.criarEvento("Concerto", "Evento para teste da lista de espera", "Évora",
+                hoje.plusDays(30), hoje.plusDays(31), LocalTime.of(9, 0), LocalTime.of(18, 0),
+                maxParticipantes, List.of(fase), List.of(ALMOCO));
+    }
+}
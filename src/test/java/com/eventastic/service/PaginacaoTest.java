@@ -0,0 +1,247 @@
+package com.eventastic.service;
+
+import com.eventastic.enums.EstadoInscricao;
+import com.eventastic.enums.ModoArmazenamento;
+import com.eventastic.enums.TipoFase;
+import com.eventastic.enums.TipoInscricao;
+import com.eventastic.model.ConfiguracaoPreco;
+import com.eventastic.model.Event;
+import com.eventastic.model.FaseInscricao;
+import com.eventastic.model.Inscricao;
+import com.eventastic.model.Pagina;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * Paginação por cursor das inscrições, dos participantes de um evento e dos eventos: percorrer as
+ * páginas devolve os mesmos elementos que a listagem completa, pela ordem dos IDs, a última página
+ * não tem cursor, os filtros são aplicados antes de contar o tamanho e os elementos criados entre
+ * páginas aparecem no fim sem repetir nem saltar elementos.
+ */
+class PaginacaoTest {
+
+    private EventService eventService;
+    private InscricaoService inscricaoService;
+
+    private void iniciar(ModoArmazenamento modo) {
+        eventService = new EventService();
+        inscricaoService = new InscricaoService(modo);
+    }
+
+    @AfterEach
+    void encerrar() {
+        if (inscricaoService != null) {
+            inscricaoService.encerrarReservas();
+            inscricaoService.encerrarAvisosPromocao();
+        }
+        eventService.encerrarNotificacoes();
+    }
+
+    // Todas as páginas juntas dão a listagem completa, pela ordem dos IDs, e só a última não tem cursor
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void paginasCobremAListagemCompleta(ModoArmazenamento modo) {
+        iniciar(modo);
+        Event primeiro = criarEvento("Primeiro", 30);
+        Event segundo = criarEvento("Segundo", 30);
+        for (int i = 0; i < 23; i++) {
+            inscrever((i % 3 == 0) ? segundo : primeiro, i);
+        }
+
+        List<Pagina<Inscricao>> paginas = percorrer(cursor -> inscricaoService.listarInscricoes(
+                cursor, 5, null, null, null, null));
+
+        assertEquals(List.of(5, 5, 5, 5, 3), paginas.stream().map(p -> p.getItens().size()).toList());
+        assertEquals(ids(inscricaoService.listarInscricoes()), ids(juntar(paginas)));
+        for (int i = 0; i < paginas.size() - 1; i++) {
+            Pagina<Inscricao> pagina = paginas.get(i);
+            assertTrue(pagina.temMais());
+            assertEquals(pagina.getItens().get(4).getId(), pagina.getProximoCursor());
+        }
+        assertNull(paginas.get(paginas.size() - 1).getProximoCursor());
+
+        List<Pagina<Inscricao>> doSegundo = percorrer(cursor -> inscricaoService.obterListaParticipantes(
+                segundo.getIdEvento(), cursor, 3, null, null, null, null));
+        assertEquals(ids(inscricaoService.obterListaParticipantes(segundo.getIdEvento())), ids(juntar(doSegundo)));
+        assertEquals(8, juntar(doSegundo).size());
+    }
+
+    // Uma página que acaba exatamente no último elemento não deixa cursor para uma página vazia
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void ultimaPaginaCheiaSemCursor(ModoArmazenamento modo) {
+        iniciar(modo);
+        Event evento = criarEvento("Conferência", 30);
+        for (int i = 0; i < 10; i++) {
+            inscrever(evento, i);
+        }
+
+        Pagina<Inscricao> primeira = inscricaoService.listarInscricoes(null, 5, null, null, null, null);
+        Pagina<Inscricao> segunda = inscricaoService.listarInscricoes(primeira.getProximoCursor(), 5,
+                null, null, null, null);
+        Pagina<Inscricao> participantes = inscricaoService.obterListaParticipantes(evento.getIdEvento(),
+                primeira.getProximoCursor(), 5, null, null, null, null);
+
+        assertEquals(5, segunda.getItens().size());
+        assertFalse(segunda.temMais());
+        assertEquals(ids(segunda.getItens()), ids(participantes.getItens()));
+        assertFalse(participantes.temMais());
+    }
+
+    // Os filtros de estado, tipo e data são aplicados antes de contar o tamanho da página
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void filtrosAplicadosAntesDoTamanho(ModoArmazenamento modo) {
+        iniciar(modo);
+        Event evento = criarEvento("Conferência", 30);
+        List<Integer> canceladas = new ArrayList<>();
+        List<Integer> estudantes = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Inscricao inscricao = (i % 2 == 0)
+                    ? inscricaoService.inscrever(evento, "Estudante " + i, "e" + i + "@exemplo.com", null,
+                            TipoInscricao.ESTUDANTE, 58000 + i, List.of())
+                    : inscrever(evento, i);
+            if (i % 2 == 0) {
+                estudantes.add(inscricao.getId());
+            }
+            if (i % 5 == 0) {
+                inscricaoService.cancelarInscricao(inscricao.getId(), inscricao.getEmail());
+                canceladas.add(inscricao.getId());
+            }
+        }
+        LocalDate hoje = LocalDate.now();
+
+        assertEquals(canceladas, ids(juntar(percorrer(cursor -> inscricaoService.listarInscricoes(
+                cursor, 2, EstadoInscricao.CANCELADA, null, null, null)))));
+        assertEquals(estudantes, ids(juntar(percorrer(cursor -> inscricaoService.obterListaParticipantes(
+                evento.getIdEvento(), cursor, 3, null, TipoInscricao.ESTUDANTE, null, null)))));
+        assertEquals(20, juntar(percorrer(cursor -> inscricaoService.listarInscricoes(
+                cursor, 7, null, null, hoje, hoje))).size());
+        Pagina<Inscricao> amanha = inscricaoService.listarInscricoes(null, 7, null, null, hoje.plusDays(1), null);
+        assertEquals(List.of(), amanha.getItens());
+        assertFalse(amanha.temMais());
+    }
+
+    // Inscrições criadas entre páginas aparecem no fim, sem repetir nem saltar as que já existiam
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void cursorEstavelComNovasInscricoes(ModoArmazenamento modo) {
+        iniciar(modo);
+        Event evento = criarEvento("Conferência", 30);
+        for (int i = 0; i < 6; i++) {
+            inscrever(evento, i);
+        }
+
+        Pagina<Inscricao> primeira = inscricaoService.obterListaParticipantes(evento.getIdEvento(), null, 4,
+                null, null, null, null);
+        for (int i = 6; i < 9; i++) {
+            inscrever(evento, i);
+        }
+        List<Inscricao> vistas = new ArrayList<>(primeira.getItens());
+        vistas.addAll(juntar(percorrer(primeira.getProximoCursor(), cursor -> inscricaoService.obterListaParticipantes(
+                evento.getIdEvento(), cursor, 4, null, null, null, null))));
+
+        assertEquals(ids(inscricaoService.obterListaParticipantes(evento.getIdEvento())), ids(vistas));
+        assertEquals(9, vistas.size());
+    }
+
+    // Eventos paginados por ID e filtrados pelo intervalo em que decorrem
+    @Test
+    void eventosPaginadosEFiltradosPorData() {
+        eventService = new EventService();
+        LocalDate hoje = LocalDate.now();
+        List<Integer> todos = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            todos.add(criarEvento("Evento " + i, 30 + 10 * i).getIdEvento());
+        }
+
+        List<Pagina<Event>> paginas = percorrer(cursor -> eventService.obterListaEventos(cursor, 3, null, null));
+
+        assertEquals(List.of(3, 3, 1), paginas.stream().map(p -> p.getItens().size()).toList());
+        assertEquals(todos, juntar(paginas).stream().map(Event::getIdEvento).toList());
+        assertEquals(eventService.obterListaEventos(), juntar(paginas));
+        // Eventos 2 e 3 decorrem entre os dias 50-51 e 60-61
+        assertEquals(todos.subList(2, 4), juntar(percorrer(cursor -> eventService.obterListaEventos(
+                cursor, 1, hoje.plusDays(51), hoje.plusDays(60)))).stream().map(Event::getIdEvento).toList());
+        assertEquals(todos.subList(5, 7), eventService.obterListaEventos(todos.get(4), 10, null, null).getItens()
+                .stream().map(Event::getIdEvento).toList());
+        assertEquals(List.of(), eventService.obterListaEventos(null, 10, hoje.plusDays(200), null).getItens());
+    }
+
+    // Tamanhos fora de 1..TAMANHO_MAXIMO são rejeitados; eventos sem inscrições dão uma página vazia
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void tamanhoInvalidoRejeitado(ModoArmazenamento modo) {
+        iniciar(modo);
+        Event evento = criarEvento("Conferência", 30);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> inscricaoService.listarInscricoes(null, 0, null, null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> inscricaoService.obterListaParticipantes(
+                evento.getIdEvento(), null, Pagina.TAMANHO_MAXIMO + 1, null, null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> eventService.obterListaEventos(null, -1, null, null));
+        Pagina<Inscricao> vazia = inscricaoService.obterListaParticipantes(evento.getIdEvento(), null,
+                Pagina.TAMANHO_MAXIMO, null, null, null, null);
+        assertEquals(List.of(), vazia.getItens());
+        assertFalse(vazia.temMais());
+    }
+
+    // Pede páginas a partir do início até não haver cursor
+    private static <T> List<Pagina<T>> percorrer(Function<Integer, Pagina<T>> pedir) {
+        return percorrer(null, pedir);
+    }
+
+    private static <T> List<Pagina<T>> percorrer(Integer cursor, Function<Integer, Pagina<T>> pedir) {
+        List<Pagina<T>> paginas = new ArrayList<>();
+        do {
+            Pagina<T> pagina = pedir.apply(cursor);
+            paginas.add(pagina);
+            cursor = pagina.getProximoCursor();
+        } while (cursor != null);
+        return paginas;
+    }
+
+    private static <T> List<T> juntar(List<Pagina<T>> paginas) {
+        List<T> itens = new ArrayList<>();
+        for (Pagina<T> pagina : paginas) {
+            itens.addAll(pagina.getItens());
+        }
+        return itens;
+    }
+
+    private static List<Integer> ids(List<Inscricao> inscricoes) {
+        return inscricoes.stream().map(Inscricao::getId).toList();
+    }
+
+    private Inscricao inscrever(Event evento, int i) {
+        return inscricaoService.inscrever(evento, "Participante " + i, "p" + i + "@exemplo.com", null,
+                TipoInscricao.NAO_ESTUDANTE, null, List.of());
+    }
+
+    // Evento de dois dias a começar daqui a 'diasAteInicio', com inscrições abertas hoje
+    private Event criarEvento(String nome, int diasAteInicio) {
+        LocalDate hoje = LocalDate.now();
+        FaseInscricao fase = new FaseInscricao(TipoFase.EARLY, hoje.minusDays(1), hoje.plusDays(10), Map.of(
+                TipoInscricao.ESTUDANTE, new ConfiguracaoPreco(TipoInscricao.ESTUDANTE, 10f),
+                TipoInscricao.NAO_ESTUDANTE, new ConfiguracaoPreco(TipoInscricao.NAO_ESTUDANTE, 20f)));
+        return eventService.criarEvento(nome, "Evento para teste da paginação", "Lisboa",
+                hoje.plusDays(diasAteInicio), hoje.plusDays(diasAteInicio + 1), LocalTime.of(9, 0), LocalTime.of(18, 0),
+                1_000, List.of(fase), List.of());
+    }
+}
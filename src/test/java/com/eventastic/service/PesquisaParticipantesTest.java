@@ -0,0 +1,189 @@
+package com.eventastic.service;
+
+import com.eventastic.enums.ModoArmazenamento;
+import com.eventastic.enums.TipoFase;
+import com.eventastic.enums.TipoInscricao;
+import com.eventastic.model.ConfiguracaoPreco;
+import com.eventastic.model.Event;
+import com.eventastic.model.FaseInscricao;
+import com.eventastic.model.Inscricao;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * Pesquisa de participantes pelo índice de prefixos: sem distinguir maiúsculas nem acentos, cada
+ * palavra do texto é o início de uma palavra do nome ou do e-mail, o limite é respeitado e as
+ * inscrições feitas depois da primeira pesquisa também são encontradas. Inclui a procura exata
+ * (procurarParticipante), que usa o mesmo índice para reduzir os candidatos.
+ */
+class PesquisaParticipantesTest {
+
+    private EventService eventService;
+    private InscricaoService inscricaoService;
+    private Event evento;
+
+    private void iniciar(ModoArmazenamento modo) {
+        eventService = new EventService();
+        inscricaoService = new InscricaoService(modo);
+        evento = criarEvento(eventService, "Conferência");
+    }
+
+    @AfterEach
+    void encerrar() {
+        inscricaoService.encerrarReservas();
+        inscricaoService.encerrarAvisosPromocao();
+    }
+
+    // Prefixos sem acentos nem maiúsculas, palavras separadas por hífen e e-mails inteiros
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void pesquisaPorPrefixoSemAcentos(ModoArmazenamento modo) {
+        iniciar(modo);
+        inscrever("José Conceição", "jose@exemplo.com");
+        inscrever("Joana Silva", "joana@exemplo.com");
+        inscrever("Ana Silva-Costa", "ana@exemplo.com");
+        inscrever("Rui Gonçalves", "rui.goncalves@exemplo.com");
+
+        assertEquals(Set.of("José Conceição"), nomes(pesquisar("jose con")));
+        assertEquals(Set.of("José Conceição"), nomes(pesquisar("CONCEIÇÃO")));
+        assertEquals(Set.of("Joana Silva", "Ana Silva-Costa"), nomes(pesquisar("sil")));
+        assertEquals(Set.of("Joana Silva", "José Conceição"), nomes(pesquisar("jo")));
+        assertEquals(Set.of("Ana Silva-Costa"), nomes(pesquisar("cos")));
+        assertEquals(Set.of("Ana Silva-Costa"), nomes(pesquisar("silva ana")));
+        assertEquals(Set.of("Rui Gonçalves"), nomes(pesquisar("gonc")));
+        assertEquals(Set.of("Rui Gonçalves"), nomes(pesquisar("rui.gon")));
+    }
+
+    // Sem resultados quando um dos termos não é o início de nenhuma palavra ou o texto está vazio
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void pesquisaSemResultados(ModoArmazenamento modo) {
+        iniciar(modo);
+        inscrever("Ana Silva", "ana@exemplo.com");
+
+        assertEquals(List.of(), pesquisar("ana costa"));
+        assertEquals(List.of(), pesquisar("ilva"));
+        assertEquals(List.of(), pesquisar("   "));
+        assertEquals(List.of(), inscricaoService.pesquisarParticipantes(criarEvento(eventService, "Outro"), "ana", 10));
+    }
+
+    // No máximo 'limite' resultados, sem repetições (uma inscrição pode ter várias chaves com o prefixo)
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void limiteRespeitado(ModoArmazenamento modo) {
+        iniciar(modo);
+        for (int i = 0; i < 50; i++) {
+            inscrever("Participante Particular " + i, "participante" + i + "@exemplo.com");
+        }
+
+        List<Inscricao> resultados = inscricaoService.pesquisarParticipantes(evento, "part", 10);
+
+        assertEquals(10, resultados.size());
+        assertEquals(10, new HashSet<>(ids(resultados)).size());
+        assertEquals(50, inscricaoService.pesquisarParticipantes(evento, "part", 1_000).size());
+    }
+
+    // O índice é criado na primeira pesquisa e mantido nas inscrições seguintes
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void inscricoesDepoisDaPrimeiraPesquisaEncontradas(ModoArmazenamento modo) {
+        iniciar(modo);
+        inscrever("Ana Silva", "ana@exemplo.com");
+        assertEquals(Set.of("Ana Silva"), nomes(pesquisar("an")));
+
+        inscrever("André Sousa", "andre@exemplo.com");
+
+        assertEquals(Set.of("Ana Silva", "André Sousa"), nomes(pesquisar("an")));
+        assertEquals(Set.of("André Sousa"), nomes(pesquisar("andre")));
+        assertEquals(List.of("André Sousa"), procurar("andré sousa", null).stream().map(Inscricao::getNome).toList());
+    }
+
+    // Procura exata por nome ou e-mail (sem distinguir maiúsculas) e por ID dentro do evento
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void procuraExata(ModoArmazenamento modo) {
+        iniciar(modo);
+        Inscricao ana = inscrever("Ana Silva", "ana@exemplo.com");
+        inscrever("Ana Costa", "ana.costa@exemplo.com");
+        Event outro = criarEvento(eventService, "Outro");
+        Inscricao deOutroEvento = inscricaoService.inscrever(outro, "Rui", "rui@exemplo.com", null,
+                TipoInscricao.NAO_ESTUDANTE, null, List.of());
+
+        List<Integer> soAna = List.of(ana.getId());
+        assertEquals(soAna, ids(procurar("ANA SILVA", null)));
+        assertEquals(soAna, ids(procurar(null, "Ana@Exemplo.com")));
+        assertEquals(soAna, ids(procurar("ana silva", "ana@exemplo.com")));
+        assertEquals(List.of(), procurar("Ana", null));
+        assertEquals(List.of(), procurar("Ana Silva", "ana.costa@exemplo.com"));
+        assertEquals(soAna, ids(inscricaoService.procurarParticipante(evento, null, null, ana.getId())));
+        assertEquals(List.of(), inscricaoService.procurarParticipante(evento, null, null, deOutroEvento.getId()));
+        assertEquals(2, inscricaoService.procurarParticipante(evento, null, null, null).size());
+    }
+
+    // Argumentos inválidos são rejeitados
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void argumentosInvalidosRejeitados(ModoArmazenamento modo) {
+        iniciar(modo);
+        inscrever("Ana Silva", "ana@exemplo.com");
+
+        assertThrows(IllegalArgumentException.class, () -> inscricaoService.pesquisarParticipantes(null, "ana", 10));
+        assertThrows(IllegalArgumentException.class, () -> inscricaoService.pesquisarParticipantes(evento, null, 10));
+        assertThrows(IllegalArgumentException.class, () -> inscricaoService.pesquisarParticipantes(evento, "ana", 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> inscricaoService.procurarParticipante(null, "Ana Silva", null, null));
+    }
+
+    private List<Inscricao> pesquisar(String texto) {
+        List<Inscricao> resultados = inscricaoService.pesquisarParticipantes(evento, texto, 100);
+        assertTrue(resultados.stream().allMatch(i -> i.getIdEvento() == evento.getIdEvento()));
+        return resultados;
+    }
+
+    private List<Inscricao> procurar(String nome, String email) {
+        return inscricaoService.procurarParticipante(evento, nome, email, null);
+    }
+
+    private Inscricao inscrever(String nome, String email) {
+        return inscricaoService.inscrever(evento, nome, email, null, TipoInscricao.NAO_ESTUDANTE, null, List.of());
+    }
+
+    private static List<Integer> ids(List<Inscricao> inscricoes) {
+        return inscricoes.stream().map(Inscricao::getId).toList();
+    }
+
+    private static Set<String> nomes(List<Inscricao> inscricoes) {
+        Set<String> resultado = new HashSet<>();
+        for (Inscricao inscricao : inscricoes) {
+            resultado.add(inscricao.getNome());
+        }
+        assertEquals(inscricoes.size(), resultado.size());
+        return resultado;
+    }
+
+    // Evento futuro com inscrições abertas hoje
+    private static Event criarEvento(EventService eventService, String nome) {
+        LocalDate hoje = LocalDate.now();
+        FaseInscricao fase = new FaseInscricao(TipoFase.EARLY, hoje.minusDays(1), hoje.plusDays(10), Map.of(
+                TipoInscricao.ESTUDANTE, new ConfiguracaoPreco(TipoInscricao.ESTUDANTE, 10f),
+                TipoInscricao.NAO_ESTUDANTE, new ConfiguracaoPreco(TipoInscricao.NAO_ESTUDANTE, 20f)));
+        Event evento = eventService.criarEvento(nome, "Evento para teste da pesquisa", "Porto",
+                hoje.plusDays(30), hoje.plusDays(31), LocalTime.of(9, 0), LocalTime.of(18, 0),
+                1_000, List.of(fase), List.of());
+        eventService.encerrarNotificacoes();
+        return evento;
+    }
+}
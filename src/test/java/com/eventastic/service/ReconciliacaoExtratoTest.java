@@ -0,0 +1,234 @@
+package com.eventastic.service;
+
+import com.eventastic.enums.EstadoPagamento;
+import com.eventastic.enums.ModoArmazenamento;
+import com.eventastic.enums.TipoFase;
+import com.eventastic.enums.TipoInscricao;
+import com.eventastic.model.ConfiguracaoPreco;
+import com.eventastic.model.Event;
+import com.eventastic.model.FaseInscricao;
+import com.eventastic.model.Inscricao;
+import com.eventastic.model.Pagamento;
+import com.eventastic.model.RelatorioReconciliacao;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * Reconciliação de extratos bancários: o relatório (pagas, parciais, não associadas, repetidas),
+ * os formatos de valor aceites e a deduplicação de linhas quando o mesmo extrato (ou um extrato
+ * que repete linhas de outro) é reconciliado outra vez. Corre nos dois modos de armazenamento.
+ */
+class ReconciliacaoExtratoTest {
+
+    @TempDir
+    Path diretorio;
+
+    private InscricaoService inscricaoService;
+    private PagamentoService pagamentoService;
+    private Event evento;
+
+    private void iniciar(ModoArmazenamento modo) {
+        inscricaoService = new InscricaoService(modo);
+        pagamentoService = new PagamentoService(inscricaoService);
+        evento = criarEvento(new EventService());
+    }
+
+    @AfterEach
+    void encerrar() {
+        inscricaoService.encerrarReservas();
+        inscricaoService.encerrarAvisosPromocao();
+    }
+
+    // Linhas que cobrem o total, que ficam aquém e que não correspondem a nenhuma inscrição
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void relatorioPagasParciaisENaoAssociadas(ModoArmazenamento modo) throws IOException {
+        iniciar(modo);
+        Inscricao paga = inscrever("a@exemplo.com");
+        Inscricao parcial = inscrever("b@exemplo.com");
+        Inscricao emDuasLinhas = inscrever("c@exemplo.com");
+
+        RelatorioReconciliacao relatorio = reconciliar("extrato.csv",
+                "data;valor;descricao",
+                "2026-01-10;20,00;" + paga.getDescricaoTransferencia(),
+                "2026-01-10;7.50;" + parcial.getId(),
+                "2026-01-11;12,00;" + emDuasLinhas.getId(),
+                "2026-01-12T10:30;8;" + emDuasLinhas.getId(),
+                "",
+                "2026-01-12;5,00;Inscrição: 9999",
+                "2026-01-12;5,00;transferência sem referência",
+                "2026-02-30;5,00;" + paga.getId(),
+                "2026-01-12;abc;" + paga.getId(),
+                "2026-01-12;0,00;" + paga.getId(),
+                "linha sem campos");
+
+        assertEquals(11, relatorio.getLinhasProcessadas());
+        assertEquals(List.of(paga.getId(), emDuasLinhas.getId()), relatorio.getInscricoesPagas());
+        assertEquals(List.of(parcial.getId()), relatorio.getInscricoesParciais());
+        assertEquals(0, relatorio.getLinhasRepetidas());
+        List<String> naoAssociadas = relatorio.getLinhasNaoAssociadas();
+        assertEquals(6, naoAssociadas.size());
+        assertTrue(naoAssociadas.stream().anyMatch(l -> l.startsWith("Linha 7 (inscrição 9999 não encontrada)")));
+        assertTrue(naoAssociadas.stream().anyMatch(l -> l.startsWith("Linha 8 (descrição sem ID de inscrição)")));
+        assertTrue(naoAssociadas.stream().anyMatch(l -> l.startsWith("Linha 9 (data inválida)")));
+        assertTrue(naoAssociadas.stream().anyMatch(l -> l.startsWith("Linha 10 (valor inválido)")));
+        assertTrue(naoAssociadas.stream().anyMatch(l -> l.startsWith("Linha 11 (valor não positivo)")));
+        assertTrue(naoAssociadas.stream().anyMatch(l -> l.startsWith("Linha 12 (formato inválido)")));
+
+        assertPagamento(paga.getId(), 20f, EstadoPagamento.CONFIRMADO);
+        assertPagamento(parcial.getId(), 7.5f, EstadoPagamento.PENDENTE);
+        assertPagamento(emDuasLinhas.getId(), 20f, EstadoPagamento.CONFIRMADO);
+        assertEquals(LocalDate.of(2026, 1, 12).atTime(10, 30),
+                pagamento(emDuasLinhas.getId()).getDataTransferencia());
+    }
+
+    // Reconciliar o mesmo extrato outra vez não soma nada: as linhas contam como repetidas
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void mesmoExtratoDuasVezesSomaUmaVez(ModoArmazenamento modo) throws IOException {
+        iniciar(modo);
+        Inscricao parcial = inscrever("a@exemplo.com");
+        Inscricao paga = inscrever("b@exemplo.com");
+        String[] linhas = {
+                "2026-01-10;5,00;" + parcial.getId(),
+                "2026-01-10;5,00;" + parcial.getId(), // Duas transferências iguais no mesmo dia
+                "2026-01-11;20,00;" + paga.getId()};
+
+        reconciliar("extrato.csv", linhas);
+        RelatorioReconciliacao repetido = reconciliar("extrato.csv", linhas);
+
+        assertEquals(3, repetido.getLinhasRepetidas());
+        assertEquals(List.of(), repetido.getInscricoesPagas());
+        assertEquals(List.of(), repetido.getInscricoesParciais());
+        assertPagamento(parcial.getId(), 10f, EstadoPagamento.PENDENTE);
+        assertPagamento(paga.getId(), 20f, EstadoPagamento.CONFIRMADO);
+        assertEquals(3000, inscricaoService.obterAgregados(evento.getIdEvento()).getValorTransferidoCentimos());
+    }
+
+    // Num extrato que repete parte de outro, só as linhas novas são somadas
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void extratosSobrepostosSomamSoAsLinhasNovas(ModoArmazenamento modo) throws IOException {
+        iniciar(modo);
+        Inscricao inscricao = inscrever("a@exemplo.com");
+        reconciliar("janeiro.csv",
+                "2026-01-10;5,00;" + inscricao.getId(),
+                "2026-01-20;5,00;" + inscricao.getId());
+
+        RelatorioReconciliacao relatorio = reconciliar("janeiro-fevereiro.csv",
+                "2026-01-20;5,00;" + inscricao.getId(),
+                "2026-02-01;5,00;" + inscricao.getId(),
+                "2026-02-01;5,00;" + inscricao.getId());
+
+        assertEquals(1, relatorio.getLinhasRepetidas());
+        assertEquals(List.of(inscricao.getId()), relatorio.getInscricoesPagas());
+        assertPagamento(inscricao.getId(), 20f, EstadoPagamento.CONFIRMADO);
+        assertEquals(LocalDate.of(2026, 2, 1).atStartOfDay(), pagamento(inscricao.getId()).getDataTransferencia());
+    }
+
+    // Um pagamento registado à mão entre as reconciliações não faz as linhas do extrato contar outra vez
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void registoManualMantemLinhasReconciliadas(ModoArmazenamento modo) throws IOException {
+        iniciar(modo);
+        Inscricao inscricao = inscrever("a@exemplo.com");
+        reconciliar("extrato.csv", "2026-01-10;5,00;" + inscricao.getId());
+        pagamentoService.registarPagamento(inscricao.getId(), 8f, LocalDate.of(2026, 1, 11).atStartOfDay(), "corrigido");
+
+        RelatorioReconciliacao relatorio = reconciliar("extrato.csv", "2026-01-10;5,00;" + inscricao.getId());
+
+        assertEquals(1, relatorio.getLinhasRepetidas());
+        assertPagamento(inscricao.getId(), 8f, EstadoPagamento.PENDENTE);
+    }
+
+    // Valores com separador de milhares (e sem casas decimais) são lidos em cêntimos
+    @ParameterizedTest
+    @ValueSource(strings = {"1.234,56", "1,234.56", "1 234,56", "1\u00a0234,56", "1'234.56"})
+    void valorComSeparadorDeMilhares(String valor) throws IOException {
+        iniciar(ModoArmazenamento.OBJETOS);
+        Inscricao inscricao = inscrever("a@exemplo.com");
+
+        RelatorioReconciliacao relatorio = reconciliar("extrato.csv", "2026-01-10;" + valor + ";" + inscricao.getId());
+
+        assertEquals(List.of(inscricao.getId()), relatorio.getInscricoesPagas());
+        assertEquals(123456, inscricaoService.obterAgregados(evento.getIdEvento()).getValorTransferidoCentimos());
+    }
+
+    // Outros formatos válidos: milhares sem decimais, uma casa decimal, só decimais, vários grupos
+    @ParameterizedTest
+    @ValueSource(strings = {"1.234=123400", "12,5=1250", ",50=50", "7=700", "12.345,01=1234501", "1.234.567=123456700"})
+    void outrosFormatosDeValor(String caso) throws IOException {
+        iniciar(ModoArmazenamento.OBJETOS);
+        Inscricao inscricao = inscrever("a@exemplo.com");
+        String[] partes = caso.split("=");
+
+        RelatorioReconciliacao relatorio = reconciliar("extrato.csv", "2026-01-10;" + partes[0] + ";" + inscricao.getId());
+
+        assertEquals(List.of(), relatorio.getLinhasNaoAssociadas());
+        assertEquals(Long.parseLong(partes[1]),
+                inscricaoService.obterAgregados(evento.getIdEvento()).getValorTransferidoCentimos());
+    }
+
+    // Agrupamentos que não são de 3 dígitos, separadores misturados ou 3+ casas ambíguas são rejeitados
+    @ParameterizedTest
+    @ValueSource(strings = {"12.34.56", "1.23,45", "1.234 567,00", "1,2345", "1.2345", "-", "1,,5", ".234,00", "1.234."})
+    void valorMalFormadoRejeitado(String valor) throws IOException {
+        iniciar(ModoArmazenamento.OBJETOS);
+        Inscricao inscricao = inscrever("a@exemplo.com");
+
+        RelatorioReconciliacao relatorio = reconciliar("extrato.csv", "2026-01-10;" + valor + ";" + inscricao.getId());
+
+        assertEquals(1, relatorio.getLinhasNaoAssociadas().size());
+        assertTrue(relatorio.getLinhasNaoAssociadas().get(0).startsWith("Linha 1 (valor inválido)"),
+                relatorio.getLinhasNaoAssociadas().get(0));
+    }
+
+    private RelatorioReconciliacao reconciliar(String nomeFicheiro, String... linhas) throws IOException {
+        Path extrato = diretorio.resolve(nomeFicheiro);
+        Files.writeString(extrato, String.join("\n", linhas) + "\n");
+        return pagamentoService.reconciliarExtrato(extrato.toString());
+    }
+
+    private Inscricao inscrever(String email) {
+        return inscricaoService.inscrever(evento, "Participante", email, null,
+                TipoInscricao.NAO_ESTUDANTE, null, List.of());
+    }
+
+    private Pagamento pagamento(int idInscricao) {
+        return inscricaoService.procurarInscricaoPorId(idInscricao).getPagamento();
+    }
+
+    private void assertPagamento(int idInscricao, float valor, EstadoPagamento estado) {
+        Pagamento pagamento = pagamento(idInscricao);
+        assertEquals(valor, pagamento.getValorTransferido());
+        assertEquals(estado, pagamento.getEstado());
+    }
+
+    // Evento futuro com inscrições abertas hoje (20€ para não estudantes)
+    private static Event criarEvento(EventService eventService) {
+        LocalDate hoje = LocalDate.now();
+        FaseInscricao fase = new FaseInscricao(TipoFase.EARLY, hoje.minusDays(1), hoje.plusDays(10), Map.of(
+                TipoInscricao.ESTUDANTE, new ConfiguracaoPreco(TipoInscricao.ESTUDANTE, 10f),
+                TipoInscricao.NAO_ESTUDANTE, new ConfiguracaoPreco(TipoInscricao.NAO_ESTUDANTE, 20f)));
+        Event evento = eventService.criarEvento("Conferência", "Evento para teste da reconciliação", "Porto",
+                hoje.plusDays(30), hoje.plusDays(31), LocalTime.of(9, 0), LocalTime.of(18, 0),
+                100, List.of(fase), List.of());
+        eventService.encerrarNotificacoes();
+        return evento;
+    }
+}
@@ -0,0 +1,208 @@
+package com.eventastic.service;
+
+import com.eventastic.enums.ModoArmazenamento;
+import com.eventastic.enums.TipoFase;
+import com.eventastic.enums.TipoInscricao;
+import com.eventastic.model.ConfiguracaoPreco;
+import com.eventastic.model.Event;
+import com.eventastic.model.FaseInscricao;
+import com.eventastic.model.Inscricao;
+import com.eventastic.model.ReservaLugar;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * Reservas de lugares com prazo: uma reserva ocupa um lugar até ser confirmada, libertada ou
+ * expirar (cada uma termina uma única vez), a confirmação não ocupa outro lugar e dados inválidos
+ * deixam a reserva ativa. A expiração é feita pela roda de temporização (ticks de 100 ms), por isso
+ * os testes esperam por ela com um limite folgado.
+ */
+class ReservasLugaresTest {
+
+    private EventService eventService;
+    private InscricaoService inscricaoService;
+
+    private void iniciar(ModoArmazenamento modo) {
+        eventService = new EventService();
+        inscricaoService = new InscricaoService(modo);
+    }
+
+    @AfterEach
+    void encerrar() {
+        inscricaoService.encerrarReservas();
+        inscricaoService.encerrarAvisosPromocao();
+        eventService.encerrarNotificacoes();
+    }
+
+    // As reservas ocupam lugares: com o evento cheio de reservas, inscrever é rejeitado até uma ser libertada
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void reservaOcupaLugarAteSerLibertada(ModoArmazenamento modo) {
+        iniciar(modo);
+        Event evento = criarEvento(2);
+        ReservaLugar primeira = inscricaoService.reservarLugar(evento, Duration.ofMinutes(10));
+        ReservaLugar segunda = inscricaoService.reservarLugar(evento, Duration.ofMinutes(10));
+
+        assertNotEquals(primeira.getIdReserva(), segunda.getIdReserva());
+        assertEquals(evento.getIdEvento(), primeira.getIdEvento());
+        assertTrue(primeira.getExpiraEm().isAfter(LocalDateTime.now().plusMinutes(9)));
+        assertEquals(2, inscricaoService.contarReservasAtivas());
+        assertEquals(0, eventService.consultarVagasDisponiveis(evento.getIdEvento(), inscricaoService));
+        assertThrows(IllegalArgumentException.class, () -> inscrever(evento, "ana@exemplo.com"));
+        assertThrows(IllegalArgumentException.class, () -> inscricaoService.reservarLugar(evento, Duration.ofMinutes(1)));
+
+        assertTrue(inscricaoService.libertarReserva(primeira.getIdReserva()));
+        assertFalse(inscricaoService.libertarReserva(primeira.getIdReserva())); // Só termina uma vez
+        assertFalse(inscricaoService.libertarReserva(999));
+
+        assertEquals(1, inscricaoService.contarReservasAtivas());
+        assertEquals(1, eventService.consultarVagasDisponiveis(evento.getIdEvento(), inscricaoService));
+        inscrever(evento, "ana@exemplo.com");
+        assertEquals(2, inscricaoService.contarLugaresOcupados(evento.getIdEvento()));
+    }
+
+    // Confirmar passa o lugar da reserva para a inscrição, sem ocupar outro, e a reserva deixa de existir
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void confirmarUsaOLugarDaReserva(ModoArmazenamento modo) {
+        iniciar(modo);
+        Event evento = criarEvento(1);
+        ReservaLugar reserva = inscricaoService.reservarLugar(evento, Duration.ofMinutes(10));
+
+        Inscricao inscricao = inscricaoService.confirmarReserva(reserva.getIdReserva(), "Ana", "ana@exemplo.com",
+                null, TipoInscricao.NAO_ESTUDANTE, null, List.of());
+
+        assertEquals(evento.getIdEvento(), inscricao.getIdEvento());
+        assertEquals(2000, inscricao.getValorTotalCentimos());
+        assertEquals(0, inscricaoService.contarReservasAtivas());
+        assertEquals(1, inscricaoService.contarLugaresOcupados(evento.getIdEvento()));
+        assertEquals(1, inscricaoService.contarParticipantes(evento.getIdEvento()));
+        assertFalse(inscricaoService.libertarReserva(reserva.getIdReserva()));
+        assertThrows(IllegalArgumentException.class, () -> inscricaoService.confirmarReserva(reserva.getIdReserva(),
+                "Rui", "rui@exemplo.com", null, TipoInscricao.NAO_ESTUDANTE, null, List.of()));
+        assertEquals(1, inscricaoService.contarLugaresOcupados(evento.getIdEvento()));
+    }
+
+    // Com dados inválidos a reserva continua ativa e pode ser confirmada depois de corrigidos
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void dadosInvalidosMantemAReserva(ModoArmazenamento modo) {
+        iniciar(modo);
+        Event evento = criarEvento(2);
+        inscrever(evento, "ana@exemplo.com");
+        ReservaLugar reserva = inscricaoService.reservarLugar(evento, Duration.ofMinutes(10));
+
+        assertThrows(IllegalArgumentException.class, () -> inscricaoService.confirmarReserva(reserva.getIdReserva(),
+                "Ana", "ana@exemplo.com", null, TipoInscricao.NAO_ESTUDANTE, null, List.of())); // E-mail repetido
+        assertThrows(IllegalArgumentException.class, () -> inscricaoService.confirmarReserva(reserva.getIdReserva(),
+                "Rui", "rui@exemplo.com", null, TipoInscricao.ESTUDANTE, null, List.of())); // Sem número de aluno
+
+        assertEquals(1, inscricaoService.contarReservasAtivas());
+        assertEquals(2, inscricaoService.contarLugaresOcupados(evento.getIdEvento()));
+        inscricaoService.confirmarReserva(reserva.getIdReserva(), "Rui", "rui@exemplo.com", null,
+                TipoInscricao.ESTUDANTE, 58001, List.of());
+        assertEquals(2, inscricaoService.contarParticipantes(evento.getIdEvento()));
+        assertEquals(2, inscricaoService.contarLugaresOcupados(evento.getIdEvento()));
+    }
+
+    // Uma reserva expirada devolve o lugar ao evento e já não pode ser confirmada nem libertada
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void reservaExpiradaDevolveOLugar(ModoArmazenamento modo) throws InterruptedException {
+        iniciar(modo);
+        Event evento = criarEvento(1);
+        ReservaLugar curta = inscricaoService.reservarLugar(evento, Duration.ofMillis(150));
+        assertEquals(0, eventService.consultarVagasDisponiveis(evento.getIdEvento(), inscricaoService));
+
+        esperarAte(() -> inscricaoService.contarLugaresOcupados(evento.getIdEvento()) == 0);
+
+        assertEquals(0, inscricaoService.contarReservasAtivas());
+        assertEquals(1, eventService.consultarVagasDisponiveis(evento.getIdEvento(), inscricaoService));
+        assertFalse(inscricaoService.libertarReserva(curta.getIdReserva()));
+        assertThrows(IllegalArgumentException.class, () -> inscricaoService.confirmarReserva(curta.getIdReserva(),
+                "Ana", "ana@exemplo.com", null, TipoInscricao.NAO_ESTUDANTE, null, List.of()));
+        inscrever(evento, "ana@exemplo.com");
+    }
+
+    // Só as reservas com o prazo ultrapassado expiram
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void soExpiramAsReservasComPrazoUltrapassado(ModoArmazenamento modo) throws InterruptedException {
+        iniciar(modo);
+        Event evento = criarEvento(10);
+        for (int i = 0; i < 5; i++) {
+            inscricaoService.reservarLugar(evento, Duration.ofMillis(100));
+        }
+        ReservaLugar longa = inscricaoService.reservarLugar(evento, Duration.ofMinutes(30));
+
+        esperarAte(() -> inscricaoService.contarReservasAtivas() == 1);
+
+        assertEquals(1, inscricaoService.contarLugaresOcupados(evento.getIdEvento()));
+        assertTrue(inscricaoService.libertarReserva(longa.getIdReserva()));
+        assertEquals(0, inscricaoService.contarLugaresOcupados(evento.getIdEvento()));
+    }
+
+    // Duração fora de ]0, 1 hora], evento nulo ou inativo e reservas depois de encerrar são rejeitados
+    @ParameterizedTest
+    @EnumSource(ModoArmazenamento.class)
+    void pedidosInvalidosRejeitados(ModoArmazenamento modo) throws InterruptedException {
+        iniciar(modo);
+        Event evento = criarEvento(10);
+        Event inativo = criarEvento(10);
+        eventService.inativarEvento(inativo.getIdEvento(), inscricaoService).aguardar();
+
+        assertThrows(IllegalArgumentException.class, () -> inscricaoService.reservarLugar(evento, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> inscricaoService.reservarLugar(evento, Duration.ofMillis(-1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> inscricaoService.reservarLugar(evento, Duration.ofHours(1).plusMillis(1)));
+        assertThrows(IllegalArgumentException.class, () -> inscricaoService.reservarLugar(evento, null));
+        assertThrows(IllegalArgumentException.class, () -> inscricaoService.reservarLugar(null, Duration.ofMinutes(1)));
+        assertThrows(IllegalArgumentException.class, () -> inscricaoService.reservarLugar(inativo, Duration.ofMinutes(1)));
+        inscricaoService.reservarLugar(evento, Duration.ofHours(1));
+
+        inscricaoService.encerrarReservas();
+        assertThrows(IllegalStateException.class, () -> inscricaoService.reservarLugar(evento, Duration.ofMinutes(1)));
+        assertEquals(0, inscricaoService.contarLugaresOcupados(inativo.getIdEvento()));
+    }
+
+    // Espera (no máximo 5 s) que a condição se verifique
+    private static void esperarAte(BooleanSupplier condicao) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condicao.getAsBoolean()) {
+            assertTrue(System.nanoTime() < limite, "Condição não verificada em 5 s");
+            Thread.sleep(20);
+        }
+    }
+
+    private Inscricao inscrever(Event evento, String email) {
+        return inscricaoService.inscrever(evento, "Participante", email, null, TipoInscricao.NAO_ESTUDANTE, null, List.of());
+    }
+
+    // Evento futuro com inscrições abertas hoje e 'maxParticipantes' lugares
+    private Event criarEvento(int maxParticipantes) {
+        LocalDate hoje = LocalDate.now();
+        FaseInscricao fase = new FaseInscricao(TipoFase.EARLY, hoje.minusDays(1), hoje.plusDays(10), Map.of(
+                TipoInscricao.ESTUDANTE, new ConfiguracaoPreco(TipoInscricao.ESTUDANTE, 10f),
+                TipoInscricao.NAO_ESTUDANTE, new ConfiguracaoPreco(TipoInscricao.NAO_ESTUDANTE, 20f)));
+        return eventService.criarEvento("Workshop", "Evento para teste das reservas", "Aveiro",
+                hoje.plusDays(30), hoje.plusDays(31), LocalTime.of(9, 0), LocalTime.of(18, 0),
+                maxParticipantes, List.of(fase), List.of());
+    }
+}